@@ -33,6 +33,7 @@ public class JApiCmpTask extends Task {
 	private boolean ignoreMissingClasses = false;
 	private boolean includeExclusively = false;
 	private boolean excludeExclusively = false;
+	private int threads = 1;
 	private final List<String> ignoreMissingClassesByRegularExpressions = new ArrayList<>();
 	private String accessModifier = "protected";
 	private String semanticVersionProperty;
@@ -91,6 +92,14 @@ public class JApiCmpTask extends Task {
 		this.excludeExclusively = Project.toBoolean(excludeExclusively);
 	}
 
+	public void setThreads(String threads) {
+		try {
+			this.threads = Integer.parseInt(threads);
+		} catch (NumberFormatException e) {
+			throw new BuildException("Invalid number of threads: " + threads, e);
+		}
+	}
+
 	public void setAccessModifier(String accessModifier) {
 		this.accessModifier = accessModifier;
 	}
@@ -172,9 +181,10 @@ public class JApiCmpTask extends Task {
 			throw new BuildException("Path to new jar must be specified using the newjar attribute.");
 		}
 		Options options = createOptionsFromAntAttrs();
-		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(JarArchiveComparatorOptions.of(options));
-		List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
-		generateOutput(options, jApiClasses);
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(JarArchiveComparatorOptions.of(options))) {
+			List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
+			generateOutput(options, jApiClasses);
+		}
 	}
 
 	private Options createOptionsFromAntAttrs() {
@@ -198,6 +208,7 @@ public class JApiCmpTask extends Task {
 			options.addIgnoreMissingClassRegularExpression(missingClassRegEx);
 		}
 		options.setReportOnlyFilename(reportOnlyFilename);
+		options.setThreads(threads);
 		options.verify();
 		return options;
 	}
@@ -223,6 +234,7 @@ public class JApiCmpTask extends Task {
 		XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
 		xmlOutputGeneratorOptions.setCreateSchemaFile(true);
 		xmlOutputGeneratorOptions.setSemanticVersioningInformation(semverOut.generate());
+		xmlOutputGeneratorOptions.setStreamToFiles(true);
 		XmlOutputGenerator xmlGenerator = new XmlOutputGenerator(jApiClasses, options, xmlOutputGeneratorOptions);
 		try (XmlOutput xmlOutput = xmlGenerator.generate()) {
             XmlOutputGenerator.writeToFiles(options, xmlOutput);
@@ -0,0 +1,143 @@
+package japicmp.benchmarks;
+
+import japicmp.cmp.ClassesComparator;
+import japicmp.cmp.JApiCmpArchive;
+import japicmp.cmp.JarArchiveComparator;
+import japicmp.cmp.JarArchiveComparatorOptions;
+import japicmp.compat.CompatibilityChanges;
+import japicmp.config.Options;
+import japicmp.model.JApiClass;
+import japicmp.output.stdout.StdoutOutputGenerator;
+import japicmp.output.xml.XmlOutput;
+import japicmp.output.xml.XmlOutputGenerator;
+import japicmp.output.xml.XmlOutputGeneratorOptions;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages that run on an already built model: the evaluation of the compatibility changes and the
+ * generation of the stdout and XML output. The output generators leave the model in the same state, hence their
+ * model is only built once per trial. The evaluation changes the model, hence it is measured on a model that is
+ * built again without being evaluated before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ComparisonStagesBenchmark {
+	@Param({"1000", "10000"})
+	public int numberOfClasses;
+	private SyntheticArchives archives;
+	private List<JApiClass> jApiClasses;
+	private Options options;
+
+	@Setup
+	public void setup() throws Exception {
+		archives = SyntheticArchives.create(Files.createTempDirectory("japicmp-benchmarks"), numberOfClasses);
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions())) {
+			jApiClasses = jarArchiveComparator.compare(archives.getOldArchive(), archives.getNewArchive());
+		}
+		options = Options.newDefault();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		archives.delete();
+	}
+
+	/**
+	 * Holds the classes of the synthetic archives, loaded once per trial into the two class pools of a
+	 * JarArchiveComparator, and a model of them that has not been evaluated yet.
+	 */
+	@State(Scope.Thread)
+	public static class UnevaluatedModel {
+		private JarArchiveComparator jarArchiveComparator;
+		private List<CtClass> oldClasses;
+		private List<CtClass> newClasses;
+		private List<JApiClass> jApiClasses;
+
+		@Setup
+		public void setup(ComparisonStagesBenchmark benchmark) throws Exception {
+			JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+			options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+			jarArchiveComparator = new JarArchiveComparator(options);
+			oldClasses = loadClasses(benchmark.archives.getOldArchive(), jarArchiveComparator.getOldClassPool());
+			newClasses = loadClasses(benchmark.archives.getNewArchive(), jarArchiveComparator.getNewClassPool());
+		}
+
+		@Setup(Level.Invocation)
+		public void buildModel() {
+			jarArchiveComparator.getSuperclassCache().clear();
+			ClassesComparator classesComparator = new ClassesComparator(jarArchiveComparator, jarArchiveComparator.getJarArchiveComparatorOptions());
+			classesComparator.compare(oldClasses, newClasses);
+			jApiClasses = classesComparator.getClasses();
+		}
+
+		@TearDown
+		public void tearDown() {
+			jarArchiveComparator.close();
+		}
+
+		private static List<CtClass> loadClasses(JApiCmpArchive archive, ClassPool classPool) throws IOException {
+			List<CtClass> ctClasses = new ArrayList<>();
+			try (JarFile jarFile = new JarFile(archive.getFile())) {
+				Enumeration<JarEntry> entries = jarFile.entries();
+				while (entries.hasMoreElements()) {
+					JarEntry jarEntry = entries.nextElement();
+					if (jarEntry.getName().endsWith(".class")) {
+						try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+							ctClasses.add(classPool.makeClass(inputStream));
+						}
+					}
+				}
+			}
+			return ctClasses;
+		}
+	}
+
+	@Benchmark
+	public List<JApiClass> evaluateCompatibilityChanges(UnevaluatedModel model) {
+		CompatibilityChanges compatibilityChanges = new CompatibilityChanges(model.jarArchiveComparator);
+		compatibilityChanges.evaluate(model.jApiClasses);
+		return model.jApiClasses;
+	}
+
+	@Benchmark
+	public String generateStdoutOutput() {
+		StdoutOutputGenerator stdoutOutputGenerator = new StdoutOutputGenerator(options, jApiClasses);
+		return stdoutOutputGenerator.generate();
+	}
+
+	@Benchmark
+	public XmlOutput generateXmlOutput() throws Exception {
+		XmlOutputGenerator xmlOutputGenerator = new XmlOutputGenerator(jApiClasses, options, new XmlOutputGeneratorOptions());
+		try (XmlOutput xmlOutput = xmlOutputGenerator.generate()) {
+			return xmlOutput;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package japicmp.benchmarks;
+
+import japicmp.util.MethodDescriptorParser;
+import japicmp.util.SignatureParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of method descriptors as done for every method and constructor of both versions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DescriptorParserBenchmark {
+	private static final String[] DESCRIPTORS = new String[]{
+		"()V",
+		"(I)V",
+		"(Ljava/lang/String;)Ljava/lang/String;",
+		"(IJZ[B)[Ljava/lang/Object;",
+		"(Ljava/util/List;Ljava/util/Map;[[I)Ljava/util/Set;",
+		"(Ljava/lang/String;ILjava/lang/Class;[Ljava/lang/reflect/Method;DF)Ljava/lang/reflect/Constructor;"
+	};
+
+	@Benchmark
+	public void parseMethodDescriptors(Blackhole blackhole) {
+		for (String descriptor : DESCRIPTORS) {
+			MethodDescriptorParser methodDescriptorParser = new MethodDescriptorParser();
+			methodDescriptorParser.parse(descriptor);
+			blackhole.consume(methodDescriptorParser.getParameters());
+			blackhole.consume(methodDescriptorParser.getReturnType());
+		}
+	}
+
+	@Benchmark
+	public void parseSignatures(Blackhole blackhole) {
+		for (String descriptor : DESCRIPTORS) {
+			SignatureParser signatureParser = new SignatureParser();
+			signatureParser.parse(descriptor);
+			blackhole.consume(signatureParser.getParameters());
+			blackhole.consume(signatureParser.getReturnType());
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package japicmp.benchmarks;
+
+import japicmp.cmp.JarArchiveComparator;
+import japicmp.cmp.JarArchiveComparatorOptions;
+import japicmp.model.JApiClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete comparison of two synthetic jar files, i.e. loading the classes, building the model,
+ * evaluating the compatibility changes and sorting the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JarArchiveComparatorBenchmark {
+	@Param({"1000", "10000", "50000"})
+	public int numberOfClasses;
+	private SyntheticArchives archives;
+
+	@Setup
+	public void setup() throws Exception {
+		archives = SyntheticArchives.create(Files.createTempDirectory("japicmp-benchmarks"), numberOfClasses);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		archives.delete();
+	}
+
+	@Benchmark
+	public List<JApiClass> compare() {
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions())) {
+			return jarArchiveComparator.compare(archives.getOldArchive(), archives.getNewArchive());
+		}
+	}
+}
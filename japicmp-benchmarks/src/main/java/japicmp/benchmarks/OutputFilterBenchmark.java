@@ -0,0 +1,70 @@
+package japicmp.benchmarks;
+
+import japicmp.cmp.JarArchiveComparator;
+import japicmp.cmp.JarArchiveComparatorOptions;
+import japicmp.config.Options;
+import japicmp.model.JApiClass;
+import japicmp.output.OutputFilter;
+import japicmp.util.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link japicmp.output.OutputFilter#filter(java.util.List)}. As the filter removes elements from the
+ * model, every measurement works on a freshly built model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class OutputFilterBenchmark {
+	@Param({"1000", "10000"})
+	public int numberOfClasses;
+	private SyntheticArchives archives;
+	private List<JApiClass> jApiClasses;
+	private Options options;
+
+	@Setup
+	public void setup() throws Exception {
+		archives = SyntheticArchives.create(Files.createTempDirectory("japicmp-benchmarks"), numberOfClasses);
+		options = Options.newDefault();
+		options.setOutputOnlyModifications(true);
+		options.setAccessModifier(Optional.of(japicmp.model.AccessModifier.PUBLIC));
+	}
+
+	@Setup(Level.Iteration)
+	public void compare() {
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions())) {
+			jApiClasses = jarArchiveComparator.compare(archives.getOldArchive(), archives.getNewArchive());
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		archives.delete();
+	}
+
+	@Benchmark
+	public List<JApiClass> filter() {
+		OutputFilter outputFilter = new OutputFilter(options);
+		outputFilter.filter(jApiClasses);
+		return jApiClasses;
+	}
+}
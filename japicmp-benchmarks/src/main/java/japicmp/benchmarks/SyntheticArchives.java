@@ -0,0 +1,103 @@
+package japicmp.benchmarks;
+
+import japicmp.cmp.JApiCmpArchive;
+import japicmp.util.CtClassBuilder;
+import japicmp.util.CtFieldBuilder;
+import japicmp.util.CtMethodBuilder;
+import japicmp.util.JarUtil;
+import javassist.ClassPool;
+import javassist.CtClass;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates an old and a new version of a jar file with the given number of classes. The classes are spread over
+ * packages with one common superclass each. In the new version a part of the classes has been removed or added and
+ * some of the remaining classes have changed methods and fields, so that the comparison reports a realistic mix
+ * of unchanged, modified, new and removed elements.
+ */
+public class SyntheticArchives {
+	private static final int CLASSES_PER_PACKAGE = 100;
+	private static final int METHODS_PER_CLASS = 5;
+	private static final int FIELDS_PER_CLASS = 3;
+	private final Path directory;
+	private final JApiCmpArchive oldArchive;
+	private final JApiCmpArchive newArchive;
+
+	private SyntheticArchives(Path directory, JApiCmpArchive oldArchive, JApiCmpArchive newArchive) {
+		this.directory = directory;
+		this.oldArchive = oldArchive;
+		this.newArchive = newArchive;
+	}
+
+	public static SyntheticArchives create(Path directory, int numberOfClasses) throws Exception {
+		Files.createDirectories(directory);
+		Path oldPath = directory.resolve("synthetic-" + numberOfClasses + "-v1.jar");
+		Path newPath = directory.resolve("synthetic-" + numberOfClasses + "-v2.jar");
+		JarUtil.createJarFileWithPackagePaths(oldPath, createClasses(numberOfClasses, false));
+		JarUtil.createJarFileWithPackagePaths(newPath, createClasses(numberOfClasses, true));
+		return new SyntheticArchives(directory, new JApiCmpArchive(oldPath.toFile(), "1.0.0"), new JApiCmpArchive(newPath.toFile(), "2.0.0"));
+	}
+
+	private static CtClass[] createClasses(int numberOfClasses, boolean newVersion) throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		List<CtClass> ctClasses = new ArrayList<>(numberOfClasses + numberOfClasses / CLASSES_PER_PACKAGE);
+		CtClass superclass = null;
+		for (int i = 0; i < numberOfClasses; i++) {
+			String packageName = "japicmp.synthetic.p" + (i / CLASSES_PER_PACKAGE);
+			if (i % CLASSES_PER_PACKAGE == 0) {
+				superclass = CtClassBuilder.create().name(packageName + ".Base").addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().name("baseMethod").addToClass(superclass);
+				ctClasses.add(superclass);
+			}
+			if (i % 50 == 49 && newVersion) {
+				continue;
+			}
+			String className = packageName + ".Class" + i;
+			if (i % 50 == 48 && newVersion) {
+				className = packageName + ".NewClass" + i;
+			}
+			CtClass ctClass = CtClassBuilder.create().name(className).withSuperclass(superclass).addToClassPool(classPool);
+			boolean modified = newVersion && i % 10 == 0;
+			for (int m = 0; m < METHODS_PER_CLASS; m++) {
+				if (modified && m == 0) {
+					continue;
+				}
+				CtMethodBuilder.create().publicAccess().name("method" + m).parameter(CtClass.intType).addToClass(ctClass);
+			}
+			if (modified) {
+				CtMethodBuilder.create().publicAccess().name("addedMethod").addToClass(ctClass);
+			}
+			for (int f = 0; f < FIELDS_PER_CLASS; f++) {
+				CtFieldBuilder fieldBuilder = CtFieldBuilder.create().name("field" + f);
+				if (modified && f == 0) {
+					fieldBuilder.type(CtClass.longType);
+				}
+				fieldBuilder.addToClass(ctClass);
+			}
+			ctClasses.add(ctClass);
+		}
+		return ctClasses.toArray(new CtClass[ctClasses.size()]);
+	}
+
+	public JApiCmpArchive getOldArchive() {
+		return oldArchive;
+	}
+
+	public JApiCmpArchive getNewArchive() {
+		return newArchive;
+	}
+
+	/**
+	 * Deletes the two jar files and their directory.
+	 */
+	public void delete() throws IOException {
+		Files.deleteIfExists(oldArchive.getFile().toPath());
+		Files.deleteIfExists(newArchive.getFile().toPath());
+		Files.deleteIfExists(directory);
+	}
+}
@@ -0,0 +1,77 @@
+package japicmp.cmp;
+
+import com.google.common.base.Optional;
+import com.google.common.io.ByteStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Measures how long the {@link ClassFileReader}s take to turn the class files of a real jar file (the guava jar on
+ * the classpath) into javassist class files. The class files are read into memory once, so only the parsing is
+ * measured. This benchmark is part of the package of the readers, as they are not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ClassFileReaderBenchmark {
+	private final List<byte[]> classFiles = new ArrayList<>();
+
+	@Setup
+	public void setup() throws Exception {
+		File jar = new File(Optional.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		try (JarFile jarFile = new JarFile(jar)) {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry jarEntry = entries.nextElement();
+				if (jarEntry.getName().endsWith(".class")) {
+					try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+						classFiles.add(ByteStreams.toByteArray(inputStream));
+					}
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void javassist(Blackhole blackhole) throws IOException {
+		read(new JavassistClassFileReader(), blackhole);
+	}
+
+	@Benchmark
+	public void asm(Blackhole blackhole) throws IOException {
+		read(new AsmClassFileReader(false), blackhole);
+	}
+
+	@Benchmark
+	public void asmWithLineNumbers(Blackhole blackhole) throws IOException {
+		read(new AsmClassFileReader(true), blackhole);
+	}
+
+	private void read(ClassFileReader classFileReader, Blackhole blackhole) throws IOException {
+		for (byte[] classFile : classFiles) {
+			blackhole.consume(classFileReader.read(classFile));
+		}
+	}
+}
@@ -2,6 +2,7 @@ package japicmp.maven;
 
 import com.google.common.base.Joiner;
 import japicmp.cli.JApiCli;
+import japicmp.cmp.ComparisonMetrics;
 import japicmp.cmp.JApiCmpArchive;
 import japicmp.cmp.JarArchiveComparator;
 import japicmp.cmp.JarArchiveComparatorOptions;
@@ -136,22 +137,26 @@ public class JApiCmpMojo extends AbstractMojo {
 		Options options = getOptions(pluginParameters, mavenParameters);
 		JarArchiveComparatorOptions comparatorOptions = JarArchiveComparatorOptions.of(options);
 		setUpClassPath(comparatorOptions, pluginParameters, mavenParameters);
-		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(comparatorOptions);
 		if (options.getNewArchives().isEmpty()) {
 			getLog().warn("Skipping execution because no new version could be resolved/found.");
 			return Optional.absent();
 		}
-		List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
-		try {
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(comparatorOptions)) {
+			List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
 			jApiClasses = applyPostAnalysisScript(pluginParameters.getParameterParam(), jApiClasses);
 			File jApiCmpBuildDir = createJapiCmpBaseDir(pluginParameters);
-			generateDiffOutput(mavenParameters, pluginParameters, options, jApiClasses, jApiCmpBuildDir);
-			XmlOutput xmlOutput = generateXmlOutput(jApiClasses, jApiCmpBuildDir, options, mavenParameters, pluginParameters);
+			ComparisonMetrics metrics = jarArchiveComparator.getMetrics();
+			generateDiffOutput(mavenParameters, pluginParameters, options, jApiClasses, jApiCmpBuildDir, metrics);
+			XmlOutput xmlOutput = generateXmlOutput(jApiClasses, jApiCmpBuildDir, options, mavenParameters, pluginParameters, metrics);
 			if (pluginParameters.isWriteToFiles()) {
 				List<File> filesWritten = XmlOutputGenerator.writeToFiles(options, xmlOutput);
 				for (File file : filesWritten) {
 					getLog().info("Written file '" + file.getAbsolutePath() + "'.");
 				}
+				if (pluginParameters.getParameterParam() != null && pluginParameters.getParameterParam().isMetrics()) {
+					File metricsFile = new File(jApiCmpBuildDir.getCanonicalPath() + File.separator + createFilename(mavenParameters) + "-metrics.json");
+					writeToFile(metrics.toJson(), metricsFile);
+				}
 			}
 			breakBuildIfNecessary(jApiClasses, pluginParameters.getParameterParam(), options, jarArchiveComparator);
 			return Optional.of(xmlOutput);
@@ -564,7 +569,14 @@ public class JApiCmpMojo extends AbstractMojo {
 			private boolean breakBuildIfCausedByExclusion(JApiImplementedInterface jApiImplementedInterface) {
 				if (!breakBuildIfCausedByExclusion) {
 					CtClass ctClass = jApiImplementedInterface.getCtClass();
-					if (classExcluded(ctClass)) {
+					if (ctClass == null) {
+						Optional<CtClass> ctClassOptional = loadClass(JarArchiveComparator.ArchiveType.NEW, jApiImplementedInterface.getFullyQualifiedName());
+						if (!ctClassOptional.isPresent()) {
+							ctClassOptional = loadClass(JarArchiveComparator.ArchiveType.OLD, jApiImplementedInterface.getFullyQualifiedName());
+						}
+						ctClass = ctClassOptional.isPresent() ? ctClassOptional.get() : null;
+					}
+					if (ctClass != null && classExcluded(ctClass)) {
 						return false;
 					}
 				}
@@ -650,6 +662,9 @@ public class JApiCmpMojo extends AbstractMojo {
 			private boolean breakBuildIfCausedByExclusion(JApiSuperclass jApiSuperclass) {
 				if (!breakBuildIfCausedByExclusion) {
 					Optional<CtClass> oldSuperclassOptional = jApiSuperclass.getOldSuperclass();
+					if (!oldSuperclassOptional.isPresent() && jApiSuperclass.getOldSuperclassName().isPresent()) {
+						oldSuperclassOptional = loadClass(JarArchiveComparator.ArchiveType.OLD, jApiSuperclass.getOldSuperclassName().get());
+					}
 					if (oldSuperclassOptional.isPresent()) {
 						CtClass ctClass = oldSuperclassOptional.get();
 						if (classExcluded(ctClass)) {
@@ -657,6 +672,9 @@ public class JApiCmpMojo extends AbstractMojo {
 						}
 					}
 					Optional<CtClass> newSuperclassOptional = jApiSuperclass.getNewSuperclass();
+					if (!newSuperclassOptional.isPresent() && jApiSuperclass.getNewSuperclassName().isPresent()) {
+						newSuperclassOptional = loadClass(JarArchiveComparator.ArchiveType.NEW, jApiSuperclass.getNewSuperclassName().get());
+					}
 					if (newSuperclassOptional.isPresent()) {
 						CtClass ctClass = newSuperclassOptional.get();
 						if (classExcluded(ctClass)) {
@@ -667,6 +685,15 @@ public class JApiCmpMojo extends AbstractMojo {
 				return true;
 			}
 
+			private Optional<CtClass> loadClass(JarArchiveComparator.ArchiveType archiveType, String name) {
+				try {
+					return jarArchiveComparator.loadClass(archiveType, name);
+				} catch (Exception e) {
+					getLog().warn("Failed to load class " + name + ": " + e.getMessage(), e);
+				}
+				return Optional.absent();
+			}
+
 			private boolean classExcluded(CtClass ctClass) {
 				List<japicmp.filter.Filter> excludes = options.getExcludes();
 				for (japicmp.filter.Filter exclude : excludes) {
@@ -761,6 +788,24 @@ public class JApiCmpMojo extends AbstractMojo {
 				options.setNoAnnotations(noAnnotations);
 			}
 			options.setReportOnlyFilename(parameterParam.isReportOnlyFilename());
+			int threads = parameterParam.getThreads();
+			if (threads < 1) {
+				throw new MojoFailureException(String.format("Invalid value for option threads: %d. The number of threads must be greater than zero.", threads));
+			}
+			options.setThreads(threads);
+			String cacheDirectory = parameterParam.getCacheDirectory();
+			if (cacheDirectory != null) {
+				options.setCacheDirectory(Optional.of(cacheDirectory));
+			}
+			options.setDetachResult(parameterParam.isDetachResult());
+			String bytecodeReader = parameterParam.getBytecodeReader();
+			if (bytecodeReader != null) {
+				try {
+					options.setBytecodeReader(JarArchiveComparatorOptions.BytecodeReader.valueOf(bytecodeReader.toUpperCase()));
+				} catch (IllegalArgumentException e) {
+					throw new MojoFailureException(String.format("Invalid value for option bytecodeReader: %s. Possible values are: javassist, asm.", bytecodeReader));
+				}
+			}
 		}
 		return options;
 	}
@@ -833,20 +878,21 @@ public class JApiCmpMojo extends AbstractMojo {
 		}
 	}
 
-	private void generateDiffOutput(MavenParameters mavenParameters, PluginParameters pluginParameters, Options options, List<JApiClass> jApiClasses, File jApiCmpBuildDir) throws IOException, MojoFailureException {
+	private void generateDiffOutput(MavenParameters mavenParameters, PluginParameters pluginParameters, Options options, List<JApiClass> jApiClasses, File jApiCmpBuildDir, ComparisonMetrics metrics) throws IOException, MojoFailureException {
 		boolean skipDiffReport = false;
 		if (pluginParameters.getParameterParam() != null) {
 			skipDiffReport = pluginParameters.getParameterParam().isSkipDiffReport();
 		}
 		if (!skipDiffReport) {
 			StdoutOutputGenerator stdoutOutputGenerator = new StdoutOutputGenerator(options, jApiClasses);
+			stdoutOutputGenerator.setMetrics(metrics);
 			String diffOutput = stdoutOutputGenerator.generate();
 			File output = new File(jApiCmpBuildDir.getCanonicalPath() + File.separator + createFilename(mavenParameters) + ".diff");
 			writeToFile(diffOutput, output);
 		}
 	}
 
-	private XmlOutput generateXmlOutput(List<JApiClass> jApiClasses, File jApiCmpBuildDir, Options options, MavenParameters mavenParameters, PluginParameters pluginParameters) throws IOException {
+	private XmlOutput generateXmlOutput(List<JApiClass> jApiClasses, File jApiCmpBuildDir, Options options, MavenParameters mavenParameters, PluginParameters pluginParameters, ComparisonMetrics metrics) throws IOException {
 		String filename = createFilename(mavenParameters);
 		if (!skipXmlReport(pluginParameters)) {
 			options.setXmlOutputFile(Optional.of(jApiCmpBuildDir.getCanonicalPath() + File.separator + filename + ".xml"));
@@ -858,11 +904,13 @@ public class JApiCmpMojo extends AbstractMojo {
 		XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
 		xmlOutputGeneratorOptions.setCreateSchemaFile(true);
 		xmlOutputGeneratorOptions.setSemanticVersioningInformation(semverOut.generate());
+		xmlOutputGeneratorOptions.setStreamToFiles(pluginParameters.isWriteToFiles());
 		if (pluginParameters.getParameterParam() != null) {
 			String optionalTitle = pluginParameters.getParameterParam().getHtmlTitle();
 			xmlOutputGeneratorOptions.setTitle(optionalTitle!=null ?optionalTitle :options.getDifferenceDescription());
 		}
 		XmlOutputGenerator xmlGenerator = new XmlOutputGenerator(jApiClasses, options, xmlOutputGeneratorOptions);
+		xmlGenerator.setMetrics(metrics);
 		return xmlGenerator.generate();
 	}
 
@@ -56,6 +56,16 @@ public class Parameter {
 	private boolean includeExclusively;
 	@org.apache.maven.plugins.annotations.Parameter(required = false, defaultValue = "false")
 	private boolean excludeExclusively;
+	@org.apache.maven.plugins.annotations.Parameter(required = false, defaultValue = "1")
+	private int threads = 1;
+	@org.apache.maven.plugins.annotations.Parameter(required = false)
+	private String cacheDirectory;
+	@org.apache.maven.plugins.annotations.Parameter(required = false, defaultValue = "false")
+	private boolean metrics;
+	@org.apache.maven.plugins.annotations.Parameter(required = false, defaultValue = "false")
+	private boolean detachResult;
+	@org.apache.maven.plugins.annotations.Parameter(required = false)
+	private String bytecodeReader;
 
 	public String getNoAnnotations() {
 		return noAnnotations;
@@ -312,4 +322,44 @@ public class Parameter {
 	public void setExcludeExclusively(boolean excludeExclusively) {
 		this.excludeExclusively = excludeExclusively;
 	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	public boolean isMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(boolean metrics) {
+		this.metrics = metrics;
+	}
+
+	public boolean isDetachResult() {
+		return detachResult;
+	}
+
+	public void setDetachResult(boolean detachResult) {
+		this.detachResult = detachResult;
+	}
+
+	public String getBytecodeReader() {
+		return bytecodeReader;
+	}
+
+	public void setBytecodeReader(String bytecodeReader) {
+		this.bytecodeReader = bytecodeReader;
+	}
 }
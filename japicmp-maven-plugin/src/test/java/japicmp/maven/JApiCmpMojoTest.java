@@ -25,7 +25,9 @@ import org.junit.Test;
 import org.mockito.Matchers;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -68,6 +70,34 @@ public class JApiCmpMojoTest {
 		assertThat(Files.exists(Paths.get(System.getProperty("user.dir"), "target", "simple", "japicmp", "japicmp.html")), is(true));
 	}
 
+	@Test
+	public void testMetrics() throws Exception {
+		JApiCmpMojo mojo = new JApiCmpMojo();
+		Version oldVersion = createVersion("groupId", "artifactId", "0.1.0");
+		Version newVersion = createVersion("groupId", "artifactId", "0.1.1");
+		Parameter parameter = new Parameter();
+		parameter.setMetrics(true);
+		String reportDir = "metrics";
+		PluginParameters pluginParameters = new PluginParameters(null, newVersion, oldVersion, parameter, null, Optional.of(Paths.get(System.getProperty("user.dir"), "target", reportDir).toFile()), Optional.<String>absent(), true, null, null, null, null);
+		ArtifactResolver artifactResolver = mock(ArtifactResolver.class);
+		ArtifactResolutionResult artifactResolutionResult = mock(ArtifactResolutionResult.class);
+		Set<Artifact> artifactSet = new HashSet<>();
+		Artifact resolvedArtifact = mock(Artifact.class);
+		artifactSet.add(resolvedArtifact);
+		when(resolvedArtifact.getFile()).thenReturn(Paths.get(System.getProperty("user.dir"), "target", "guava-18.0.jar").toFile());
+		when(artifactResolutionResult.getArtifacts()).thenReturn(artifactSet);
+		when(artifactResolver.resolve(Matchers.<ArtifactResolutionRequest>anyObject())).thenReturn(artifactResolutionResult);
+		ArtifactFactory artifactFactory = mock(ArtifactFactory.class);
+		when(artifactFactory.createArtifactWithClassifier(eq("groupId"), eq("artifactId"), eq("0.1.1"), anyString(), anyString())).thenReturn(mock(Artifact.class));
+		MavenParameters mavenParameters = new MavenParameters(new ArrayList<ArtifactRepository>(), artifactFactory, mock(ArtifactRepository.class), artifactResolver, mock(MavenProject.class), mock(MojoExecution.class), "0.0.1", mock(ArtifactMetadataSource.class));
+		mojo.executeWithParameters(pluginParameters, mavenParameters);
+		Path metricsFile = Paths.get(System.getProperty("user.dir"), "target", reportDir, "japicmp", "japicmp-metrics.json");
+		assertThat(Files.exists(metricsFile), is(true));
+		String json = new String(Files.readAllBytes(metricsFile), Charset.forName("UTF-8"));
+		assertThat(json.contains("\"xmlMarshalling\": "), is(true));
+		assertThat(json.contains("\"bytesWritten\": "), is(true));
+	}
+
 	@Test
 	public void testNoXmlAndNoHtmlNoDiffReport() throws MojoFailureException {
 		JApiCmpMojo mojo = new JApiCmpMojo();
@@ -23,7 +23,9 @@ public class JApiCmp {
 			LOGGER.log(Level.FINE, CAUGHT_EXCEPTION + e.getLocalizedMessage(), e);
 			if (e.getReason() != JApiCmpException.Reason.NormalTermination) {
 				System.err.println("E: " + e.getMessage());
-				System.out.println(USE_HELP_OR_H_FOR_MORE_INFORMATION);
+				if (e.getReason() != JApiCmpException.Reason.IncompatibleChanges) {
+					System.out.println(USE_HELP_OR_H_FOR_MORE_INFORMATION);
+				}
 				System.exit(1);
 			}
 		} catch (Exception e) {
@@ -1,5 +1,6 @@
 package japicmp.cli;
 
+import japicmp.cmp.JarArchiveComparatorOptions;
 import japicmp.config.Options;
 import japicmp.exception.JApiCmpException;
 import japicmp.util.Optional;
@@ -13,6 +14,14 @@ public class CliParser {
 	public static final String IGNORE_MISSING_CLASSES_BY_REGEX = "--ignore-missing-classes-by-regex";
 	public static final String OLD_CLASSPATH = "--old-classpath";
 	public static final String NEW_CLASSPATH = "--new-classpath";
+	public static final String THREADS = "--threads";
+	public static final String CACHE_DIR = "--cache-dir";
+	public static final String METRICS = "--metrics";
+	public static final String ADDITIONAL_NEW = "--additional-new";
+	public static final String DETACH_RESULT = "--detach-result";
+	public static final String BYTECODE_READER = "--bytecode-reader";
+	public static final String ERROR_ON_BINARY_INCOMPATIBILITY = "--error-on-binary-incompatibility";
+	public static final String ERROR_ON_SOURCE_INCOMPATIBILITY = "--error-on-source-incompatibility";
 
 	public Options parse(String[] args) throws IllegalArgumentException {
 		Options options = Options.newDefault();
@@ -87,6 +96,34 @@ public class CliParser {
 				options.setNoAnnotations(true);
 			} else if ("--report-only-filename".equals(arg)) {
 				options.setReportOnlyFilename(true);
+			} else if (THREADS.equals(arg)) {
+				String threads = getOptionWithArgument(THREADS, sae);
+				try {
+					options.setThreads(Integer.parseInt(threads));
+				} catch (NumberFormatException e) {
+					throw JApiCmpException.cliError("Invalid number of threads for option '%s': %s", THREADS, threads);
+				}
+			} else if (CACHE_DIR.equals(arg)) {
+				String cacheDirectory = getOptionWithArgument(CACHE_DIR, sae);
+				options.setCacheDirectory(Optional.fromNullable(cacheDirectory));
+			} else if (METRICS.equals(arg)) {
+				options.setMetrics(true);
+			} else if (ADDITIONAL_NEW.equals(arg)) {
+				String additionalNewArchive = getOptionWithArgument(ADDITIONAL_NEW, sae);
+				options.getAdditionalNewArchives().add(createFileList(additionalNewArchive));
+			} else if (DETACH_RESULT.equals(arg)) {
+				options.setDetachResult(true);
+			} else if (BYTECODE_READER.equals(arg)) {
+				String bytecodeReader = getOptionWithArgument(BYTECODE_READER, sae);
+				try {
+					options.setBytecodeReader(JarArchiveComparatorOptions.BytecodeReader.valueOf(bytecodeReader.toUpperCase()));
+				} catch (IllegalArgumentException e) {
+					throw JApiCmpException.cliError("Invalid value for option '%s': %s. Possible values are: javassist, asm.", BYTECODE_READER, bytecodeReader);
+				}
+			} else if (ERROR_ON_BINARY_INCOMPATIBILITY.equals(arg)) {
+				options.setErrorOnBinaryIncompatibility(true);
+			} else if (ERROR_ON_SOURCE_INCOMPATIBILITY.equals(arg)) {
+				options.setErrorOnSourceIncompatibility(true);
 			} else {
 				throw new JApiCmpException(JApiCmpException.Reason.CliError, "Unknown argument: " + arg);
 			}
@@ -97,18 +134,24 @@ public class CliParser {
 
 	public static void printHelp() {
 		System.out.println("SYNOPSIS\n" +
-			"        java -jar japicmp.jar [-a <accessModifier>] [(-b | --only-incompatible)]\n" +
-			"                [(-e <excludes> | --exclude <excludes>)] [--exclude-exclusively]\n" +
+			"        java -jar japicmp.jar [-a <accessModifier>]\n" +
+			"                [--additional-new <pathToNewVersionJar>...]\n" +
+			"                [(-b | --only-incompatible)] [--bytecode-reader <bytecodeReader>]\n" +
+			"                [--cache-dir <cacheDirectory>] [--detach-result]\n" +
+			"                [(-e <excludes> | --exclude <excludes>)]\n" +
+			"                [--error-on-binary-incompatibility]\n" +
+			"                [--error-on-source-incompatibility] [--exclude-exclusively]\n" +
 			"                [(-h | --help)] [--html-file <pathToHtmlOutputFile>]\n" +
 			"                [--html-stylesheet <pathToHtmlStylesheet>]\n" +
 			"                [(-i <includes> | --include <includes>)] [--ignore-missing-classes]\n" +
 			"                [--ignore-missing-classes-by-regex <ignoreMissingClassesByRegEx>...]\n" +
 			"                [--include-exclusively] [--include-synthetic] [(-m | --only-modified)]\n" +
+			"                [--metrics]\n" +
 			"                [(-n <pathToNewVersionJar> | --new <pathToNewVersionJar>)]\n" +
 			"                [--new-classpath <newClassPath>] [--no-annotations]\n" +
 			"                [(-o <pathToOldVersionJar> | --old <pathToOldVersionJar>)]\n" +
 			"                [--old-classpath <oldClassPath>] [--report-only-filename]\n" +
-			"                [(-s | --semantic-versioning)]\n" +
+			"                [(-s | --semantic-versioning)] [--threads <threads>]\n" +
 			"                [(-x <pathToXmlOutputFile> | --xml-file <pathToXmlOutputFile>)]\n" +
 			"\n" +
 			"OPTIONS\n" +
@@ -116,16 +159,49 @@ public class CliParser {
 			"            Sets the access modifier level (public, package, protected,\n" +
 			"            private), which should be used.\n" +
 			"\n" +
+			"        --additional-new <pathToNewVersionJar>\n" +
+			"            Provides the path to a further new version of the jar(s) that is\n" +
+			"            compared with the old version in the same run. Can be given\n" +
+			"            several times. The old version is only loaded once. The xml and\n" +
+			"            html files of the n-th additional version get the suffix -<n+1>.\n" +
+			"\n" +
 			"        -b, --only-incompatible\n" +
 			"            Outputs only classes/methods that are binary incompatible. If not\n" +
 			"            given, all classes and methods are printed.\n" +
 			"\n" +
+			"        --bytecode-reader <bytecodeReader>\n" +
+			"            Library used to read the class files (javassist, asm). asm skips\n" +
+			"            the method bodies, which is faster and lowers the memory\n" +
+			"            footprint.\n" +
+			"            Class files asm cannot read are parsed by javassist. Default is\n" +
+			"            javassist.\n" +
+			"\n" +
+			"        --cache-dir <cacheDirectory>\n" +
+			"            Directory used to store compact snapshots of the old version(s),\n" +
+			"            which are reused as long as the content of the jar file does not\n" +
+			"            change.\n" +
+			"\n" +
+			"        --detach-result\n" +
+			"            Releases the parsed class files once the comparison is done, so\n" +
+			"            that less memory is retained while the reports are written.\n" +
+			"\n" +
 			"        -e <excludes>, --exclude <excludes>\n" +
 			"            Semicolon separated list of elements to exclude in the form\n" +
 			"            package.Class#classMember, * can be used as wildcard. Annotations\n" +
 			"            are given as FQN starting with @. Examples:\n" +
 			"            mypackage;my.Class;other.Class#method(int,long);foo.Class#field;@my.Annotation.\n" +
 			"\n" +
+			"        --error-on-binary-incompatibility\n" +
+			"            Only checks if the new version contains a binary incompatible\n" +
+			"            change and exits with an error at the first one found. The classes\n" +
+			"            are evaluated one by one, removed and changed classes first, and no\n" +
+			"            report is generated. Cannot be combined with --additional-new, -x,\n" +
+			"            --html-file or -s.\n" +
+			"\n" +
+			"        --error-on-source-incompatibility\n" +
+			"            Like --error-on-binary-incompatibility, but for source\n" +
+			"            incompatible changes. Both options can be combined.\n" +
+			"\n" +
 			"        --exclude-exclusively\n" +
 			"            Exclude only packages specified in the \"exclude\" option, include\n" +
 			"            their sub-packages\n" +
@@ -163,6 +239,10 @@ public class CliParser {
 			"        -m, --only-modified\n" +
 			"            Outputs only modified classes/methods.\n" +
 			"\n" +
+			"        --metrics\n" +
+			"            Prints the duration of the phases of the comparison and further\n" +
+			"            metrics like the number of parsed classes.\n" +
+			"\n" +
 			"        -n <pathToNewVersionJar>, --new <pathToNewVersionJar>\n" +
 			"            Provides the path to the new version(s) of the jar(s). Use ; to\n" +
 			"            separate jar files.\n" +
@@ -186,6 +266,9 @@ public class CliParser {
 			"        -s, --semantic-versioning\n" +
 			"            Tells you which part of the version to increment.\n" +
 			"\n" +
+			"        --threads <threads>\n" +
+			"            Number of threads used to load and compare the classes (default: 1).\n" +
+			"\n" +
 			"        -x <pathToXmlOutputFile>, --xml-file <pathToXmlOutputFile>\n" +
 			"            Provides the path to the xml output file.");
 	}
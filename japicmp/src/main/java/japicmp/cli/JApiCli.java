@@ -1,5 +1,8 @@
 package japicmp.cli;
 
+import japicmp.cmp.ComparisonMetrics;
+import japicmp.cmp.CompatibilityVerdict;
+import japicmp.cmp.JApiCmpArchive;
 import japicmp.cmp.JarArchiveComparator;
 import japicmp.cmp.JarArchiveComparatorOptions;
 import japicmp.config.Options;
@@ -10,7 +13,10 @@ import japicmp.output.stdout.StdoutOutputGenerator;
 import japicmp.output.xml.XmlOutput;
 import japicmp.output.xml.XmlOutputGenerator;
 import japicmp.output.xml.XmlOutputGeneratorOptions;
+import japicmp.util.Optional;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 public class JApiCli {
@@ -26,12 +32,86 @@ public class JApiCli {
 			CliParser.printHelp();
 			return;
 		}
-		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(JarArchiveComparatorOptions.of(options));
-		List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
-		generateOutput(options, jApiClasses);
+		JarArchiveComparatorOptions comparatorOptions = JarArchiveComparatorOptions.of(options);
+		comparatorOptions.setReadLineNumbers(options.getXmlOutputFile().isPresent() || options.getHtmlOutputFile().isPresent());
+		// the semantic version (also part of the XML and HTML report) is computed from the unchanged classes as well
+		comparatorOptions.setOnlyModifications(options.isOutputOnlyModifications() && !options.isSemanticVersioning()
+			&& !options.getXmlOutputFile().isPresent() && !options.getHtmlOutputFile().isPresent());
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(comparatorOptions)) {
+			if (options.isErrorOnBinaryIncompatibility() || options.isErrorOnSourceIncompatibility()) {
+				checkCompatibility(options, jarArchiveComparator);
+			} else if (options.getAdditionalNewArchives().isEmpty()) {
+				List<JApiClass> jApiClasses = jarArchiveComparator.compare(options.getOldArchives(), options.getNewArchives());
+				generateOutput(options, jApiClasses, jarArchiveComparator.getMetrics());
+			} else {
+				compareWithNewVersions(options, jarArchiveComparator);
+			}
+			if (options.isMetrics()) {
+				System.out.println(jarArchiveComparator.getMetrics().toSummary());
+			}
+		}
+	}
+
+	private void checkCompatibility(Options options, JarArchiveComparator jarArchiveComparator) {
+		CompatibilityVerdict.ChangeFilter changeFilter;
+		String kind;
+		if (options.isErrorOnBinaryIncompatibility() && options.isErrorOnSourceIncompatibility()) {
+			changeFilter = CompatibilityVerdict.BINARY_OR_SOURCE_INCOMPATIBLE;
+			kind = "binary or source";
+		} else if (options.isErrorOnBinaryIncompatibility()) {
+			changeFilter = CompatibilityVerdict.BINARY_INCOMPATIBLE;
+			kind = "binary";
+		} else {
+			changeFilter = CompatibilityVerdict.SOURCE_INCOMPATIBLE;
+			kind = "source";
+		}
+		CompatibilityVerdict verdict = jarArchiveComparator.findIncompatibility(options.getOldArchives(), options.getNewArchives(), changeFilter);
+		if (!verdict.isCompatible()) {
+			if (options.isMetrics()) {
+				System.out.println(jarArchiveComparator.getMetrics().toSummary());
+			}
+			throw new JApiCmpException(JApiCmpException.Reason.IncompatibleChanges, String.format("Found %s incompatible change: %s", kind, verdict.getDescription()));
+		}
+		System.out.println(String.format("No %s incompatible changes found.", kind));
+	}
+
+	private void compareWithNewVersions(Options options, JarArchiveComparator jarArchiveComparator) {
+		List<List<JApiCmpArchive>> newVersions = new ArrayList<>();
+		newVersions.add(new ArrayList<>(options.getNewArchives()));
+		newVersions.addAll(options.getAdditionalNewArchives());
+		List<List<JApiClass>> results = jarArchiveComparator.compareWithNewVersions(options.getOldArchives(), newVersions);
+		List<JApiCmpArchive> newArchives = options.getNewArchives();
+		Optional<String> xmlOutputFile = options.getXmlOutputFile();
+		Optional<String> htmlOutputFile = options.getHtmlOutputFile();
+		try {
+			for (int i = 0; i < results.size(); i++) {
+				options.setNewArchives(newVersions.get(i));
+				if (i > 0) {
+					options.setXmlOutputFile(appendNumberToFileName(xmlOutputFile, i + 1));
+					options.setHtmlOutputFile(appendNumberToFileName(htmlOutputFile, i + 1));
+				}
+				generateOutput(options, results.get(i), jarArchiveComparator.getMetrics());
+			}
+		} finally {
+			options.setNewArchives(newArchives);
+			options.setXmlOutputFile(xmlOutputFile);
+			options.setHtmlOutputFile(htmlOutputFile);
+		}
+	}
+
+	static Optional<String> appendNumberToFileName(Optional<String> fileName, int number) {
+		if (!fileName.isPresent()) {
+			return fileName;
+		}
+		String path = fileName.get();
+		int extensionIndex = path.lastIndexOf('.');
+		if (extensionIndex <= path.lastIndexOf(File.separatorChar) + 1) {
+			return Optional.of(path + "-" + number);
+		}
+		return Optional.of(path.substring(0, extensionIndex) + "-" + number + path.substring(extensionIndex));
 	}
 
-	private void generateOutput(Options options, List<JApiClass> jApiClasses) {
+	private void generateOutput(Options options, List<JApiClass> jApiClasses, ComparisonMetrics metrics) {
 		if (options.isSemanticVersioning()) {
 			SemverOut semverOut = new SemverOut(options, jApiClasses);
 			String output = semverOut.generate();
@@ -43,7 +123,9 @@ public class JApiCli {
 			XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
 			xmlOutputGeneratorOptions.setCreateSchemaFile(true);
 			xmlOutputGeneratorOptions.setSemanticVersioningInformation(semverOut.generate());
+			xmlOutputGeneratorOptions.setStreamToFiles(true);
 			XmlOutputGenerator xmlGenerator = new XmlOutputGenerator(jApiClasses, options, xmlOutputGeneratorOptions);
+			xmlGenerator.setMetrics(metrics);
 			try (XmlOutput xmlOutput = xmlGenerator.generate()) {
 				XmlOutputGenerator.writeToFiles(options, xmlOutput);
 			} catch (Exception e) {
@@ -51,6 +133,7 @@ public class JApiCli {
 			}
 		}
 		StdoutOutputGenerator stdoutOutputGenerator = new StdoutOutputGenerator(options, jApiClasses);
+		stdoutOutputGenerator.setMetrics(metrics);
 		String output = stdoutOutputGenerator.generate();
 		System.out.println(output);
 	}
@@ -0,0 +1,138 @@
+package japicmp.cmp;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import japicmp.model.AccessModifier;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.AnnotationDefaultAttribute;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.DeprecatedAttribute;
+import javassist.bytecode.ExceptionsAttribute;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.InnerClassesAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.ParameterAnnotationsAttribute;
+import javassist.bytecode.SignatureAttribute;
+import javassist.bytecode.SyntheticAttribute;
+import javassist.bytecode.annotation.Annotation;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computes a hash over everything of a class file that ends up in the model of a class: the class file version, the
+ * access flags, the supertypes, generic signatures, annotations, exceptions and constant values of the class and its
+ * members. Method bodies are ignored, apart from the first line number of each method if line numbers are read. The
+ * members are sorted, hence reordering them does not change the fingerprint; the order of the interfaces is kept, as
+ * it determines the order in the model. Private methods and constructors are
+ * only taken into account if the access modifier of the options is private; all other methods and constructors, all
+ * fields and the static initializer are always included, as they contribute to the default serialVersionUID.
+ * Annotations are left out if they are neither compared nor used by a filter. Two classes with the same fingerprint
+ * therefore result in the same model, even if their bytes differ.
+ */
+final class ApiFingerprint {
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private ApiFingerprint() {
+
+	}
+
+	static String compute(ClassFile classFile, JarArchiveComparatorOptions options) {
+		boolean includeAnnotations = !options.isNoAnnotations() || options.getFilters().hasAnnotationFilter();
+		boolean includePrivateBehaviors = options.getAccessModifier() == AccessModifier.PRIVATE;
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putString(classFile.getName(), UTF_8);
+		hasher.putInt(classFile.getMajorVersion()).putInt(classFile.getMinorVersion()).putInt(classFile.getAccessFlags());
+		putString(hasher, classFile.getSuperclass());
+		for (String interfaceName : classFile.getInterfaces()) {
+			putString(hasher, interfaceName);
+		}
+		putString(hasher, describeAttributes(classFile.getAttributes(), includeAnnotations));
+		InnerClassesAttribute innerClassesAttribute = (InnerClassesAttribute) classFile.getAttribute(InnerClassesAttribute.tag);
+		if (innerClassesAttribute != null) {
+			for (int i = 0; i < innerClassesAttribute.tableLength(); i++) {
+				if (classFile.getName().equals(innerClassesAttribute.innerClass(i))) {
+					putString(hasher, innerClassesAttribute.outerClass(i));
+					putString(hasher, innerClassesAttribute.innerName(i));
+					hasher.putInt(innerClassesAttribute.accessFlags(i));
+				}
+			}
+		}
+		List<String> members = new ArrayList<>();
+		for (Object field : classFile.getFields()) {
+			members.add(describeField((FieldInfo) field, includeAnnotations));
+		}
+		for (Object method : classFile.getMethods()) {
+			MethodInfo methodInfo = (MethodInfo) method;
+			if (includePrivateBehaviors || !AccessFlag.isPrivate(methodInfo.getAccessFlags()) || MethodInfo.nameClinit.equals(methodInfo.getName())) {
+				members.add(describeMethod(methodInfo, includeAnnotations, options.isReadLineNumbers()));
+			}
+		}
+		Collections.sort(members);
+		for (String member : members) {
+			putString(hasher, member);
+		}
+		return hasher.hash().toString();
+	}
+
+	private static void putString(Hasher hasher, String value) {
+		hasher.putString(String.valueOf(value), UTF_8).putChar('\n');
+	}
+
+	private static String describeField(FieldInfo fieldInfo, boolean includeAnnotations) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("field ").append(fieldInfo.getName()).append(' ').append(fieldInfo.getDescriptor()).append(' ').append(fieldInfo.getAccessFlags());
+		int constantValue = fieldInfo.getConstantValue();
+		if (constantValue != 0) {
+			sb.append(" = ").append(fieldInfo.getConstPool().getLdcValue(constantValue));
+		}
+		sb.append(describeAttributes(fieldInfo.getAttributes(), includeAnnotations));
+		return sb.toString();
+	}
+
+	private static String describeMethod(MethodInfo methodInfo, boolean includeAnnotations, boolean includeLineNumber) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("method ").append(methodInfo.getName()).append(' ').append(methodInfo.getDescriptor()).append(' ').append(methodInfo.getAccessFlags());
+		ExceptionsAttribute exceptionsAttribute = methodInfo.getExceptionsAttribute();
+		if (exceptionsAttribute != null && exceptionsAttribute.getExceptions() != null) {
+			sb.append(" throws ").append(Arrays.toString(exceptionsAttribute.getExceptions()));
+		}
+		if (includeLineNumber) {
+			sb.append(" line ").append(methodInfo.getLineNumber(0));
+		}
+		sb.append(describeAttributes(methodInfo.getAttributes(), includeAnnotations));
+		return sb.toString();
+	}
+
+	private static String describeAttributes(List<?> attributes, boolean includeAnnotations) {
+		StringBuilder sb = new StringBuilder();
+		for (Object attribute : attributes) {
+			AttributeInfo attributeInfo = (AttributeInfo) attribute;
+			if (attributeInfo instanceof SyntheticAttribute || attributeInfo instanceof DeprecatedAttribute) {
+				sb.append(' ').append(attributeInfo.getName());
+			} else if (attributeInfo instanceof SignatureAttribute) {
+				sb.append(" signature ").append(((SignatureAttribute) attributeInfo).getSignature());
+			} else if (includeAnnotations) {
+				if (attributeInfo instanceof AnnotationsAttribute) {
+					sb.append(' ').append(attributeInfo.getName());
+					for (Annotation annotation : ((AnnotationsAttribute) attributeInfo).getAnnotations()) {
+						sb.append(' ').append(annotation);
+					}
+				} else if (attributeInfo instanceof ParameterAnnotationsAttribute) {
+					sb.append(' ').append(attributeInfo.getName());
+					for (Annotation[] annotations : ((ParameterAnnotationsAttribute) attributeInfo).getAnnotations()) {
+						sb.append(' ').append(Arrays.toString(annotations));
+					}
+				} else if (attributeInfo instanceof AnnotationDefaultAttribute) {
+					sb.append(" default ").append(((AnnotationDefaultAttribute) attributeInfo).getDefaultValue());
+				}
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,386 @@
+package japicmp.cmp;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import japicmp.exception.JApiCmpException;
+import japicmp.exception.JApiCmpException.Reason;
+import javassist.bytecode.AnnotationDefaultAttribute;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.BootstrapMethodsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.ConstantAttribute;
+import javassist.bytecode.DeprecatedAttribute;
+import javassist.bytecode.EnclosingMethodAttribute;
+import javassist.bytecode.ExceptionTable;
+import javassist.bytecode.ExceptionsAttribute;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.InnerClassesAttribute;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.MethodParametersAttribute;
+import javassist.bytecode.ParameterAnnotationsAttribute;
+import javassist.bytecode.SignatureAttribute;
+import javassist.bytecode.SourceFileAttribute;
+import javassist.bytecode.SyntheticAttribute;
+import javassist.bytecode.TypeAnnotationsAttribute;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores a compact snapshot of all class files of an archive in a cache directory. The snapshot is keyed by the
+ * SHA-256 hash of the archive's content and contains the class files without method bodies (only the line number
+ * table of each method is kept) and without the constant pool entries that were only referenced by the bytecode.
+ * This way an archive that is compared over and over again does not have to be decompressed and fully parsed
+ * every time: the snapshot file is memory mapped and its class files are handed to the {@link ClassFileLoader}
+ * together with the {@link ClassFileDigest} of the original class file. Class files with attributes that javassist
+ * cannot rewrite for a compacted constant pool are stored as they are.
+ */
+class ArchiveSnapshotCache {
+	private static final Logger LOGGER = Logger.getLogger(ArchiveSnapshotCache.class.getName());
+	private static final int MAGIC = 0x4A415043;
+	private static final int FORMAT_VERSION = 3;
+	private static final String FILE_EXTENSION = ".japicmp";
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	/**
+	 * The attributes of classes, fields and methods that javassist copies into a compacted constant pool or that
+	 * do not reference the constant pool. Other attributes (e.g. Module, NestHost, NestMembers or Record) would be
+	 * copied byte by byte and then refer to the wrong constant pool entries.
+	 */
+	private static final Set<String> COMPACTABLE_ATTRIBUTES = new HashSet<>(Arrays.asList(AnnotationDefaultAttribute.tag,
+		AnnotationsAttribute.visibleTag, AnnotationsAttribute.invisibleTag, BootstrapMethodsAttribute.tag, CodeAttribute.tag,
+		ConstantAttribute.tag, DeprecatedAttribute.tag, EnclosingMethodAttribute.tag, ExceptionsAttribute.tag, InnerClassesAttribute.tag,
+		MethodParametersAttribute.tag, ParameterAnnotationsAttribute.visibleTag, ParameterAnnotationsAttribute.invisibleTag,
+		SignatureAttribute.tag, SourceFileAttribute.tag, SyntheticAttribute.tag, TypeAnnotationsAttribute.visibleTag,
+		TypeAnnotationsAttribute.invisibleTag, "SourceDebugExtension"));
+	private final File cacheDirectory;
+
+	ArchiveSnapshotCache(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Returns the snapshot of the given archive. If no valid snapshot exists yet for the content of the archive, it
+	 * is created.
+	 *
+	 * @param archive the jar file
+	 * @return the snapshot with the compacted class files of the archive
+	 */
+	Snapshot load(File archive) {
+		File snapshotFile = getSnapshotFile(archive);
+		if (snapshotFile.isFile()) {
+			try {
+				Snapshot snapshot = readSnapshot(archive, snapshotFile);
+				if (LOGGER.isLoggable(Level.FINE)) {
+					LOGGER.fine("Loaded " + snapshot.getEntries().size() + " classes of jar file '" + archive.getAbsolutePath() + "' from snapshot '" + snapshotFile.getAbsolutePath() + "'.");
+				}
+				return snapshot;
+			} catch (IOException | RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Ignoring invalid snapshot '" + snapshotFile.getAbsolutePath() + "': " + e.getMessage(), e);
+			}
+		}
+		return createSnapshot(archive, snapshotFile);
+	}
+
+	/**
+	 * Creates the snapshot of the archive again if one of its class files could not be parsed (see
+	 * {@link Snapshot#invalidate()}).
+	 *
+	 * @param snapshot the snapshot that has been loaded
+	 */
+	void rebuildIfInvalid(Snapshot snapshot) {
+		if (snapshot.isInvalid()) {
+			LOGGER.warning("Rebuilding invalid snapshot '" + snapshot.snapshotFile.getAbsolutePath() + "' of jar file '" + snapshot.archive.getAbsolutePath() + "'.");
+			createSnapshot(snapshot.archive, snapshot.snapshotFile);
+		}
+	}
+
+	File getSnapshotFile(File archive) {
+		String hash;
+		try {
+			hash = com.google.common.io.Files.hash(archive, Hashing.sha256()).toString();
+		} catch (IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Failed to compute hash of jar file %s: %s", archive.getAbsolutePath(), e.getMessage()), e);
+		}
+		return new File(cacheDirectory, hash + FILE_EXTENSION);
+	}
+
+	private Snapshot createSnapshot(File archive, File snapshotFile) {
+		writeSnapshot(snapshotFile, readEntries(archive));
+		try {
+			return readSnapshot(archive, snapshotFile);
+		} catch (IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Failed to read snapshot %s: %s", snapshotFile.getAbsolutePath(), e.getMessage()), e);
+		}
+	}
+
+	private static List<Entry> readEntries(File archive) {
+		List<Entry> entries = new ArrayList<>();
+		try (JarFile jarFile = new JarFile(archive)) {
+			Enumeration<JarEntry> entryEnumeration = jarFile.entries();
+			while (entryEnumeration.hasMoreElements()) {
+				JarEntry jarEntry = entryEnumeration.nextElement();
+				String name = jarEntry.getName();
+				if (name.endsWith(".class")) {
+					try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+						byte[] bytes = ByteStreams.toByteArray(inputStream);
+						ClassFileDigest digest = ClassFileDigest.of(jarEntry.getCrc(), bytes);
+						ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+						byte[] compactedBytes = isCompactable(classFile) ? compact(classFile) : bytes;
+						entries.add(new Entry(name, classFile.getName(), digest, ByteBuffer.wrap(compactedBytes), 0, compactedBytes.length));
+					} catch (Exception e) {
+						throw new JApiCmpException(Reason.IoException, String.format("Failed to load file from jar '%s' as class file: %s.", name, e.getMessage()), e);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Processing of jar file %s failed: %s", archive.getAbsolutePath(), e.getMessage()), e);
+		}
+		return entries;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean isCompactable(ClassFile classFile) {
+		if (!hasCompactableAttributes(classFile.getAttributes())) {
+			return false;
+		}
+		for (FieldInfo fieldInfo : (List<FieldInfo>) classFile.getFields()) {
+			if (!hasCompactableAttributes(fieldInfo.getAttributes())) {
+				return false;
+			}
+		}
+		for (MethodInfo methodInfo : (List<MethodInfo>) classFile.getMethods()) {
+			if (!hasCompactableAttributes(methodInfo.getAttributes())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasCompactableAttributes(List<AttributeInfo> attributes) {
+		for (AttributeInfo attribute : attributes) {
+			if (!COMPACTABLE_ATTRIBUTES.contains(attribute.getName())) {
+				if (LOGGER.isLoggable(Level.FINE)) {
+					LOGGER.fine("Not compacting class file because of attribute '" + attribute.getName() + "'.");
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	static byte[] compact(ClassFile classFile) throws IOException {
+		for (MethodInfo methodInfo : (List<MethodInfo>) classFile.getMethods()) {
+			CodeAttribute codeAttribute = methodInfo.getCodeAttribute();
+			if (codeAttribute != null) {
+				CodeAttribute emptyCodeAttribute = new CodeAttribute(classFile.getConstPool(), 0, 0, new byte[0], new ExceptionTable(classFile.getConstPool()));
+				AttributeInfo lineNumberAttribute = codeAttribute.getAttribute(LineNumberAttribute.tag);
+				if (lineNumberAttribute != null) {
+					emptyCodeAttribute.getAttributes().add(lineNumberAttribute);
+				}
+				methodInfo.setCodeAttribute(emptyCodeAttribute);
+			}
+		}
+		classFile.removeAttribute("BootstrapMethods");
+		classFile.compact();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+			classFile.write(dataOutputStream);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static Snapshot readSnapshot(File archive, File snapshotFile) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel fileChannel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+			buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+		}
+		if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+			throw new IOException("Unknown snapshot format.");
+		}
+		int numberOfEntries = buffer.getInt();
+		Map<String, Entry> entries = new LinkedHashMap<>();
+		for (int i = 0; i < numberOfEntries; i++) {
+			String name = readString(buffer);
+			String className = readString(buffer);
+			ClassFileDigest digest = ClassFileDigest.readFrom(buffer);
+			int length = readLength(buffer);
+			entries.put(name, new Entry(name, className, digest, buffer, buffer.position(), length));
+			buffer.position(buffer.position() + length);
+		}
+		if (buffer.hasRemaining()) {
+			throw new IOException("Unexpected data at the end of the snapshot.");
+		}
+		return new Snapshot(archive, snapshotFile, entries);
+	}
+
+	private static String readString(ByteBuffer buffer) throws IOException {
+		byte[] bytes = new byte[readLength(buffer)];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static int readLength(ByteBuffer buffer) throws IOException {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IOException("Snapshot is truncated.");
+		}
+		return length;
+	}
+
+	private void writeSnapshot(File snapshotFile, List<Entry> entries) {
+		try {
+			if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+				throw new IOException("Could not create directory " + cacheDirectory.getAbsolutePath());
+			}
+			File tempFile = File.createTempFile("snapshot", ".tmp", cacheDirectory);
+			try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				outputStream.writeInt(MAGIC);
+				outputStream.writeInt(FORMAT_VERSION);
+				outputStream.writeInt(entries.size());
+				for (Entry entry : entries) {
+					writeString(outputStream, entry.getName());
+					writeString(outputStream, entry.getClassName());
+					entry.getDigest().writeTo(outputStream);
+					byte[] classFile = entry.getClassFile();
+					outputStream.writeInt(classFile.length);
+					outputStream.write(classFile);
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("Written snapshot '" + snapshotFile.getAbsolutePath() + "' with " + entries.size() + " classes.");
+			}
+		} catch (IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Failed to write snapshot %s: %s", snapshotFile.getAbsolutePath(), e.getMessage()), e);
+		}
+	}
+
+	private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		outputStream.writeInt(bytes.length);
+		outputStream.write(bytes);
+	}
+
+	/**
+	 * The class files of an archive as stored in its snapshot, keyed by the name of their jar entry and in the order
+	 * of the jar entries.
+	 */
+	static class Snapshot {
+		private final File archive;
+		private final File snapshotFile;
+		private final Map<String, Entry> entries;
+		private volatile boolean invalid = false;
+
+		private Snapshot(File archive, File snapshotFile, Map<String, Entry> entries) {
+			this.archive = archive;
+			this.snapshotFile = snapshotFile;
+			this.entries = entries;
+		}
+
+		File getArchive() {
+			return archive;
+		}
+
+		Collection<Entry> getEntries() {
+			return entries.values();
+		}
+
+		Entry getEntry(String name) {
+			return entries.get(name);
+		}
+
+		/**
+		 * Marks the snapshot as invalid, e.g. because one of its class files could not be parsed. The snapshot is
+		 * then created again by {@link ArchiveSnapshotCache#rebuildIfInvalid(Snapshot)}.
+		 */
+		void invalidate() {
+			invalid = true;
+		}
+
+		boolean isInvalid() {
+			return invalid;
+		}
+	}
+
+	/**
+	 * One class file of a snapshot. The {@link ClassFileDigest} is the one of the original class file in the archive,
+	 * hence it can be compared with the digest of a class file read from a jar file.
+	 */
+	static class Entry {
+		private final String name;
+		private final String className;
+		private final ClassFileDigest digest;
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final int length;
+
+		private Entry(String name, String className, ClassFileDigest digest, ByteBuffer buffer, int offset, int length) {
+			this.name = name;
+			this.className = className;
+			this.digest = digest;
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		String getClassName() {
+			return className;
+		}
+
+		ClassFileDigest getDigest() {
+			return digest;
+		}
+
+		/**
+		 * Copies the compacted class file out of the (memory mapped) snapshot.
+		 *
+		 * @return the bytes of the class file
+		 */
+		byte[] getClassFile() {
+			byte[] bytes = new byte[length];
+			ByteBuffer classFileBuffer = buffer.duplicate();
+			classFileBuffer.position(offset);
+			classFileBuffer.get(bytes);
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,595 @@
+package japicmp.cmp;
+
+import javassist.bytecode.AnnotationDefaultAttribute;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.ConstantAttribute;
+import javassist.bytecode.DeprecatedAttribute;
+import javassist.bytecode.EnclosingMethodAttribute;
+import javassist.bytecode.ExceptionTable;
+import javassist.bytecode.ExceptionsAttribute;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.InnerClassesAttribute;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import javassist.bytecode.ParameterAnnotationsAttribute;
+import javassist.bytecode.SignatureAttribute;
+import javassist.bytecode.SyntheticAttribute;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.AnnotationMemberValue;
+import javassist.bytecode.annotation.ArrayMemberValue;
+import javassist.bytecode.annotation.BooleanMemberValue;
+import javassist.bytecode.annotation.ByteMemberValue;
+import javassist.bytecode.annotation.CharMemberValue;
+import javassist.bytecode.annotation.ClassMemberValue;
+import javassist.bytecode.annotation.DoubleMemberValue;
+import javassist.bytecode.annotation.EnumMemberValue;
+import javassist.bytecode.annotation.FloatMemberValue;
+import javassist.bytecode.annotation.IntegerMemberValue;
+import javassist.bytecode.annotation.LongMemberValue;
+import javassist.bytecode.annotation.MemberValue;
+import javassist.bytecode.annotation.ShortMemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads class files with the ASM ClassReader and builds the javassist class file directly from the ASM events, so each
+ * class file is parsed only once. The class file has no method bodies and no stack map frames, and its constant pool
+ * only contains the entries referenced by what is kept, so javassist keeps far less in memory. Access flags,
+ * descriptors, generic signatures, annotations, annotation defaults, exceptions, constant values, inner class and
+ * enclosing method information and the class file version are kept. The code of the methods is never decoded: if line
+ * numbers are requested, the body of each method is replaced by a single instruction that carries the first line number
+ * of the method, taken directly from its LineNumberTable. Attributes japicmp does not evaluate (e.g. type annotations,
+ * method parameters, the source file or attributes unknown to ASM) are dropped. A class file that ASM cannot read, e.g.
+ * because its version is newer than the ones supported by ASM, and class files without a superclass are parsed by
+ * javassist.
+ */
+class AsmClassFileReader implements ClassFileReader {
+	private static final Logger LOGGER = Logger.getLogger(AsmClassFileReader.class.getName());
+	private static final int ASM_API = Opcodes.ASM9;
+	private static final LineNumberAttribute LINE_NUMBER_TEMPLATE = createLineNumberTemplate();
+	private final boolean readLineNumbers;
+
+	AsmClassFileReader(boolean readLineNumbers) {
+		this.readLineNumbers = readLineNumbers;
+	}
+
+	@Override
+	public ClassFile read(byte[] bytes) throws IOException {
+		ClassReader classReader;
+		try {
+			classReader = new ClassReader(bytes);
+		} catch (IllegalArgumentException e) {
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("ASM cannot read class file, falling back to javassist: " + e.getMessage());
+			}
+			return readWithJavassist(bytes);
+		}
+		if (classReader.getSuperName() == null) {
+			// java.lang.Object and module-info: javassist would add java.lang.Object as superclass
+			return readWithJavassist(bytes);
+		}
+		int[] firstLineNumbers = readLineNumbers ? readFirstLineNumbers(classReader) : null;
+		ClassFileBuilder classFileBuilder = new ClassFileBuilder(firstLineNumbers);
+		classReader.accept(classFileBuilder, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return classFileBuilder.classFile;
+	}
+
+	/**
+	 * Looks up the line number of the first instruction of each method in the LineNumberTable of its Code attribute,
+	 * the same way as {@link LineNumberAttribute#toLineNumber(int)} does. ASM would decode all instructions to report
+	 * the line numbers, hence the attributes of the methods are walked directly.
+	 *
+	 * @return the line number per method in the order of the class file, -1 if the method has none
+	 */
+	private static int[] readFirstLineNumbers(ClassReader classReader) {
+		char[] charBuffer = new char[classReader.getMaxStringLength()];
+		// access flags, this class and super class precede the interfaces
+		int offset = classReader.header + 6;
+		offset += 2 + 2 * classReader.readUnsignedShort(offset);
+		int fieldsCount = classReader.readUnsignedShort(offset);
+		offset += 2;
+		for (int i = 0; i < fieldsCount; i++) {
+			offset = skipAttributes(classReader, offset + 6);
+		}
+		int[] firstLineNumbers = new int[classReader.readUnsignedShort(offset)];
+		offset += 2;
+		for (int i = 0; i < firstLineNumbers.length; i++) {
+			firstLineNumbers[i] = -1;
+			int attributesCount = classReader.readUnsignedShort(offset + 6);
+			offset += 8;
+			for (int j = 0; j < attributesCount; j++) {
+				if (firstLineNumbers[i] < 0 && "Code".equals(classReader.readUTF8(offset, charBuffer))) {
+					firstLineNumbers[i] = readFirstLineNumber(classReader, offset + 6, charBuffer);
+				}
+				offset += 6 + classReader.readInt(offset + 2);
+			}
+		}
+		return firstLineNumbers;
+	}
+
+	private static int readFirstLineNumber(ClassReader classReader, int codeOffset, char[] charBuffer) {
+		// max stack and max locals precede the code, the exception table follows it
+		int offset = codeOffset + 8 + classReader.readInt(codeOffset + 4);
+		offset += 2 + 8 * classReader.readUnsignedShort(offset);
+		int attributesCount = classReader.readUnsignedShort(offset);
+		offset += 2;
+		for (int i = 0; i < attributesCount; i++) {
+			if (LineNumberAttribute.tag.equals(classReader.readUTF8(offset, charBuffer))) {
+				int tableLength = classReader.readUnsignedShort(offset + 6);
+				if (tableLength == 0) {
+					return -1;
+				}
+				// the entry before the first one that starts after the first instruction, or the first entry
+				int entry = 0;
+				while (entry < tableLength && classReader.readUnsignedShort(offset + 8 + 4 * entry) <= 0) {
+					entry++;
+				}
+				return classReader.readUnsignedShort(offset + 10 + 4 * Math.max(entry - 1, 0));
+			}
+			offset += 6 + classReader.readInt(offset + 2);
+		}
+		return -1;
+	}
+
+	private static int skipAttributes(ClassReader classReader, int offset) {
+		int attributesCount = classReader.readUnsignedShort(offset);
+		offset += 2;
+		for (int i = 0; i < attributesCount; i++) {
+			offset += 6 + classReader.readInt(offset + 2);
+		}
+		return offset;
+	}
+
+	private static ClassFile readWithJavassist(byte[] bytes) throws IOException {
+		return new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	/**
+	 * Javassist offers no public constructor for a LineNumberTable, hence the attribute of each method is a copy of
+	 * this template with a new table.
+	 */
+	private static LineNumberAttribute createLineNumberTemplate() {
+		ClassWriter classWriter = new ClassWriter(0);
+		classWriter.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, "LineNumberTemplate", null, "java/lang/Object", null);
+		MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "method", "()V", null, null);
+		methodVisitor.visitCode();
+		Label start = new Label();
+		methodVisitor.visitLabel(start);
+		methodVisitor.visitLineNumber(1, start);
+		methodVisitor.visitInsn(Opcodes.RETURN);
+		methodVisitor.visitMaxs(0, 0);
+		methodVisitor.visitEnd();
+		classWriter.visitEnd();
+		try {
+			MethodInfo methodInfo = (MethodInfo) readWithJavassist(classWriter.toByteArray()).getMethods().get(0);
+			return (LineNumberAttribute) methodInfo.getCodeAttribute().getAttribute(LineNumberAttribute.tag);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not create line number template: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Builds the javassist class file of one class. A new instance is used for each class file.
+	 */
+	private static class ClassFileBuilder extends ClassVisitor {
+		private ClassFile classFile;
+		private ConstPool constPool;
+		private boolean useSyntheticAttribute;
+		private final List<Annotation> visibleAnnotations = new ArrayList<>();
+		private final List<Annotation> invisibleAnnotations = new ArrayList<>();
+		private final List<Integer> innerClasses = new ArrayList<>();
+		private final int[] firstLineNumbers;
+		private int methodIndex;
+
+		ClassFileBuilder(int[] firstLineNumbers) {
+			super(ASM_API);
+			this.firstLineNumbers = firstLineNumbers;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			classFile = new ClassFile((access & Opcodes.ACC_INTERFACE) != 0, toClassName(name), toClassName(superName));
+			constPool = classFile.getConstPool();
+			// removes the source file attribute added by javassist
+			classFile.getAttributes().clear();
+			classFile.setMajorVersion(version & 0xFFFF);
+			classFile.setMinorVersion(version >>> 16);
+			useSyntheticAttribute = (version & 0xFFFF) < Opcodes.V1_5;
+			classFile.setAccessFlags(toAccessFlags(access));
+			if (interfaces != null && interfaces.length > 0) {
+				// like all class names added to the constant pool, the interfaces may keep their internal names
+				classFile.setInterfaces(interfaces);
+			}
+			addFlagAttributes(access, classFile.getAttributes());
+			if (signature != null) {
+				classFile.getAttributes().add(new SignatureAttribute(constPool, signature));
+			}
+		}
+
+		@Override
+		public void visitOuterClass(String owner, String name, String descriptor) {
+			if (name == null) {
+				classFile.getAttributes().add(new EnclosingMethodAttribute(constPool, owner));
+			} else {
+				classFile.getAttributes().add(new EnclosingMethodAttribute(constPool, owner, name, descriptor));
+			}
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			return newAnnotation(descriptor, visible ? visibleAnnotations : invisibleAnnotations);
+		}
+
+		@Override
+		public void visitInnerClass(String name, String outerName, String innerName, int access) {
+			innerClasses.add(constPool.addClassInfo(name));
+			innerClasses.add(outerName == null ? 0 : constPool.addClassInfo(outerName));
+			innerClasses.add(innerName == null ? 0 : constPool.addUtf8Info(innerName));
+			innerClasses.add(access & 0xFFFF);
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+			final FieldInfo fieldInfo = new FieldInfo(constPool, name, descriptor);
+			fieldInfo.setAccessFlags(toAccessFlags(access));
+			final List<AttributeInfo> attributes = fieldInfo.getAttributes();
+			if (value != null) {
+				attributes.add(new ConstantAttribute(constPool, addConstant(value)));
+			}
+			addFlagAttributes(access, attributes);
+			if (signature != null) {
+				attributes.add(new SignatureAttribute(constPool, signature));
+			}
+			classFile.addField2(fieldInfo);
+			return new FieldVisitor(ASM_API) {
+				private final List<Annotation> visibleFieldAnnotations = new ArrayList<>();
+				private final List<Annotation> invisibleFieldAnnotations = new ArrayList<>();
+
+				@Override
+				public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+					return newAnnotation(descriptor, visible ? visibleFieldAnnotations : invisibleFieldAnnotations);
+				}
+
+				@Override
+				public void visitEnd() {
+					addAnnotations(attributes, visibleFieldAnnotations, invisibleFieldAnnotations);
+				}
+			};
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+			MethodInfo methodInfo = new MethodInfo(constPool, name, descriptor);
+			methodInfo.setAccessFlags(toAccessFlags(access));
+			List<AttributeInfo> attributes = methodInfo.getAttributes();
+			if (exceptions != null) {
+				ExceptionsAttribute exceptionsAttribute = new ExceptionsAttribute(constPool);
+				int[] exceptionIndexes = new int[exceptions.length];
+				for (int i = 0; i < exceptions.length; i++) {
+					exceptionIndexes[i] = constPool.addClassInfo(exceptions[i]);
+				}
+				exceptionsAttribute.setExceptionIndexes(exceptionIndexes);
+				attributes.add(exceptionsAttribute);
+			}
+			addFlagAttributes(access, attributes);
+			if (signature != null) {
+				attributes.add(new SignatureAttribute(constPool, signature));
+			}
+			classFile.addMethod2(methodInfo);
+			if (firstLineNumbers != null && firstLineNumbers[methodIndex] >= 0) {
+				addFirstLineNumber(methodInfo, firstLineNumbers[methodIndex]);
+			}
+			methodIndex++;
+			return new MethodInfoBuilder(methodInfo);
+		}
+
+		@Override
+		public void visitEnd() {
+			List<AttributeInfo> attributes = classFile.getAttributes();
+			if (!innerClasses.isEmpty()) {
+				InnerClassesAttribute innerClassesAttribute = new InnerClassesAttribute(constPool);
+				byte[] info = new byte[2 + innerClasses.size() * 2];
+				write16bit(innerClasses.size() / 4, info, 0);
+				for (int i = 0; i < innerClasses.size(); i++) {
+					write16bit(innerClasses.get(i), info, 2 + i * 2);
+				}
+				innerClassesAttribute.set(info);
+				attributes.add(innerClassesAttribute);
+			}
+			addAnnotations(attributes, visibleAnnotations, invisibleAnnotations);
+		}
+
+		private int toAccessFlags(int access) {
+			// removes the pseudo flags of ASM (e.g. ACC_DEPRECATED)
+			int accessFlags = access & 0xFFFF;
+			if (useSyntheticAttribute) {
+				accessFlags &= ~Opcodes.ACC_SYNTHETIC;
+			}
+			return accessFlags;
+		}
+
+		/**
+		 * Adds the attributes ASM has turned into access flags, in the same way as the ASM ClassWriter.
+		 */
+		private void addFlagAttributes(int access, List<AttributeInfo> attributes) {
+			if (useSyntheticAttribute && (access & Opcodes.ACC_SYNTHETIC) != 0) {
+				attributes.add(new SyntheticAttribute(constPool));
+			}
+			if ((access & Opcodes.ACC_DEPRECATED) != 0) {
+				attributes.add(new DeprecatedAttribute(constPool));
+			}
+		}
+
+		private int addConstant(Object value) {
+			if (value instanceof Integer) {
+				return constPool.addIntegerInfo((Integer) value);
+			} else if (value instanceof Long) {
+				return constPool.addLongInfo((Long) value);
+			} else if (value instanceof Float) {
+				return constPool.addFloatInfo((Float) value);
+			} else if (value instanceof Double) {
+				return constPool.addDoubleInfo((Double) value);
+			}
+			return constPool.addStringInfo((String) value);
+		}
+
+		private AnnotationVisitor newAnnotation(String descriptor, List<Annotation> annotations) {
+			Annotation annotation = new Annotation(constPool.addUtf8Info(descriptor), constPool);
+			annotations.add(annotation);
+			return new AnnotationBuilder(annotation);
+		}
+
+		private void addAnnotations(List<AttributeInfo> attributes, List<Annotation> visible, List<Annotation> invisible) {
+			if (!visible.isEmpty()) {
+				AnnotationsAttribute annotationsAttribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+				annotationsAttribute.setAnnotations(visible.toArray(new Annotation[visible.size()]));
+				attributes.add(annotationsAttribute);
+			}
+			if (!invisible.isEmpty()) {
+				AnnotationsAttribute annotationsAttribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.invisibleTag);
+				annotationsAttribute.setAnnotations(invisible.toArray(new Annotation[invisible.size()]));
+				attributes.add(annotationsAttribute);
+			}
+		}
+
+		private ParameterAnnotationsAttribute toParameterAnnotations(List<List<Annotation>> parameterAnnotations, String tag) {
+			Annotation[][] annotations = new Annotation[parameterAnnotations.size()][];
+			for (int i = 0; i < annotations.length; i++) {
+				List<Annotation> annotationsOfParameter = parameterAnnotations.get(i);
+				annotations[i] = annotationsOfParameter.toArray(new Annotation[annotationsOfParameter.size()]);
+			}
+			ParameterAnnotationsAttribute parameterAnnotationsAttribute = new ParameterAnnotationsAttribute(constPool, tag);
+			parameterAnnotationsAttribute.setAnnotations(annotations);
+			return parameterAnnotationsAttribute;
+		}
+
+		private MemberValue toMemberValue(Object value) {
+			if (value instanceof Byte) {
+				return new ByteMemberValue(constPool.addIntegerInfo((Byte) value), constPool);
+			} else if (value instanceof Boolean) {
+				return new BooleanMemberValue(constPool.addIntegerInfo((Boolean) value ? 1 : 0), constPool);
+			} else if (value instanceof Character) {
+				return new CharMemberValue(constPool.addIntegerInfo((Character) value), constPool);
+			} else if (value instanceof Short) {
+				return new ShortMemberValue(constPool.addIntegerInfo((Short) value), constPool);
+			} else if (value instanceof Integer) {
+				return new IntegerMemberValue(constPool.addIntegerInfo((Integer) value), constPool);
+			} else if (value instanceof Long) {
+				return new LongMemberValue(constPool.addLongInfo((Long) value), constPool);
+			} else if (value instanceof Float) {
+				return new FloatMemberValue(constPool.addFloatInfo((Float) value), constPool);
+			} else if (value instanceof Double) {
+				return new DoubleMemberValue(constPool.addDoubleInfo((Double) value), constPool);
+			} else if (value instanceof String) {
+				return new StringMemberValue(constPool.addUtf8Info((String) value), constPool);
+			} else if (value instanceof Type) {
+				return new ClassMemberValue(constPool.addUtf8Info(((Type) value).getDescriptor()), constPool);
+			}
+			// arrays of primitive values are reported as one value by ASM
+			ArrayMemberValue arrayMemberValue = new ArrayMemberValue(constPool);
+			MemberValue[] elements = new MemberValue[Array.getLength(value)];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = toMemberValue(Array.get(value, i));
+			}
+			arrayMemberValue.setValue(elements);
+			return arrayMemberValue;
+		}
+
+		/**
+		 * Collects the values of an annotation, of an array within an annotation or of an annotation default.
+		 */
+		private abstract class MemberValueCollector extends AnnotationVisitor {
+
+			MemberValueCollector() {
+				super(ASM_API);
+			}
+
+			abstract void add(String name, MemberValue memberValue);
+
+			@Override
+			public void visit(String name, Object value) {
+				add(name, toMemberValue(value));
+			}
+
+			@Override
+			public void visitEnum(String name, String descriptor, String value) {
+				add(name, new EnumMemberValue(constPool.addUtf8Info(descriptor), constPool.addUtf8Info(value), constPool));
+			}
+
+			@Override
+			public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+				Annotation annotation = new Annotation(constPool.addUtf8Info(descriptor), constPool);
+				add(name, new AnnotationMemberValue(annotation, constPool));
+				return new AnnotationBuilder(annotation);
+			}
+
+			@Override
+			public AnnotationVisitor visitArray(String name) {
+				final ArrayMemberValue arrayMemberValue = new ArrayMemberValue(constPool);
+				add(name, arrayMemberValue);
+				return new MemberValueCollector() {
+					private final List<MemberValue> elements = new ArrayList<>();
+
+					@Override
+					void add(String name, MemberValue memberValue) {
+						elements.add(memberValue);
+					}
+
+					@Override
+					public void visitEnd() {
+						arrayMemberValue.setValue(elements.toArray(new MemberValue[elements.size()]));
+					}
+				};
+			}
+		}
+
+		private class AnnotationBuilder extends MemberValueCollector {
+			private final Annotation annotation;
+
+			AnnotationBuilder(Annotation annotation) {
+				this.annotation = annotation;
+			}
+
+			@Override
+			void add(String name, MemberValue memberValue) {
+				annotation.addMemberValue(constPool.addUtf8Info(name), memberValue);
+			}
+		}
+
+		/**
+		 * Adds the annotations of a method.
+		 */
+		private class MethodInfoBuilder extends MethodVisitor {
+			private final MethodInfo methodInfo;
+			private final List<Annotation> visibleMethodAnnotations = new ArrayList<>();
+			private final List<Annotation> invisibleMethodAnnotations = new ArrayList<>();
+			private List<List<Annotation>> visibleParameterAnnotations;
+			private List<List<Annotation>> invisibleParameterAnnotations;
+			private int visibleParameterCount = -1;
+			private int invisibleParameterCount = -1;
+			private MemberValue annotationDefault;
+
+			MethodInfoBuilder(MethodInfo methodInfo) {
+				super(ASM_API);
+				this.methodInfo = methodInfo;
+			}
+
+			@Override
+			public AnnotationVisitor visitAnnotationDefault() {
+				return new MemberValueCollector() {
+					@Override
+					void add(String name, MemberValue memberValue) {
+						annotationDefault = memberValue;
+					}
+				};
+			}
+
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				return newAnnotation(descriptor, visible ? visibleMethodAnnotations : invisibleMethodAnnotations);
+			}
+
+			@Override
+			public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+				if (visible) {
+					visibleParameterCount = parameterCount;
+				} else {
+					invisibleParameterCount = parameterCount;
+				}
+			}
+
+			@Override
+			public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+				List<List<Annotation>> parameterAnnotations;
+				if (visible) {
+					if (visibleParameterAnnotations == null) {
+						visibleParameterAnnotations = newParameterAnnotations(visibleParameterCount);
+					}
+					parameterAnnotations = visibleParameterAnnotations;
+				} else {
+					if (invisibleParameterAnnotations == null) {
+						invisibleParameterAnnotations = newParameterAnnotations(invisibleParameterCount);
+					}
+					parameterAnnotations = invisibleParameterAnnotations;
+				}
+				return newAnnotation(descriptor, parameterAnnotations.get(parameter));
+			}
+
+			private List<List<Annotation>> newParameterAnnotations(int parameterCount) {
+				if (parameterCount < 0) {
+					// the parameter count is only missing if the class file does not state it
+					parameterCount = Type.getArgumentTypes(methodInfo.getDescriptor()).length;
+				}
+				List<List<Annotation>> parameterAnnotations = new ArrayList<>(parameterCount);
+				for (int i = 0; i < parameterCount; i++) {
+					parameterAnnotations.add(new ArrayList<Annotation>(1));
+				}
+				return parameterAnnotations;
+			}
+
+			@Override
+			public void visitEnd() {
+				List<AttributeInfo> attributes = methodInfo.getAttributes();
+				if (annotationDefault != null) {
+					AnnotationDefaultAttribute annotationDefaultAttribute = new AnnotationDefaultAttribute(constPool);
+					annotationDefaultAttribute.setDefaultValue(annotationDefault);
+					attributes.add(annotationDefaultAttribute);
+				}
+				addAnnotations(attributes, visibleMethodAnnotations, invisibleMethodAnnotations);
+				if (visibleParameterAnnotations != null) {
+					attributes.add(toParameterAnnotations(visibleParameterAnnotations, ParameterAnnotationsAttribute.visibleTag));
+				}
+				if (invisibleParameterAnnotations != null) {
+					attributes.add(toParameterAnnotations(invisibleParameterAnnotations, ParameterAnnotationsAttribute.invisibleTag));
+				}
+			}
+		}
+
+		/**
+		 * Replaces the body of the method by a single instruction that carries the given line number.
+		 */
+		private void addFirstLineNumber(MethodInfo methodInfo, int firstLineNumber) {
+			CodeAttribute codeAttribute = new CodeAttribute(constPool, 0, 0, new byte[]{(byte) Opcode.NOP}, new ExceptionTable(constPool));
+			AttributeInfo lineNumbers = LINE_NUMBER_TEMPLATE.copy(constPool, null);
+			// one entry that maps the start of the code to the first line number
+			byte[] info = new byte[6];
+			write16bit(1, info, 0);
+			write16bit(firstLineNumber, info, 4);
+			lineNumbers.set(info);
+			codeAttribute.getAttributes().add(lineNumbers);
+			// the method has no code attribute yet, hence there is none to replace
+			methodInfo.getAttributes().add(codeAttribute);
+		}
+	}
+
+	private static String toClassName(String internalName) {
+		return internalName == null ? null : internalName.replace('/', '.');
+	}
+
+	private static void write16bit(int value, byte[] bytes, int index) {
+		bytes[index] = (byte) (value >>> 8);
+		bytes[index + 1] = (byte) value;
+	}
+}
@@ -0,0 +1,66 @@
+package japicmp.cmp;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Identifies the content of a class file by the CRC32 and size stored in the jar's central directory and a 128 bit
+ * hash of the bytes. Two class files with equal digests are treated as byte-for-byte identical.
+ */
+final class ClassFileDigest {
+	private static final int HASH_LENGTH = 16;
+	private final long crc;
+	private final long size;
+	private final HashCode hashCode;
+
+	private ClassFileDigest(long crc, long size, HashCode hashCode) {
+		this.crc = crc;
+		this.size = size;
+		this.hashCode = hashCode;
+	}
+
+	static ClassFileDigest of(long crc, byte[] bytes) {
+		return new ClassFileDigest(crc, bytes.length, Hashing.murmur3_128().hashBytes(bytes));
+	}
+
+	/**
+	 * Reads a digest written by {@link #writeTo(DataOutputStream)}.
+	 *
+	 * @param buffer the buffer positioned at the digest
+	 * @return the digest
+	 */
+	static ClassFileDigest readFrom(ByteBuffer buffer) {
+		long crc = buffer.getLong();
+		long size = buffer.getLong();
+		byte[] hash = new byte[HASH_LENGTH];
+		buffer.get(hash);
+		return new ClassFileDigest(crc, size, HashCode.fromBytes(hash));
+	}
+
+	void writeTo(DataOutputStream outputStream) throws IOException {
+		outputStream.writeLong(crc);
+		outputStream.writeLong(size);
+		outputStream.write(hashCode.asBytes());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		ClassFileDigest that = (ClassFileDigest) o;
+		return crc == that.crc && size == that.size && hashCode.equals(that.hashCode);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode.asInt();
+	}
+}
@@ -0,0 +1,345 @@
+package japicmp.cmp;
+
+import com.google.common.io.ByteStreams;
+import japicmp.exception.JApiCmpException;
+import japicmp.exception.JApiCmpException.Reason;
+import japicmp.util.Optional;
+import javassist.bytecode.ClassFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and parses the class files of jar archives. All archives are added first, then {@link #load()} inflates
+ * and parses their class files. With more than one thread the entries are handed to a pool of workers, while the
+ * calling thread collects the parsed class files in the order of the entries. The number of entries in flight is
+ * bounded, hence the raw content of an archive is never held in memory as a whole. As a ClassPool is not
+ * thread-safe, the class files are not added to one; the caller does this afterwards in the order of
+ * {@link LoadedArchive#getClassFiles()}, so that the result does not depend on the number of threads. For each
+ * class file a {@link ClassFileDigest} and an {@link ApiFingerprint} are computed by the workers; they allow to
+ * detect classes that are identical respectively have the same API in both versions. The class files of an archive
+ * can also be loaded from its snapshot (see {@link ArchiveSnapshotCache}); an entry of the snapshot that cannot be
+ * parsed is read from the jar file instead.
+ */
+class ClassFileLoader implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(ClassFileLoader.class.getName());
+	private static final int PENDING_ENTRIES_PER_THREAD = 32;
+	private static final String VERSIONED_ENTRY_PREFIX = "META-INF/versions/";
+	private final JarArchiveComparatorOptions options;
+	private final ClassFileReader classFileReader;
+	private final ComparisonMetrics metrics;
+	private final List<LoadedArchive> loadedArchives = new ArrayList<>();
+	private final Deque<PendingEntry> queuedEntries = new ArrayDeque<>();
+
+	ClassFileLoader(JarArchiveComparatorOptions options, ClassFileReader classFileReader, ComparisonMetrics metrics) {
+		this.options = options;
+		this.classFileReader = classFileReader;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Enumerates the entries of the given archive and queues its class files for loading. Entries whose name is
+	 * excluded by the filters are skipped, as long as the entry names match the class names.
+	 *
+	 * @param archive             the jar file
+	 * @param canFilterByClassName true if entries may be skipped because of their name
+	 * @return the archive whose class files are available after {@link #load()}
+	 */
+	LoadedArchive addArchive(File archive, boolean canFilterByClassName) {
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine("Loading classes from jar file '" + archive.getAbsolutePath() + "'");
+		}
+		LoadedArchive loadedArchive = new LoadedArchive(archive, Optional.<ArchiveSnapshotCache.Snapshot>absent(), canFilterByClassName);
+		loadedArchives.add(loadedArchive);
+		JarFile jarFile;
+		try {
+			jarFile = loadedArchive.getJarFile();
+		} catch (IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Processing of jar file %s failed: %s", archive.getAbsolutePath(), e.getMessage()), e);
+		}
+		Enumeration<JarEntry> entryEnumeration = jarFile.entries();
+		while (entryEnumeration.hasMoreElements()) {
+			JarEntry jarEntry = entryEnumeration.nextElement();
+			String name = jarEntry.getName();
+			if (name.endsWith(".class")) {
+				String className = toClassName(name);
+				if (canFilterByClassName && !options.getFilters().includeClassName(className)) {
+					loadedArchive.skippedEntries.put(className, name);
+					if (LOGGER.isLoggable(Level.FINE)) {
+						LOGGER.fine(String.format("Skipping class '%s' with jar name '%s' because it is excluded by the filters.", className, name));
+					}
+					continue;
+				}
+				queuedEntries.add(new PendingEntry(loadedArchive, name, jarEntry, className, false));
+			} else {
+				if (LOGGER.isLoggable(Level.FINE)) {
+					LOGGER.fine(String.format("Skipping file '%s' because filename does not end with '.class'.", name));
+				}
+			}
+		}
+		if (!loadedArchive.skippedEntries.isEmpty()) {
+			// one skipped entry is read to verify that entry names match class names even if no entry was loaded
+			Map.Entry<String, String> skippedEntry = loadedArchive.skippedEntries.entrySet().iterator().next();
+			queuedEntries.add(new PendingEntry(loadedArchive, skippedEntry.getValue(), jarFile.getJarEntry(skippedEntry.getValue()), skippedEntry.getKey(), true));
+		}
+		return loadedArchive;
+	}
+
+	/**
+	 * Queues the class files of the snapshot of an archive for loading. The snapshot knows the class name of each
+	 * entry, hence entries whose class is excluded by the filters are always skipped.
+	 *
+	 * @param snapshot             the snapshot of the jar file
+	 * @param canFilterByClassName true if entries may be skipped because of their class name
+	 * @return the archive whose class files are available after {@link #load()}
+	 */
+	LoadedArchive addSnapshot(ArchiveSnapshotCache.Snapshot snapshot, boolean canFilterByClassName) {
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine("Loading classes from snapshot of jar file '" + snapshot.getArchive().getAbsolutePath() + "'");
+		}
+		LoadedArchive loadedArchive = new LoadedArchive(snapshot.getArchive(), Optional.of(snapshot), false);
+		loadedArchives.add(loadedArchive);
+		for (ArchiveSnapshotCache.Entry entry : snapshot.getEntries()) {
+			String className = entry.getClassName();
+			if (canFilterByClassName && !options.getFilters().includeClassName(className)) {
+				// the class of a versioned entry (META-INF/versions/) must not replace the one of the base entry
+				if (!loadedArchive.skippedEntries.containsKey(className) || !entry.getName().startsWith(VERSIONED_ENTRY_PREFIX)) {
+					loadedArchive.skippedEntries.put(className, entry.getName());
+				}
+				if (LOGGER.isLoggable(Level.FINE)) {
+					LOGGER.fine(String.format("Skipping class '%s' with jar name '%s' because it is excluded by the filters.", className, entry.getName()));
+				}
+				continue;
+			}
+			queuedEntries.add(new PendingEntry(loadedArchive, entry.getName(), null, className, false));
+		}
+		return loadedArchive;
+	}
+
+	/**
+	 * Reads and parses all queued class files.
+	 */
+	void load() {
+		int threads = options.getThreads();
+		ForkJoinPool forkJoinPool = threads > 1 ? new ForkJoinPool(threads) : null;
+		int maxPendingEntries = threads > 1 ? threads * PENDING_ENTRIES_PER_THREAD : 1;
+		Deque<PendingEntry> submittedEntries = new ArrayDeque<>(maxPendingEntries);
+		try {
+			while (!queuedEntries.isEmpty() || !submittedEntries.isEmpty()) {
+				while (!queuedEntries.isEmpty() && submittedEntries.size() < maxPendingEntries) {
+					PendingEntry pendingEntry = queuedEntries.poll();
+					if (forkJoinPool != null) {
+						forkJoinPool.execute(pendingEntry.task);
+					} else {
+						pendingEntry.task.run();
+					}
+					submittedEntries.add(pendingEntry);
+				}
+				PendingEntry pendingEntry = submittedEntries.poll();
+				collect(pendingEntry, getClassFile(pendingEntry));
+			}
+		} finally {
+			if (forkJoinPool != null) {
+				forkJoinPool.shutdownNow();
+			}
+		}
+	}
+
+	private ClassFile getClassFile(PendingEntry pendingEntry) {
+		try {
+			return pendingEntry.task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(Reason.IllegalState, "Loading of classes was interrupted.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw new JApiCmpException(Reason.IoException, String.format("Failed to load file from jar '%s' as class file: %s.", pendingEntry.entryName, cause.getMessage()), cause);
+		}
+	}
+
+	private void collect(PendingEntry pendingEntry, ClassFile classFile) {
+		metrics.incrementClassesParsed();
+		LoadedArchive loadedArchive = pendingEntry.loadedArchive;
+		String entryName = pendingEntry.entryName;
+		boolean nameMatches = classFile.getName().equals(pendingEntry.className);
+		if (pendingEntry.probe) {
+			if (loadedArchive.entryNamesMatchClassNames || !loadedArchive.filterByClassName || nameMatches) {
+				return;
+			}
+		} else {
+			loadedArchive.add(classFile, pendingEntry);
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine(String.format("Adding class '%s' with jar name '%s' to list.", classFile.getName(), entryName));
+			}
+			if (nameMatches) {
+				loadedArchive.entryNamesMatchClassNames = true;
+				return;
+			} else if (!loadedArchive.filterByClassName) {
+				return;
+			}
+		}
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("Name of class '%s' does not match jar name '%s'. Loading all classes of jar file '%s'.", classFile.getName(), entryName, loadedArchive.archive.getAbsolutePath()));
+		}
+		loadedArchive.filterByClassName = false;
+		if (pendingEntry.probe) {
+			loadedArchive.add(classFile, pendingEntry);
+			loadedArchive.skippedEntries.remove(pendingEntry.className);
+		}
+		for (Iterator<Map.Entry<String, String>> iterator = loadedArchive.skippedEntries.entrySet().iterator(); iterator.hasNext(); ) {
+			Map.Entry<String, String> skippedEntry = iterator.next();
+			queuedEntries.add(new PendingEntry(loadedArchive, skippedEntry.getValue(), loadedArchive.jarFile.getJarEntry(skippedEntry.getValue()), skippedEntry.getKey(), false));
+			iterator.remove();
+		}
+	}
+
+	private static String toClassName(String entryName) {
+		return entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+	}
+
+	@Override
+	public void close() {
+		for (LoadedArchive loadedArchive : loadedArchives) {
+			loadedArchive.close();
+		}
+		loadedArchives.clear();
+	}
+
+	/**
+	 * The class files of one archive together with the entries that have been skipped because of the filters.
+	 */
+	static class LoadedArchive {
+		private final File archive;
+		private final Optional<ArchiveSnapshotCache.Snapshot> snapshot;
+		private JarFile jarFile;
+		private final List<ClassFile> classFiles = new ArrayList<>();
+		private final List<ClassFileDigest> digests = new ArrayList<>();
+		private final List<String> apiFingerprints = new ArrayList<>();
+		private final Map<String, String> skippedEntries = new LinkedHashMap<>();
+		private boolean filterByClassName;
+		private boolean entryNamesMatchClassNames = false;
+
+		LoadedArchive(File archive, Optional<ArchiveSnapshotCache.Snapshot> snapshot, boolean filterByClassName) {
+			this.archive = archive;
+			this.snapshot = snapshot;
+			this.filterByClassName = filterByClassName;
+		}
+
+		File getArchive() {
+			return archive;
+		}
+
+		Optional<ArchiveSnapshotCache.Snapshot> getSnapshot() {
+			return snapshot;
+		}
+
+		/**
+		 * Returns the opened jar file. The jar file of an archive loaded from its snapshot is only opened if one of
+		 * the entries of the snapshot cannot be parsed.
+		 */
+		private synchronized JarFile getJarFile() throws IOException {
+			if (jarFile == null) {
+				jarFile = new JarFile(archive);
+			}
+			return jarFile;
+		}
+
+		private synchronized void close() {
+			if (jarFile != null) {
+				try {
+					jarFile.close();
+				} catch (IOException e) {
+					LOGGER.log(Level.FINE, "Failed to close jar file '" + jarFile.getName() + "': " + e.getMessage(), e);
+				}
+				jarFile = null;
+			}
+		}
+
+		List<ClassFile> getClassFiles() {
+			return classFiles;
+		}
+
+		private void add(ClassFile classFile, PendingEntry pendingEntry) {
+			classFiles.add(classFile);
+			digests.add(pendingEntry.digest);
+			apiFingerprints.add(pendingEntry.apiFingerprint);
+		}
+
+		List<ClassFileDigest> getDigests() {
+			return digests;
+		}
+
+		List<String> getApiFingerprints() {
+			return apiFingerprints;
+		}
+
+		Map<String, String> getSkippedEntries() {
+			return skippedEntries;
+		}
+	}
+
+	private class PendingEntry {
+		private final LoadedArchive loadedArchive;
+		private final String entryName;
+		private final String className;
+		private final boolean probe;
+		private final FutureTask<ClassFile> task;
+		private ClassFileDigest digest;
+		private String apiFingerprint;
+
+		PendingEntry(final LoadedArchive loadedArchive, final String entryName, final JarEntry jarEntry, String className, boolean probe) {
+			this.loadedArchive = loadedArchive;
+			this.entryName = entryName;
+			this.className = className;
+			this.probe = probe;
+			this.task = new FutureTask<>(new Callable<ClassFile>() {
+				@Override
+				public ClassFile call() throws Exception {
+					if (loadedArchive.snapshot.isPresent()) {
+						ArchiveSnapshotCache.Snapshot snapshot = loadedArchive.snapshot.get();
+						ArchiveSnapshotCache.Entry entry = snapshot.getEntry(entryName);
+						try {
+							ClassFile classFile = classFileReader.read(entry.getClassFile());
+							apiFingerprint = ApiFingerprint.compute(classFile, options);
+							digest = entry.getDigest();
+							return classFile;
+						} catch (IOException | RuntimeException e) {
+							LOGGER.log(Level.WARNING, String.format("Failed to load class file '%s' from snapshot of jar file '%s', reading it from the jar file: %s", entryName, loadedArchive.archive.getAbsolutePath(), e.getMessage()), e);
+							snapshot.invalidate();
+						}
+					}
+					JarFile jarFile = loadedArchive.getJarFile();
+					JarEntry entry = jarEntry != null ? jarEntry : jarFile.getJarEntry(entryName);
+					if (entry == null) {
+						throw new IOException("Entry not found in jar file '" + loadedArchive.archive.getAbsolutePath() + "'.");
+					}
+					byte[] bytes;
+					try (InputStream inputStream = jarFile.getInputStream(entry)) {
+						bytes = ByteStreams.toByteArray(inputStream);
+					}
+					digest = ClassFileDigest.of(entry.getCrc(), bytes);
+					ClassFile classFile = classFileReader.read(bytes);
+					apiFingerprint = ApiFingerprint.compute(classFile, options);
+					return classFile;
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package japicmp.cmp;
+
+import javassist.bytecode.ClassFile;
+
+import java.io.IOException;
+
+/**
+ * Turns the class files of the compared archives into javassist class files. The implementation is selected by
+ * {@link JarArchiveComparatorOptions#setBytecodeReader(JarArchiveComparatorOptions.BytecodeReader)}.
+ * Implementations must be thread-safe, as the class files of an archive may be read by several threads.
+ */
+interface ClassFileReader {
+
+	/**
+	 * Reads the given class file. The result is not yet added to a ClassPool.
+	 *
+	 * @param classFile the content of the class file
+	 * @return the parsed class file
+	 * @throws IOException if the class file cannot be read
+	 */
+	ClassFile read(byte[] classFile) throws IOException;
+}
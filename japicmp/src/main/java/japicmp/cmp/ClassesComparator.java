@@ -1,5 +1,6 @@
 package japicmp.cmp;
 
+import japicmp.exception.JApiCmpException;
 import japicmp.util.Optional;
 import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
@@ -8,13 +9,20 @@ import japicmp.util.ClassHelper;
 import japicmp.util.ModifierHelper;
 import javassist.CtClass;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class ClassesComparator {
 	private List<JApiClass> classes = new LinkedList<>();
+	private Map<String, Callable<JApiClass>> unchangedClasses = new HashMap<>();
 	private final JarArchiveComparator jarArchiveComparator;
 	private final JarArchiveComparatorOptions options;
 
@@ -24,22 +32,169 @@ public class ClassesComparator {
 	}
 
 	public void compare(List<CtClass> oldClassesArg, List<CtClass> newClassesArg) {
+		compare(oldClassesArg, newClassesArg, new IdenticalClasses(Collections.<CtClass>emptyList(), Collections.<CtClass>emptyList(),
+			Collections.<CtClass, ClassFileDigest>emptyMap(), Collections.<CtClass, String>emptyMap(), false));
+	}
+
+	/**
+	 * Compares the given classes. For a class that is identical in both versions or that has the same
+	 * {@link ApiFingerprint} in both versions the new class is used for both sides, hence the model is built from
+	 * the same javassist objects, each member is only read once and all members are found to be unchanged. If
+	 * {@link JarArchiveComparatorOptions#isOnlyModifications()} is set, such a class is not built at all if its
+	 * hierarchy is unchanged as well; it is only made available through {@link #getUnchangedClasses()}.
+	 */
+	void compare(List<CtClass> oldClassesArg, List<CtClass> newClassesArg, IdenticalClasses identicalClasses) {
 		classes = new LinkedList<>();
+		unchangedClasses = new HashMap<>();
 		Map<String, CtClass> oldClassesMap = createClassMap(oldClassesArg);
 		Map<String, CtClass> newClassesMap = createClassMap(newClassesArg);
-		sortIntoLists(oldClassesMap, newClassesMap);
+		sortIntoLists(oldClassesMap, newClassesMap, identicalClasses);
+	}
+
+	private void sortIntoLists(Map<String, CtClass> oldClassesMap, Map<String, CtClass> newClassesMap, IdenticalClasses identicalClasses) {
+		List<JApiClassTask> tasks = new ArrayList<>();
+		for (JApiClassTask task : createTasks(oldClassesMap, newClassesMap, identicalClasses)) {
+			if (options.isOnlyModifications() && task.hasUnchangedHierarchy()) {
+				unchangedClasses.put(task.getClassName(), task);
+			} else {
+				tasks.add(task);
+			}
+		}
+		List<JApiClass> jApiClasses;
+		if (options.getThreads() > 1 && tasks.size() > 1) {
+			jApiClasses = createJApiClassesInParallel(tasks);
+		} else {
+			jApiClasses = new ArrayList<>(tasks.size());
+			for (JApiClassTask task : tasks) {
+				jApiClasses.add(task.createJApiClass());
+			}
+		}
+		classes.addAll(jApiClasses);
+	}
+
+	/**
+	 * Returns one task per class that is compared by {@link #compare(List, List, IdenticalClasses)}, without
+	 * creating the classes.
+	 */
+	List<JApiClassTask> createTasks(List<CtClass> oldClassesArg, List<CtClass> newClassesArg, IdenticalClasses identicalClasses) {
+		return createTasks(createClassMap(oldClassesArg), createClassMap(newClassesArg), identicalClasses);
 	}
 
-	private void sortIntoLists(Map<String, CtClass> oldClassesMap, Map<String, CtClass> newClassesMap) {
+	private List<JApiClassTask> createTasks(Map<String, CtClass> oldClassesMap, Map<String, CtClass> newClassesMap, IdenticalClasses identicalClasses) {
+		List<JApiClassTask> tasks = new ArrayList<>(oldClassesMap.size() + newClassesMap.size());
+		long classPairs = 0;
+		long identicalClassPairs = 0;
+		long sameApiClassPairs = 0;
 		for (CtClass oldCtClass : oldClassesMap.values()) {
 			CtClass newCtClass = newClassesMap.get(oldCtClass.getName());
-			if (newCtClass == null) {
-				JApiClassType classType = new JApiClassType(Optional.of(ClassHelper.getType(oldCtClass)), Optional.<JApiClassType.ClassType>absent(), JApiChangeStatus.REMOVED);
-				JApiClass jApiClass = new JApiClass(this.jarArchiveComparator, oldCtClass.getName(), Optional.of(oldCtClass), Optional.<CtClass>absent(), JApiChangeStatus.REMOVED, classType);
-				if (includeClass(jApiClass)) {
-					classes.add(jApiClass);
+			boolean unchangedHierarchy = false;
+			if (newCtClass != null) {
+				classPairs++;
+				if (identicalClasses.hasSameApi(oldCtClass.getName())) {
+					if (identicalClasses.isIdentical(oldCtClass.getName())) {
+						identicalClassPairs++;
+					} else {
+						sameApiClassPairs++;
+					}
+					oldCtClass = newCtClass;
+					unchangedHierarchy = identicalClasses.hasUnchangedHierarchy(oldCtClass.getName());
 				}
-			} else {
+			}
+			if (includeClass(oldCtClass, newCtClass)) {
+				tasks.add(new JApiClassTask(Optional.of(oldCtClass), Optional.fromNullable(newCtClass), unchangedHierarchy));
+			}
+		}
+		jarArchiveComparator.getMetrics().addClassPairs(classPairs, identicalClassPairs, sameApiClassPairs);
+		for (CtClass newCtClass : newClassesMap.values()) {
+			CtClass oldCtClass = oldClassesMap.get(newCtClass.getName());
+			if (oldCtClass == null && includeClass(null, newCtClass)) {
+				tasks.add(new JApiClassTask(Optional.<CtClass>absent(), Optional.of(newCtClass), false));
+			}
+		}
+		return tasks;
+	}
+
+	/**
+	 * Creates the classes on a ForkJoinPool. This relies on the {@link MetricsClassPool}, which reads the class file
+	 * of each class it hands out to the tasks under the lock of the class.
+	 */
+	private List<JApiClass> createJApiClassesInParallel(List<JApiClassTask> tasks) {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(options.getThreads());
+		try {
+			List<Future<JApiClass>> futures = forkJoinPool.invokeAll(tasks);
+			List<JApiClass> jApiClasses = new ArrayList<>(futures.size());
+			for (Future<JApiClass> future : futures) {
+				jApiClasses.add(future.get());
+			}
+			return jApiClasses;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Comparison of classes was interrupted.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Comparison of classes failed: " + cause.getMessage(), cause);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	/**
+	 * Creates the model of one class. The class is created only once, also if the task is called several times.
+	 */
+	class JApiClassTask implements Callable<JApiClass> {
+		private final Optional<CtClass> oldCtClassOptional;
+		private final Optional<CtClass> newCtClassOptional;
+		private final boolean unchangedHierarchy;
+		private JApiClass jApiClass;
+
+		JApiClassTask(Optional<CtClass> oldCtClassOptional, Optional<CtClass> newCtClassOptional, boolean unchangedHierarchy) {
+			this.oldCtClassOptional = oldCtClassOptional;
+			this.newCtClassOptional = newCtClassOptional;
+			this.unchangedHierarchy = unchangedHierarchy;
+		}
+
+		@Override
+		public synchronized JApiClass call() {
+			if (jApiClass == null) {
+				jApiClass = createJApiClass();
+			}
+			return jApiClass;
+		}
+
+		String getClassName() {
+			return oldCtClassOptional.isPresent() ? oldCtClassOptional.get().getName() : newCtClassOptional.get().getName();
+		}
+
+		boolean isRemoved() {
+			return !newCtClassOptional.isPresent();
+		}
+
+		boolean isNew() {
+			return !oldCtClassOptional.isPresent();
+		}
+
+		/**
+		 * Returns true if the same javassist class is used for both versions, i.e. the class has the same API.
+		 */
+		boolean hasSameApi() {
+			return oldCtClassOptional.isPresent() && newCtClassOptional.isPresent() && oldCtClassOptional.get() == newCtClassOptional.get();
+		}
+
+		/**
+		 * Returns true if the class and its hierarchy have the same API, hence no compatibility change can be found
+		 * for the class.
+		 */
+		boolean hasUnchangedHierarchy() {
+			return unchangedHierarchy;
+		}
+
+		private JApiClass createJApiClass() {
+			if (oldCtClassOptional.isPresent() && newCtClassOptional.isPresent()) {
+				CtClass oldCtClass = oldCtClassOptional.get();
+				CtClass newCtClass = newCtClassOptional.get();
 				JApiChangeStatus changeStatus = JApiChangeStatus.UNCHANGED;
 				JApiClassType.ClassType oldType = ClassHelper.getType(oldCtClass);
 				JApiClassType.ClassType newType = ClassHelper.getType(newCtClass);
@@ -47,27 +202,31 @@ public class ClassesComparator {
 					changeStatus = JApiChangeStatus.MODIFIED;
 				}
 				JApiClassType classType = new JApiClassType(Optional.of(oldType), Optional.of(newType), changeStatus);
-				JApiClass jApiClass = new JApiClass(this.jarArchiveComparator, oldCtClass.getName(), Optional.of(oldCtClass), Optional.of(newCtClass), changeStatus, classType);
-				if (includeClass(jApiClass)) {
-					classes.add(jApiClass);
-				}
-			}
-		}
-		for (CtClass newCtClass : newClassesMap.values()) {
-			CtClass oldCtClass = oldClassesMap.get(newCtClass.getName());
-			if (oldCtClass == null) {
+				return new JApiClass(jarArchiveComparator, oldCtClass.getName(), Optional.of(oldCtClass), Optional.of(newCtClass), changeStatus, classType);
+			} else if (oldCtClassOptional.isPresent()) {
+				CtClass oldCtClass = oldCtClassOptional.get();
+				JApiClassType classType = new JApiClassType(Optional.of(ClassHelper.getType(oldCtClass)), Optional.<JApiClassType.ClassType>absent(), JApiChangeStatus.REMOVED);
+				return new JApiClass(jarArchiveComparator, oldCtClass.getName(), Optional.of(oldCtClass), Optional.<CtClass>absent(), JApiChangeStatus.REMOVED, classType);
+			} else {
+				CtClass newCtClass = newCtClassOptional.get();
 				JApiClassType.ClassType newType = ClassHelper.getType(newCtClass);
 				JApiClassType classType = new JApiClassType(Optional.<JApiClassType.ClassType>absent(), Optional.of(newType), JApiChangeStatus.NEW);
-				JApiClass jApiClass = new JApiClass(this.jarArchiveComparator, newCtClass.getName(), Optional.<CtClass>absent(), Optional.of(newCtClass), JApiChangeStatus.NEW, classType);
-				if (includeClass(jApiClass)) {
-					classes.add(jApiClass);
-				}
+				return new JApiClass(jarArchiveComparator, newCtClass.getName(), Optional.<CtClass>absent(), Optional.of(newCtClass), JApiChangeStatus.NEW, classType);
 			}
 		}
 	}
 
-	private boolean includeClass(JApiClass jApiClass) {
-		return ModifierHelper.matchesModifierLevel(jApiClass, options.getAccessModifier());
+	/**
+	 * Checks the access level on the raw modifiers of the old and new class before the model of the class is built,
+	 * hence classes that cannot match the configured access modifier are not compared at all.
+	 *
+	 * @param oldCtClass the old version of the class or null
+	 * @param newCtClass the new version of the class or null
+	 * @return true if one of the two versions matches the access modifier of the options
+	 */
+	private boolean includeClass(CtClass oldCtClass, CtClass newCtClass) {
+		return (oldCtClass != null && ModifierHelper.matchesModifierLevel(oldCtClass.getModifiers(), options.getAccessModifier()))
+			|| (newCtClass != null && ModifierHelper.matchesModifierLevel(newCtClass.getModifiers(), options.getAccessModifier()));
 	}
 
 	private Map<String, CtClass> createClassMap(List<CtClass> oldClassesArg) {
@@ -81,4 +240,14 @@ public class ClassesComparator {
 	public List<JApiClass> getClasses() {
 		return classes;
 	}
+
+	/**
+	 * Returns the classes that have not been built because they and their hierarchy are unchanged. Each value
+	 * creates the class when it is called.
+	 *
+	 * @return the unchanged classes by their fully qualified name
+	 */
+	Map<String, Callable<JApiClass>> getUnchangedClasses() {
+		return unchangedClasses;
+	}
 }
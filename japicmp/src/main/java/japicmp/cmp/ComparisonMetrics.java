@@ -0,0 +1,258 @@
+package japicmp.cmp;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects timing and counter information of one comparison run. An instance is provided by
+ * {@link JarArchiveComparator#getMetrics()} and can be handed to the output generators so that their phases are
+ * recorded as well. All methods are thread-safe.
+ */
+public class ComparisonMetrics {
+
+	/**
+	 * The phases of a comparison run whose wall time is measured.
+	 */
+	public enum Phase {
+		LOAD_CLASSES, COMPARE_CLASSES, COMPATIBILITY_CHANGES, SERIALIZATION_COMPATIBILITY, SORT, OUTPUT_FILTER,
+		STDOUT_OUTPUT, XML_MARSHALLING, XSLT_TRANSFORMATION
+	}
+
+	private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+	private long classesParsed;
+	private long classPoolGets;
+	private long classPoolMisses;
+	private long superclassEvaluations;
+	private long superclassCacheHits;
+	private long bytesWritten;
+	private long classPairs;
+	private long identicalClassPairs;
+	private long sameApiClassPairs;
+
+	/**
+	 * Returns the start time for a subsequent call of {@link #stop(Phase, long)}.
+	 *
+	 * @return the current value of the system timer in nanoseconds
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Adds the time elapsed since the given start time to the given phase.
+	 *
+	 * @param phase      the phase
+	 * @param startNanos the value returned by {@link #start()}
+	 */
+	public synchronized void stop(Phase phase, long startNanos) {
+		long elapsed = System.nanoTime() - startNanos;
+		Long nanos = phaseNanos.get(phase);
+		phaseNanos.put(phase, nanos == null ? elapsed : nanos + elapsed);
+	}
+
+	public synchronized void reset() {
+		phaseNanos.clear();
+		classesParsed = 0;
+		classPoolGets = 0;
+		classPoolMisses = 0;
+		superclassEvaluations = 0;
+		superclassCacheHits = 0;
+		classPairs = 0;
+		identicalClassPairs = 0;
+		sameApiClassPairs = 0;
+		bytesWritten = 0;
+	}
+
+	public synchronized long getPhaseMillis(Phase phase) {
+		Long nanos = phaseNanos.get(phase);
+		return nanos == null ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	public synchronized long getTotalMillis() {
+		long total = 0;
+		for (Long nanos : phaseNanos.values()) {
+			total += nanos;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(total);
+	}
+
+	synchronized void incrementClassesParsed() {
+		classesParsed++;
+	}
+
+	public synchronized long getClassesParsed() {
+		return classesParsed;
+	}
+
+	synchronized void incrementClassPoolGets() {
+		classPoolGets++;
+	}
+
+	/**
+	 * Returns the number of classes requested from the javassist ClassPools.
+	 *
+	 * @return the number of ClassPool.get() calls
+	 */
+	public synchronized long getClassPoolGets() {
+		return classPoolGets;
+	}
+
+	synchronized void incrementClassPoolMisses() {
+		classPoolMisses++;
+	}
+
+	/**
+	 * Returns the number of requests that could not be answered from the cache of a ClassPool, i.e. that had to
+	 * read a class file from the classpath or did not find the class at all.
+	 *
+	 * @return the number of ClassPool cache misses
+	 */
+	public synchronized long getClassPoolMisses() {
+		return classPoolMisses;
+	}
+
+	synchronized void addSuperclassCacheStatistics(long evaluations, long cacheHits) {
+		this.superclassEvaluations += evaluations;
+		this.superclassCacheHits += cacheHits;
+	}
+
+	/**
+	 * Returns how often the model for a superclass had to be built.
+	 *
+	 * @return the number of superclass evaluations
+	 */
+	public synchronized long getSuperclassEvaluations() {
+		return superclassEvaluations;
+	}
+
+	public synchronized long getSuperclassCacheHits() {
+		return superclassCacheHits;
+	}
+
+	synchronized void addClassPairs(long classPairs, long identicalClassPairs, long sameApiClassPairs) {
+		this.classPairs += classPairs;
+		this.identicalClassPairs += identicalClassPairs;
+		this.sameApiClassPairs += sameApiClassPairs;
+	}
+
+	/**
+	 * Returns the number of classes that exist in the old and the new version.
+	 *
+	 * @return the number of class pairs
+	 */
+	public synchronized long getClassPairs() {
+		return classPairs;
+	}
+
+	/**
+	 * Returns the number of class pairs whose class files are byte-for-byte identical and whose model was built
+	 * from the new class only.
+	 *
+	 * @return the number of identical class pairs
+	 */
+	public synchronized long getIdenticalClassPairs() {
+		return identicalClassPairs;
+	}
+
+	/**
+	 * Returns the number of class pairs whose class files differ but have the same API fingerprint, i.e. only the code
+	 * of their methods has changed. Their model was built from the new class only.
+	 *
+	 * @return the number of class pairs with the same API
+	 */
+	public synchronized long getSameApiClassPairs() {
+		return sameApiClassPairs;
+	}
+
+	public synchronized void addBytesWritten(long bytes) {
+		bytesWritten += bytes;
+	}
+
+	public synchronized long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Returns a human readable summary of all phases and counters.
+	 *
+	 * @return the summary as multi-line String
+	 */
+	public synchronized String toSummary() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Metrics:\n");
+		for (Phase phase : Phase.values()) {
+			if (phaseNanos.containsKey(phase)) {
+				sb.append(String.format(Locale.ENGLISH, "  %-30s %8d ms%n", toName(phase), getPhaseMillis(phase)));
+			}
+		}
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d ms%n", "total", getTotalMillis()));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "classesParsed", classesParsed));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "classPoolGets", classPoolGets));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "classPoolMisses", classPoolMisses));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "superclassEvaluations", superclassEvaluations));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "superclassCacheHits", superclassCacheHits));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "classPairs", classPairs));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d (%.1f%%)%n", "identicalClassPairs", identicalClassPairs, getIdenticalClassPairsPercent()));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d (%.1f%%)%n", "sameApiClassPairs", sameApiClassPairs, getSameApiClassPairsPercent()));
+		sb.append(String.format(Locale.ENGLISH, "  %-30s %8d%n", "bytesWritten", bytesWritten));
+		return sb.toString();
+	}
+
+	/**
+	 * Returns all phases and counters as JSON object. The phases are given in milliseconds.
+	 *
+	 * @return the JSON document
+	 */
+	public synchronized String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append("  \"phases\": {");
+		boolean first = true;
+		for (Phase phase : Phase.values()) {
+			if (phaseNanos.containsKey(phase)) {
+				sb.append(first ? "\n" : ",\n");
+				sb.append("    \"").append(toName(phase)).append("\": ").append(getPhaseMillis(phase));
+				first = false;
+			}
+		}
+		sb.append(first ? "},\n" : "\n  },\n");
+		sb.append("  \"totalMillis\": ").append(getTotalMillis()).append(",\n");
+		sb.append("  \"classesParsed\": ").append(classesParsed).append(",\n");
+		sb.append("  \"classPoolGets\": ").append(classPoolGets).append(",\n");
+		sb.append("  \"classPoolMisses\": ").append(classPoolMisses).append(",\n");
+		sb.append("  \"superclassEvaluations\": ").append(superclassEvaluations).append(",\n");
+		sb.append("  \"superclassCacheHits\": ").append(superclassCacheHits).append(",\n");
+		sb.append("  \"classPairs\": ").append(classPairs).append(",\n");
+		sb.append("  \"identicalClassPairs\": ").append(identicalClassPairs).append(",\n");
+		sb.append("  \"identicalClassPairsPercent\": ").append(String.format(Locale.ENGLISH, "%.1f", getIdenticalClassPairsPercent())).append(",\n");
+		sb.append("  \"sameApiClassPairs\": ").append(sameApiClassPairs).append(",\n");
+		sb.append("  \"sameApiClassPairsPercent\": ").append(String.format(Locale.ENGLISH, "%.1f", getSameApiClassPairsPercent())).append(",\n");
+		sb.append("  \"bytesWritten\": ").append(bytesWritten).append("\n");
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	private double getIdenticalClassPairsPercent() {
+		return classPairs == 0 ? 0 : 100.0 * identicalClassPairs / classPairs;
+	}
+
+	private double getSameApiClassPairsPercent() {
+		return classPairs == 0 ? 0 : 100.0 * sameApiClassPairs / classPairs;
+	}
+
+	private static String toName(Phase phase) {
+		StringBuilder sb = new StringBuilder();
+		boolean upperCase = false;
+		for (char c : phase.name().toCharArray()) {
+			if (c == '_') {
+				upperCase = true;
+			} else {
+				sb.append(upperCase ? c : Character.toLowerCase(c));
+				upperCase = false;
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,151 @@
+package japicmp.cmp;
+
+import japicmp.model.JApiBehavior;
+import japicmp.model.JApiClass;
+import japicmp.model.JApiCompatibility;
+import japicmp.model.JApiCompatibilityChange;
+import japicmp.model.JApiField;
+import japicmp.model.JApiImplementedInterface;
+import japicmp.model.JApiParameter;
+import japicmp.model.JApiSuperclass;
+import japicmp.util.Optional;
+
+/**
+ * The result of {@link JarArchiveComparator#findIncompatibility(java.util.List, java.util.List, CompatibilityVerdict.ChangeFilter)}:
+ * either the first incompatible change that has been found or the information that there is none.
+ */
+public class CompatibilityVerdict {
+	/**
+	 * Selects the compatibility changes that count as incompatibility.
+	 */
+	public interface ChangeFilter {
+		/**
+		 * Returns true if the given change of the given element is an incompatibility.
+		 *
+		 * @param jApiClass the class the element belongs to
+		 * @param element   the class itself or one of its members, its superclass or one of its interfaces
+		 * @param change    one of the compatibility changes of the element
+		 * @return true if the change is an incompatibility
+		 */
+		boolean isIncompatible(JApiClass jApiClass, JApiCompatibility element, JApiCompatibilityChange change);
+	}
+
+	public static final ChangeFilter BINARY_INCOMPATIBLE = new ChangeFilter() {
+		@Override
+		public boolean isIncompatible(JApiClass jApiClass, JApiCompatibility element, JApiCompatibilityChange change) {
+			return !change.isBinaryCompatible();
+		}
+	};
+
+	public static final ChangeFilter SOURCE_INCOMPATIBLE = new ChangeFilter() {
+		@Override
+		public boolean isIncompatible(JApiClass jApiClass, JApiCompatibility element, JApiCompatibilityChange change) {
+			return !change.isSourceCompatible();
+		}
+	};
+
+	public static final ChangeFilter BINARY_OR_SOURCE_INCOMPATIBLE = new ChangeFilter() {
+		@Override
+		public boolean isIncompatible(JApiClass jApiClass, JApiCompatibility element, JApiCompatibilityChange change) {
+			return !change.isBinaryCompatible() || !change.isSourceCompatible();
+		}
+	};
+
+	private final Optional<JApiClass> jApiClass;
+	private final Optional<JApiCompatibility> element;
+	private final Optional<JApiCompatibilityChange> change;
+	private final int evaluatedClasses;
+
+	private CompatibilityVerdict(Optional<JApiClass> jApiClass, Optional<JApiCompatibility> element, Optional<JApiCompatibilityChange> change, int evaluatedClasses) {
+		this.jApiClass = jApiClass;
+		this.element = element;
+		this.change = change;
+		this.evaluatedClasses = evaluatedClasses;
+	}
+
+	static CompatibilityVerdict compatible(int evaluatedClasses) {
+		return new CompatibilityVerdict(Optional.<JApiClass>absent(), Optional.<JApiCompatibility>absent(), Optional.<JApiCompatibilityChange>absent(), evaluatedClasses);
+	}
+
+	static CompatibilityVerdict incompatible(JApiClass jApiClass, JApiCompatibility element, JApiCompatibilityChange change, int evaluatedClasses) {
+		return new CompatibilityVerdict(Optional.of(jApiClass), Optional.of(element), Optional.of(change), evaluatedClasses);
+	}
+
+	/**
+	 * Returns true if no incompatibility has been found.
+	 *
+	 * @return true if the archives are compatible
+	 */
+	public boolean isCompatible() {
+		return !change.isPresent();
+	}
+
+	/**
+	 * Returns the class the incompatible element belongs to.
+	 *
+	 * @return the class or Optional.absent() if the archives are compatible
+	 */
+	public Optional<JApiClass> getJApiClass() {
+		return jApiClass;
+	}
+
+	/**
+	 * Returns the incompatible element: the class itself, one of its fields, methods or constructors, its superclass,
+	 * one of its interfaces or one of its annotations.
+	 *
+	 * @return the element or Optional.absent() if the archives are compatible
+	 */
+	public Optional<JApiCompatibility> getElement() {
+		return element;
+	}
+
+	public Optional<JApiCompatibilityChange> getChange() {
+		return change;
+	}
+
+	/**
+	 * Returns the number of classes whose compatibility changes have been evaluated before the verdict was reached.
+	 *
+	 * @return the number of evaluated classes
+	 */
+	public int getEvaluatedClasses() {
+		return evaluatedClasses;
+	}
+
+	/**
+	 * Describes the incompatibility, e.g. {@code japicmp.Api.method(int):METHOD_REMOVED}.
+	 *
+	 * @return the description or an empty string if the archives are compatible
+	 */
+	public String getDescription() {
+		if (isCompatible()) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(jApiClass.get().getFullyQualifiedName());
+		JApiCompatibility incompatibleElement = element.get();
+		if (incompatibleElement instanceof JApiBehavior) {
+			JApiBehavior jApiBehavior = (JApiBehavior) incompatibleElement;
+			sb.append('.').append(jApiBehavior.getName()).append('(');
+			for (int i = 0; i < jApiBehavior.getParameters().size(); i++) {
+				JApiParameter jApiParameter = jApiBehavior.getParameters().get(i);
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append(jApiParameter.getType());
+			}
+			sb.append(')');
+		} else if (incompatibleElement instanceof JApiField) {
+			sb.append('.').append(((JApiField) incompatibleElement).getName());
+		} else if (incompatibleElement instanceof JApiImplementedInterface) {
+			sb.append(" implements ").append(((JApiImplementedInterface) incompatibleElement).getFullyQualifiedName());
+		} else if (incompatibleElement instanceof JApiSuperclass) {
+			JApiSuperclass jApiSuperclass = (JApiSuperclass) incompatibleElement;
+			Optional<String> superclassName = jApiSuperclass.getNewSuperclassName().isPresent() ? jApiSuperclass.getNewSuperclassName() : jApiSuperclass.getOldSuperclassName();
+			if (superclassName.isPresent()) {
+				sb.append(" extends ").append(superclassName.get());
+			}
+		}
+		sb.append(':').append(change.get().name());
+		return sb.toString();
+	}
+}
@@ -0,0 +1,176 @@
+package japicmp.cmp;
+
+import javassist.CtClass;
+import javassist.bytecode.ClassFile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Determines the classes that are byte-for-byte identical in the old and the new version, and the classes whose
+ * bytes differ but whose {@link ApiFingerprint} is the same, i.e. only the code of their methods has changed. If the
+ * old and the new classes are resolved by different ClassPools, the supertypes of such a class may still differ; the
+ * class is then only taken into account if all its supertypes within the archives have the same API as well and all
+ * other supertypes belong to the JDK. A class whose supertypes within the archives have the same API as well, also
+ * if the old and the new classes are resolved by the same ClassPool, and whose superclasses apart from
+ * java.lang.Object belong to the archives, has an unchanged hierarchy; no compatibility change can be found for it.
+ */
+class IdenticalClasses {
+	private enum Match {
+		NONE, SAME_API, IDENTICAL
+	}
+
+	private final Map<String, CtClass> oldClasses;
+	private final Map<String, CtClass> newClasses;
+	private final Map<CtClass, ClassFileDigest> digests;
+	private final Map<CtClass, String> apiFingerprints;
+	private final boolean sameClassPool;
+	private final Map<String, Match> matches = new HashMap<>();
+	private final Map<String, Boolean> unchangedHierarchies = new HashMap<>();
+
+	IdenticalClasses(List<CtClass> oldClasses, List<CtClass> newClasses, Map<CtClass, ClassFileDigest> digests, Map<CtClass, String> apiFingerprints, boolean sameClassPool) {
+		this.oldClasses = toClassMap(oldClasses);
+		this.newClasses = toClassMap(newClasses);
+		this.digests = digests;
+		this.apiFingerprints = apiFingerprints;
+		this.sameClassPool = sameClassPool;
+		for (String className : this.oldClasses.keySet()) {
+			getMatch(className);
+		}
+		for (String className : this.oldClasses.keySet()) {
+			isHierarchyUnchanged(className);
+		}
+	}
+
+	private static Map<String, CtClass> toClassMap(List<CtClass> ctClasses) {
+		Map<String, CtClass> map = new HashMap<>();
+		for (CtClass ctClass : ctClasses) {
+			map.put(ctClass.getName(), ctClass);
+		}
+		return map;
+	}
+
+	/**
+	 * Returns true if the class with the given name has the same API in both versions, either because its bytes are
+	 * identical or because its fingerprints match. As the result is computed for all classes when this instance is
+	 * created, this method can be called from several threads.
+	 *
+	 * @param className the fully qualified name of the class
+	 * @return true if the old and the new class result in the same model
+	 */
+	boolean hasSameApi(String className) {
+		Match match = matches.get(className);
+		return match != null && match != Match.NONE;
+	}
+
+	/**
+	 * Returns true if the class with the given name is byte-for-byte identical in both versions.
+	 *
+	 * @param className the fully qualified name of the class
+	 * @return true if the old and the new class are identical
+	 */
+	boolean isIdentical(String className) {
+		return matches.get(className) == Match.IDENTICAL;
+	}
+
+	/**
+	 * Returns true if the class with the given name and all of its supertypes within the archives have the same API
+	 * in both versions. Can be called from several threads, like {@link #hasSameApi(String)}.
+	 *
+	 * @param className the fully qualified name of the class
+	 * @return true if the class and its supertypes result in the same model
+	 */
+	boolean hasUnchangedHierarchy(String className) {
+		return Boolean.TRUE.equals(unchangedHierarchies.get(className));
+	}
+
+	private boolean isHierarchyUnchanged(String className) {
+		Boolean unchanged = unchangedHierarchies.get(className);
+		if (unchanged != null) {
+			return unchanged;
+		}
+		// guards against cyclic hierarchies in broken class files
+		unchangedHierarchies.put(className, Boolean.FALSE);
+		unchanged = hasSameApi(className) && areSupertypesUnchanged(newClasses.get(className).getClassFile2());
+		unchangedHierarchies.put(className, unchanged);
+		return unchanged;
+	}
+
+	private boolean areSupertypesUnchanged(ClassFile classFile) {
+		String superclassName = classFile.getSuperclass();
+		if (!isSupertypeHierarchyUnchanged(superclassName)) {
+			return false;
+		}
+		if (superclassName != null && !"java.lang.Object".equals(superclassName) && !oldClasses.containsKey(superclassName)) {
+			// a superclass outside of the archives is evaluated on its own and may add compatibility changes
+			return false;
+		}
+		for (String interfaceName : classFile.getInterfaces()) {
+			if (!isSupertypeHierarchyUnchanged(interfaceName)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSupertypeHierarchyUnchanged(String className) {
+		if (className != null && (oldClasses.containsKey(className) || newClasses.containsKey(className))) {
+			return isHierarchyUnchanged(className);
+		}
+		return true;
+	}
+
+	private Match getMatch(String className) {
+		Match match = matches.get(className);
+		if (match != null) {
+			return match;
+		}
+		// guards against cyclic hierarchies in broken class files
+		matches.put(className, Match.NONE);
+		match = evaluate(className);
+		matches.put(className, match);
+		return match;
+	}
+
+	private Match evaluate(String className) {
+		CtClass oldClass = oldClasses.get(className);
+		CtClass newClass = newClasses.get(className);
+		if (oldClass == null || newClass == null) {
+			return Match.NONE;
+		}
+		Match match;
+		ClassFileDigest oldDigest = digests.get(oldClass);
+		String oldApiFingerprint = apiFingerprints.get(oldClass);
+		if (oldDigest != null && oldDigest.equals(digests.get(newClass))) {
+			match = Match.IDENTICAL;
+		} else if (oldApiFingerprint != null && oldApiFingerprint.equals(apiFingerprints.get(newClass))) {
+			match = Match.SAME_API;
+		} else {
+			return Match.NONE;
+		}
+		if (sameClassPool) {
+			return match;
+		}
+		ClassFile classFile = newClass.getClassFile2();
+		if (!isSupertypeUnchanged(classFile.getSuperclass())) {
+			return Match.NONE;
+		}
+		for (String interfaceName : classFile.getInterfaces()) {
+			if (!isSupertypeUnchanged(interfaceName)) {
+				return Match.NONE;
+			}
+		}
+		return match;
+	}
+
+	private boolean isSupertypeUnchanged(String className) {
+		if (className == null) {
+			return true;
+		}
+		if (oldClasses.containsKey(className) || newClasses.containsKey(className)) {
+			return getMatch(className) != Match.NONE;
+		}
+		return className.startsWith("java.");
+	}
+}
@@ -0,0 +1,147 @@
+package japicmp.cmp;
+
+import japicmp.compat.CompatibilityChanges;
+import japicmp.model.JApiAnnotation;
+import japicmp.model.JApiClass;
+import japicmp.model.JApiCompatibility;
+import japicmp.model.JApiCompatibilityChange;
+import japicmp.model.JApiConstructor;
+import japicmp.model.JApiField;
+import japicmp.model.JApiImplementedInterface;
+import japicmp.model.JApiMethod;
+import japicmp.model.JApiSuperclass;
+import japicmp.output.Filter;
+import japicmp.util.Optional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Searches for the first incompatible change without building the complete model. The classes are created and
+ * evaluated one by one, the ones most likely to be incompatible first: removed classes, classes whose API has
+ * changed, classes with the same API but a changed hierarchy and at last new classes. Classes whose hierarchy has
+ * the same API cannot have any compatibility change; they are only created if another class needs them as
+ * superclass or interface. The search stops as soon as an incompatibility has been found.
+ */
+class IncompatibilitySearch {
+	private static final Logger LOGGER = Logger.getLogger(IncompatibilitySearch.class.getName());
+	private static final Comparator<ClassesComparator.JApiClassTask> BY_EXPECTED_INCOMPATIBILITY = new Comparator<ClassesComparator.JApiClassTask>() {
+		@Override
+		public int compare(ClassesComparator.JApiClassTask task1, ClassesComparator.JApiClassTask task2) {
+			return Integer.compare(rank(task1), rank(task2));
+		}
+
+		private int rank(ClassesComparator.JApiClassTask task) {
+			if (task.isRemoved()) {
+				return 0;
+			} else if (task.isNew()) {
+				return 3;
+			} else if (task.hasSameApi()) {
+				return 2;
+			}
+			return 1;
+		}
+	};
+	private final JarArchiveComparator jarArchiveComparator;
+	private final CompatibilityVerdict.ChangeFilter changeFilter;
+
+	IncompatibilitySearch(JarArchiveComparator jarArchiveComparator, CompatibilityVerdict.ChangeFilter changeFilter) {
+		this.jarArchiveComparator = jarArchiveComparator;
+		this.changeFilter = changeFilter;
+	}
+
+	CompatibilityVerdict search(List<ClassesComparator.JApiClassTask> tasks) {
+		Map<String, Callable<JApiClass>> classes = new HashMap<>();
+		List<ClassesComparator.JApiClassTask> candidates = new ArrayList<>(tasks.size());
+		for (ClassesComparator.JApiClassTask task : tasks) {
+			classes.put(task.getClassName(), task);
+			if (!task.hasUnchangedHierarchy()) {
+				candidates.add(task);
+			}
+		}
+		Collections.sort(candidates, BY_EXPECTED_INCOMPATIBILITY);
+		CompatibilityChanges compatibilityChanges = new CompatibilityChanges(jarArchiveComparator);
+		List<JApiClass> evaluatedClasses = new ArrayList<>(candidates.size());
+		for (ClassesComparator.JApiClassTask candidate : candidates) {
+			JApiClass jApiClass = candidate.call();
+			compatibilityChanges.evaluate(Collections.singletonList(jApiClass), classes);
+			evaluatedClasses.add(jApiClass);
+			Optional<CompatibilityVerdict> verdict = findIncompatibility(jApiClass, evaluatedClasses.size());
+			if (verdict.isPresent()) {
+				return verdict.get();
+			}
+		}
+		// the evaluation of a class can add compatibility changes to the members of its interfaces
+		for (JApiClass jApiClass : evaluatedClasses) {
+			Optional<CompatibilityVerdict> verdict = findIncompatibility(jApiClass, evaluatedClasses.size());
+			if (verdict.isPresent()) {
+				return verdict.get();
+			}
+		}
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("No incompatibility found in %d of %d classes; %d classes have an unchanged hierarchy.", evaluatedClasses.size(), tasks.size(), tasks.size() - candidates.size()));
+		}
+		return CompatibilityVerdict.compatible(evaluatedClasses.size());
+	}
+
+	private Optional<CompatibilityVerdict> findIncompatibility(final JApiClass jApiClass, final int evaluatedClasses) {
+		final List<CompatibilityVerdict> verdicts = new ArrayList<>(1);
+		Filter.filter(Collections.singletonList(jApiClass), new Filter.FilterVisitor() {
+			@Override
+			public void visit(Iterator<JApiClass> iterator, JApiClass element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(Iterator<JApiMethod> iterator, JApiMethod element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(Iterator<JApiConstructor> iterator, JApiConstructor element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(Iterator<JApiImplementedInterface> iterator, JApiImplementedInterface element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(Iterator<JApiField> iterator, JApiField element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(Iterator<JApiAnnotation> iterator, JApiAnnotation element) {
+				check(element);
+			}
+
+			@Override
+			public void visit(JApiSuperclass element) {
+				check(element);
+			}
+
+			private void check(JApiCompatibility element) {
+				if (!verdicts.isEmpty()) {
+					return;
+				}
+				for (JApiCompatibilityChange change : element.getCompatibilityChanges()) {
+					if (changeFilter.isIncompatible(jApiClass, element, change)) {
+						verdicts.add(CompatibilityVerdict.incompatible(jApiClass, element, change, evaluatedClasses));
+						return;
+					}
+				}
+			}
+		});
+		return verdicts.isEmpty() ? Optional.<CompatibilityVerdict>absent() : Optional.of(verdicts.get(0));
+	}
+}
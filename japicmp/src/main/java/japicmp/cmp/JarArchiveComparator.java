@@ -12,19 +12,25 @@ import japicmp.model.JApiClass;
 import japicmp.model.JavaObjectSerializationCompatibility;
 import japicmp.output.OutputFilter;
 import japicmp.util.AnnotationHelper;
+import javassist.ClassPath;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.NotFoundException;
+import javassist.bytecode.ClassFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,16 +38,29 @@ import static japicmp.util.FileHelper.toFileList;
 
 /**
  * This class provides the basic methods to compare the classes within to jar archives.
+ * <p>
+ * The jar files of the classpath stay open as long as the comparator is used; {@link #close()} closes them.
  */
-public class JarArchiveComparator {
+public class JarArchiveComparator implements AutoCloseable {
 	private static final Logger LOGGER = Logger.getLogger(JarArchiveComparator.class.getName());
 	private ClassPool commonClassPool;
 	private ClassPool oldClassPool;
 	private ClassPool newClassPool;
+	private ClassPool sharedClassPool;
+	private SharedClassPath sharedClassPath;
+	private List<ClassPath> sharedClassPathEntries;
+	private final List<ClassPath> openClassPaths = new ArrayList<>();
+	private boolean classPoolsReleased = false;
 	private String commonClassPathAsString = "";
 	private String oldClassPathAsString = "";
 	private String newClassPathAsString = "";
 	private final JarArchiveComparatorOptions options;
+	private SuperclassCache superclassCache = new SuperclassCache();
+	private final SupertypeGraph supertypeGraph = new SupertypeGraph();
+	private final ComparisonMetrics metrics;
+	private final Map<CtClass, ClassFileDigest> classFileDigests;
+	private final Map<CtClass, String> apiFingerprints;
+	private final Map<ClassFileDigest, Optional<Long>> defaultSerialVersionUids;
 
 	/**
 	 * Constructs an instance of this class and performs a setup of the classpath
@@ -50,9 +69,50 @@ public class JarArchiveComparator {
 	 */
 	public JarArchiveComparator(JarArchiveComparatorOptions options) {
 		this.options = options;
+		this.metrics = new ComparisonMetrics();
+		this.classFileDigests = new IdentityHashMap<>();
+		this.apiFingerprints = new IdentityHashMap<>();
+		this.defaultSerialVersionUids = new HashMap<>();
 		setupClasspaths();
 	}
 
+	/**
+	 * Constructs an instance that compares one version with the archives already loaded by the given comparator.
+	 * The ClassPool of the shared side is reused, the classes of the other side are loaded into a new ClassPool
+	 * that belongs to this instance. In {@link JarArchiveComparatorOptions.ClassPathMode#ONE_COMMON_CLASSPATH} the
+	 * new ClassPool is a child of the common ClassPool. Its lookup order is chosen so that the classes of the new
+	 * version take precedence, as in a single comparison. In
+	 * {@link JarArchiveComparatorOptions.ClassPathMode#TWO_SEPARATE_CLASSPATHS} the ClassPool with the classpath
+	 * entries shared by both versions is reused as parent.
+	 */
+	private JarArchiveComparator(JarArchiveComparator sharedComparator, ArchiveType sharedArchiveType) {
+		this.options = sharedComparator.options;
+		this.metrics = sharedComparator.metrics;
+		this.classFileDigests = sharedComparator.classFileDigests;
+		this.apiFingerprints = sharedComparator.apiFingerprints;
+		this.defaultSerialVersionUids = sharedComparator.defaultSerialVersionUids;
+		this.commonClassPathAsString = sharedComparator.commonClassPathAsString;
+		this.oldClassPathAsString = sharedComparator.oldClassPathAsString;
+		this.newClassPathAsString = sharedComparator.newClassPathAsString;
+		this.sharedClassPool = sharedComparator.sharedClassPool;
+		this.sharedClassPath = sharedComparator.sharedClassPath;
+		this.sharedClassPathEntries = sharedComparator.sharedClassPathEntries;
+		if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.ONE_COMMON_CLASSPATH) {
+			commonClassPool = new MetricsClassPool(sharedComparator.commonClassPool, metrics, options.getThreads() > 1);
+			commonClassPool.childFirstLookup = sharedArchiveType == ArchiveType.OLD;
+		} else if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS) {
+			if (sharedArchiveType == ArchiveType.OLD) {
+				oldClassPool = sharedComparator.oldClassPool;
+				newClassPool = createSeparateClassPool(sharedClassPath.getNewEntries());
+			} else {
+				oldClassPool = createSeparateClassPool(sharedClassPath.getOldEntries());
+				newClassPool = sharedComparator.newClassPool;
+			}
+		} else {
+			throw new JApiCmpException(Reason.IllegalState, "Unknown classpath mode: " + this.options.getClassPathMode());
+		}
+	}
+
 	/**
 	 * Compares the two given archives.
 	 *
@@ -74,56 +134,216 @@ public class JarArchiveComparator {
 	 * @throws JApiCmpException if the comparison fails
 	 */
 	public List<JApiClass> compare(List<JApiCmpArchive> oldArchives, List<JApiCmpArchive> newArchives) {
-		return createAndCompareClassLists(toFileList(oldArchives), toFileList(newArchives));
+		metrics.reset();
+		classFileDigests.clear();
+		apiFingerprints.clear();
+		defaultSerialVersionUids.clear();
+		setupClasspathsIfReleased();
+		List<JApiClass> jApiClasses = createAndCompareClassLists(toFileList(oldArchives), toFileList(newArchives));
+		releaseClassPoolsIfDetached();
+		return jApiClasses;
+	}
+
+	/**
+	 * Checks if the new archives contain an incompatible change compared to the old archives, without building the
+	 * complete model. The classes are evaluated one by one, removed and changed classes first, and the check stops at
+	 * the first compatibility change that the given filter regards as incompatible. Classes that have the same API
+	 * as well as the same hierarchy in both versions are not evaluated at all.
+	 *
+	 * @param oldArchives  the old versions of the archives
+	 * @param newArchives  the new versions of the archives
+	 * @param changeFilter decides which compatibility changes are incompatible, e.g.
+	 *                     {@link CompatibilityVerdict#BINARY_INCOMPATIBLE}
+	 * @return the first incompatibility found or a compatible verdict
+	 * @throws JApiCmpException if the comparison fails
+	 */
+	public CompatibilityVerdict findIncompatibility(List<JApiCmpArchive> oldArchives, List<JApiCmpArchive> newArchives, CompatibilityVerdict.ChangeFilter changeFilter) {
+		metrics.reset();
+		classFileDigests.clear();
+		apiFingerprints.clear();
+		defaultSerialVersionUids.clear();
+		setupClasspathsIfReleased();
+		List<List<CtClass>> classLists = loadClassLists(toFileList(oldArchives), toFileList(newArchives));
+		List<CtClass> oldClasses = classLists.get(0);
+		List<CtClass> newClasses = classLists.get(1);
+		superclassCache = new SuperclassCache();
+		supertypeGraph.clear();
+		long start = metrics.start();
+		boolean sameClassPool = oldClasses.isEmpty() || newClasses.isEmpty() || oldClasses.get(0).getClassPool() == newClasses.get(0).getClassPool();
+		IdenticalClasses identicalClasses = new IdenticalClasses(oldClasses, newClasses, classFileDigests, apiFingerprints, sameClassPool);
+		ClassesComparator classesComparator = new ClassesComparator(this, options);
+		List<ClassesComparator.JApiClassTask> tasks = classesComparator.createTasks(applyFilter(options, oldClasses), applyFilter(options, newClasses), identicalClasses);
+		metrics.stop(ComparisonMetrics.Phase.COMPARE_CLASSES, start);
+		start = metrics.start();
+		CompatibilityVerdict verdict = new IncompatibilitySearch(this, changeFilter).search(tasks);
+		metrics.stop(ComparisonMetrics.Phase.COMPATIBILITY_CHANGES, start);
+		metrics.addSuperclassCacheStatistics(superclassCache.getMisses(), superclassCache.getHits());
+		releaseClassPoolsIfDetached();
+		return verdict;
+	}
+
+	/**
+	 * Compares the given old archives with several new versions. The classes of the old archives are only loaded
+	 * once and reused for all comparisons, as are the classes resolved from the classpath for them.
+	 *
+	 * @param oldArchives the old versions of the archives
+	 * @param newVersions the new versions, each given as list of archives
+	 * @return one list of {@link japicmp.model.JApiClass} per new version, in the order of the given versions
+	 * @throws JApiCmpException if the comparison fails
+	 */
+	public List<List<JApiClass>> compareWithNewVersions(List<JApiCmpArchive> oldArchives, List<List<JApiCmpArchive>> newVersions) {
+		metrics.reset();
+		classFileDigests.clear();
+		apiFingerprints.clear();
+		defaultSerialVersionUids.clear();
+		setupClasspathsIfReleased();
+		List<List<JApiClass>> results = createAndCompareClassLists(toFileList(oldArchives), ArchiveType.OLD, newVersions);
+		releaseClassPoolsIfDetached();
+		return results;
+	}
+
+	/**
+	 * Compares several old versions with the given new archives. The classes of the new archives are only loaded
+	 * once and reused for all comparisons, as are the classes resolved from the classpath for them.
+	 *
+	 * @param oldVersions the old versions, each given as list of archives
+	 * @param newArchives the new versions of the archives
+	 * @return one list of {@link japicmp.model.JApiClass} per old version, in the order of the given versions
+	 * @throws JApiCmpException if the comparison fails
+	 */
+	public List<List<JApiClass>> compareWithOldVersions(List<List<JApiCmpArchive>> oldVersions, List<JApiCmpArchive> newArchives) {
+		metrics.reset();
+		classFileDigests.clear();
+		apiFingerprints.clear();
+		defaultSerialVersionUids.clear();
+		setupClasspathsIfReleased();
+		List<List<JApiClass>> results = createAndCompareClassLists(toFileList(newArchives), ArchiveType.NEW, oldVersions);
+		releaseClassPoolsIfDetached();
+		return results;
+	}
+
+	/**
+	 * Releases the ClassPools and closes their classpath if the result is detached, as the ClassPools keep all
+	 * classes loaded during the comparison. New ClassPools are only set up when they are needed again, i.e. by the
+	 * next comparison, {@link #loadClass(ArchiveType, String)} or one of the getters for the ClassPools.
+	 */
+	private void releaseClassPoolsIfDetached() {
+		if (options.isDetachResult()) {
+			classFileDigests.clear();
+			apiFingerprints.clear();
+			defaultSerialVersionUids.clear();
+			close();
+			commonClassPool = null;
+			oldClassPool = null;
+			newClassPool = null;
+			sharedClassPool = null;
+			sharedClassPathEntries = null;
+			classPoolsReleased = true;
+		}
+	}
+
+	private void setupClasspathsIfReleased() {
+		if (classPoolsReleased) {
+			setupClasspaths();
+			classPoolsReleased = false;
+		}
 	}
 
 	private void checkJavaObjectSerializationCompatibility(List<JApiClass> jApiClasses) {
+		long start = metrics.start();
 		JavaObjectSerializationCompatibility javaObjectSerializationCompatibility = new JavaObjectSerializationCompatibility();
 		javaObjectSerializationCompatibility.evaluate(jApiClasses);
+		metrics.stop(ComparisonMetrics.Phase.SERIALIZATION_COMPATIBILITY, start);
 	}
 
 	private void setupClasspaths() {
 		if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.ONE_COMMON_CLASSPATH) {
-			commonClassPool = new ClassPool();
+			commonClassPool = new MetricsClassPool(metrics, options.getThreads() > 1);
 			commonClassPathAsString = setupClasspath(commonClassPool, this.options.getClassPathEntries());
 		} else if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS) {
-			oldClassPool = new ClassPool();
-			oldClassPathAsString = setupClasspath(oldClassPool, this.options.getOldClassPath());
-			newClassPool = new ClassPool();
-			newClassPathAsString = setupClasspath(newClassPool, this.options.getNewClassPath());
+			sharedClassPath = SharedClassPath.of(this.options.getOldClassPath(), this.options.getNewClassPath());
+			sharedClassPool = new MetricsClassPool(metrics, options.getThreads() > 1);
+			sharedClassPathEntries = appendUserDefinedClassPathEntries(sharedClassPool, sharedClassPath.getSharedEntries());
+			sharedClassPool.appendSystemPath();
+			oldClassPool = createSeparateClassPool(sharedClassPath.getOldEntries());
+			oldClassPathAsString = toClassPathAsString(this.options.getOldClassPath());
+			newClassPool = createSeparateClassPool(sharedClassPath.getNewEntries());
+			newClassPathAsString = toClassPathAsString(this.options.getNewClassPath());
 		} else {
 			throw new JApiCmpException(Reason.IllegalState, "Unknown classpath mode: " + this.options.getClassPathMode());
 		}
 	}
 
 	private String setupClasspath(ClassPool classPool, List<String> classPathEntries) {
-		String classPathAsString = appendUserDefinedClassPathEntries(classPool, classPathEntries);
-		return appendSystemClassPath(classPool, classPathAsString);
+		appendUserDefinedClassPathEntries(classPool, classPathEntries);
+		classPool.appendSystemPath();
+		return toClassPathAsString(classPathEntries);
 	}
 
-	private String appendSystemClassPath(ClassPool classPool, String classPathAsString) {
-		String retVal = classPathAsString;
-		classPool.appendSystemPath();
-		if (retVal.length() > 0 && !retVal.endsWith(File.pathSeparator)) {
-			retVal += File.pathSeparator;
-		}
-		return retVal;
+	/**
+	 * Creates the ClassPool for one version in {@link JarArchiveComparatorOptions.ClassPathMode#TWO_SEPARATE_CLASSPATHS}.
+	 * It only contains the classpath entries of this version; the entries shared with the other version and the
+	 * system path are served by the parent ClassPool, so that their classes are loaded only once.
+	 *
+	 * @param classPathEntries the entries that only belong to this version
+	 * @return the new ClassPool
+	 */
+	private ClassPool createSeparateClassPool(List<String> classPathEntries) {
+		ClassPool classPool = new VersionClassPool(sharedClassPool, sharedClassPathEntries, metrics, options.getThreads() > 1);
+		appendUserDefinedClassPathEntries(classPool, classPathEntries);
+		return classPool;
 	}
 
-	private String appendUserDefinedClassPathEntries(ClassPool classPool, List<String> classPathEntries) {
+	private static String toClassPathAsString(List<String> classPathEntries) {
 		StringBuilder classPathAsString = new StringBuilder();
 		for (String classPathEntry : classPathEntries) {
-			try {
-				classPool.appendClassPath(classPathEntry);
-				if (!classPathAsString.toString().endsWith(File.pathSeparator)) {
-					classPathAsString.append(File.pathSeparator);
+			classPathAsString.append(File.pathSeparator).append(classPathEntry);
+		}
+		if (classPathAsString.length() > 0) {
+			classPathAsString.append(File.pathSeparator);
+		}
+		return classPathAsString.toString();
+	}
+
+	private List<ClassPath> appendUserDefinedClassPathEntries(ClassPool classPool, List<String> classPathEntries) {
+		List<ClassPath> classPaths = new ArrayList<>();
+		List<String> jarFiles = new ArrayList<>();
+		for (String classPathEntry : classPathEntries) {
+			if (isJarFile(classPathEntry)) {
+				jarFiles.add(classPathEntry);
+			} else {
+				appendJarIndexClassPath(classPool, jarFiles, classPaths);
+				try {
+					classPaths.add(classPool.appendClassPath(classPathEntry));
+				} catch (NotFoundException e) {
+					throw JApiCmpException.forClassLoading(e, classPathEntry, this);
 				}
-				classPathAsString.append(classPathEntry);
-			} catch (NotFoundException e) {
-				throw JApiCmpException.forClassLoading(e, classPathEntry, this);
 			}
 		}
-		return classPathAsString.toString();
+		appendJarIndexClassPath(classPool, jarFiles, classPaths);
+		openClassPaths.addAll(classPaths);
+		return classPaths;
+	}
+
+	private static boolean isJarFile(String classPathEntry) {
+		String lowerCaseEntry = classPathEntry.toLowerCase(Locale.ENGLISH);
+		return lowerCaseEntry.endsWith(".jar") || lowerCaseEntry.endsWith(".zip");
+	}
+
+	/**
+	 * Appends one {@link JarIndexClassPath} for the given consecutive jar files of the classpath and clears the list.
+	 * Directories in between are appended separately, hence the order of the classpath is preserved.
+	 */
+	private void appendJarIndexClassPath(ClassPool classPool, List<String> jarFiles, List<ClassPath> classPaths) {
+		if (jarFiles.isEmpty()) {
+			return;
+		}
+		try {
+			classPaths.add(classPool.appendClassPath(JarIndexClassPath.create(jarFiles, options.getThreads())));
+		} catch (NotFoundException e) {
+			throw JApiCmpException.forClassLoading(e, e.getMessage(), this);
+		}
+		jarFiles.clear();
 	}
 
 	/**
@@ -153,22 +373,85 @@ public class JarArchiveComparator {
 		return newClassPathAsString;
 	}
 
-	private void checkBinaryCompatibility(List<JApiClass> classList) {
+	private void checkBinaryCompatibility(List<JApiClass> classList, Map<String, Callable<JApiClass>> unchangedClasses) {
+		long start = metrics.start();
 		CompatibilityChanges compatibilityChanges = new CompatibilityChanges(this);
-		compatibilityChanges.evaluate(classList);
+		compatibilityChanges.evaluate(classList, unchangedClasses);
+		metrics.stop(ComparisonMetrics.Phase.COMPATIBILITY_CHANGES, start);
 	}
 
 	private List<JApiClass> createAndCompareClassLists(List<File> oldArchives, List<File> newArchives) {
-		List<CtClass> oldClasses;
-		List<CtClass> newClasses;
+		List<List<CtClass>> classLists = loadClassLists(oldArchives, newArchives);
+		return compareClassLists(options, classLists.get(0), classLists.get(1));
+	}
+
+	private List<List<CtClass>> loadClassLists(List<File> oldArchives, List<File> newArchives) {
+		long start = metrics.start();
+		if (getClassPool(ArchiveType.OLD) == getClassPool(ArchiveType.NEW) && haveSameContent(oldArchives, newArchives)) {
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("Old and new archives have the same content. Loading their classes only once.");
+			}
+			List<CtClass> classes = createListOfCtClasses(oldArchives, getClassPool(ArchiveType.OLD), true);
+			metrics.stop(ComparisonMetrics.Phase.LOAD_CLASSES, start);
+			return Arrays.asList(classes, classes);
+		}
+		List<List<CtClass>> classLists = createListsOfCtClasses(Arrays.asList(oldArchives, newArchives), Arrays.asList(getClassPool(ArchiveType.OLD), getClassPool(ArchiveType.NEW)), true);
+		metrics.stop(ComparisonMetrics.Phase.LOAD_CLASSES, start);
+		return classLists;
+	}
+
+	private static boolean haveSameContent(List<File> oldArchives, List<File> newArchives) {
+		if (oldArchives.size() != newArchives.size()) {
+			return false;
+		}
+		for (int i = 0; i < oldArchives.size(); i++) {
+			File oldArchive = oldArchives.get(i);
+			File newArchive = newArchives.get(i);
+			try {
+				if (!com.google.common.io.Files.equal(oldArchive, newArchive)) {
+					return false;
+				}
+			} catch (IOException e) {
+				throw new JApiCmpException(Reason.IoException, String.format("Failed to compare jar file %s with %s: %s", oldArchive.getAbsolutePath(), newArchive.getAbsolutePath(), e.getMessage()), e);
+			}
+		}
+		return true;
+	}
+
+	private List<List<JApiClass>> createAndCompareClassLists(List<File> sharedArchives, ArchiveType sharedArchiveType, List<List<JApiCmpArchive>> versions) {
+		long start = metrics.start();
+		List<CtClass> sharedClasses = createListOfCtClasses(sharedArchives, getClassPool(sharedArchiveType), sharedArchiveType == ArchiveType.OLD);
+		metrics.stop(ComparisonMetrics.Phase.LOAD_CLASSES, start);
+		ArchiveType versionArchiveType = sharedArchiveType == ArchiveType.OLD ? ArchiveType.NEW : ArchiveType.OLD;
+		List<List<JApiClass>> results = new ArrayList<>(versions.size());
+		for (List<JApiCmpArchive> version : versions) {
+			JarArchiveComparator versionComparator = new JarArchiveComparator(this, sharedArchiveType);
+			try {
+				start = metrics.start();
+				List<CtClass> versionClasses = versionComparator.createListOfCtClasses(toFileList(version), versionComparator.getClassPool(versionArchiveType), versionArchiveType == ArchiveType.OLD);
+				metrics.stop(ComparisonMetrics.Phase.LOAD_CLASSES, start);
+				if (sharedArchiveType == ArchiveType.OLD) {
+					results.add(versionComparator.compareClassLists(options, sharedClasses, versionClasses));
+				} else {
+					results.add(versionComparator.compareClassLists(options, versionClasses, sharedClasses));
+				}
+			} finally {
+				// a detached result does not need the ClassPool of the version anymore; otherwise it is closed with this instance
+				if (options.isDetachResult()) {
+					versionComparator.close();
+				} else {
+					openClassPaths.addAll(versionComparator.openClassPaths);
+				}
+			}
+		}
+		return results;
+	}
+
+	private ClassPool getClassPool(ArchiveType archiveType) {
 		if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.ONE_COMMON_CLASSPATH) {
-			oldClasses = createListOfCtClasses(oldArchives, commonClassPool);
-			newClasses = createListOfCtClasses(newArchives, commonClassPool);
-			return compareClassLists(options, oldClasses, newClasses);
+			return commonClassPool;
 		} else if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS) {
-			oldClasses = createListOfCtClasses(oldArchives, oldClassPool);
-			newClasses = createListOfCtClasses(newArchives, newClassPool);
-			return compareClassLists(options, oldClasses, newClasses);
+			return archiveType == ArchiveType.OLD ? oldClassPool : newClassPool;
 		} else {
 			throw new JApiCmpException(Reason.IllegalState, "Unknown classpath mode: " + this.options.getClassPathMode());
 		}
@@ -185,17 +468,39 @@ public class JarArchiveComparator {
 	List<JApiClass> compareClassLists(JarArchiveComparatorOptions options, List<CtClass> oldClasses, List<CtClass> newClasses) {
 		List<CtClass> oldClassesFiltered = applyFilter(options, oldClasses);
 		List<CtClass> newClassesFiltered = applyFilter(options, newClasses);
+		superclassCache = new SuperclassCache();
+		supertypeGraph.clear();
+		long start = metrics.start();
+		boolean sameClassPool = oldClasses.isEmpty() || newClasses.isEmpty() || oldClasses.get(0).getClassPool() == newClasses.get(0).getClassPool();
+		IdenticalClasses identicalClasses = new IdenticalClasses(oldClasses, newClasses, classFileDigests, apiFingerprints, sameClassPool);
 		ClassesComparator classesComparator = new ClassesComparator(this, options);
-		classesComparator.compare(oldClassesFiltered, newClassesFiltered);
+		classesComparator.compare(oldClassesFiltered, newClassesFiltered, identicalClasses);
 		List<JApiClass> classList = classesComparator.getClasses();
+		metrics.stop(ComparisonMetrics.Phase.COMPARE_CLASSES, start);
 		if (LOGGER.isLoggable(Level.FINE)) {
 			for (JApiClass jApiClass : classList) {
 				LOGGER.fine(jApiClass.toString());
 			}
 		}
-		checkBinaryCompatibility(classList);
+		checkBinaryCompatibility(classList, classesComparator.getUnchangedClasses());
 		checkJavaObjectSerializationCompatibility(classList);
+		start = metrics.start();
 		OutputFilter.sortClassesAndMethods(classList);
+		metrics.stop(ComparisonMetrics.Phase.SORT, start);
+		for (JApiClass jApiClass : classList) {
+			jApiClass.freeze();
+		}
+		metrics.addSuperclassCacheStatistics(superclassCache.getMisses(), superclassCache.getHits());
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("Superclass cache: %d hits, %d misses.", superclassCache.getHits(), superclassCache.getMisses()));
+		}
+		if (options.isDetachResult()) {
+			for (JApiClass jApiClass : classList) {
+				jApiClass.detach();
+			}
+			superclassCache.clear();
+			supertypeGraph.clear();
+		}
 		return classList;
 	}
 
@@ -209,42 +514,83 @@ public class JarArchiveComparator {
 		return newList;
 	}
 
-	private List<CtClass> createListOfCtClasses(List<File> archives, ClassPool classPool) {
-		List<CtClass> classes = new LinkedList<>();
-		for (File archive : archives) {
-			if (LOGGER.isLoggable(Level.FINE)) {
-				LOGGER.fine("Loading classes from jar file '" + archive.getAbsolutePath() + "'");
+	private List<CtClass> createListOfCtClasses(List<File> archives, ClassPool classPool, boolean useSnapshots) {
+		return createListsOfCtClasses(Collections.singletonList(archives), Collections.singletonList(classPool), useSnapshots).get(0);
+	}
+
+	/**
+	 * Loads the classes of each list of archives into the ClassPool with the same index. The class files of all
+	 * lists are read and parsed in one go, hence the old and the new archives are processed at the same time if
+	 * more than one thread is configured. The classes are added to the ClassPools list by list and in the order
+	 * of the jar entries, so that the result does not depend on the number of threads.
+	 *
+	 * @param archiveLists the lists of archives
+	 * @param classPools   the ClassPool for each list
+	 * @param useSnapshots true if the first list may be loaded from the snapshot cache
+	 * @return the loaded classes for each list
+	 */
+	private List<List<CtClass>> createListsOfCtClasses(List<List<File>> archiveLists, List<ClassPool> classPools, boolean useSnapshots) {
+		boolean canFilterByClassName = !options.getFilters().hasAnnotationFilter();
+		Optional<ArchiveSnapshotCache> snapshotCache = Optional.absent();
+		if (useSnapshots && options.getCacheDirectory().isPresent()) {
+			snapshotCache = Optional.of(new ArchiveSnapshotCache(new File(options.getCacheDirectory().get())));
+		}
+		List<List<ClassFileLoader.LoadedArchive>> loadedArchiveLists = new ArrayList<>(archiveLists.size());
+		try (ClassFileLoader classFileLoader = new ClassFileLoader(options, createClassFileReader(), metrics)) {
+			for (int i = 0; i < archiveLists.size(); i++) {
+				List<ClassFileLoader.LoadedArchive> loadedArchives = new ArrayList<>();
+				for (File archive : archiveLists.get(i)) {
+					if (i == 0 && snapshotCache.isPresent()) {
+						loadedArchives.add(classFileLoader.addSnapshot(snapshotCache.get().load(archive), canFilterByClassName));
+					} else {
+						loadedArchives.add(classFileLoader.addArchive(archive, canFilterByClassName));
+					}
+				}
+				loadedArchiveLists.add(loadedArchives);
 			}
-			try (JarFile jarFile = new JarFile(archive)) {
-				Enumeration<JarEntry> entryEnumeration = jarFile.entries();
-				while (entryEnumeration.hasMoreElements()) {
-					JarEntry jarEntry = entryEnumeration.nextElement();
-					String name = jarEntry.getName();
-					if (name.endsWith(".class")) {
-						CtClass ctClass;
-						try {
-							ctClass = classPool.makeClass(jarFile.getInputStream(jarEntry));
-						} catch (Exception e) {
-							throw new JApiCmpException(Reason.IoException, String.format("Failed to load file from jar '%s' as class file: %s.", name, e.getMessage()), e);
-						}
-						classes.add(ctClass);
-						if (LOGGER.isLoggable(Level.FINE)) {
-							LOGGER.fine(String.format("Adding class '%s' with jar name '%s' to list.", ctClass.getName(), name));
-						}
-						if (name.endsWith("package-info.class")) {
-							updatePackageFilter(ctClass);
-						}
+			classFileLoader.load();
+		}
+		List<List<CtClass>> classLists = new ArrayList<>(archiveLists.size());
+		for (int i = 0; i < archiveLists.size(); i++) {
+			ClassPool classPool = classPools.get(i);
+			List<CtClass> classes = new LinkedList<>();
+			for (ClassFileLoader.LoadedArchive loadedArchive : loadedArchiveLists.get(i)) {
+				List<ClassFile> classFiles = loadedArchive.getClassFiles();
+				for (int j = 0; j < classFiles.size(); j++) {
+					CtClass ctClass = classPool.makeClass(classFiles.get(j), false);
+					classFileDigests.put(ctClass, loadedArchive.getDigests().get(j));
+					apiFingerprints.put(ctClass, loadedArchive.getApiFingerprints().get(j));
+					classes.add(ctClass);
+					if (ctClass.getName().endsWith("package-info")) {
+						updatePackageFilter(ctClass);
+					}
+				}
+				Optional<ArchiveSnapshotCache.Snapshot> snapshot = loadedArchive.getSnapshot();
+				if (snapshot.isPresent()) {
+					snapshotCache.get().rebuildIfInvalid(snapshot.get());
+				}
+				if (!loadedArchive.getSkippedEntries().isEmpty()) {
+					if (snapshot.isPresent()) {
+						classPool.insertClassPath(new SnapshotClassPath(snapshot.get(), loadedArchive.getSkippedEntries()));
 					} else {
-						if (LOGGER.isLoggable(Level.FINE)) {
-							LOGGER.fine(String.format("Skipping file '%s' because filename does not end with '.class'.", name));
-						}
+						classPool.insertClassPath(new SkippedEntriesClassPath(loadedArchive.getArchive(), loadedArchive.getSkippedEntries()));
 					}
 				}
-			} catch (IOException e) {
-				throw new JApiCmpException(Reason.IoException, String.format("Processing of jar file %s failed: %s", archive.getAbsolutePath(), e.getMessage()), e);
 			}
+			classLists.add(classes);
+		}
+		return classLists;
+	}
+
+	private ClassFileReader createClassFileReader() {
+		switch (options.getBytecodeReader()) {
+			case JAVASSIST:
+				return new JavassistClassFileReader();
+			case ASM:
+				return new AsmClassFileReader(options.isReadLineNumbers());
+			default:
+				throw new JApiCmpException(Reason.IllegalState, "Unknown bytecode reader: " + options.getBytecodeReader());
 		}
-		return classes;
 	}
 
 	private void updatePackageFilter(CtClass ctClass) {
@@ -276,6 +622,30 @@ public class JarArchiveComparator {
 		}
 	}
 
+	/**
+	 * Closes the jar files of the classpath opened by this instance, including the ones of the versions compared by
+	 * {@link #compareWithNewVersions(List, List)} and {@link #compareWithOldVersions(List, List)}. Classes that have
+	 * not been loaded yet cannot be loaded anymore afterwards, hence this instance and results that are not detached
+	 * (see {@link JarArchiveComparatorOptions#isDetachResult()}) should not be used after this method has been called.
+	 */
+	@Override
+	public void close() {
+		for (ClassPath classPath : openClassPaths) {
+			classPath.close();
+		}
+		openClassPaths.clear();
+	}
+
+	/**
+	 * Returns the metrics of the last comparison run. The instance can be passed to the output generators
+	 * to record their phases as well.
+	 *
+	 * @return the {@link japicmp.cmp.ComparisonMetrics} of this comparator
+	 */
+	public ComparisonMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Returns the instance of {@link japicmp.cmp.JarArchiveComparatorOptions} that is used.
 	 *
@@ -292,6 +662,7 @@ public class JarArchiveComparator {
 	 * @return an instance of ClassPool
 	 */
 	public ClassPool getCommonClassPool() {
+		setupClasspathsIfReleased();
 		return commonClassPool;
 	}
 
@@ -301,6 +672,7 @@ public class JarArchiveComparator {
 	 * @return an instance of ClassPool
      */
 	public ClassPool getOldClassPool() {
+		setupClasspathsIfReleased();
 		return oldClassPool;
 	}
 
@@ -310,9 +682,67 @@ public class JarArchiveComparator {
 	 * @return an instance of ClassPool
 	 */
 	public ClassPool getNewClassPool() {
+		setupClasspathsIfReleased();
 		return newClassPool;
 	}
 
+	/**
+	 * Returns the cache for the {@link japicmp.model.JApiClass} representations of superclasses. Each comparison
+	 * gets a new cache, which counts its hits and misses; a {@link japicmp.model.JApiSuperclass} keeps the cache of
+	 * the comparison that created it.
+	 *
+	 * @return the {@link japicmp.cmp.SuperclassCache} of the current comparison
+	 */
+	public SuperclassCache getSuperclassCache() {
+		return superclassCache;
+	}
+
+	/**
+	 * Returns the memoized supertype information (implemented interfaces, checked exceptions, serializability) of
+	 * the classes of the current comparison. It is reset at the beginning of each comparison.
+	 *
+	 * @return the {@link japicmp.cmp.SupertypeGraph} of the current comparison
+	 */
+	public SupertypeGraph getSupertypeGraph() {
+		return supertypeGraph;
+	}
+
+	/**
+	 * Returns the fingerprint of the API of the given class, i.e. a hash over all parts of the class file that are
+	 * reflected by its {@link japicmp.model.JApiClass}. Two classes with the same fingerprint differ at most in the
+	 * code of their methods.
+	 *
+	 * @param ctClass a class of the compared archives
+	 * @return the fingerprint or Optional.absent() if the class was not loaded from the compared archives
+	 */
+	public Optional<String> getApiFingerprint(CtClass ctClass) {
+		return Optional.fromNullable(apiFingerprints.get(ctClass));
+	}
+
+	/**
+	 * Returns the default serialVersionUID of the given class as defined in the Java Object Serialization
+	 * Specification. It is computed when it is requested for the first time; for the classes of the compared archives
+	 * the value is cached by the content of the class file, hence a class loaded for several comparisons is only
+	 * hashed once.
+	 *
+	 * @param ctClass the class
+	 * @return the default serialVersionUID or Optional.absent() if it cannot be computed
+	 */
+	public Optional<Long> getDefaultSerialVersionUid(CtClass ctClass) {
+		synchronized (defaultSerialVersionUids) {
+			ClassFileDigest classFileDigest = classFileDigests.get(ctClass);
+			if (classFileDigest == null) {
+				return JavaObjectSerializationCompatibility.computeDefaultSerialVersionUid(ctClass);
+			}
+			Optional<Long> defaultSerialVersionUid = defaultSerialVersionUids.get(classFileDigest);
+			if (defaultSerialVersionUid == null) {
+				defaultSerialVersionUid = JavaObjectSerializationCompatibility.computeDefaultSerialVersionUid(ctClass);
+				defaultSerialVersionUids.put(classFileDigest, defaultSerialVersionUid);
+			}
+			return defaultSerialVersionUid;
+		}
+	}
+
 	public enum ArchiveType {
 		OLD, NEW
 	}
@@ -325,6 +755,7 @@ public class JarArchiveComparator {
 	 * @throws japicmp.exception.JApiCmpException if loading the class fails
 	 */
 	public Optional<CtClass> loadClass(ArchiveType archiveType, String name) {
+		setupClasspathsIfReleased();
 		Optional<CtClass> loadedClass = Optional.absent();
 		if (this.options.getClassPathMode() == JarArchiveComparatorOptions.ClassPathMode.ONE_COMMON_CLASSPATH) {
 			try {
@@ -26,16 +26,32 @@ public class JarArchiveComparatorOptions {
 	private List<String> newClassPath = new LinkedList<>();
 	private boolean noAnnotations = false;
 	private boolean includeClassFileFormatVersion = false;
+	private int threads = 1;
+	private Optional<String> cacheDirectory = Optional.absent();
+	private boolean detachResult = false;
+	private BytecodeReader bytecodeReader = BytecodeReader.JAVASSIST;
+	private boolean readLineNumbers = true;
+	private boolean onlyModifications = false;
 
 	/**
 	 * When both versions of the archives under comparison use the exact same classpath
 	 * only one classpath has to be provided. If the two class paths differ, both separate class paths
-	 * can be provided.
+	 * can be provided. Entries that occur in both class paths (same path or same jar file content) are
+	 * only loaded once; the entries of each class path that are not shared take precedence over them.
 	 */
 	public enum ClassPathMode {
 		ONE_COMMON_CLASSPATH, TWO_SEPARATE_CLASSPATHS
 	}
 
+	/**
+	 * The library used to read the class files of the compared archives. JAVASSIST parses the complete class
+	 * files. ASM skips the method bodies and builds the javassist class files from what remains, which is faster and
+	 * keeps less in memory. Class files that ASM cannot read are parsed by javassist.
+	 */
+	public enum BytecodeReader {
+		JAVASSIST, ASM
+	}
+
 	public static JarArchiveComparatorOptions of(Options options) {
 		JarArchiveComparatorOptions comparatorOptions = new JarArchiveComparatorOptions();
 		comparatorOptions.getFilters().getExcludes().addAll(options.getExcludes());
@@ -47,6 +63,10 @@ public class JarArchiveComparatorOptions {
 		toJarArchiveComparatorClassPath(options.getOldClassPath(), comparatorOptions.getOldClassPath());
 		toJarArchiveComparatorClassPath(options.getNewClassPath(), comparatorOptions.getNewClassPath());
 		comparatorOptions.setNoAnnotations(options.isNoAnnotations());
+		comparatorOptions.setThreads(options.getThreads());
+		comparatorOptions.setCacheDirectory(options.getCacheDirectory());
+		comparatorOptions.setDetachResult(options.isDetachResult());
+		comparatorOptions.setBytecodeReader(options.getBytecodeReader());
 		return comparatorOptions;
 	}
 
@@ -137,4 +157,93 @@ public class JarArchiveComparatorOptions {
 	public boolean isIncludeClassFileFormatVersion() {
 		return includeClassFileFormatVersion;
 	}
+
+	/**
+	 * Sets the number of threads used to read and parse the class files of the archives, to compare the classes of
+	 * the two versions and to evaluate their compatibility changes. A value of one (the default) does all work on the
+	 * calling thread; the result does not depend on this setting.
+	 *
+	 * @param threads the number of threads (must be greater than zero)
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalArgument, "Number of threads must be greater than zero: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the directory in which compact snapshots of the old archives are stored. If present, an old archive
+	 * whose content has already been seen is loaded from its snapshot instead of being parsed again.
+	 *
+	 * @param cacheDirectory the cache directory or Optional.absent() to disable the cache
+	 */
+	public void setCacheDirectory(Optional<String> cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	public Optional<String> getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * If set to true, the returned {@link japicmp.model.JApiClass} instances no longer reference the Javassist
+	 * classes and ClassPools used during the comparison (see {@link japicmp.model.JApiClass#detach()}). This reduces
+	 * the memory retained by the result, but the getters returning Javassist types return Optional.absent().
+	 *
+	 * @param detachResult true if the result should be detached
+	 */
+	public void setDetachResult(boolean detachResult) {
+		this.detachResult = detachResult;
+	}
+
+	public boolean isDetachResult() {
+		return detachResult;
+	}
+
+	public void setBytecodeReader(BytecodeReader bytecodeReader) {
+		this.bytecodeReader = bytecodeReader;
+	}
+
+	public BytecodeReader getBytecodeReader() {
+		return bytecodeReader;
+	}
+
+	/**
+	 * Sets whether the line numbers of methods and constructors are read (the default). Only
+	 * {@link BytecodeReader#ASM} makes use of this setting: without line numbers the code of the methods is not
+	 * decoded at all.
+	 *
+	 * @param readLineNumbers false if the line numbers are not needed
+	 */
+	public void setReadLineNumbers(boolean readLineNumbers) {
+		this.readLineNumbers = readLineNumbers;
+	}
+
+	public boolean isReadLineNumbers() {
+		return readLineNumbers;
+	}
+
+	/**
+	 * If set to true, the result does not contain unchanged classes. Classes that have the same API in both versions
+	 * and whose supertypes within the archives have the same API as well are not built at all; the compatibility
+	 * checks of other classes create them on demand if they need them as superclass or interface. The classes of the
+	 * result are built completely, including their unchanged members, as the compatibility checks of a class read the
+	 * unchanged members of the class and of its ancestors. Outputs generated with
+	 * {@link japicmp.config.Options#isOutputOnlyModifications()} are the same as in the default mode, but an output
+	 * that reports unchanged classes (like the semantic version of an unchanged archive) cannot be derived from it.
+	 *
+	 * @param onlyModifications true if unchanged classes should not be part of the result
+	 */
+	public void setOnlyModifications(boolean onlyModifications) {
+		this.onlyModifications = onlyModifications;
+	}
+
+	public boolean isOnlyModifications() {
+		return onlyModifications;
+	}
 }
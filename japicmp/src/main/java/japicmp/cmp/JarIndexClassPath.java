@@ -0,0 +1,218 @@
+package japicmp.cmp;
+
+import japicmp.exception.JApiCmpException;
+import japicmp.exception.JApiCmpException.Reason;
+import javassist.ClassPath;
+import javassist.NotFoundException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes the classes of several jar files available to a javassist ClassPool through one index from class name to
+ * jar file. Javassist adds one ClassPath per jar file, hence each class that is not found has to be looked up in
+ * every jar file of a long classpath. The central directories of all jar files are read once when this instance is
+ * created (in parallel if more than one thread is configured); afterwards a lookup costs a single hash probe. If a
+ * class is contained in several jar files, the first jar file in the given order wins, as with separate ClassPaths.
+ */
+class JarIndexClassPath implements ClassPath {
+	private static final Logger LOGGER = Logger.getLogger(JarIndexClassPath.class.getName());
+	private final List<JarFile> jarFiles;
+	private final Map<String, JarFile> jarFilesByClassName;
+
+	private JarIndexClassPath(List<JarFile> jarFiles, Map<String, JarFile> jarFilesByClassName) {
+		this.jarFiles = jarFiles;
+		this.jarFilesByClassName = jarFilesByClassName;
+	}
+
+	/**
+	 * Reads the central directories of the given jar files and creates the index.
+	 *
+	 * @param jarPaths the paths of the jar files in classpath order
+	 * @param threads  the number of threads used to read the jar files
+	 * @return the new ClassPath
+	 * @throws NotFoundException if one of the jar files cannot be read; the message is the path of this jar file
+	 */
+	static JarIndexClassPath create(List<String> jarPaths, int threads) throws NotFoundException {
+		List<Callable<IndexedJarFile>> tasks = new ArrayList<>(jarPaths.size());
+		for (final String jarPath : jarPaths) {
+			tasks.add(new Callable<IndexedJarFile>() {
+				@Override
+				public IndexedJarFile call() throws NotFoundException {
+					return IndexedJarFile.read(jarPath);
+				}
+			});
+		}
+		List<IndexedJarFile> indexedJarFiles = new ArrayList<>(tasks.size());
+		try {
+			if (threads > 1 && tasks.size() > 1) {
+				readInParallel(tasks, threads, indexedJarFiles);
+			} else {
+				for (Callable<IndexedJarFile> task : tasks) {
+					indexedJarFiles.add(task.call());
+				}
+			}
+		} catch (NotFoundException | RuntimeException e) {
+			close(indexedJarFiles);
+			throw e;
+		} catch (Exception e) {
+			close(indexedJarFiles);
+			throw new NotFoundException(e.getMessage(), e);
+		}
+		List<JarFile> jarFiles = new ArrayList<>(indexedJarFiles.size());
+		int numberOfClasses = 0;
+		for (IndexedJarFile indexedJarFile : indexedJarFiles) {
+			numberOfClasses += indexedJarFile.classNames.size();
+		}
+		Map<String, JarFile> jarFilesByClassName = new HashMap<>(numberOfClasses * 4 / 3 + 1);
+		for (IndexedJarFile indexedJarFile : indexedJarFiles) {
+			jarFiles.add(indexedJarFile.jarFile);
+			for (String className : indexedJarFile.classNames) {
+				if (!jarFilesByClassName.containsKey(className)) {
+					jarFilesByClassName.put(className, indexedJarFile.jarFile);
+				}
+			}
+		}
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("Indexed %d classes of %d jar files.", jarFilesByClassName.size(), jarFiles.size()));
+		}
+		return new JarIndexClassPath(jarFiles, jarFilesByClassName);
+	}
+
+	private static void readInParallel(List<Callable<IndexedJarFile>> tasks, int threads, List<IndexedJarFile> indexedJarFiles) throws Exception {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(threads);
+		try {
+			List<Future<IndexedJarFile>> futures = forkJoinPool.invokeAll(tasks);
+			Exception exception = null;
+			for (Future<IndexedJarFile> future : futures) {
+				try {
+					indexedJarFiles.add(future.get());
+				} catch (ExecutionException e) {
+					if (exception == null) {
+						exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+					}
+				}
+			}
+			if (exception != null) {
+				throw exception;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(Reason.IllegalState, "Reading of the classpath was interrupted.", e);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	private static void close(List<IndexedJarFile> indexedJarFiles) {
+		for (IndexedJarFile indexedJarFile : indexedJarFiles) {
+			closeQuietly(indexedJarFile.jarFile);
+		}
+	}
+
+	private static void closeQuietly(JarFile jarFile) {
+		try {
+			jarFile.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.FINE, "Failed to close jar file '" + jarFile.getName() + "': " + e.getMessage(), e);
+		}
+	}
+
+	private static String toEntryName(String classname) {
+		return classname.replace('.', '/') + ".class";
+	}
+
+	@Override
+	public InputStream openClassfile(String classname) throws NotFoundException {
+		JarFile jarFile = jarFilesByClassName.get(classname);
+		if (jarFile == null) {
+			return null;
+		}
+		String entryName = toEntryName(classname);
+		try {
+			JarEntry jarEntry = jarFile.getJarEntry(entryName);
+			if (jarEntry == null) {
+				throw new NotFoundException(classname);
+			}
+			return jarFile.getInputStream(jarEntry);
+		} catch (IOException e) {
+			throw new NotFoundException("Failed to read class '" + classname + "' from jar file '" + jarFile.getName() + "': " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public URL find(String classname) {
+		JarFile jarFile = jarFilesByClassName.get(classname);
+		if (jarFile == null) {
+			return null;
+		}
+		try {
+			return new URL("jar:" + new File(jarFile.getName()).toURI().toURL() + "!/" + toEntryName(classname));
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() {
+		for (JarFile jarFile : jarFiles) {
+			closeQuietly(jarFile);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (JarFile jarFile : jarFiles) {
+			if (sb.length() > 0) {
+				sb.append(File.pathSeparator);
+			}
+			sb.append(jarFile.getName());
+		}
+		return sb.toString();
+	}
+
+	private static class IndexedJarFile {
+		private final JarFile jarFile;
+		private final List<String> classNames;
+
+		private IndexedJarFile(JarFile jarFile, List<String> classNames) {
+			this.jarFile = jarFile;
+			this.classNames = classNames;
+		}
+
+		static IndexedJarFile read(String jarPath) throws NotFoundException {
+			JarFile jarFile;
+			try {
+				jarFile = new JarFile(jarPath);
+			} catch (IOException e) {
+				throw new NotFoundException(jarPath, e);
+			}
+			List<String> classNames = new ArrayList<>(jarFile.size());
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.endsWith(".class")) {
+					classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+				}
+			}
+			return new IndexedJarFile(jarFile, classNames);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package japicmp.cmp;
+
+import javassist.bytecode.ClassFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Lets javassist parse the complete class file, including all method bodies.
+ */
+class JavassistClassFileReader implements ClassFileReader {
+
+	@Override
+	public ClassFile read(byte[] classFile) throws IOException {
+		return new ClassFile(new DataInputStream(new ByteArrayInputStream(classFile)));
+	}
+}
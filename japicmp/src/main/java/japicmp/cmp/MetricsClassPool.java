@@ -0,0 +1,51 @@
+package japicmp.cmp;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+
+/**
+ * A javassist ClassPool that counts the requested classes and the requests that could not be answered from its
+ * cache in the given {@link japicmp.cmp.ComparisonMetrics}.
+ * <p>
+ * Javassist classes read their class file lazily and ClassPool.compress() releases the class files of classes that
+ * are rarely used. The lazy read in CtClass.getClassFile2() is not synchronized and may run compress(), i.e. when
+ * several threads build or evaluate the model, two threads may parse the same class file and one thread may release
+ * the class file another one is about to read. If the pool is shared by several threads, each class it hands out is
+ * therefore read under the lock of the class itself: javassist builds the member cache of a class under this lock
+ * and without calling compress(), and does not release a class file as long as the member cache exists. Classes
+ * that are never requested are not read, and the class files stay releasable as the classes are not marked as
+ * modified.
+ */
+class MetricsClassPool extends ClassPool {
+	private final ComparisonMetrics metrics;
+	private final boolean concurrent;
+
+	MetricsClassPool(ComparisonMetrics metrics, boolean concurrent) {
+		this.metrics = metrics;
+		this.concurrent = concurrent;
+	}
+
+	MetricsClassPool(ClassPool parent, ComparisonMetrics metrics, boolean concurrent) {
+		super(parent);
+		this.metrics = metrics;
+		this.concurrent = concurrent;
+	}
+
+	@Override
+	public CtClass get(String classname) throws NotFoundException {
+		metrics.incrementClassPoolGets();
+		CtClass ctClass = super.get(classname);
+		if (concurrent && !ctClass.isPrimitive() && !ctClass.isArray()) {
+			// builds the member cache under the lock of the class, reading the class file if necessary
+			ctClass.getDeclaredFields();
+		}
+		return ctClass;
+	}
+
+	@Override
+	protected CtClass createCtClass(String classname, boolean useCache) {
+		metrics.incrementClassPoolMisses();
+		return super.createCtClass(classname, useCache);
+	}
+}
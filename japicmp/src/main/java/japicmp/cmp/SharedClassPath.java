@@ -0,0 +1,83 @@
+package japicmp.cmp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Splits the old and the new classpath into the entries both start with and the entries that only belong to one of
+ * them. Two entries are the same if their canonical paths are equal; the content of the entries is not read. The
+ * common entries can be served by one ClassPool that is the parent of the ClassPools of both versions, hence their
+ * classes are only loaded once. Only the common prefix is shared, so that the lookup order of each version stays the
+ * order of its classpath (see {@link VersionClassPool}).
+ * <p>
+ * The classes of the shared entries are resolved by the parent ClassPool, i.e. against the shared entries and the
+ * system path. A reference from a shared class to a class that is only found in the classpath of one version or in
+ * the compared archives can therefore not be resolved. Use separate classpaths without a common prefix if the
+ * classpath contains such entries.
+ */
+class SharedClassPath {
+	private static final Logger LOGGER = Logger.getLogger(SharedClassPath.class.getName());
+	private final List<String> sharedEntries = new ArrayList<>();
+	private final List<String> oldEntries = new ArrayList<>();
+	private final List<String> newEntries = new ArrayList<>();
+
+	private SharedClassPath() {
+
+	}
+
+	static SharedClassPath of(List<String> oldClassPath, List<String> newClassPath) {
+		SharedClassPath sharedClassPath = new SharedClassPath();
+		int prefixLength = 0;
+		while (prefixLength < oldClassPath.size() && prefixLength < newClassPath.size()
+			&& toCanonicalFile(oldClassPath.get(prefixLength)).equals(toCanonicalFile(newClassPath.get(prefixLength)))) {
+			prefixLength++;
+		}
+		sharedClassPath.sharedEntries.addAll(oldClassPath.subList(0, prefixLength));
+		sharedClassPath.oldEntries.addAll(oldClassPath.subList(prefixLength, oldClassPath.size()));
+		sharedClassPath.newEntries.addAll(newClassPath.subList(prefixLength, newClassPath.size()));
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("Old and new classpath share %d entries: %s", sharedClassPath.sharedEntries.size(), sharedClassPath.sharedEntries));
+		}
+		return sharedClassPath;
+	}
+
+	private static File toCanonicalFile(String classPathEntry) {
+		File file = new File(classPathEntry);
+		try {
+			return file.getCanonicalFile();
+		} catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	/**
+	 * Returns the entries both classpaths start with.
+	 *
+	 * @return the shared entries
+	 */
+	List<String> getSharedEntries() {
+		return sharedEntries;
+	}
+
+	/**
+	 * Returns the entries of the old classpath after the shared entries, in their original order.
+	 *
+	 * @return the entries of the old classpath
+	 */
+	List<String> getOldEntries() {
+		return oldEntries;
+	}
+
+	/**
+	 * Returns the entries of the new classpath after the shared entries, in their original order.
+	 *
+	 * @return the entries of the new classpath
+	 */
+	List<String> getNewEntries() {
+		return newEntries;
+	}
+}
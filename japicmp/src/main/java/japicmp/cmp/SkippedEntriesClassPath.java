@@ -0,0 +1,78 @@
+package japicmp.cmp;
+
+import javassist.ClassPath;
+import javassist.NotFoundException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Makes the classes of an archive that have not been loaded because of the filters available to a javassist
+ * ClassPool. This way such classes can still be resolved e.g. as superclass or interface of an included class,
+ * but the class file is only read when it is actually needed.
+ */
+class SkippedEntriesClassPath implements ClassPath {
+	private final File archive;
+	private final Map<String, String> entryNamesByClassName;
+
+	SkippedEntriesClassPath(File archive, Map<String, String> entryNamesByClassName) {
+		this.archive = archive;
+		this.entryNamesByClassName = entryNamesByClassName;
+	}
+
+	@Override
+	public InputStream openClassfile(String classname) throws NotFoundException {
+		String entryName = entryNamesByClassName.get(classname);
+		if (entryName == null) {
+			return null;
+		}
+		try (JarFile jarFile = new JarFile(archive)) {
+			JarEntry jarEntry = jarFile.getJarEntry(entryName);
+			if (jarEntry == null) {
+				throw new NotFoundException(classname);
+			}
+			try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = inputStream.read(buffer)) != -1) {
+					outputStream.write(buffer, 0, read);
+				}
+				return new ByteArrayInputStream(outputStream.toByteArray());
+			}
+		} catch (IOException e) {
+			throw new NotFoundException("Failed to read class '" + classname + "' from jar file '" + archive.getAbsolutePath() + "': " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public URL find(String classname) {
+		String entryName = entryNamesByClassName.get(classname);
+		if (entryName == null) {
+			return null;
+		}
+		try {
+			return new URL("jar:" + archive.toURI().toURL() + "!/" + entryName);
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() {
+		// nothing to close, the archive is only opened on demand
+	}
+
+	@Override
+	public String toString() {
+		return archive.getAbsolutePath();
+	}
+}
@@ -0,0 +1,55 @@
+package japicmp.cmp;
+
+import javassist.ClassPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Makes the classes of an archive snapshot that have not been loaded because of the filters available to a
+ * javassist ClassPool (see {@link japicmp.cmp.ArchiveSnapshotCache}).
+ */
+class SnapshotClassPath implements ClassPath {
+	private final ArchiveSnapshotCache.Snapshot snapshot;
+	private final Map<String, String> entryNamesByClassName;
+
+	SnapshotClassPath(ArchiveSnapshotCache.Snapshot snapshot, Map<String, String> entryNamesByClassName) {
+		this.snapshot = snapshot;
+		this.entryNamesByClassName = entryNamesByClassName;
+	}
+
+	@Override
+	public InputStream openClassfile(String classname) {
+		String entryName = entryNamesByClassName.get(classname);
+		if (entryName == null) {
+			return null;
+		}
+		return new ByteArrayInputStream(snapshot.getEntry(entryName).getClassFile());
+	}
+
+	@Override
+	public URL find(String classname) {
+		String entryName = entryNamesByClassName.get(classname);
+		if (entryName == null) {
+			return null;
+		}
+		try {
+			return new URL("jar:" + snapshot.getArchive().toURI().toURL() + "!/" + entryName);
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() {
+		// nothing to close, the snapshot file is memory mapped
+	}
+
+	@Override
+	public String toString() {
+		return snapshot.getArchive().getAbsolutePath();
+	}
+}
@@ -0,0 +1,138 @@
+package japicmp.cmp;
+
+import japicmp.exception.JApiCmpException;
+import japicmp.model.JApiClass;
+import japicmp.util.Optional;
+import javassist.CtClass;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the {@link japicmp.model.JApiClass} instances built for superclasses during one comparison.
+ * Shared base classes are therefore only diffed once instead of once per subclass and check. Concurrent callers
+ * asking for the same superclass wait for the instance built by the first one. The superclasses are identified by
+ * their CtClass instances, i.e. a superclass of another comparison is never returned, even if it has the same name.
+ */
+public class SuperclassCache {
+	private final ConcurrentMap<Key, FutureTask<JApiClass>> cache = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the cached superclass for the given combination of old and new superclass. If nothing has been cached
+	 * yet, the given factory creates the superclass; the check and the creation are atomic, hence all callers get the
+	 * same instance.
+	 *
+	 * @param oldSuperclass the superclass in the old version (absent if not present)
+	 * @param newSuperclass the superclass in the new version (absent if not present)
+	 * @param factory       creates the superclass if it has not been cached yet
+	 * @return the cached {@link japicmp.model.JApiClass}
+	 */
+	public JApiClass getOrCreate(Optional<CtClass> oldSuperclass, Optional<CtClass> newSuperclass, Callable<JApiClass> factory) {
+		Key key = new Key(oldSuperclass, newSuperclass);
+		FutureTask<JApiClass> futureTask = cache.get(key);
+		if (futureTask == null) {
+			FutureTask<JApiClass> newFutureTask = new FutureTask<>(factory);
+			futureTask = cache.putIfAbsent(key, newFutureTask);
+			if (futureTask == null) {
+				misses.incrementAndGet();
+				futureTask = newFutureTask;
+				futureTask.run();
+			} else {
+				hits.incrementAndGet();
+			}
+		} else {
+			hits.incrementAndGet();
+		}
+		try {
+			return futureTask.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Creation of superclass was interrupted.", e);
+		} catch (ExecutionException e) {
+			cache.remove(key, futureTask);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Creation of superclass failed: " + cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Returns the superclass for the given combination of old and new superclass if it has already been created,
+	 * without creating it.
+	 *
+	 * @param oldSuperclass the superclass in the old version (absent if not present)
+	 * @param newSuperclass the superclass in the new version (absent if not present)
+	 * @return the cached {@link japicmp.model.JApiClass} or Optional.absent() if it has not been created (yet)
+	 */
+	public Optional<JApiClass> getIfCreated(Optional<CtClass> oldSuperclass, Optional<CtClass> newSuperclass) {
+		FutureTask<JApiClass> futureTask = cache.get(new Key(oldSuperclass, newSuperclass));
+		if (futureTask == null || !futureTask.isDone()) {
+			return Optional.absent();
+		}
+		try {
+			return Optional.of(futureTask.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Optional.absent();
+		} catch (ExecutionException e) {
+			return Optional.absent();
+		}
+	}
+
+	public void clear() {
+		cache.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Compares the superclasses by identity, as the CtClass instances of one comparison are unique within their
+	 * ClassPool.
+	 */
+	private static class Key {
+		private final CtClass oldSuperclass;
+		private final CtClass newSuperclass;
+
+		Key(Optional<CtClass> oldSuperclass, Optional<CtClass> newSuperclass) {
+			this.oldSuperclass = oldSuperclass.isPresent() ? oldSuperclass.get() : null;
+			this.newSuperclass = newSuperclass.isPresent() ? newSuperclass.get() : null;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Key key = (Key) o;
+			return oldSuperclass == key.oldSuperclass && newSuperclass == key.newSuperclass;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(oldSuperclass) + System.identityHashCode(newSuperclass);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package japicmp.cmp;
+
+import javassist.CtClass;
+import javassist.NotFoundException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoizes the supertype information of the classes of one comparison: the transitive set of implemented
+ * interfaces and whether a class is a checked exception or serializable. The information is stored per CtClass
+ * instance. As each ClassPool returns the same instance for a class name, the old and the new side of a comparison
+ * each form their own graph and every supertype is only resolved once, regardless of the number of subclasses.
+ */
+public class SupertypeGraph {
+	private static final String JAVA_LANG_EXCEPTION = Exception.class.getName();
+	private static final String JAVA_LANG_RUNTIME_EXCEPTION = RuntimeException.class.getName();
+	private static final String JAVA_IO_SERIALIZABLE = java.io.Serializable.class.getName();
+	private final Map<CtClass, Map<String, CtClass>> interfaces = new ConcurrentHashMap<>();
+	private final Map<CtClass, ExceptionType> exceptionTypes = new ConcurrentHashMap<>();
+	private final Map<CtClass, Boolean> serializable = new ConcurrentHashMap<>();
+
+	private enum ExceptionType {
+		NO_EXCEPTION, CHECKED_EXCEPTION, RUNTIME_EXCEPTION
+	}
+
+	/**
+	 * Adds all interfaces the given class implements directly or through its superclasses and super interfaces to
+	 * the given map (key is the name of the interface). If a type cannot be resolved, the interfaces found so far
+	 * are added before the exception is thrown.
+	 *
+	 * @param ctClass the class
+	 * @param map     the map to add the interfaces to
+	 * @throws NotFoundException if a supertype cannot be resolved
+	 */
+	public void collectInterfaces(CtClass ctClass, Map<String, CtClass> map) throws NotFoundException {
+		Map<String, CtClass> cachedInterfaces = interfaces.get(ctClass);
+		if (cachedInterfaces != null) {
+			map.putAll(cachedInterfaces);
+			return;
+		}
+		Map<String, CtClass> allInterfaces = new HashMap<>();
+		try {
+			for (CtClass ctInterface : ctClass.getInterfaces()) {
+				allInterfaces.put(ctInterface.getName(), ctInterface);
+				collectInterfaces(ctInterface, allInterfaces);
+			}
+			CtClass superclass = ctClass.getSuperclass();
+			if (superclass != null) {
+				collectInterfaces(superclass, allInterfaces);
+			}
+			interfaces.put(ctClass, Collections.unmodifiableMap(allInterfaces));
+		} finally {
+			map.putAll(allInterfaces);
+		}
+	}
+
+	/**
+	 * Returns true if the given class is a subclass of java.lang.Exception but not of java.lang.RuntimeException.
+	 * Superclasses that cannot be resolved end the search, like in {@link CtClass#subclassOf(CtClass)}.
+	 *
+	 * @param ctClass the class
+	 * @return true if the class is a checked exception
+	 */
+	public boolean isCheckedException(CtClass ctClass) {
+		return getExceptionType(ctClass) == ExceptionType.CHECKED_EXCEPTION;
+	}
+
+	private ExceptionType getExceptionType(CtClass ctClass) {
+		ExceptionType exceptionType = exceptionTypes.get(ctClass);
+		if (exceptionType == null) {
+			String name = ctClass.getName();
+			if (JAVA_LANG_RUNTIME_EXCEPTION.equals(name)) {
+				exceptionType = ExceptionType.RUNTIME_EXCEPTION;
+			} else if (JAVA_LANG_EXCEPTION.equals(name)) {
+				exceptionType = ExceptionType.CHECKED_EXCEPTION;
+			} else {
+				CtClass superclass = null;
+				try {
+					superclass = ctClass.getSuperclass();
+				} catch (NotFoundException ignored) {
+					// the search ends here
+				}
+				exceptionType = superclass == null ? ExceptionType.NO_EXCEPTION : getExceptionType(superclass);
+			}
+			exceptionTypes.put(ctClass, exceptionType);
+		}
+		return exceptionType;
+	}
+
+	/**
+	 * Returns true if the given class implements java.io.Serializable directly or through one of its supertypes.
+	 *
+	 * @param ctClass the class
+	 * @return true if the class is serializable
+	 * @throws NotFoundException if a supertype cannot be resolved
+	 */
+	public boolean isSerializable(CtClass ctClass) throws NotFoundException {
+		Boolean result = serializable.get(ctClass);
+		if (result == null) {
+			result = JAVA_IO_SERIALIZABLE.equals(ctClass.getName());
+			if (!result) {
+				for (CtClass ctInterface : ctClass.getInterfaces()) {
+					if (isSerializable(ctInterface)) {
+						result = true;
+						break;
+					}
+				}
+			}
+			if (!result) {
+				CtClass superclass = ctClass.getSuperclass();
+				result = superclass != null && isSerializable(superclass);
+			}
+			serializable.put(ctClass, result);
+		}
+		return result;
+	}
+
+	public void clear() {
+		interfaces.clear();
+		exceptionTypes.clear();
+		serializable.clear();
+	}
+}
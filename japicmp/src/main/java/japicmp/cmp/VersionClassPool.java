@@ -0,0 +1,59 @@
+package japicmp.cmp;
+
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ClassPool of one version in {@link JarArchiveComparatorOptions.ClassPathMode#TWO_SEPARATE_CLASSPATHS}. Its
+ * parent serves the classpath entries both versions start with (see {@link SharedClassPath}) as well as the system
+ * path, so that their classes are only loaded once. The lookup order is still the one of a single ClassPool with the
+ * complete classpath of the version: the compared archives (inserted at the front), the shared entries, the entries
+ * of this version and finally the system path.
+ */
+class VersionClassPool extends MetricsClassPool {
+	private final List<ClassPath> sharedEntries;
+	private final List<ClassPath> archiveEntries = new ArrayList<>();
+
+	VersionClassPool(ClassPool sharedClassPool, List<ClassPath> sharedEntries, ComparisonMetrics metrics, boolean concurrent) {
+		super(sharedClassPool, metrics, concurrent);
+		this.sharedEntries = sharedEntries;
+		this.childFirstLookup = true;
+	}
+
+	@Override
+	public ClassPath insertClassPath(ClassPath classPath) {
+		archiveEntries.add(classPath);
+		return super.insertClassPath(classPath);
+	}
+
+	/**
+	 * Does not create classes of the shared entries, unless an archive of this version contains them as well: the
+	 * lookup then falls through to the parent ClassPool, which already holds them or creates them once for both
+	 * versions.
+	 */
+	@Override
+	protected CtClass createCtClass(String classname, boolean useCache) {
+		if (isServedBySharedEntries(classname)) {
+			return null;
+		}
+		return super.createCtClass(classname, useCache);
+	}
+
+	private boolean isServedBySharedEntries(String classname) {
+		for (ClassPath archiveEntry : archiveEntries) {
+			if (archiveEntry.find(classname) != null) {
+				return false;
+			}
+		}
+		for (ClassPath sharedEntry : sharedEntries) {
+			if (sharedEntry.find(classname) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
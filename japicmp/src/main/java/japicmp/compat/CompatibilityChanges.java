@@ -18,6 +18,7 @@ import japicmp.model.JApiField;
 import japicmp.model.JApiHasAbstractModifier;
 import japicmp.model.JApiImplementedInterface;
 import japicmp.model.JApiMethod;
+import japicmp.model.JApiParameter;
 import japicmp.model.JApiSuperclass;
 import japicmp.model.JApiType;
 import japicmp.model.StaticModifier;
@@ -30,8 +31,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static japicmp.util.ModifierHelper.hasModifierLevelDecreased;
 import static japicmp.util.ModifierHelper.isNotPrivate;
@@ -39,26 +49,129 @@ import static japicmp.util.ModifierHelper.isSynthetic;
 
 public class CompatibilityChanges {
 	private final JarArchiveComparator jarArchiveComparator;
+	private final Map<JApiClass, List<SuperclassLink>> superclassChains = new ConcurrentHashMap<>();
+	private final Map<JApiClass, MemberTable> memberTables = new ConcurrentHashMap<>();
+	private final Map<JApiClass, InheritedMembers> inheritedMembers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, FutureTask<JApiClass>> loadedSuperclasses = new ConcurrentHashMap<>();
 
 	public CompatibilityChanges(JarArchiveComparator jarArchiveComparator) {
 		this.jarArchiveComparator = jarArchiveComparator;
 	}
 
+	/**
+	 * Evaluates the compatibility changes of the given classes. If more than one thread is configured in the
+	 * options of the {@link JarArchiveComparator}, the classes are evaluated on a ForkJoinPool. The resulting
+	 * compatibility changes are the same as in sequential mode. The class pools of the JarArchiveComparator read
+	 * the class file of each class they hand out under the lock of the class.
+	 *
+	 * @param classes the classes to evaluate
+	 */
 	public void evaluate(List<JApiClass> classes) {
-		Map<String, JApiClass> classMap = buildClassMap(classes);
-		for (JApiClass clazz : classes) {
-			evaluateBinaryCompatibility(clazz, classMap);
+		evaluate(classes, Collections.<String, Callable<JApiClass>>emptyMap());
+	}
+
+	/**
+	 * Evaluates the compatibility changes of the given classes like {@link #evaluate(List)}. The unlisted classes are
+	 * classes of the archives that are not part of the given list because they have not changed; one of them is
+	 * only created if it is needed as superclass or interface of another class. Unlisted classes are not evaluated
+	 * themselves.
+	 *
+	 * @param classes         the classes to evaluate
+	 * @param unlistedClasses callables creating the unlisted classes, by their fully qualified name
+	 */
+	public void evaluate(List<JApiClass> classes, Map<String, ? extends Callable<JApiClass>> unlistedClasses) {
+		Map<String, JApiClass> classMap = buildClassMap(classes, unlistedClasses);
+		int threads = this.jarArchiveComparator.getJarArchiveComparatorOptions().getThreads();
+		if (threads > 1 && classes.size() > 1) {
+			evaluateInParallel(classes, classMap, threads);
+		} else {
+			for (JApiClass clazz : classes) {
+				evaluateBinaryCompatibility(clazz, classMap);
+			}
+		}
+	}
+
+	private void evaluateInParallel(List<JApiClass> classes, final Map<String, JApiClass> classMap, int threads) {
+		List<Callable<Void>> tasks = new ArrayList<>(classes.size());
+		for (final JApiClass clazz : classes) {
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					evaluateBinaryCompatibility(clazz, classMap);
+					return null;
+				}
+			});
 		}
+		ForkJoinPool forkJoinPool = new ForkJoinPool(threads);
+		try {
+			for (Future<Void> future : forkJoinPool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Evaluation of compatibility changes was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw toRuntimeException(e, "Evaluation of compatibility changes failed: ");
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	private static RuntimeException toRuntimeException(ExecutionException e, String message) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		return new JApiCmpException(JApiCmpException.Reason.IllegalState, message + cause.getMessage(), cause);
 	}
 
-	private Map<String, JApiClass> buildClassMap(List<JApiClass> classes) {
-		Map<String, JApiClass> classMap = new HashMap<>();
+	private Map<String, JApiClass> buildClassMap(List<JApiClass> classes, Map<String, ? extends Callable<JApiClass>> unlistedClasses) {
+		Map<String, JApiClass> classMap = new ClassMap(unlistedClasses);
 		for (JApiClass clazz : classes) {
 			classMap.put(clazz.getFullyQualifiedName(), clazz);
 		}
 		return classMap;
 	}
 
+	/**
+	 * The classes known to one evaluation. A lookup of an unlisted class creates it and adds it to the map.
+	 */
+	private static class ClassMap extends ConcurrentHashMap<String, JApiClass> {
+		private static final long serialVersionUID = 1L;
+		private final transient Map<String, ? extends Callable<JApiClass>> unlistedClasses;
+
+		ClassMap(Map<String, ? extends Callable<JApiClass>> unlistedClasses) {
+			this.unlistedClasses = unlistedClasses;
+		}
+
+		@Override
+		public JApiClass get(Object key) {
+			JApiClass jApiClass = super.get(key);
+			if (jApiClass == null) {
+				Callable<JApiClass> unlistedClass = unlistedClasses.get(key);
+				if (unlistedClass != null) {
+					jApiClass = createUnlistedClass((String) key, unlistedClass);
+				}
+			}
+			return jApiClass;
+		}
+
+		private synchronized JApiClass createUnlistedClass(String className, Callable<JApiClass> unlistedClass) {
+			JApiClass jApiClass = super.get(className);
+			if (jApiClass == null) {
+				try {
+					jApiClass = unlistedClass.call();
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Creation of class " + className + " failed: " + e.getMessage(), e);
+				}
+				put(className, jApiClass);
+			}
+			return jApiClass;
+		}
+	}
+
 	private void evaluateBinaryCompatibility(JApiClass jApiClass, Map<String, JApiClass> classMap) {
 		if (jApiClass.getChangeStatus() == JApiChangeStatus.REMOVED) {
 			addCompatibilityChange(jApiClass, JApiCompatibilityChange.CLASS_REMOVED);
@@ -90,23 +203,12 @@ public class CompatibilityChanges {
 		for (final JApiField field : jApiClass.getFields()) {
 			// section 13.4.6 of "Java Language Specification" SE7
 			if (isNotPrivate(field) && field.getChangeStatus() == JApiChangeStatus.REMOVED) {
-				ArrayList<Integer> returnValues = new ArrayList<>();
-				forAllSuperclasses(jApiClass, classMap, returnValues, new OnSuperclassCallback<Integer>() {
-					@Override
-					public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
-						int movedToSuperclass = 0;
-						for (JApiField superclassField : superclass.getFields()) {
-							if (superclassField.getName().equals(field.getName()) && fieldTypeMatches(superclassField, field) && isNotPrivate(superclassField)) {
-								movedToSuperclass = 1;
-							}
-						}
-						return movedToSuperclass;
-					}
-				});
 				boolean movedToSuperclass = false;
-				for (Integer returnValue : returnValues) {
-					if (returnValue == 1) {
-						movedToSuperclass = true;
+				for (List<JApiField> superclassFields : getInheritedMembers(jApiClass, classMap).getSuperclassFields(field.getName())) {
+					for (JApiField superclassField : superclassFields) {
+						if (fieldTypeMatches(superclassField, field) && isNotPrivate(superclassField)) {
+							movedToSuperclass = true;
+						}
 					}
 				}
 				if (!movedToSuperclass) {
@@ -119,41 +221,8 @@ public class CompatibilityChanges {
 			}
 			// section 13.4.8 of "Java Language Specification" SE7
 			if (isNotPrivate(field) && field.getChangeStatus() == JApiChangeStatus.NEW) {
-				ArrayList<Integer> returnValues = new ArrayList<>();
-				forAllSuperclasses(jApiClass, classMap, returnValues, new OnSuperclassCallback<Integer>() {
-					@Override
-					public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
-						int changedIncompatible = 0;
-						for (JApiField superclassField : superclass.getFields()) {
-							if (superclassField.getName().equals(field.getName()) && fieldTypeMatches(superclassField, field)) {
-								boolean superclassFieldIsStatic = false;
-								boolean subclassFieldIsStatic = false;
-								boolean accessModifierSubclassLess = false;
-								if (field.getStaticModifier().getNewModifier().isPresent() && field.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC) {
-									subclassFieldIsStatic = true;
-								}
-								if (superclassField.getStaticModifier().getNewModifier().isPresent() && superclassField.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC && superclassField.getChangeStatus() != JApiChangeStatus.NEW) {
-									superclassFieldIsStatic = true;
-								}
-								if (field.getAccessModifier().getNewModifier().isPresent() && superclassField.getAccessModifier().getNewModifier().isPresent()) {
-									if (field.getAccessModifier().getNewModifier().get().getLevel() < superclassField.getAccessModifier().getNewModifier().get().getLevel() && superclassField.getChangeStatus() != JApiChangeStatus.NEW) {
-										accessModifierSubclassLess = true;
-									}
-								}
-								if (superclassFieldIsStatic) {
-									if (subclassFieldIsStatic) {
-										changedIncompatible = 1;
-									}
-								}
-								if (accessModifierSubclassLess) {
-									changedIncompatible = 2;
-								}
-							}
-						}
-						return changedIncompatible;
-					}
-				});
-				for (int returnValue : returnValues) {
+				for (List<JApiField> superclassFields : getInheritedMembers(jApiClass, classMap).getSuperclassFields(field.getName())) {
+					int returnValue = checkIfFieldHidesSuperclassField(field, superclassFields);
 					if (returnValue == 1) {
 						addCompatibilityChange(field, JApiCompatibilityChange.FIELD_STATIC_AND_OVERRIDES_STATIC);
 					} else if (returnValue == 2) {
@@ -180,35 +249,279 @@ public class CompatibilityChanges {
 		}
 	}
 
-	private interface OnSuperclassCallback<T> {
-		T callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass);
+	/**
+	 * Checks the new field of a class against the fields with the same name declared by one of its superclasses.
+	 *
+	 * @return 1 if the field is static and hides a static field, 2 if it is less accessible than the hidden field, 0 otherwise
+	 */
+	private int checkIfFieldHidesSuperclassField(JApiField field, List<JApiField> superclassFields) {
+		int changedIncompatible = 0;
+		for (JApiField superclassField : superclassFields) {
+			if (fieldTypeMatches(superclassField, field)) {
+				boolean superclassFieldIsStatic = false;
+				boolean subclassFieldIsStatic = false;
+				boolean accessModifierSubclassLess = false;
+				if (field.getStaticModifier().getNewModifier().isPresent() && field.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC) {
+					subclassFieldIsStatic = true;
+				}
+				if (superclassField.getStaticModifier().getNewModifier().isPresent() && superclassField.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC && superclassField.getChangeStatus() != JApiChangeStatus.NEW) {
+					superclassFieldIsStatic = true;
+				}
+				if (field.getAccessModifier().getNewModifier().isPresent() && superclassField.getAccessModifier().getNewModifier().isPresent()) {
+					if (field.getAccessModifier().getNewModifier().get().getLevel() < superclassField.getAccessModifier().getNewModifier().get().getLevel() && superclassField.getChangeStatus() != JApiChangeStatus.NEW) {
+						accessModifierSubclassLess = true;
+					}
+				}
+				if (superclassFieldIsStatic) {
+					if (subclassFieldIsStatic) {
+						changedIncompatible = 1;
+					}
+				}
+				if (accessModifierSubclassLess) {
+					changedIncompatible = 2;
+				}
+			}
+		}
+		return changedIncompatible;
 	}
 
-	private interface OnImplementedInterfaceCallback<T> {
-		T callback(JApiClass implementedInterface, Map<String, JApiClass> classMap);
+	private interface OnSuperclassCallback<T> {
+		T callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass);
 	}
 
 	private <T> void forAllSuperclasses(JApiClass jApiClass, Map<String, JApiClass> classMap, List<T> returnValues, OnSuperclassCallback<T> onSuperclassCallback) {
-		JApiSuperclass superclass = jApiClass.getSuperclass();
-		if (superclass.getNewSuperclassName().isPresent()) {
-			String newSuperclassName = superclass.getNewSuperclassName().get();
-			JApiClass foundClass = classMap.get(newSuperclassName);
-			if (foundClass == null) {
-				Optional<JApiClass> superclassJApiClassOptional = superclass.getJApiClass();
-				if (superclassJApiClassOptional.isPresent()) {
-					foundClass = superclassJApiClassOptional.get();
-				} else {
-					foundClass = loadClass(newSuperclassName, EnumSet.of(Classpath.NEW_CLASSPATH));
-					evaluate(Collections.singletonList(foundClass));
-				}
-				classMap.put(foundClass.getFullyQualifiedName(), foundClass);
-			}
-			T returnValue = onSuperclassCallback.callback(foundClass, classMap, superclass.getChangeStatus());
+		for (SuperclassLink superclassLink : getSuperclasses(jApiClass, classMap)) {
+			T returnValue = onSuperclassCallback.callback(superclassLink.superclass, classMap, superclassLink.changeStatus);
 			returnValues.add(returnValue);
-			forAllSuperclasses(foundClass, classMap, returnValues, onSuperclassCallback);
 		}
 	}
 
+	/**
+	 * Returns the chain of superclasses of the given class, starting with the direct superclass. The chain is
+	 * resolved only once per class; the chain of a superclass is reused for all of its subclasses.
+	 */
+	private List<SuperclassLink> getSuperclasses(JApiClass jApiClass, Map<String, JApiClass> classMap) {
+		List<SuperclassLink> superclasses = superclassChains.get(jApiClass);
+		if (superclasses == null) {
+			JApiSuperclass superclass = jApiClass.getSuperclass();
+			if (superclass.getNewSuperclassName().isPresent()) {
+				String newSuperclassName = superclass.getNewSuperclassName().get();
+				JApiClass foundClass = classMap.get(newSuperclassName);
+				if (foundClass == null) {
+					Optional<JApiClass> superclassJApiClassOptional = superclass.getJApiClass();
+					if (superclassJApiClassOptional.isPresent()) {
+						foundClass = superclassJApiClassOptional.get();
+					} else {
+						foundClass = loadAndEvaluateSuperclass(newSuperclassName);
+					}
+					foundClass = registerClass(classMap, foundClass);
+				}
+				List<SuperclassLink> superclassesOfFoundClass = getSuperclasses(foundClass, classMap);
+				superclasses = new ArrayList<>(superclassesOfFoundClass.size() + 1);
+				superclasses.add(new SuperclassLink(foundClass, superclass.getChangeStatus()));
+				for (SuperclassLink superclassLink : superclassesOfFoundClass) {
+					registerClass(classMap, superclassLink.superclass);
+					superclasses.add(superclassLink);
+				}
+			} else {
+				superclasses = Collections.emptyList();
+			}
+			superclassChains.put(jApiClass, superclasses);
+		}
+		return superclasses;
+	}
+
+	/**
+	 * Adds the given class to the class map unless a class with the same name has already been added.
+	 *
+	 * @return the class registered under the name of the given class
+	 */
+	private static JApiClass registerClass(Map<String, JApiClass> classMap, JApiClass jApiClass) {
+		synchronized (classMap) {
+			JApiClass registeredClass = classMap.get(jApiClass.getFullyQualifiedName());
+			if (registeredClass == null) {
+				classMap.put(jApiClass.getFullyQualifiedName(), jApiClass);
+				registeredClass = jApiClass;
+			}
+			return registeredClass;
+		}
+	}
+
+	/**
+	 * Loads a superclass that is not part of the compared archives and evaluates it. Each superclass is loaded only
+	 * once, also if several threads ask for it at the same time.
+	 */
+	private JApiClass loadAndEvaluateSuperclass(final String superclassName) {
+		FutureTask<JApiClass> task = loadedSuperclasses.get(superclassName);
+		if (task == null) {
+			FutureTask<JApiClass> newTask = new FutureTask<>(new Callable<JApiClass>() {
+				@Override
+				public JApiClass call() {
+					JApiClass jApiClass = loadClass(superclassName, EnumSet.of(Classpath.NEW_CLASSPATH));
+					evaluate(Collections.singletonList(jApiClass));
+					return jApiClass;
+				}
+			});
+			task = loadedSuperclasses.putIfAbsent(superclassName, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Loading of superclass " + superclassName + " was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw toRuntimeException(e, "Loading of superclass " + superclassName + " failed: ");
+		}
+	}
+
+	private static class SuperclassLink {
+		private final JApiClass superclass;
+		private final JApiChangeStatus changeStatus;
+
+		SuperclassLink(JApiClass superclass, JApiChangeStatus changeStatus) {
+			this.superclass = superclass;
+			this.changeStatus = changeStatus;
+		}
+	}
+
+	private MemberTable getMemberTable(JApiClass jApiClass) {
+		MemberTable memberTable = memberTables.get(jApiClass);
+		if (memberTable == null) {
+			memberTable = new MemberTable(jApiClass);
+			memberTables.put(jApiClass, memberTable);
+		}
+		return memberTable;
+	}
+
+	/**
+	 * Index of the methods and fields declared by one class. Methods are keyed by name and parameter types, fields
+	 * by name, so that the member of a subclass can be matched against a superclass or interface by a lookup
+	 * instead of a scan of all of its members.
+	 */
+	private static class MemberTable {
+		private final Map<String, List<JApiMethod>> methods = new HashMap<>();
+		private final Map<String, List<JApiField>> fields = new HashMap<>();
+
+		MemberTable(JApiClass jApiClass) {
+			for (JApiMethod method : jApiClass.getMethods()) {
+				addToIndex(methods, methodKey(method), method);
+			}
+			for (JApiField field : jApiClass.getFields()) {
+				addToIndex(fields, field.getName(), field);
+			}
+		}
+
+		List<JApiMethod> getMethods(JApiMethod method) {
+			return getFromIndex(methods, methodKey(method));
+		}
+
+		List<JApiField> getFields(String name) {
+			return getFromIndex(fields, name);
+		}
+	}
+
+	/**
+	 * Returns the members the given class inherits from its superclasses and interfaces. The table is built once per
+	 * class from the member tables of its ancestors, so that each lookup of an inherited member is a single map get
+	 * instead of a walk over the superclass chain and the interface hierarchy.
+	 */
+	private InheritedMembers getInheritedMembers(JApiClass jApiClass, Map<String, JApiClass> classMap) {
+		InheritedMembers members = inheritedMembers.get(jApiClass);
+		if (members == null) {
+			members = new InheritedMembers();
+			for (SuperclassLink superclassLink : getSuperclasses(jApiClass, classMap)) {
+				members.addSuperclass(getMemberTable(superclassLink.superclass));
+			}
+			for (JApiClass implementedInterface : getImplementedInterfaces(jApiClass, classMap, new LinkedHashSet<JApiClass>())) {
+				members.addInterface(getMemberTable(implementedInterface));
+			}
+			inheritedMembers.put(jApiClass, members);
+		}
+		return members;
+	}
+
+	/**
+	 * Collects the interfaces the given class implements directly and those they extend, depth first. Interfaces
+	 * that are not part of the class map are skipped.
+	 */
+	private static Set<JApiClass> getImplementedInterfaces(JApiClass jApiClass, Map<String, JApiClass> classMap, Set<JApiClass> interfaces) {
+		for (JApiImplementedInterface implementedInterface : jApiClass.getInterfaces()) {
+			JApiClass foundClass = classMap.get(implementedInterface.getFullyQualifiedName());
+			if (foundClass != null && interfaces.add(foundClass)) {
+				getImplementedInterfaces(foundClass, classMap, interfaces);
+			}
+		}
+		return interfaces;
+	}
+
+	/**
+	 * Index of the methods and fields a class inherits. A lookup returns the matching members grouped by the
+	 * ancestor declaring them, in the order of the superclass chain respectively of the interface hierarchy, so that
+	 * each ancestor can still be checked on its own.
+	 */
+	private static class InheritedMembers {
+		private final Map<String, List<List<JApiMethod>>> superclassMethods = new HashMap<>();
+		private final Map<String, List<List<JApiField>>> superclassFields = new HashMap<>();
+		private final Map<String, List<List<JApiMethod>>> interfaceMethods = new HashMap<>();
+
+		void addSuperclass(MemberTable memberTable) {
+			addAllToIndex(superclassMethods, memberTable.methods);
+			addAllToIndex(superclassFields, memberTable.fields);
+		}
+
+		void addInterface(MemberTable memberTable) {
+			addAllToIndex(interfaceMethods, memberTable.methods);
+		}
+
+		List<List<JApiMethod>> getSuperclassMethods(JApiMethod method) {
+			return getFromIndex(superclassMethods, methodKey(method));
+		}
+
+		List<List<JApiField>> getSuperclassFields(String name) {
+			return getFromIndex(superclassFields, name);
+		}
+
+		List<List<JApiMethod>> getInterfaceMethods(JApiMethod method) {
+			return getFromIndex(interfaceMethods, methodKey(method));
+		}
+
+		private static <T> void addAllToIndex(Map<String, List<List<T>>> index, Map<String, List<T>> declaredMembers) {
+			for (Map.Entry<String, List<T>> entry : declaredMembers.entrySet()) {
+				addToIndex(index, entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private static String methodKey(JApiMethod method) {
+		StringBuilder sb = new StringBuilder(method.getName()).append('(');
+		List<JApiParameter> parameters = method.getParameters();
+		for (int i = 0; i < parameters.size(); i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(parameters.get(i).getType());
+		}
+		return sb.append(')').toString();
+	}
+
+	private static <T> void addToIndex(Map<String, List<T>> index, String key, T value) {
+		List<T> values = index.get(key);
+		if (values == null) {
+			values = new ArrayList<>(1);
+			index.put(key, values);
+		}
+		values.add(value);
+	}
+
+	private static <T> List<T> getFromIndex(Map<String, List<T>> index, String key) {
+		List<T> values = index.get(key);
+		return values == null ? Collections.<T>emptyList() : values;
+	}
+
 	private enum Classpath {
 		OLD_CLASSPATH,
 		NEW_CLASSPATH
@@ -301,25 +614,9 @@ public class CompatibilityChanges {
 		for (final JApiMethod method : jApiClass.getMethods()) {
 			// section 13.4.6 of "Java Language Specification" SE7
 			if (isNotPrivate(method) && method.getChangeStatus() == JApiChangeStatus.REMOVED) {
-				final List<Integer> returnValues = new ArrayList<>();
-				forAllSuperclasses(jApiClass, classMap, returnValues, new OnSuperclassCallback<Integer>() {
-					@Override
-					public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
-						for (JApiMethod superMethod : superclass.getMethods()) {
-							if (superMethod.getName().equals(method.getName()) && superMethod.hasSameParameter(method) && superMethod.hasSameReturnType(method)) {
-								return 1;
-							}
-						}
-						return 0;
-					}
-				});
-				checkIfMethodHasBeenPulledUp(jApiClass, classMap, method, returnValues);
-				boolean superclassHasSameMethod = false;
-				for (Integer returnValue : returnValues) {
-					if (returnValue == 1) {
-						superclassHasSameMethod = true;
-					}
-				}
+				InheritedMembers inheritedMembers = getInheritedMembers(jApiClass, classMap);
+				boolean superclassHasSameMethod = hasMethodWithSameReturnType(inheritedMembers.getSuperclassMethods(method), method)
+					|| hasMethodWithSameReturnType(inheritedMembers.getInterfaceMethods(method), method);
 				if (!superclassHasSameMethod) {
 					addCompatibilityChange(method, JApiCompatibilityChange.METHOD_REMOVED);
 				}
@@ -330,29 +627,8 @@ public class CompatibilityChanges {
 			}
 			// section 13.4.12 of "Java Language Specification" SE7
 			if (isNotPrivate(method) && method.getChangeStatus() == JApiChangeStatus.NEW) {
-				List<Integer> returnValues = new ArrayList<>();
-				forAllSuperclasses(jApiClass, classMap, returnValues, new OnSuperclassCallback<Integer>() {
-					@Override
-					public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
-						for (JApiMethod superMethod : superclass.getMethods()) {
-							if (superMethod.getName().equals(method.getName()) && superMethod.hasSameParameter(method) && superMethod.hasSameReturnType(method)) {
-								if (superMethod.getAccessModifier().getNewModifier().isPresent() && method.getAccessModifier().getNewModifier().isPresent()) {
-									if (superMethod.getAccessModifier().getNewModifier().get().getLevel() > method.getAccessModifier().getNewModifier().get().getLevel()) {
-										return 1;
-									}
-								}
-								if (superMethod.getStaticModifier().getNewModifier().isPresent() && method.getStaticModifier().getNewModifier().isPresent()) {
-									if (superMethod.getStaticModifier().getNewModifier().get() == StaticModifier.NON_STATIC
-										&& method.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC) {
-										return 2;
-									}
-								}
-							}
-						}
-						return 0;
-					}
-				});
-				for (Integer returnValue : returnValues) {
+				for (List<JApiMethod> superMethods : getInheritedMembers(jApiClass, classMap).getSuperclassMethods(method)) {
+					int returnValue = checkIfMethodOverridesSuperclassMethod(method, superMethods);
 					if (returnValue == 1) {
 						addCompatibilityChange(method, JApiCompatibilityChange.METHOD_LESS_ACCESSIBLE_THAN_IN_SUPERCLASS);
 					} else if (returnValue == 2) {
@@ -388,6 +664,41 @@ public class CompatibilityChanges {
 		}
 	}
 
+	/**
+	 * Checks the new method of a class against the methods with the same parameters declared by one of its superclasses.
+	 *
+	 * @return 1 if the method is less accessible than the overridden method, 2 if it is static and the overridden method is not, 0 otherwise
+	 */
+	private int checkIfMethodOverridesSuperclassMethod(JApiMethod method, List<JApiMethod> superMethods) {
+		for (JApiMethod superMethod : superMethods) {
+			if (superMethod.hasSameReturnType(method)) {
+				if (superMethod.getAccessModifier().getNewModifier().isPresent() && method.getAccessModifier().getNewModifier().isPresent()) {
+					if (superMethod.getAccessModifier().getNewModifier().get().getLevel() > method.getAccessModifier().getNewModifier().get().getLevel()) {
+						return 1;
+					}
+				}
+				if (superMethod.getStaticModifier().getNewModifier().isPresent() && method.getStaticModifier().getNewModifier().isPresent()) {
+					if (superMethod.getStaticModifier().getNewModifier().get() == StaticModifier.NON_STATIC
+						&& method.getStaticModifier().getNewModifier().get() == StaticModifier.STATIC) {
+						return 2;
+					}
+				}
+			}
+		}
+		return 0;
+	}
+
+	private static boolean hasMethodWithSameReturnType(List<List<JApiMethod>> inheritedMethods, JApiMethod method) {
+		for (List<JApiMethod> superMethods : inheritedMethods) {
+			for (JApiMethod superMethod : superMethods) {
+				if (superMethod.hasSameReturnType(method)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	private void checkAbstractMethod(JApiClass jApiClass, Map<String, JApiClass> classMap, JApiMethod method) {
 		if (isInterface(jApiClass)) {
 			if (jApiClass.getChangeStatus() != JApiChangeStatus.NEW) {
@@ -432,50 +743,25 @@ public class CompatibilityChanges {
 		}
 	}
 
-	private List<JApiMethod> getOverriddenMethods(final JApiClass jApiClass, final Map<String, JApiClass> classMap, final JApiMethod method) {
-		ArrayList<JApiMethod> jApiMethods = new ArrayList<>();
-		forAllSuperclasses(jApiClass, classMap, jApiMethods, new OnSuperclassCallback<JApiMethod>() {
-			@Override
-			public JApiMethod callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
-				for (JApiMethod jApiMethod : superclass.getMethods()) {
-					if (isAbstract(jApiMethod)) {
-						if (jApiMethod.getName().equals(method.getName()) && jApiMethod.hasSameSignature(method)) {
-							return jApiMethod;
-						}
-					}
-				}
-				return null;
-			}
-		});
-		return removeNullValues(jApiMethods);
+	private List<JApiMethod> getOverriddenMethods(JApiClass jApiClass, Map<String, JApiClass> classMap, JApiMethod method) {
+		return getAbstractMethodsWithSameSignature(getInheritedMembers(jApiClass, classMap).getSuperclassMethods(method), method);
 	}
 
-	private List<JApiMethod> removeNullValues(ArrayList<JApiMethod> jApiMethods) {
-		ArrayList<JApiMethod> returnValues = new ArrayList<>();
-		for (JApiMethod jApiMethod : jApiMethods) {
-			if (jApiMethod != null) {
-				returnValues.add(jApiMethod);
-			}
-		}
-		return returnValues;
+	private List<JApiMethod> getImplementedMethods(JApiClass jApiClass, Map<String, JApiClass> classMap, JApiMethod method) {
+		return getAbstractMethodsWithSameSignature(getInheritedMembers(jApiClass, classMap).getInterfaceMethods(method), method);
 	}
 
-	private List<JApiMethod> getImplementedMethods(final JApiClass jApiClass, final Map<String, JApiClass> classMap, final JApiMethod method) {
-		ArrayList<JApiMethod> jApiMethods = new ArrayList<>();
-		forAllImplementedInterfaces(jApiClass, classMap, jApiMethods, new OnImplementedInterfaceCallback<JApiMethod>() {
-			@Override
-			public JApiMethod callback(JApiClass implementedInterface, Map<String, JApiClass> classMap) {
-				for (JApiMethod jApiMethod : implementedInterface.getMethods()) {
-					if (isAbstract(jApiMethod)) {
-						if (jApiMethod.getName().equals(method.getName()) && jApiMethod.hasSameSignature(method)) {
-							return jApiMethod;
-						}
-					}
+	private List<JApiMethod> getAbstractMethodsWithSameSignature(List<List<JApiMethod>> inheritedMethods, JApiMethod method) {
+		List<JApiMethod> jApiMethods = new ArrayList<>();
+		for (List<JApiMethod> superMethods : inheritedMethods) {
+			for (JApiMethod jApiMethod : superMethods) {
+				if (isAbstract(jApiMethod) && jApiMethod.hasSameSignature(method)) {
+					jApiMethods.add(jApiMethod);
+					break;
 				}
-				return null;
 			}
-		});
-		return removeNullValues(jApiMethods);
+		}
+		return jApiMethods;
 	}
 
 	private boolean isAbstract(JApiHasAbstractModifier jApiHasAbstractModifier) {
@@ -498,53 +784,24 @@ public class CompatibilityChanges {
 		return jApiClass.getClassType().getNewTypeOptional().isPresent() && jApiClass.getClassType().getNewTypeOptional().get() == JApiClassType.ClassType.INTERFACE;
 	}
 
-	private void checkIfMethodHasBeenPulledUp(JApiClass jApiClass, Map<String, JApiClass> classMap, final JApiMethod method, List<Integer> returnValues) {
-		forAllImplementedInterfaces(jApiClass, classMap, returnValues, new OnImplementedInterfaceCallback<Integer>() {
-			@Override
-			public Integer callback(JApiClass implementedInterface, Map<String, JApiClass> classMap) {
-				for (JApiMethod superMethod : implementedInterface.getMethods()) {
-					if (superMethod.getName().equals(method.getName()) && superMethod.hasSameParameter(method) && superMethod.hasSameReturnType(method)) {
-						return 1;
-					}
-				}
-				return 0;
-			}
-		});
-	}
-
-	private <T> void forAllImplementedInterfaces(JApiClass jApiClass, Map<String, JApiClass> classMap, List<T> returnValues, OnImplementedInterfaceCallback<T> onImplementedInterfaceCallback) {
-		List<JApiImplementedInterface> interfaces = jApiClass.getInterfaces();
-		for (JApiImplementedInterface implementedInterface : interfaces) {
-			String fullyQualifiedName = implementedInterface.getFullyQualifiedName();
-			JApiClass foundClass = classMap.get(fullyQualifiedName);
-			if (foundClass != null) {
-				T returnValue = onImplementedInterfaceCallback.callback(foundClass, classMap);
-				returnValues.add(returnValue);
-				forAllImplementedInterfaces(foundClass, classMap, returnValues, onImplementedInterfaceCallback);
-			} else {
-				//TODO
-			}
-		}
-	}
-
 	private void checkIfSuperclassesOrInterfacesChangedIncompatible(final JApiClass jApiClass, Map<String, JApiClass> classMap) {
 		final JApiSuperclass superclass = jApiClass.getSuperclass();
 		// section 13.4.4 of "Java Language Specification" SE7
 		if (superclass.getChangeStatus() == JApiChangeStatus.UNCHANGED
 			|| superclass.getChangeStatus() == JApiChangeStatus.MODIFIED
 			|| superclass.getChangeStatus() == JApiChangeStatus.REMOVED) {
-			final List<JApiMethod> implementedMethods = new ArrayList<>();
+			final Map<String, List<JApiMethod>> implementedMethods = new HashMap<>();
 			final List<JApiMethod> removedAndNotOverriddenMethods = new ArrayList<>();
-			final List<JApiField> fields = new ArrayList<>();
+			final Map<String, List<JApiField>> fields = new HashMap<>();
 			final List<JApiField> removedAndNotOverriddenFields = new ArrayList<>();
 			for (JApiMethod jApiMethod : jApiClass.getMethods()) {
 				if (!isAbstract(jApiMethod) && jApiMethod.getChangeStatus() != JApiChangeStatus.REMOVED && isNotPrivate(jApiMethod)) {
-					implementedMethods.add(jApiMethod);
+					addToIndex(implementedMethods, methodKey(jApiMethod), jApiMethod);
 				}
 			}
 			for (JApiField jApiField : jApiClass.getFields()) {
 				if (jApiField.getChangeStatus() != JApiChangeStatus.REMOVED && isNotPrivate(jApiField)) {
-					fields.add(jApiField);
+					addToIndex(fields, jApiField.getName(), jApiField);
 				}
 			}
 			forAllSuperclasses(jApiClass, classMap, new ArrayList<Integer>(), new OnSuperclassCallback<Integer>() {
@@ -552,19 +809,19 @@ public class CompatibilityChanges {
 				public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
 					for (JApiMethod jApiMethod : superclass.getMethods()) {
 						if (!isAbstract(jApiMethod) && jApiMethod.getChangeStatus() != JApiChangeStatus.REMOVED && isNotPrivate(jApiMethod)) {
-							implementedMethods.add(jApiMethod);
+							addToIndex(implementedMethods, methodKey(jApiMethod), jApiMethod);
 						}
 					}
 					for (JApiField jApiField : superclass.getFields()) {
 						if (jApiField.getChangeStatus() != JApiChangeStatus.REMOVED && isNotPrivate(jApiField)) {
-							fields.add(jApiField);
+							addToIndex(fields, jApiField.getName(), jApiField);
 						}
 					}
 					for (JApiMethod jApiMethod : superclass.getMethods()) {
 						if (jApiMethod.getChangeStatus() == JApiChangeStatus.REMOVED) {
 							boolean implemented = false;
-							for (JApiMethod implementedMethod : implementedMethods) {
-								if (jApiMethod.getName().equals(implementedMethod.getName()) && jApiMethod.hasSameSignature(implementedMethod)) {
+							for (JApiMethod implementedMethod : getFromIndex(implementedMethods, methodKey(jApiMethod))) {
+								if (jApiMethod.hasSameSignature(implementedMethod)) {
 									implemented = true;
 									break;
 								}
@@ -577,8 +834,8 @@ public class CompatibilityChanges {
 					for (JApiField jApiField : superclass.getFields()) {
 						if (jApiField.getChangeStatus() == JApiChangeStatus.REMOVED) {
 							boolean overridden = false;
-							for (JApiField field : fields) {
-								if (field.getName().equals(jApiField.getName()) && hasSameType(jApiField, field)) {
+							for (JApiField field : getFromIndex(fields, jApiField.getName())) {
+								if (hasSameType(jApiField, field)) {
 									overridden = true;
 								}
 							}
@@ -661,8 +918,8 @@ public class CompatibilityChanges {
 							if (isSynthetic(interfaceMethod)) {
 								continue;
 							}
-							for (JApiMethod classMethod : jApiClass.getMethods()) {
-								if (classMethod.getName().equals(interfaceMethod.getName()) && classMethod.hasSameSignature(interfaceMethod)) {
+							for (JApiMethod classMethod : getMemberTable(jApiClass).getMethods(interfaceMethod)) {
+								if (classMethod.hasSameSignature(interfaceMethod)) {
 									interfaceMethodImplemented = true;
 									break;
 								}
@@ -705,11 +962,11 @@ public class CompatibilityChanges {
 	private void checkIfAbstractMethodAddedInSuperclass(final JApiClass jApiClass, Map<String, JApiClass> classMap) {
 		if (jApiClass.getChangeStatus() != JApiChangeStatus.NEW) {
 			final List<JApiMethod> abstractMethods = new ArrayList<>();
-			final List<JApiMethod> implementedMethods = new ArrayList<>();
+			final Map<String, List<JApiMethod>> implementedMethods = new HashMap<>();
 			final List<JApiImplementedInterface> implementedInterfaces = new ArrayList<>();
 			for (JApiMethod jApiMethod : jApiClass.getMethods()) {
 				if (!isAbstract(jApiMethod)) {
-					implementedMethods.add(jApiMethod);
+					addToIndex(implementedMethods, methodKey(jApiMethod), jApiMethod);
 				}
 			}
 			forAllSuperclasses(jApiClass, classMap, new ArrayList<Integer>(), new OnSuperclassCallback<Integer>() {
@@ -717,14 +974,14 @@ public class CompatibilityChanges {
 				public Integer callback(JApiClass superclass, Map<String, JApiClass> classMap, JApiChangeStatus changeStatusOfSuperclass) {
 					for (JApiMethod jApiMethod : superclass.getMethods()) {
 						if (!isAbstract(jApiMethod)) {
-							implementedMethods.add(jApiMethod);
+							addToIndex(implementedMethods, methodKey(jApiMethod), jApiMethod);
 						}
 					}
 					for (JApiMethod jApiMethod : superclass.getMethods()) {
 						if (isAbstract(jApiMethod)) {
 							boolean isImplemented = false;
-							for (JApiMethod implementedMethod : implementedMethods) {
-								if (jApiMethod.getName().equals(implementedMethod.getName()) && jApiMethod.hasSameSignature(implementedMethod)) {
+							for (JApiMethod implementedMethod : getFromIndex(implementedMethods, methodKey(jApiMethod))) {
+								if (jApiMethod.hasSameSignature(implementedMethod)) {
 									isImplemented = true;
 									break;
 								}
@@ -752,8 +1009,8 @@ public class CompatibilityChanges {
 				}
 				for (JApiMethod method : foundClass.getMethods()) {
 					boolean isImplemented = false;
-					for (JApiMethod implementedMethod : implementedMethods) {
-						if (method.getName().equals(implementedMethod.getName()) && method.hasSameSignature(implementedMethod)) {
+					for (JApiMethod implementedMethod : getFromIndex(implementedMethods, methodKey(method))) {
+						if (method.hasSameSignature(implementedMethod)) {
 							isImplemented = true;
 							break;
 						}
@@ -785,8 +1042,11 @@ public class CompatibilityChanges {
 
 	private void addCompatibilityChange(JApiCompatibility binaryCompatibility, JApiCompatibilityChange compatibilityChange) {
 		List<JApiCompatibilityChange> compatibilityChanges = binaryCompatibility.getCompatibilityChanges();
-		if (!compatibilityChanges.contains(compatibilityChange)) {
-			compatibilityChanges.add(compatibilityChange);
+		// the members of an interface are also checked by the evaluation of each class implementing it
+		synchronized (compatibilityChanges) {
+			if (!compatibilityChanges.contains(compatibilityChange)) {
+				compatibilityChanges.add(compatibilityChange);
+			}
 		}
 	}
 }
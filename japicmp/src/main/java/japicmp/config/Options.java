@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableList;
 import japicmp.cli.CliParser;
 import japicmp.cli.JApiCli;
 import japicmp.cmp.JApiCmpArchive;
+import japicmp.cmp.JarArchiveComparatorOptions;
 import japicmp.exception.JApiCmpException;
 import japicmp.filter.AnnotationBehaviorFilter;
 import japicmp.filter.AnnotationClassFilter;
@@ -32,6 +33,7 @@ public class Options {
 	static final String N_A = "n.a.";
 	private List<JApiCmpArchive> oldArchives = new ArrayList<>();
 	private List<JApiCmpArchive> newArchives = new ArrayList<>();
+	private List<List<JApiCmpArchive>> additionalNewArchives = new ArrayList<>();
 	private boolean outputOnlyModifications = false;
 	private boolean outputOnlyBinaryIncompatibleModifications = false;
 	private Optional<String> xmlOutputFile = Optional.absent();
@@ -49,6 +51,13 @@ public class Options {
 	private boolean reportOnlyFilename;
 	private boolean semanticVersioning;
 	private boolean helpRequested;
+	private int threads = 1;
+	private Optional<String> cacheDirectory = Optional.absent();
+	private boolean metrics;
+	private boolean detachResult;
+	private boolean errorOnBinaryIncompatibility;
+	private boolean errorOnSourceIncompatibility;
+	private JarArchiveComparatorOptions.BytecodeReader bytecodeReader = JarArchiveComparatorOptions.BytecodeReader.JAVASSIST;
 
 	Options() {
 		// intentionally left empty
@@ -71,6 +80,11 @@ public class Options {
 		for (JApiCmpArchive archive : getNewArchives()) {
 			verifyExistsCanReadAndJar(archive);
 		}
+		for (List<JApiCmpArchive> archives : getAdditionalNewArchives()) {
+			for (JApiCmpArchive archive : archives) {
+				verifyExistsCanReadAndJar(archive);
+			}
+		}
 		if (getHtmlOutputFile().isPresent()) {
 			if (getHtmlStylesheet().isPresent()) {
 				String pathname = getHtmlStylesheet().get();
@@ -84,6 +98,14 @@ public class Options {
 				throw JApiCmpException.cliError("Define a HTML output file, if you want to apply a stylesheet.");
 			}
 		}
+		if ((errorOnBinaryIncompatibility || errorOnSourceIncompatibility) && (!additionalNewArchives.isEmpty()
+			|| getXmlOutputFile().isPresent() || getHtmlOutputFile().isPresent() || semanticVersioning)) {
+			throw JApiCmpException.cliError("The options %s and %s only check for incompatibilities and cannot be combined with %s, -x, --html-file or -s.",
+				CliParser.ERROR_ON_BINARY_INCOMPATIBILITY, CliParser.ERROR_ON_SOURCE_INCOMPATIBILITY, CliParser.ADDITIONAL_NEW);
+		}
+		if (threads < 1) {
+			throw JApiCmpException.cliError("Number of threads must be greater than zero: %d", threads);
+		}
 		if (getOldClassPath().isPresent() && getNewClassPath().isPresent()) {
 			setClassPathMode(JApiCli.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
 		} else {
@@ -391,4 +413,74 @@ public class Options {
 	public void setHelpRequested(boolean helpRequested) {
 		this.helpRequested = helpRequested;
 	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public Optional<String> getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(Optional<String> cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	public boolean isMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(boolean metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns further new versions that are compared with the old version in the same run. Each element is the
+	 * list of archives of one version.
+	 *
+	 * @return the additional new versions
+	 */
+	public List<List<JApiCmpArchive>> getAdditionalNewArchives() {
+		return additionalNewArchives;
+	}
+
+	public void setAdditionalNewArchives(List<List<JApiCmpArchive>> additionalNewArchives) {
+		this.additionalNewArchives = additionalNewArchives;
+	}
+
+	public boolean isDetachResult() {
+		return detachResult;
+	}
+
+	public void setDetachResult(boolean detachResult) {
+		this.detachResult = detachResult;
+	}
+
+	public boolean isErrorOnBinaryIncompatibility() {
+		return errorOnBinaryIncompatibility;
+	}
+
+	public void setErrorOnBinaryIncompatibility(boolean errorOnBinaryIncompatibility) {
+		this.errorOnBinaryIncompatibility = errorOnBinaryIncompatibility;
+	}
+
+	public boolean isErrorOnSourceIncompatibility() {
+		return errorOnSourceIncompatibility;
+	}
+
+	public void setErrorOnSourceIncompatibility(boolean errorOnSourceIncompatibility) {
+		this.errorOnSourceIncompatibility = errorOnSourceIncompatibility;
+	}
+
+	public JarArchiveComparatorOptions.BytecodeReader getBytecodeReader() {
+		return bytecodeReader;
+	}
+
+	public void setBytecodeReader(JarArchiveComparatorOptions.BytecodeReader bytecodeReader) {
+		this.bytecodeReader = bytecodeReader;
+	}
 }
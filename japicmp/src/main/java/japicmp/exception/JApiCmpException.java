@@ -14,7 +14,8 @@ public class JApiCmpException extends RuntimeException {
 		JaxbException,
 		ClassLoading,
 		IllegalState,
-		IllegalArgument, XsltError
+		IllegalArgument, XsltError,
+		IncompatibleChanges
 	}
 
 	public JApiCmpException(Reason reason, String msg) {
@@ -0,0 +1,10 @@
+package japicmp.filter;
+
+/**
+ * A {@link japicmp.filter.ClassFilter} that can decide solely based on the fully qualified name of a class
+ * whether it matches, i.e. without loading the class file.
+ */
+public interface ClassNameFilter extends ClassFilter {
+
+	boolean matchesClassName(String className);
+}
@@ -82,6 +82,59 @@ public class Filters {
 		return true;
 	}
 
+	/**
+	 * Decides based on the fully qualified name of a class whether it can be included. In contrast to
+	 * {@link #includeClass(CtClass)} this method only returns false if the class is excluded for sure, i.e.
+	 * if the name of the class is not sufficient to evaluate all filters, the class is included.
+	 *
+	 * @param className the fully qualified name of the class
+	 * @return false if {@link #includeClass(CtClass)} would return false for this class
+	 */
+	public boolean includeClassName(String className) {
+		for (Filter filter : excludes) {
+			if (filter instanceof ClassNameFilter) {
+				ClassNameFilter classNameFilter = (ClassNameFilter) filter;
+				if (classNameFilter.matchesClassName(className)) {
+					return false;
+				}
+			}
+		}
+		if (includes.isEmpty()) {
+			return true;
+		}
+		for (Filter filter : includes) {
+			if (filter instanceof ClassNameFilter) {
+				ClassNameFilter classNameFilter = (ClassNameFilter) filter;
+				if (classNameFilter.matchesClassName(className)) {
+					return true;
+				}
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if one of the include or exclude filters is based on annotations. Such filters can add
+	 * further package filters while the archives are loaded and therefore require all classes to be loaded.
+	 *
+	 * @return true if at least one annotation based filter is present
+	 */
+	public boolean hasAnnotationFilter() {
+		for (Filter filter : includes) {
+			if (filter instanceof AnnotationFilterBase) {
+				return true;
+			}
+		}
+		for (Filter filter : excludes) {
+			if (filter instanceof AnnotationFilterBase) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public boolean includeBehavior(CtBehavior ctMethod) {
 		for (Filter filter : excludes) {
 			if (filter instanceof BehaviorFilter) {
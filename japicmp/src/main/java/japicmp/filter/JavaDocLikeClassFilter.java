@@ -4,7 +4,7 @@ import javassist.CtClass;
 
 import java.util.regex.Pattern;
 
-public class JavaDocLikeClassFilter implements ClassFilter {
+public class JavaDocLikeClassFilter implements ClassNameFilter {
 	private final Pattern pattern;
 	private final String className;
 
@@ -28,7 +28,11 @@ public class JavaDocLikeClassFilter implements ClassFilter {
 
 	@Override
 	public boolean matches(CtClass ctClass) {
-		String name = ctClass.getName();
-		return pattern.matcher(name).matches();
+		return matchesClassName(ctClass.getName());
+	}
+
+	@Override
+	public boolean matchesClassName(String className) {
+		return pattern.matcher(className).matches();
 	}
 }
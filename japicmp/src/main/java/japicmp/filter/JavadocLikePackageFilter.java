@@ -4,7 +4,7 @@ import javassist.CtClass;
 
 import java.util.regex.Pattern;
 
-public class JavadocLikePackageFilter implements ClassFilter {
+public class JavadocLikePackageFilter implements ClassNameFilter {
 	private final Pattern pattern;
 	private final String packageName;
 
@@ -27,4 +27,11 @@ public class JavadocLikePackageFilter implements ClassFilter {
 		name = name == null ? "" : name;
 		return pattern.matcher(name).matches();
 	}
+
+	@Override
+	public boolean matchesClassName(String className) {
+		int lastIndexOfDot = className.lastIndexOf('.');
+		String name = lastIndexOfDot < 0 ? "" : className.substring(0, lastIndexOfDot);
+		return pattern.matcher(name).matches();
+	}
 }
@@ -17,8 +17,8 @@ import java.util.Set;
 
 public class JApiAnnotation implements JApiHasChangeStatus, JApiCompatibility {
 	private final String fullyQualifiedName;
-	private final Optional<Annotation> oldAnnotation;
-	private final Optional<Annotation> newAnnotation;
+	private Optional<Annotation> oldAnnotation;
+	private Optional<Annotation> newAnnotation;
 	private final List<JApiAnnotationElement> elements = new LinkedList<>();
 	private final JApiChangeStatus changeStatus;
 
@@ -117,11 +117,23 @@ public class JApiAnnotation implements JApiHasChangeStatus, JApiCompatibility {
 		return fullyQualifiedName;
 	}
 
+	/**
+	 * Returns the Javassist representation of the old annotation.
+	 *
+	 * @return the old annotation or Optional.absent() if the annotation does not exist in the old version or if it
+	 * has been detached (see {@link JApiClass#detach()})
+	 */
 	@XmlTransient
 	public Optional<Annotation> getOldAnnotation() {
 		return oldAnnotation;
 	}
 
+	/**
+	 * Returns the Javassist representation of the new annotation.
+	 *
+	 * @return the new annotation or Optional.absent() if the annotation does not exist in the new version or if it
+	 * has been detached (see {@link JApiClass#detach()})
+	 */
 	@XmlTransient
 	public Optional<Annotation> getNewAnnotation() {
 		return newAnnotation;
@@ -150,4 +162,12 @@ public class JApiAnnotation implements JApiHasChangeStatus, JApiCompatibility {
 	public List<JApiCompatibilityChange> getCompatibilityChanges() {
 		return Collections.emptyList();
 	}
+
+	void detach() {
+		this.oldAnnotation = Optional.absent();
+		this.newAnnotation = Optional.absent();
+		for (JApiAnnotationElement element : elements) {
+			element.detach();
+		}
+	}
 }
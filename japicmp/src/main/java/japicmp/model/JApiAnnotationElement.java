@@ -13,9 +13,11 @@ import java.util.List;
 
 public class JApiAnnotationElement implements JApiHasChangeStatus, JApiCompatibility {
 	private final String name;
-	private final Optional<MemberValue> oldValue;
-	private final Optional<MemberValue> newValue;
+	private Optional<MemberValue> oldValue;
+	private Optional<MemberValue> newValue;
 	private final JApiChangeStatus changeStatus;
+	private List<JApiAnnotationElementValue> detachedOldElementValues;
+	private List<JApiAnnotationElementValue> detachedNewElementValues;
 
 	public JApiAnnotationElement(String name, Optional<MemberValue> oldValue, Optional<MemberValue> newValue, JApiChangeStatus changeStatus) {
 		this.name = name;
@@ -93,11 +95,23 @@ public class JApiAnnotationElement implements JApiHasChangeStatus, JApiCompatibi
 		return name;
 	}
 
+	/**
+	 * Returns the Javassist representation of the old value.
+	 *
+	 * @return the old value or Optional.absent() if the element does not exist in the old version or if it has been
+	 * detached (see {@link JApiClass#detach()})
+	 */
 	@XmlTransient
 	public Optional<MemberValue> getOldValue() {
 		return oldValue;
 	}
 
+	/**
+	 * Returns the Javassist representation of the new value.
+	 *
+	 * @return the new value or Optional.absent() if the element does not exist in the new version or if it has been
+	 * detached (see {@link JApiClass#detach()})
+	 */
 	@XmlTransient
 	public Optional<MemberValue> getNewValue() {
 		return newValue;
@@ -112,24 +126,25 @@ public class JApiAnnotationElement implements JApiHasChangeStatus, JApiCompatibi
 	@XmlElementWrapper(name = "oldElementValues")
 	@XmlElement(name = "oldElementValue")
 	public List<JApiAnnotationElementValue> getOldElementValues() {
-		List<JApiAnnotationElementValue> values = new ArrayList<>();
-		if (this.oldValue.isPresent()) {
-			JApiAnnotationElementValue memberValue = getMemberValue(this.oldValue.get());
-			if (memberValue.getType() == JApiAnnotationElementValue.Type.Array) {
-				values.addAll(memberValue.getValues());
-			} else {
-				values.add(memberValue);
-			}
+		if (detachedOldElementValues != null) {
+			return new ArrayList<>(detachedOldElementValues);
 		}
-		return values;
+		return getElementValues(this.oldValue);
 	}
 
 	@XmlElementWrapper(name = "newElementValues")
 	@XmlElement(name = "newElementValue")
 	public List<JApiAnnotationElementValue> getNewElementValues() {
+		if (detachedNewElementValues != null) {
+			return new ArrayList<>(detachedNewElementValues);
+		}
+		return getElementValues(this.newValue);
+	}
+
+	private static List<JApiAnnotationElementValue> getElementValues(Optional<MemberValue> memberValueOptional) {
 		List<JApiAnnotationElementValue> values = new ArrayList<>();
-		if (this.newValue.isPresent()) {
-			JApiAnnotationElementValue memberValue = getMemberValue(this.newValue.get());
+		if (memberValueOptional.isPresent()) {
+			JApiAnnotationElementValue memberValue = getMemberValue(memberValueOptional.get());
 			if (memberValue.getType() == JApiAnnotationElementValue.Type.Array) {
 				values.addAll(memberValue.getValues());
 			} else {
@@ -154,4 +169,25 @@ public class JApiAnnotationElement implements JApiHasChangeStatus, JApiCompatibi
 	public List<JApiCompatibilityChange> getCompatibilityChanges() {
 		return Collections.emptyList();
 	}
+
+	/**
+	 * Computes the old and new element values once and releases the Javassist values, which reference the constant
+	 * pool of their class file.
+	 */
+	void detach() {
+		if (detachedOldElementValues != null) {
+			return;
+		}
+		this.detachedOldElementValues = detachElementValues(getOldElementValues());
+		this.detachedNewElementValues = detachElementValues(getNewElementValues());
+		this.oldValue = Optional.absent();
+		this.newValue = Optional.absent();
+	}
+
+	private static List<JApiAnnotationElementValue> detachElementValues(List<JApiAnnotationElementValue> values) {
+		for (JApiAnnotationElementValue value : values) {
+			value.detach();
+		}
+		return values;
+	}
 }
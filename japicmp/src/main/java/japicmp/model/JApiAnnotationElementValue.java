@@ -17,8 +17,9 @@ import java.util.Set;
 public class JApiAnnotationElementValue {
 	private final String fullyQualifiedName;
 	private final Type type;
-	private final Object value;
+	private Object value;
 	private Optional<String> name = Optional.absent();
+	private List<JApiAnnotationElementValue> detachedValues;
 
 	public enum Type {
 		Double, Char, Long, Integer, Float, Byte, Enum, Annotation, Class, Short, Boolean, UnsupportedType, Array, String
@@ -40,6 +41,12 @@ public class JApiAnnotationElementValue {
 		return type.name();
 	}
 
+	/**
+	 * Returns the value. For the types {@link Type#Array} and {@link Type#Annotation} the value is a Javassist
+	 * object; it is null once the value has been detached (see {@link JApiClass#detach()}).
+	 *
+	 * @return the value
+	 */
 	@XmlTransient
 	public Object getValue() {
 		return value;
@@ -56,6 +63,9 @@ public class JApiAnnotationElementValue {
 	@XmlElementWrapper(name = "values")
 	@XmlElement(name = "value")
 	public List<JApiAnnotationElementValue> getValues() {
+		if (detachedValues != null) {
+			return new ArrayList<>(detachedValues);
+		}
 		List<JApiAnnotationElementValue> values = new ArrayList<>();
 		if (type == Type.Array) {
 			if (value instanceof MemberValue[]) {
@@ -139,4 +149,20 @@ public class JApiAnnotationElementValue {
 	public void setName(Optional<String> name) {
 		this.name = name;
 	}
+
+	/**
+	 * Replaces the Javassist array or annotation held as value by the element values computed from it, hence the
+	 * constant pool of the class file is no longer referenced.
+	 */
+	void detach() {
+		if (detachedValues != null || (type != Type.Array && type != Type.Annotation)) {
+			return;
+		}
+		List<JApiAnnotationElementValue> values = getValues();
+		for (JApiAnnotationElementValue elementValue : values) {
+			elementValue.detach();
+		}
+		this.detachedValues = values;
+		this.value = null;
+	}
 }
@@ -1,5 +1,6 @@
 package japicmp.model;
 
+import japicmp.exception.JApiCmpException;
 import japicmp.util.Optional;
 import japicmp.cmp.JarArchiveComparator;
 import japicmp.cmp.JarArchiveComparatorOptions;
@@ -29,7 +30,7 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	JApiCanBeSynthetic, JApiHasLineNumber {
 	private final JApiClass jApiClass;
 	private final String name;
-	private final JarArchiveComparator jarArchiveComparator;
+	private JarArchiveComparator jarArchiveComparator;
 	private final List<JApiParameter> parameters = new LinkedList<>();
 	private final List<JApiAnnotation> annotations = new LinkedList<>();
 	private final JApiModifier<AccessModifier> accessModifier;
@@ -43,7 +44,10 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	protected JApiChangeStatus changeStatus;
 	private final Optional<Integer> oldLineNumber;
 	private final Optional<Integer> newLineNumber;
-	private final List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private boolean frozen = false;
+	private boolean binaryCompatible;
+	private boolean sourceCompatible;
 
 	public JApiBehavior(JApiClass jApiClass, String name, Optional<? extends CtBehavior> oldBehavior, Optional<? extends CtBehavior> newBehavior, JApiChangeStatus changeStatus, JarArchiveComparator jarArchiveComparator) {
 		this.jApiClass = jApiClass;
@@ -348,6 +352,7 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	}
 
 	public void addParameter(JApiParameter jApiParameter) {
+		checkNotFrozen();
 		parameters.add(jApiParameter);
 	}
 
@@ -396,6 +401,9 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	@Override
 	@XmlAttribute
 	public boolean isBinaryCompatible() {
+		if (frozen) {
+			return binaryCompatible;
+		}
 		boolean binaryCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isBinaryCompatible()) {
@@ -408,6 +416,9 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	@Override
 	@XmlAttribute
 	public boolean isSourceCompatible() {
+		if (frozen) {
+			return sourceCompatible;
+		}
 		boolean sourceCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isSourceCompatible()) {
@@ -459,4 +470,31 @@ public class JApiBehavior implements JApiHasModifiers, JApiHasChangeStatus, JApi
 	public JApiClass getjApiClass() {
 		return this.jApiClass;
 	}
+
+	/**
+	 * Computes the compatibility of this element once; afterwards its list of compatibility changes cannot be
+	 * modified anymore. Called by {@link JApiClass#freeze()}.
+	 */
+	void freeze() {
+		if (frozen) {
+			return;
+		}
+		this.binaryCompatible = isBinaryCompatible();
+		this.sourceCompatible = isSourceCompatible();
+		this.compatibilityChanges = Collections.unmodifiableList(this.compatibilityChanges);
+		this.frozen = true;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "The model has already been frozen and cannot be modified anymore.");
+		}
+	}
+
+	void detach() {
+		this.jarArchiveComparator = null;
+		for (JApiAnnotation annotation : annotations) {
+			annotation.detach();
+		}
+	}
 }
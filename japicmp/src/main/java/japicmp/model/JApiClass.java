@@ -8,10 +8,10 @@ import japicmp.util.AnnotationHelper;
 import japicmp.util.Constants;
 import japicmp.util.MethodDescriptorParser;
 import japicmp.util.ModifierHelper;
-import japicmp.util.SignatureParser;
 import javassist.CtClass;
 import javassist.CtConstructor;
 import javassist.CtField;
+import javassist.CtMember;
 import javassist.CtMethod;
 import javassist.Modifier;
 import javassist.NotFoundException;
@@ -22,28 +22,31 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlTransient;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHasAccessModifier, JApiHasStaticModifier, JApiHasFinalModifier, JApiHasAbstractModifier,
 	JApiCompatibility, JApiHasAnnotations, JApiJavaObjectSerializationCompatibility, JApiCanBeSynthetic {
-	private final JarArchiveComparator jarArchiveComparator;
+	private JarArchiveComparator jarArchiveComparator;
 	private final String fullyQualifiedName;
 	private final JApiClassType classType;
 	private final JarArchiveComparatorOptions options;
-	private final Optional<CtClass> oldClass;
-	private final Optional<CtClass> newClass;
+	private Optional<CtClass> oldClass;
+	private Optional<CtClass> newClass;
 	private final JApiChangeStatus changeStatus;
 	private final JApiSuperclass superclass;
-	private final List<JApiImplementedInterface> interfaces = new LinkedList<>();
-	private final List<JApiField> fields = new LinkedList<>();
-	private final List<JApiConstructor> constructors = new LinkedList<>();
-	private final List<JApiMethod> methods = new LinkedList<>();
+	private List<JApiImplementedInterface> interfaces = new LinkedList<>();
+	private List<JApiField> fields = new LinkedList<>();
+	private List<JApiConstructor> constructors = new LinkedList<>();
+	private List<JApiMethod> methods = new LinkedList<>();
 	private final List<JApiAnnotation> annotations = new LinkedList<>();
 	private final JApiModifier<AccessModifier> accessModifier;
 	private final JApiModifier<FinalModifier> finalModifier;
@@ -51,11 +54,18 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 	private final JApiModifier<AbstractModifier> abstractModifier;
 	private final JApiModifier<SyntheticModifier> syntheticModifier;
 	private final JApiAttribute<SyntheticAttribute> syntheticAttribute;
-	private final List<JApiCompatibilityChange> compatibilityChanges = new LinkedList<>();
+	private List<JApiCompatibilityChange> compatibilityChanges = new LinkedList<>();
 	private final JApiSerialVersionUid jApiSerialVersionUid;
 	private final JApiClassFileFormatVersion classFileFormatVersion;
 	private boolean changeCausedByClassElement = false;
 	private JApiJavaObjectSerializationChangeStatus jApiJavaObjectSerializationChangeStatus = JApiJavaObjectSerializationChangeStatus.NOT_SERIALIZABLE;
+	private boolean detached = false;
+	private boolean frozen = false;
+	private boolean binaryCompatible;
+	private boolean sourceCompatible;
+	private boolean compatibilityStale = false;
+	private final Optional<String> oldApiFingerprint;
+	private final Optional<String> newApiFingerprint;
 
 	public JApiClass(JarArchiveComparator jarArchiveComparator, String fullyQualifiedName, Optional<CtClass> oldClass, Optional<CtClass> newClass, JApiChangeStatus changeStatus, JApiClassType classType) {
 		this.jarArchiveComparator = jarArchiveComparator;
@@ -77,9 +87,18 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 		this.syntheticAttribute = extractSyntheticAttribute(oldClass, newClass);
 		this.jApiSerialVersionUid = JavaObjectSerializationCompatibility.extractSerialVersionUid(options, jarArchiveComparator, oldClass, newClass);
 		this.classFileFormatVersion = extractClassFileFormatVersion(oldClass, newClass);
+		this.oldApiFingerprint = extractApiFingerprint(oldClass);
+		this.newApiFingerprint = extractApiFingerprint(newClass);
 		this.changeStatus = evaluateChangeStatus(changeStatus);
 	}
 
+	private Optional<String> extractApiFingerprint(Optional<CtClass> ctClassOptional) {
+		if (ctClassOptional.isPresent()) {
+			return jarArchiveComparator.getApiFingerprint(ctClassOptional.get());
+		}
+		return Optional.absent();
+	}
+
 	private JApiClassFileFormatVersion extractClassFileFormatVersion(Optional<CtClass> oldClassOptional, Optional<CtClass> newClassOptional) {
 		if (oldClassOptional.isPresent() && newClassOptional.isPresent()) {
 			CtClass oldClass = oldClassOptional.get();
@@ -160,23 +179,20 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 				String oldFieldName = oldField.getName();
 				CtField newField = newFieldsMap.get(oldFieldName);
 				if (newField != null) {
-					JApiField jApiField = new JApiField(this, JApiChangeStatus.UNCHANGED, Optional.of(oldField), Optional.of(newField), options);
-					if (includeField(jApiField)) {
-						fields.add(jApiField);
+					if (includeMember(oldField, newField)) {
+						fields.add(new JApiField(this, JApiChangeStatus.UNCHANGED, Optional.of(oldField), Optional.of(newField), options));
 					}
 				} else {
-					JApiField jApiField = new JApiField(this, JApiChangeStatus.REMOVED, Optional.of(oldField), Optional.<CtField>absent(), options);
-					if (includeField(jApiField)) {
-						fields.add(jApiField);
+					if (includeMember(oldField, null)) {
+						fields.add(new JApiField(this, JApiChangeStatus.REMOVED, Optional.of(oldField), Optional.<CtField>absent(), options));
 					}
 				}
 			}
 			for (CtField newField : newFieldsMap.values()) {
 				CtField oldField = oldFieldsMap.get(newField.getName());
 				if (oldField == null) {
-					JApiField jApiField = new JApiField(this, JApiChangeStatus.NEW, Optional.<CtField>absent(), Optional.of(newField), options);
-					if (includeField(jApiField)) {
-						fields.add(jApiField);
+					if (includeMember(null, newField)) {
+						fields.add(new JApiField(this, JApiChangeStatus.NEW, Optional.<CtField>absent(), Optional.of(newField), options));
 					}
 				}
 			}
@@ -184,28 +200,22 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 			if (oldClassOptional.isPresent()) {
 				Map<String, CtField> fieldMap = buildFieldMap(oldClassOptional.get());
 				for (CtField field : fieldMap.values()) {
-					JApiField jApiField = new JApiField(this, JApiChangeStatus.REMOVED, Optional.of(field), Optional.<CtField>absent(), options);
-					if (includeField(jApiField)) {
-						fields.add(jApiField);
+					if (includeMember(field, null)) {
+						fields.add(new JApiField(this, JApiChangeStatus.REMOVED, Optional.of(field), Optional.<CtField>absent(), options));
 					}
 				}
 			}
 			if (newClassOptional.isPresent()) {
 				Map<String, CtField> fieldMap = buildFieldMap(newClassOptional.get());
 				for (CtField field : fieldMap.values()) {
-					JApiField jApiField = new JApiField(this, JApiChangeStatus.NEW, Optional.<CtField>absent(), Optional.of(field), options);
-					if (includeField(jApiField)) {
-						fields.add(jApiField);
+					if (includeMember(null, field)) {
+						fields.add(new JApiField(this, JApiChangeStatus.NEW, Optional.<CtField>absent(), Optional.of(field), options));
 					}
 				}
 			}
 		}
 	}
 
-	private boolean includeField(JApiField jApiField) {
-		return ModifierHelper.matchesModifierLevel(jApiField, options.getAccessModifier());
-	}
-
 	private Map<String, CtField> buildFieldMap(CtClass ctClass) {
 		Map<String, CtField> fieldMap = new HashMap<>();
 		CtField[] declaredFields = ctClass.getDeclaredFields();
@@ -274,8 +284,8 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 		if (oldClassOptional.isPresent() && newClassOptional.isPresent()) {
 			CtClass oldClass = oldClassOptional.get();
 			CtClass newClass = newClassOptional.get();
-			Map<String, CtClass> interfaceMapOldClass = buildInterfaceMap(oldClass, JarArchiveComparator.ArchiveType.OLD);
-			Map<String, CtClass> interfaceMapNewClass = buildInterfaceMap(newClass, JarArchiveComparator.ArchiveType.NEW);
+			Map<String, CtClass> interfaceMapOldClass = buildInterfaceMap(oldClass);
+			Map<String, CtClass> interfaceMapNewClass = buildInterfaceMap(newClass);
 			for (CtClass oldInterface : interfaceMapOldClass.values()) {
 				CtClass ctClassFound = interfaceMapNewClass.get(oldInterface.getName());
 				if (ctClassFound != null) {
@@ -295,13 +305,13 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 			}
 		} else {
 			if (oldClassOptional.isPresent()) {
-				Map<String, CtClass> interfaceMap = buildInterfaceMap(oldClassOptional.get(), JarArchiveComparator.ArchiveType.OLD);
+				Map<String, CtClass> interfaceMap = buildInterfaceMap(oldClassOptional.get());
 				for (CtClass ctClass : interfaceMap.values()) {
 					JApiImplementedInterface jApiClass = new JApiImplementedInterface(ctClass, ctClass.getName(), JApiChangeStatus.REMOVED);
 					interfacesArg.add(jApiClass);
 				}
 			} else if (newClassOptional.isPresent()) {
-				Map<String, CtClass> interfaceMap = buildInterfaceMap(newClassOptional.get(), JarArchiveComparator.ArchiveType.NEW);
+				Map<String, CtClass> interfaceMap = buildInterfaceMap(newClassOptional.get());
 				for (CtClass ctClass : interfaceMap.values()) {
 					JApiImplementedInterface jApiClass = new JApiImplementedInterface(ctClass, ctClass.getName(), JApiChangeStatus.NEW);
 					interfacesArg.add(jApiClass);
@@ -310,170 +320,165 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 		}
 	}
 
-	private Map<String, CtClass> buildInterfaceMap(CtClass ctClass, JarArchiveComparator.ArchiveType archiveType) {
+	private Map<String, CtClass> buildInterfaceMap(CtClass ctClass) {
 		Map<String, CtClass> map = new HashMap<>();
-		buildInterfaceMap(ctClass, archiveType, map);
-		return map;
-	}
-
-	private void buildInterfaceMap(CtClass ctClass, JarArchiveComparator.ArchiveType archiveType, Map<String, CtClass> map) {
 		try {
-			CtClass[] interfaces = ctClass.getInterfaces();
-			for (CtClass ctInterface : interfaces) {
-				map.put(ctInterface.getName(), ctInterface);
-				buildInterfaceMap(archiveType, map, ctInterface);
-			}
-			Optional<CtClass> superClassOptional = getSuperclass(ctClass);
-			if (superClassOptional.isPresent()) {
-				buildInterfaceMap(superClassOptional.get(), archiveType, map);
-			}
+			jarArchiveComparator.getSupertypeGraph().collectInterfaces(ctClass, map);
 		} catch (NotFoundException e) {
 			if (!options.getIgnoreMissingClasses().ignoreClass(e.getMessage())) {
 				throw JApiCmpException.forClassLoading(e, "Class not found: " + e.getMessage(), jarArchiveComparator);
 			}
 		}
-	}
-
-	private void buildInterfaceMap(JarArchiveComparator.ArchiveType archiveType, Map<String, CtClass> map, CtClass ctInterface) throws NotFoundException {
-		Optional<CtClass> loadedInterfaceOptional = this.jarArchiveComparator.loadClass(archiveType, ctInterface.getName());
-		if (loadedInterfaceOptional.isPresent()) {
-			CtClass loadedInterface = loadedInterfaceOptional.get();
-			CtClass[] loadedInterfaceInterfaces = loadedInterface.getInterfaces();
-			for (CtClass additionalInterface : loadedInterfaceInterfaces) {
-				map.put(additionalInterface.getName(), additionalInterface);
-				buildInterfaceMap(archiveType, map, additionalInterface);
-			}
-		}
+		return map;
 	}
 
 	private void computeMethodChanges(JApiClass jApiClass, Optional<CtClass> oldClassOptional, Optional<CtClass> newClassOptional) {
-		Map<String, List<CtMethod>> oldMethodsMap = createMethodMap(oldClassOptional);
-		Map<String, List<CtMethod>> newMethodsMap = createMethodMap(newClassOptional);
-		sortMethodsIntoLists(jApiClass, oldMethodsMap, newMethodsMap);
+		MethodIndex oldMethodIndex = createMethodIndex(oldClassOptional);
+		MethodIndex newMethodIndex = createMethodIndex(newClassOptional);
+		sortMethodsIntoLists(jApiClass, oldMethodIndex, newMethodIndex);
 		Map<String, CtConstructor> oldConstructorsMap = createConstructorMap(oldClassOptional);
 		Map<String, CtConstructor> newConstructorsMap = createConstructorMap(newClassOptional);
 		sortConstructorsIntoLists(jApiClass, oldConstructorsMap, newConstructorsMap);
 	}
 
-	private void sortMethodsIntoLists(JApiClass jApiClass, Map<String, List<CtMethod>> oldMethodsMap, Map<String, List<CtMethod>> newMethodsMap) {
+	private void sortMethodsIntoLists(JApiClass jApiClass, MethodIndex oldMethodIndex, MethodIndex newMethodIndex) {
 		MethodDescriptorParser methodDescriptorParser = new MethodDescriptorParser();
-		for (String methodName : oldMethodsMap.keySet()) {
-			List<CtMethod> oldMethodsWithSameName = oldMethodsMap.get(methodName);
-			Iterator<CtMethod> oldMethodsWithSameNameIterator = oldMethodsWithSameName.iterator();
-			while (oldMethodsWithSameNameIterator.hasNext()) {
-				CtMethod oldMethod = oldMethodsWithSameNameIterator.next();
+		for (List<CtMethod> oldMethodsWithSameName : oldMethodIndex.methodsByName.values()) {
+			for (CtMethod oldMethod : oldMethodsWithSameName) {
 				methodDescriptorParser.parse(oldMethod.getSignature());
-				List<CtMethod> newMethodsWithSameName = newMethodsMap.get(methodName);
-				if (newMethodsWithSameName == null) {
-					JApiMethod jApiMethod = new JApiMethod(jApiClass, oldMethod.getName(), JApiChangeStatus.REMOVED, Optional.of(oldMethod), Optional.<CtMethod>absent(), jarArchiveComparator);
-					addParametersToMethod(methodDescriptorParser, jApiMethod);
-					if (includeMethod(jApiMethod)) {
+				Optional<CtMethod> matchingMethodOptional = newMethodIndex.findMatchingMethod(oldMethod);
+				if (matchingMethodOptional.isPresent()) {
+					CtMethod matchingMethod = matchingMethodOptional.get();
+					if (includeMember(oldMethod, matchingMethod)) {
+						JApiMethod jApiMethod = new JApiMethod(jApiClass, oldMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(oldMethod), Optional.of(matchingMethod), jarArchiveComparator);
+						addParametersToMethod(methodDescriptorParser, jApiMethod);
 						methods.add(jApiMethod);
 					}
+					oldMethodIndex.remove(oldMethod);
+					newMethodIndex.remove(matchingMethod);
 				} else {
-					Optional<CtMethod> matchingMethodOptional = findMatchingMethod(oldMethod, newMethodsWithSameName);
-					if (matchingMethodOptional.isPresent()) {
-						CtMethod matchingMethod = matchingMethodOptional.get();
-						JApiMethod jApiMethod = new JApiMethod(jApiClass, oldMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(oldMethod), Optional.of(matchingMethod), jarArchiveComparator);
-						addParametersToMethod(methodDescriptorParser, jApiMethod);
-						if (includeMethod(jApiMethod)) {
-							methods.add(jApiMethod);
-						}
-						oldMethodsWithSameNameIterator.remove();
-						newMethodsWithSameName.remove(matchingMethod);
-					} else {
+					if (includeMember(oldMethod, null)) {
 						JApiMethod jApiMethod = new JApiMethod(jApiClass, oldMethod.getName(), JApiChangeStatus.REMOVED, Optional.of(oldMethod), Optional.<CtMethod>absent(), jarArchiveComparator);
 						addParametersToMethod(methodDescriptorParser, jApiMethod);
-						if (includeMethod(jApiMethod)) {
-							methods.add(jApiMethod);
-						}
+						methods.add(jApiMethod);
 					}
 				}
 			}
 		}
-		for (String methodName : newMethodsMap.keySet()) {
-			List<CtMethod> ctMethods = newMethodsMap.get(methodName);
-			for (CtMethod ctMethod : ctMethods) {
+		for (List<CtMethod> newMethodsWithSameName : newMethodIndex.methodsByName.values()) {
+			for (CtMethod ctMethod : newMethodsWithSameName) {
+				if (newMethodIndex.isRemoved(ctMethod)) {
+					continue;
+				}
 				methodDescriptorParser.parse(ctMethod.getSignature());
-				List<CtMethod> methodsWithSameName = oldMethodsMap.get(ctMethod.getName());
-				if (methodsWithSameName == null) {
-					JApiMethod jApiMethod = new JApiMethod(jApiClass, ctMethod.getName(), JApiChangeStatus.NEW, Optional.<CtMethod>absent(), Optional.of(ctMethod), jarArchiveComparator);
-					addParametersToMethod(methodDescriptorParser, jApiMethod);
-					if (includeMethod(jApiMethod)) {
+				Optional<CtMethod> matchingMethodOptional = oldMethodIndex.findMatchingMethod(ctMethod);
+				if (matchingMethodOptional.isPresent()) {
+					CtMethod matchingMethod = matchingMethodOptional.get();
+					if (includeMember(ctMethod, matchingMethod)) {
+						JApiMethod jApiMethod = new JApiMethod(jApiClass, ctMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(ctMethod), Optional.of(matchingMethod), jarArchiveComparator);
+						addParametersToMethod(methodDescriptorParser, jApiMethod);
 						methods.add(jApiMethod);
 					}
 				} else {
-					Optional<CtMethod> matchingMethodOptional = findMatchingMethod(ctMethod, methodsWithSameName);
-					if (matchingMethodOptional.isPresent()) {
-						CtMethod matchingMethod = matchingMethodOptional.get();
-						JApiMethod jApiMethod = new JApiMethod(jApiClass, ctMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(ctMethod), Optional.of(matchingMethod), jarArchiveComparator);
-						addParametersToMethod(methodDescriptorParser, jApiMethod);
-						if (includeMethod(jApiMethod)) {
-							methods.add(jApiMethod);
-						}
-					} else {
+					if (includeMember(null, ctMethod)) {
 						JApiMethod jApiMethod = new JApiMethod(jApiClass, ctMethod.getName(), JApiChangeStatus.NEW, Optional.<CtMethod>absent(), Optional.of(ctMethod), jarArchiveComparator);
 						addParametersToMethod(methodDescriptorParser, jApiMethod);
-						if (includeMethod(jApiMethod)) {
-							methods.add(jApiMethod);
-						}
+						methods.add(jApiMethod);
 					}
 				}
 			}
 		}
 	}
 
-	private Optional<CtMethod> findMatchingMethod(CtMethod method, List<CtMethod> candidates) {
-		Optional<CtMethod> found = Optional.absent();
-		SignatureParser methodSignatureParser = new SignatureParser();
-		methodSignatureParser.parse(method.getSignature());
-		List<CtMethod> methodsWithSameParameters = new ArrayList<>();
-		for (CtMethod candidate : candidates) {
-			boolean parameterListsEqual = true;
-			List<String> probeParameters = methodSignatureParser.getParameters();
-			SignatureParser candidateSignatureParser = new SignatureParser();
-			candidateSignatureParser.parse(candidate.getSignature());
-			List<String> candidateParameters = candidateSignatureParser.getParameters();
-			if (probeParameters.size() != candidateParameters.size()) {
-				parameterListsEqual = false;
-			}
-			if (parameterListsEqual) {
-				for (int i = 0; i < probeParameters.size(); i++) {
-					String probeParameter = probeParameters.get(i);
-					String candidateParameter = candidateParameters.get(i);
-					if (!probeParameter.equals(candidateParameter)) {
-						parameterListsEqual = false;
-					}
-				}
+	/**
+	 * Indexes the methods of one class by their name and their erased parameter list (the part of the method
+	 * descriptor up to the closing parenthesis). Looking up the method matching a method of the other version
+	 * is therefore independent of the number of overloads with the same name. Only methods that differ solely
+	 * in their return type (e.g. bridge methods) share the same key.
+	 */
+	private static class MethodIndex {
+		private final Map<String, List<CtMethod>> methodsByName = new HashMap<>();
+		private final Map<String, List<CtMethod>> methodsByNameAndParameters = new HashMap<>();
+		private final Set<CtMethod> removedMethods = Collections.newSetFromMap(new IdentityHashMap<CtMethod, Boolean>());
+
+		void add(CtMethod ctMethod) {
+			String name = ctMethod.getName();
+			List<CtMethod> methodsWithSameName = methodsByName.get(name);
+			if (methodsWithSameName == null) {
+				methodsWithSameName = new ArrayList<>();
+				methodsByName.put(name, methodsWithSameName);
+			}
+			methodsWithSameName.add(ctMethod);
+			String key = createKey(ctMethod);
+			List<CtMethod> methodsWithSameParameters = methodsByNameAndParameters.get(key);
+			if (methodsWithSameParameters == null) {
+				methodsWithSameParameters = new ArrayList<>(1);
+				methodsByNameAndParameters.put(key, methodsWithSameParameters);
+			}
+			methodsWithSameParameters.add(ctMethod);
+		}
+
+		/**
+		 * Returns the method with the same name and parameters as the given method. If more than one method
+		 * qualifies, the one with the same return type is preferred.
+		 */
+		Optional<CtMethod> findMatchingMethod(CtMethod method) {
+			List<CtMethod> methodsWithSameParameters = methodsByNameAndParameters.get(createKey(method));
+			if (methodsWithSameParameters == null || methodsWithSameParameters.isEmpty()) {
+				return Optional.absent();
 			}
-			if (parameterListsEqual) {
-				methodsWithSameParameters.add(candidate);
+			if (methodsWithSameParameters.size() == 1) {
+				return Optional.of(methodsWithSameParameters.get(0));
 			}
-		}
-		if (methodsWithSameParameters.size() == 1) {
-			found = Optional.of(methodsWithSameParameters.get(0));
-		} else if (methodsWithSameParameters.size() > 1) {
 			CtMethod methodWithSameReturnType = null;
-			String probeReturnType = methodSignatureParser.getReturnType();
+			String probeReturnType = getReturnTypeDescriptor(method);
 			for (CtMethod candidate : methodsWithSameParameters) {
-				SignatureParser candidateSignatureParser = new SignatureParser();
-				candidateSignatureParser.parse(candidate.getSignature());
-				String candidateReturnType = candidateSignatureParser.getReturnType();
-				if (probeReturnType.equals(candidateReturnType)) {
+				if (probeReturnType.equals(getReturnTypeDescriptor(candidate))) {
 					methodWithSameReturnType = candidate;
 				}
 			}
 			if (methodWithSameReturnType != null) {
-				found = Optional.of(methodWithSameReturnType);
-			} else {
-				found = Optional.of(methodsWithSameParameters.get(0));
+				return Optional.of(methodWithSameReturnType);
+			}
+			return Optional.of(methodsWithSameParameters.get(0));
+		}
+
+		void remove(CtMethod ctMethod) {
+			List<CtMethod> methodsWithSameParameters = methodsByNameAndParameters.get(createKey(ctMethod));
+			if (methodsWithSameParameters != null) {
+				methodsWithSameParameters.remove(ctMethod);
 			}
+			removedMethods.add(ctMethod);
+		}
+
+		boolean isRemoved(CtMethod ctMethod) {
+			return removedMethods.contains(ctMethod);
+		}
+
+		private static String createKey(CtMethod ctMethod) {
+			String descriptor = ctMethod.getSignature();
+			int parenthesisCloseIndex = descriptor.indexOf(')');
+			return ctMethod.getName() + descriptor.substring(0, parenthesisCloseIndex + 1);
+		}
+
+		private static String getReturnTypeDescriptor(CtMethod ctMethod) {
+			String descriptor = ctMethod.getSignature();
+			return descriptor.substring(descriptor.indexOf(')') + 1);
 		}
-		return found;
 	}
 
-	private boolean includeMethod(JApiMethod jApiMethod) {
-		return ModifierHelper.matchesModifierLevel(jApiMethod, options.getAccessModifier());
+	/**
+	 * Checks the access level of a field, method or constructor on the raw modifiers of its old and new version
+	 * before its model is built, hence members that cannot match the configured access modifier are skipped without
+	 * comparing them.
+	 *
+	 * @param oldMember the old version of the member or null
+	 * @param newMember the new version of the member or null
+	 * @return true if one of the two versions matches the access modifier of the options
+	 */
+	private boolean includeMember(CtMember oldMember, CtMember newMember) {
+		return (oldMember != null && ModifierHelper.matchesModifierLevel(oldMember.getModifiers(), options.getAccessModifier()))
+			|| (newMember != null && ModifierHelper.matchesModifierLevel(newMember.getModifiers(), options.getAccessModifier()));
 	}
 
 	private void sortConstructorsIntoLists(JApiClass jApiClass, Map<String, CtConstructor> oldConstructorsMap, Map<String, CtConstructor> newConstructorsMap) {
@@ -483,15 +488,15 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 			methodDescriptorParser.parse(ctMethod.getSignature());
 			CtConstructor foundMethod = newConstructorsMap.get(longName);
 			if (foundMethod == null) {
-				JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.REMOVED, Optional.of(ctMethod), Optional.<CtConstructor>absent(), jarArchiveComparator);
-				addParametersToMethod(methodDescriptorParser, jApiConstructor);
-				if (includeConstructor(jApiConstructor)) {
+				if (includeMember(ctMethod, null)) {
+					JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.REMOVED, Optional.of(ctMethod), Optional.<CtConstructor>absent(), jarArchiveComparator);
+					addParametersToMethod(methodDescriptorParser, jApiConstructor);
 					constructors.add(jApiConstructor);
 				}
 			} else {
-				JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(ctMethod), Optional.of(foundMethod), jarArchiveComparator);
-				addParametersToMethod(methodDescriptorParser, jApiConstructor);
-				if (includeConstructor(jApiConstructor)) {
+				if (includeMember(ctMethod, foundMethod)) {
+					JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.UNCHANGED, Optional.of(ctMethod), Optional.of(foundMethod), jarArchiveComparator);
+					addParametersToMethod(methodDescriptorParser, jApiConstructor);
 					constructors.add(jApiConstructor);
 				}
 			}
@@ -501,42 +506,32 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 			methodDescriptorParser.parse(ctMethod.getSignature());
 			CtConstructor foundMethod = oldConstructorsMap.get(longName);
 			if (foundMethod == null) {
-				JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.NEW, Optional.<CtConstructor>absent(), Optional.of(ctMethod), jarArchiveComparator);
-				addParametersToMethod(methodDescriptorParser, jApiConstructor);
-				if (includeConstructor(jApiConstructor)) {
+				if (includeMember(null, ctMethod)) {
+					JApiConstructor jApiConstructor = new JApiConstructor(jApiClass, ctMethod.getName(), JApiChangeStatus.NEW, Optional.<CtConstructor>absent(), Optional.of(ctMethod), jarArchiveComparator);
+					addParametersToMethod(methodDescriptorParser, jApiConstructor);
 					constructors.add(jApiConstructor);
 				}
 			}
 		}
 	}
 
-	private boolean includeConstructor(JApiConstructor jApiConstructor) {
-		return ModifierHelper.matchesModifierLevel(jApiConstructor, options.getAccessModifier());
-	}
-
 	private void addParametersToMethod(MethodDescriptorParser methodDescriptorParser, JApiBehavior jApiMethod) {
 		for (String param : methodDescriptorParser.getParameters()) {
 			jApiMethod.addParameter(new JApiParameter(param));
 		}
 	}
 
-	private Map<String, List<CtMethod>> createMethodMap(Optional<CtClass> ctClassOptional) {
-		Map<String, List<CtMethod>> methods = new HashMap<>();
+	private MethodIndex createMethodIndex(Optional<CtClass> ctClassOptional) {
+		MethodIndex methodIndex = new MethodIndex();
 		if (ctClassOptional.isPresent()) {
 			CtClass ctClass = ctClassOptional.get();
 			for (CtMethod ctMethod : ctClass.getDeclaredMethods()) {
 				if (options.getFilters().includeBehavior(ctMethod)) {
-					String name = ctMethod.getName();
-					List<CtMethod> ctMethods = methods.get(name);
-					if (ctMethods == null) {
-						ctMethods = new ArrayList<>();
-						methods.put(name, ctMethods);
-					}
-					ctMethods.add(ctMethod);
+					methodIndex.add(ctMethod);
 				}
 			}
 		}
-		return methods;
+		return methodIndex;
 	}
 
 	private Map<String, CtConstructor> createConstructorMap(Optional<CtClass> ctClass) {
@@ -686,6 +681,7 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 	}
 
 	void setJavaObjectSerializationCompatible(JApiJavaObjectSerializationChangeStatus jApiJavaObjectSerializationChangeStatus) {
+		checkNotFrozen();
 		this.jApiJavaObjectSerializationChangeStatus = jApiJavaObjectSerializationChangeStatus;
 	}
 
@@ -699,16 +695,183 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 		return fullyQualifiedName;
 	}
 
+	/**
+	 * Returns the Javassist representation of the new version of this class.
+	 *
+	 * @return the new class or Optional.absent() if the class does not exist in the new version or if this
+	 * instance has been detached (see {@link #detach()})
+	 */
 	@XmlTransient
 	public Optional<CtClass> getNewClass() {
 		return newClass;
 	}
 
+	/**
+	 * Returns the Javassist representation of the old version of this class.
+	 *
+	 * @return the old class or Optional.absent() if the class does not exist in the old version or if this
+	 * instance has been detached (see {@link #detach()})
+	 */
 	@XmlTransient
 	public Optional<CtClass> getOldClass() {
 		return oldClass;
 	}
 
+	/**
+	 * Releases the references to the Javassist classes and to the {@link JarArchiveComparator} held by this class
+	 * and all of its members, so that the ClassPools of the comparison can be garbage collected while this model is
+	 * still in use. All values exposed to the output generators are computed when the model is built, the default
+	 * serialVersionUID at the latest by this call; after this call only the getters returning Javassist types return
+	 * Optional.absent() (respectively null). Annotation values are kept as {@link JApiAnnotationElementValue}s. The
+	 * model of the superclass (see {@link JApiSuperclass#getJApiClass()}) is only kept if it has already been built
+	 * during the comparison; it is not built for detaching.
+	 */
+	public void detach() {
+		if (detached) {
+			return;
+		}
+		detached = true;
+		this.oldClass = Optional.absent();
+		this.newClass = Optional.absent();
+		this.jarArchiveComparator = null;
+		this.jApiSerialVersionUid.detach();
+		this.superclass.detach();
+		for (JApiAnnotation annotation : annotations) {
+			annotation.detach();
+		}
+		for (JApiImplementedInterface implementedInterface : interfaces) {
+			implementedInterface.detach();
+		}
+		for (JApiField field : fields) {
+			field.detach();
+		}
+		for (JApiConstructor constructor : constructors) {
+			constructor.detach();
+		}
+		for (JApiMethod method : methods) {
+			method.detach();
+		}
+	}
+
+	/**
+	 * Computes the binary and source compatibility of this class and all of its members bottom-up and stores the
+	 * results, so that {@link #isBinaryCompatible()} and {@link #isSourceCompatible()} do not iterate over the
+	 * members and their compatibility changes on each call. {@link japicmp.cmp.JarArchiveComparator} calls this method
+	 * once the compatibility changes and the serialization compatibility have been evaluated. Afterwards the lists of
+	 * compatibility changes are unmodifiable and any attempt to change the state the results depend on fails. Members
+	 * can still be removed from the lists of members, e.g. by {@link japicmp.output.OutputFilter}; the results of this
+	 * class are then computed again once for the remaining members.
+	 */
+	public void freeze() {
+		if (frozen) {
+			return;
+		}
+		this.superclass.freeze();
+		for (JApiImplementedInterface implementedInterface : interfaces) {
+			implementedInterface.freeze();
+		}
+		for (JApiField field : fields) {
+			field.freeze();
+		}
+		for (JApiConstructor constructor : constructors) {
+			constructor.freeze();
+		}
+		for (JApiMethod method : methods) {
+			method.freeze();
+		}
+		this.interfaces = new FrozenMemberList<>(this.interfaces);
+		this.fields = new FrozenMemberList<>(this.fields);
+		this.constructors = new FrozenMemberList<>(this.constructors);
+		this.methods = new FrozenMemberList<>(this.methods);
+		this.compatibilityChanges = Collections.unmodifiableList(this.compatibilityChanges);
+		this.frozen = true;
+		this.compatibilityStale = true;
+		updateStaleCompatibility();
+	}
+
+	private void updateStaleCompatibility() {
+		if (compatibilityStale) {
+			this.binaryCompatible = computeBinaryCompatible();
+			this.sourceCompatible = computeSourceCompatible();
+			this.compatibilityStale = false;
+		}
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "The model of class " + fullyQualifiedName + " has already been frozen and cannot be modified anymore.");
+		}
+	}
+
+	/**
+	 * The list of members of a frozen class. Members can only be removed or reordered, e.g. by
+	 * {@link java.util.Collections#sort(List, java.util.Comparator)}, which sets the sorted members one by one. Setting a
+	 * member that does not belong to the list is rejected; a removal, or a set that drops a member from the list, marks
+	 * the stored compatibility of the class as stale.
+	 */
+	private class FrozenMemberList<T> extends AbstractList<T> {
+		private final List<T> members;
+
+		FrozenMemberList(List<T> members) {
+			this.members = new ArrayList<>(members);
+		}
+
+		@Override
+		public T get(int index) {
+			return members.get(index);
+		}
+
+		@Override
+		public int size() {
+			return members.size();
+		}
+
+		@Override
+		public T set(int index, T element) {
+			if (!containsMember(element)) {
+				checkNotFrozen();
+			}
+			T replaced = members.set(index, element);
+			if (replaced != element && !containsMember(replaced)) {
+				compatibilityStale = true;
+			}
+			return replaced;
+		}
+
+		private boolean containsMember(T member) {
+			for (T existingMember : members) {
+				if (existingMember == member) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void add(int index, T element) {
+			checkNotFrozen();
+			members.add(index, element);
+		}
+
+		@Override
+		public T remove(int index) {
+			T removed = members.remove(index);
+			modCount++;
+			compatibilityStale = true;
+			return removed;
+		}
+	}
+
+	/**
+	 * Returns true if {@link #freeze()} has been called for this class.
+	 *
+	 * @return true if this class is frozen
+	 */
+	@XmlTransient
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@XmlElementWrapper(name = "modifiers")
 	@XmlElement(name = "modifier")
 	public List<? extends JApiModifier<? extends Enum<? extends Enum<?>>>> getModifiers() {
@@ -790,6 +953,14 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 	@Override
 	@XmlAttribute
 	public boolean isBinaryCompatible() {
+		if (frozen) {
+			updateStaleCompatibility();
+			return binaryCompatible;
+		}
+		return computeBinaryCompatible();
+	}
+
+	private boolean computeBinaryCompatible() {
 		boolean binaryCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isBinaryCompatible()) {
@@ -847,6 +1018,14 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 	@Override
 	@XmlAttribute
 	public boolean isSourceCompatible() {
+		if (frozen) {
+			updateStaleCompatibility();
+			return sourceCompatible;
+		}
+		return computeSourceCompatible();
+	}
+
+	private boolean computeSourceCompatible() {
 		boolean sourceCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isSourceCompatible()) {
@@ -922,4 +1101,28 @@ public class JApiClass implements JApiHasModifiers, JApiHasChangeStatus, JApiHas
 	public JApiClassFileFormatVersion getClassFileFormatVersion() {
 		return classFileFormatVersion;
 	}
+
+	/**
+	 * Returns the fingerprint of the API of the old version of this class. If the old and the new fingerprint are
+	 * equal, the two versions differ at most in the code of their methods.
+	 *
+	 * @return the fingerprint or Optional.absent() if the class does not exist in the old version or was not loaded
+	 * from the compared archives
+	 */
+	@XmlTransient
+	public Optional<String> getOldApiFingerprint() {
+		return oldApiFingerprint;
+	}
+
+	/**
+	 * Returns the fingerprint of the API of the new version of this class.
+	 *
+	 * @return the fingerprint or Optional.absent() if the class does not exist in the new version or was not loaded
+	 * from the compared archives
+	 * @see #getOldApiFingerprint()
+	 */
+	@XmlTransient
+	public Optional<String> getNewApiFingerprint() {
+		return newApiFingerprint;
+	}
 }
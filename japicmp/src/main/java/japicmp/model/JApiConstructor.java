@@ -7,8 +7,8 @@ import javassist.CtConstructor;
 import javax.xml.bind.annotation.XmlTransient;
 
 public class JApiConstructor extends JApiBehavior {
-	private final Optional<CtConstructor> oldConstructor;
-	private final Optional<CtConstructor> newConstructor;
+	private Optional<CtConstructor> oldConstructor;
+	private Optional<CtConstructor> newConstructor;
 
 	public JApiConstructor(JApiClass jApiClass, String name, JApiChangeStatus changeStatus, Optional<CtConstructor> oldConstructor, Optional<CtConstructor> newConstructor, JarArchiveComparator jarArchiveComparator) {
 		super(jApiClass, name, oldConstructor, newConstructor, changeStatus, jarArchiveComparator);
@@ -25,4 +25,11 @@ public class JApiConstructor extends JApiBehavior {
 	public Optional<CtConstructor> getOldConstructor() {
 		return oldConstructor;
 	}
+
+	@Override
+	void detach() {
+		super.detach();
+		this.oldConstructor = Optional.absent();
+		this.newConstructor = Optional.absent();
+	}
 }
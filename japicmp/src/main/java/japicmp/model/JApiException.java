@@ -17,27 +17,8 @@ public class JApiException implements JApiHasChangeStatus {
 		this.checkedException = isCheckedException(ctClassOptional, jarArchiveComparator);
 	}
 
-	private boolean isCheckedException(Optional<CtClass> ctClassOptional, JarArchiveComparator jarArchiveComparator) throws OutOfMemoryError {
-		boolean checkedException = false;
-		if (ctClassOptional.isPresent()) {
-			boolean subClassOfException = false;
-			CtClass ctClass = ctClassOptional.get();
-			Optional<CtClass> exceptionOptional = jarArchiveComparator.loadClass(JarArchiveComparator.ArchiveType.NEW, Exception.class.getName());
-			if (exceptionOptional.isPresent()) {
-				if (ctClass.subclassOf(exceptionOptional.get())) {
-					subClassOfException = true;
-				}
-			}
-			if (subClassOfException) {
-				Optional<CtClass> runtimeExceptionOptional = jarArchiveComparator.loadClass(JarArchiveComparator.ArchiveType.NEW, RuntimeException.class.getName());
-				if (runtimeExceptionOptional.isPresent()) {
-					if (!ctClass.subclassOf(runtimeExceptionOptional.get())) {
-						checkedException = true;
-					}
-				}
-			}
-		}
-		return checkedException;
+	private boolean isCheckedException(Optional<CtClass> ctClassOptional, JarArchiveComparator jarArchiveComparator) {
+		return ctClassOptional.isPresent() && jarArchiveComparator.getSupertypeGraph().isCheckedException(ctClassOptional.get());
 	}
 
 	@XmlAttribute(name = "name")
@@ -17,14 +17,16 @@ import javax.xml.bind.annotation.XmlTransient;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
 public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHasAccessModifier, JApiHasStaticModifier,
 	JApiHasFinalModifier, JApiHasTransientModifier, JApiCompatibility, JApiHasAnnotations, JApiCanBeSynthetic {
 	private final JApiChangeStatus changeStatus;
 	private final JApiClass jApiClass;
-	private final Optional<CtField> oldFieldOptional;
-	private final Optional<CtField> newFieldOptional;
+	private Optional<CtField> oldFieldOptional;
+	private Optional<CtField> newFieldOptional;
+	private final String name;
 	private final List<JApiAnnotation> annotations = new LinkedList<>();
 	private final JApiModifier<AccessModifier> accessModifier;
 	private final JApiModifier<StaticModifier> staticModifier;
@@ -32,13 +34,17 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 	private final JApiModifier<TransientModifier> transientModifier;
 	private final JApiModifier<SyntheticModifier> syntheticModifier;
 	private final JApiAttribute<SyntheticAttribute> syntheticAttribute;
-	private final List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private boolean frozen = false;
+	private boolean binaryCompatible;
+	private boolean sourceCompatible;
 	private final JApiType type;
 
 	public JApiField(JApiClass jApiClass, JApiChangeStatus changeStatus, Optional<CtField> oldFieldOptional, Optional<CtField> newFieldOptional, JarArchiveComparatorOptions options) {
 		this.jApiClass = jApiClass;
 		this.oldFieldOptional = oldFieldOptional;
 		this.newFieldOptional = newFieldOptional;
+		this.name = extractName(oldFieldOptional, newFieldOptional);
 		computeAnnotationChanges(this.annotations, oldFieldOptional, newFieldOptional, options);
 		this.accessModifier = extractAccessModifier(oldFieldOptional, newFieldOptional);
 		this.staticModifier = extractStaticModifier(oldFieldOptional, newFieldOptional);
@@ -59,6 +65,17 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 		});
 	}
 
+	private String extractName(Optional<CtField> oldFieldOptional, Optional<CtField> newFieldOptional) {
+		String name = "n.a.";
+		if (oldFieldOptional.isPresent()) {
+			name = oldFieldOptional.get().getName();
+		}
+		if (newFieldOptional.isPresent()) {
+			name = newFieldOptional.get().getName();
+		}
+		return name;
+	}
+
 	private JApiType extractType(Optional<CtField> oldFieldOptional, Optional<CtField> newFieldOptional) {
 		JApiType jApiType = new JApiType(Optional.<String>absent(), Optional.<String>absent(), JApiChangeStatus.UNCHANGED);
 		if (oldFieldOptional.isPresent() && newFieldOptional.isPresent()) {
@@ -248,13 +265,6 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 
 	@XmlAttribute(name = "name")
 	public String getName() {
-		String name = "n.a.";
-		if (oldFieldOptional.isPresent()) {
-			name = oldFieldOptional.get().getName();
-		}
-		if (newFieldOptional.isPresent()) {
-			name = newFieldOptional.get().getName();
-		}
 		return name;
 	}
 
@@ -320,6 +330,9 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 	@Override
 	@XmlAttribute
 	public boolean isBinaryCompatible() {
+		if (frozen) {
+			return binaryCompatible;
+		}
 		boolean binaryCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isBinaryCompatible()) {
@@ -332,6 +345,9 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 	@Override
 	@XmlAttribute
 	public boolean isSourceCompatible() {
+		if (frozen) {
+			return sourceCompatible;
+		}
 		boolean sourceCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isSourceCompatible()) {
@@ -357,4 +373,26 @@ public class JApiField implements JApiHasChangeStatus, JApiHasModifiers, JApiHas
 	public JApiClass getjApiClass() {
 		return jApiClass;
 	}
+
+	/**
+	 * Computes the compatibility of this element once; afterwards its list of compatibility changes cannot be
+	 * modified anymore. Called by {@link JApiClass#freeze()}.
+	 */
+	void freeze() {
+		if (frozen) {
+			return;
+		}
+		this.binaryCompatible = isBinaryCompatible();
+		this.sourceCompatible = isSourceCompatible();
+		this.compatibilityChanges = Collections.unmodifiableList(this.compatibilityChanges);
+		this.frozen = true;
+	}
+
+	void detach() {
+		this.oldFieldOptional = Optional.absent();
+		this.newFieldOptional = Optional.absent();
+		for (JApiAnnotation annotation : annotations) {
+			annotation.detach();
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package japicmp.model;
 
+import japicmp.exception.JApiCmpException;
 import japicmp.util.Optional;
 import javassist.CtClass;
 
@@ -8,13 +9,17 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlTransient;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class JApiImplementedInterface implements JApiHasChangeStatus, JApiCompatibility {
-	private final CtClass ctClass;
+	private CtClass ctClass;
 	private final String fullyQualifiedName;
 	private final JApiChangeStatus changeStatus;
-	private final List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private List<JApiCompatibilityChange> compatibilityChanges = new ArrayList<>();
+	private boolean frozen = false;
+	private boolean binaryCompatible;
+	private boolean sourceCompatible;
 	private Optional<JApiClass> correspondingJApiClass = Optional.absent();
 
 	public JApiImplementedInterface(CtClass ctClass, String fullyQualifiedName, JApiChangeStatus changeStatus) {
@@ -36,6 +41,9 @@ public class JApiImplementedInterface implements JApiHasChangeStatus, JApiCompat
 	@Override
 	@XmlAttribute
 	public boolean isBinaryCompatible() {
+		if (frozen) {
+			return binaryCompatible;
+		}
 		boolean binaryCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isBinaryCompatible()) {
@@ -53,6 +61,9 @@ public class JApiImplementedInterface implements JApiHasChangeStatus, JApiCompat
 	@Override
 	@XmlAttribute
 	public boolean isSourceCompatible() {
+		if (frozen) {
+			return sourceCompatible;
+		}
 		boolean sourceCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isSourceCompatible()) {
@@ -74,11 +85,47 @@ public class JApiImplementedInterface implements JApiHasChangeStatus, JApiCompat
 	}
 
 	public void setJApiClass(JApiClass jApiClass) {
+		checkNotFrozen();
 		this.correspondingJApiClass = Optional.of(jApiClass);
 	}
 
+	/**
+	 * Returns the Javassist representation of this interface.
+	 *
+	 * @return the interface or null if the owning class has been detached (see {@link JApiClass#detach()})
+	 */
 	@XmlTransient
 	public CtClass getCtClass() {
 		return ctClass;
 	}
+
+	/**
+	 * Computes the compatibility of this element once; afterwards its list of compatibility changes cannot be
+	 * modified anymore. Called by {@link JApiClass#freeze()}.
+	 */
+	void freeze() {
+		if (frozen) {
+			return;
+		}
+		if (correspondingJApiClass.isPresent()) {
+			correspondingJApiClass.get().freeze();
+		}
+		this.binaryCompatible = isBinaryCompatible();
+		this.sourceCompatible = isSourceCompatible();
+		this.compatibilityChanges = Collections.unmodifiableList(this.compatibilityChanges);
+		this.frozen = true;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "The model has already been frozen and cannot be modified anymore.");
+		}
+	}
+
+	void detach() {
+		this.ctClass = null;
+		if (correspondingJApiClass.isPresent()) {
+			correspondingJApiClass.get().detach();
+		}
+	}
 }
@@ -2,15 +2,15 @@ package japicmp.model;
 
 import japicmp.util.Optional;
 import japicmp.cmp.JarArchiveComparator;
-import japicmp.util.MethodDescriptorParser;
+import japicmp.util.MethodDescriptor;
 import javassist.CtMethod;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlTransient;
 
 public class JApiMethod extends JApiBehavior {
-	private final Optional<CtMethod> oldMethod;
-	private final Optional<CtMethod> newMethod;
+	private Optional<CtMethod> oldMethod;
+	private Optional<CtMethod> newMethod;
 	private final JApiReturnType returnType;
 
 	public JApiMethod(JApiClass jApiClass, String name, JApiChangeStatus changeStatus, Optional<CtMethod> oldMethod, Optional<CtMethod> newMethod, JarArchiveComparator jarArchiveComparator) {
@@ -54,9 +54,7 @@ public class JApiMethod extends JApiBehavior {
 	}
 
 	private String computeReturnType(CtMethod oldMethod) {
-		MethodDescriptorParser parser = new MethodDescriptorParser();
-		parser.parse(oldMethod.getSignature());
-		return parser.getReturnType();
+		return MethodDescriptor.of(oldMethod.getSignature()).getReturnType();
 	}
 
 	public boolean hasSameReturnType(JApiMethod otherMethod) {
@@ -126,4 +124,11 @@ public class JApiMethod extends JApiBehavior {
 	public JApiReturnType getReturnType() {
 		return returnType;
 	}
+
+	@Override
+	void detach() {
+		super.detach();
+		this.oldMethod = Optional.absent();
+		this.newMethod = Optional.absent();
+	}
 }
@@ -1,7 +1,9 @@
 package japicmp.model;
 
+import japicmp.cmp.JarArchiveComparator;
 import japicmp.util.Optional;
 import japicmp.util.OptionalHelper;
+import javassist.CtClass;
 
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlTransient;
@@ -13,10 +15,13 @@ import javax.xml.bind.annotation.XmlTransient;
 public class JApiSerialVersionUid {
 	private final boolean serializableOld;
 	private final boolean serializableNew;
-	private final Optional<Long> serialVersionUidDefaultOld;
-	private final Optional<Long> serialVersionUidDefaultNew;
+	private Optional<Long> serialVersionUidDefaultOld;
+	private Optional<Long> serialVersionUidDefaultNew;
 	private final Optional<Long> serialVersionUidInClassOld;
 	private final Optional<Long> serialVersionUidInClassNew;
+	private JarArchiveComparator jarArchiveComparator;
+	private Optional<CtClass> pendingDefaultOld = Optional.absent();
+	private Optional<CtClass> pendingDefaultNew = Optional.absent();
 
 	public JApiSerialVersionUid(boolean serializableOld, boolean serializableNew, Optional<Long> serialVersionUidDefaultOld, Optional<Long> serialVersionUidDefaultNew, Optional<Long> serialVersionUidInClassOld, Optional<Long> serialVersionUidInClassNew) {
 		this.serializableOld = serializableOld;
@@ -27,6 +32,17 @@ public class JApiSerialVersionUid {
 		this.serialVersionUidInClassNew = serialVersionUidInClassNew;
 	}
 
+	/**
+	 * Creates an instance whose default serialVersionUIDs are computed from the given classes when they are
+	 * requested for the first time (see {@link JarArchiveComparator#getDefaultSerialVersionUid(CtClass)}).
+	 */
+	JApiSerialVersionUid(JarArchiveComparator jarArchiveComparator, boolean serializableOld, boolean serializableNew, Optional<CtClass> pendingDefaultOld, Optional<CtClass> pendingDefaultNew, Optional<Long> serialVersionUidInClassOld, Optional<Long> serialVersionUidInClassNew) {
+		this(serializableOld, serializableNew, Optional.<Long>absent(), Optional.<Long>absent(), serialVersionUidInClassOld, serialVersionUidInClassNew);
+		this.jarArchiveComparator = jarArchiveComparator;
+		this.pendingDefaultOld = pendingDefaultOld;
+		this.pendingDefaultNew = pendingDefaultNew;
+	}
+
 	/**
 	 * Returns true if the old version of the class is serializable.
 	 *
@@ -55,6 +71,10 @@ public class JApiSerialVersionUid {
 	 */
 	@XmlTransient
 	public Optional<Long> getSerialVersionUidDefaultOld() {
+		if (pendingDefaultOld.isPresent()) {
+			serialVersionUidDefaultOld = jarArchiveComparator.getDefaultSerialVersionUid(pendingDefaultOld.get());
+			pendingDefaultOld = Optional.absent();
+		}
 		return serialVersionUidDefaultOld;
 	}
 
@@ -66,6 +86,10 @@ public class JApiSerialVersionUid {
 	 */
 	@XmlTransient
 	public Optional<Long> getSerialVersionUidDefaultNew() {
+		if (pendingDefaultNew.isPresent()) {
+			serialVersionUidDefaultNew = jarArchiveComparator.getDefaultSerialVersionUid(pendingDefaultNew.get());
+			pendingDefaultNew = Optional.absent();
+		}
 		return serialVersionUidDefaultNew;
 	}
 
@@ -101,11 +125,21 @@ public class JApiSerialVersionUid {
 
 	@XmlAttribute(name = "serialVersionUidDefaultOld")
 	public String getSerialVersionUidDefaultOldAsString() {
-		return OptionalHelper.optionalToString(serialVersionUidDefaultOld);
+		return OptionalHelper.optionalToString(getSerialVersionUidDefaultOld());
 	}
 
 	@XmlAttribute(name = "serialVersionUidDefaultNew")
 	public String getSerialVersionUidDefaultNewAsString() {
-		return OptionalHelper.optionalToString(serialVersionUidDefaultNew);
+		return OptionalHelper.optionalToString(getSerialVersionUidDefaultNew());
+	}
+
+	/**
+	 * Computes the default serialVersionUIDs that have not been requested yet and releases the references to the
+	 * Javassist classes and the {@link JarArchiveComparator} (see {@link JApiClass#detach()}).
+	 */
+	void detach() {
+		getSerialVersionUidDefaultOld();
+		getSerialVersionUidDefaultNew();
+		this.jarArchiveComparator = null;
 	}
 }
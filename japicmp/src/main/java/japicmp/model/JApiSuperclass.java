@@ -1,7 +1,9 @@
 package japicmp.model;
 
+import japicmp.exception.JApiCmpException;
 import japicmp.util.Optional;
 import japicmp.cmp.JarArchiveComparator;
+import japicmp.cmp.SuperclassCache;
 import japicmp.util.ClassHelper;
 import japicmp.util.OptionalHelper;
 import javassist.CtClass;
@@ -11,58 +13,81 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlTransient;
 import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 	private final JApiClass jApiClass;
-	private final Optional<CtClass> oldSuperclassOptional;
-	private final Optional<CtClass> newSuperclassOptional;
+	private Optional<CtClass> oldSuperclassOptional;
+	private Optional<CtClass> newSuperclassOptional;
+	private final Optional<String> oldSuperclassName;
+	private final Optional<String> newSuperclassName;
 	private final JApiChangeStatus changeStatus;
-	private final JarArchiveComparator jarArchiveComparator;
-	private final List<JApiCompatibilityChange> compatibilityChanges = new LinkedList<>();
+	private JarArchiveComparator jarArchiveComparator;
+	private SuperclassCache superclassCache;
+	private List<JApiCompatibilityChange> compatibilityChanges = new LinkedList<>();
+	private boolean frozen = false;
+	private boolean binaryCompatible;
+	private boolean sourceCompatible;
 	private Optional<JApiClass> correspondingJApiClass = Optional.absent();
+	private Optional<JApiClass> detachedJApiClass = Optional.absent();
 
 	public JApiSuperclass(JApiClass jApiClass, Optional<CtClass> oldSuperclassOptional, Optional<CtClass> newSuperclassOptional, JApiChangeStatus changeStatus, JarArchiveComparator jarArchiveComparator) {
 		this.jApiClass = jApiClass;
 		this.oldSuperclassOptional = oldSuperclassOptional;
 		this.newSuperclassOptional = newSuperclassOptional;
+		this.oldSuperclassName = oldSuperclassOptional.isPresent() ? Optional.of(oldSuperclassOptional.get().getName()) : Optional.<String>absent();
+		this.newSuperclassName = newSuperclassOptional.isPresent() ? Optional.of(newSuperclassOptional.get().getName()) : Optional.<String>absent();
 		this.changeStatus = changeStatus;
 		this.jarArchiveComparator = jarArchiveComparator;
+		this.superclassCache = jarArchiveComparator != null ? jarArchiveComparator.getSuperclassCache() : null;
 	}
 
 	/**
 	 * Returns the {@link japicmp.model.JApiClass} representation of this superclass.
 	 * The return value is Optional.absent() in case the superclass for the old and new version is absent.
+	 * The instance is shared with all other subclasses of the same superclass within the comparison that created
+	 * this superclass (see {@link japicmp.cmp.SuperclassCache}), even if the comparator has been used for further
+	 * comparisons since. If the owning class has been detached (see {@link JApiClass#detach()}),
+	 * the instance is only returned if it had already been created during the comparison.
 	 *
 	 * @return the {@link japicmp.model.JApiClass} representation of this superclass as {@link com.google.common.base.Optional}
 	 */
 	public Optional<JApiClass> getJApiClass() {
+		if (jarArchiveComparator == null) {
+			return detachedJApiClass;
+		}
+		if (oldSuperclassOptional.isPresent() && newSuperclassOptional.isPresent()
+			&& !oldSuperclassName.get().equals(newSuperclassName.get())) {
+			return Optional.absent();
+		}
+		if (!oldSuperclassOptional.isPresent() && !newSuperclassOptional.isPresent()) {
+			return Optional.absent();
+		}
+		return Optional.of(superclassCache.getOrCreate(oldSuperclassOptional, newSuperclassOptional, new Callable<JApiClass>() {
+			@Override
+			public JApiClass call() {
+				return createJApiClass();
+			}
+		}));
+	}
+
+	private JApiClass createJApiClass() {
 		if (oldSuperclassOptional.isPresent() && newSuperclassOptional.isPresent()) {
 			CtClass oldSuperclass = oldSuperclassOptional.get();
 			CtClass newSuperclass = newSuperclassOptional.get();
-			String oldSuperclassName = oldSuperclass.getName();
-			String newSuperclassName = newSuperclass.getName();
-			if (oldSuperclassName.equals(newSuperclassName)) {
-				JApiClassType classType = new JApiClassType(Optional.of(ClassHelper.getType(oldSuperclass)), Optional.of(ClassHelper.getType(newSuperclass)), JApiChangeStatus.UNCHANGED);
-				JApiClass jApiClass = new JApiClass(jarArchiveComparator, oldSuperclassName, Optional.of(oldSuperclass), Optional.of(newSuperclass), JApiChangeStatus.UNCHANGED, classType);
-				return Optional.of(jApiClass);
-			} else {
-				return Optional.absent();
-			}
+			JApiClassType classType = new JApiClassType(Optional.of(ClassHelper.getType(oldSuperclass)), Optional.of(ClassHelper.getType(newSuperclass)), JApiChangeStatus.UNCHANGED);
+			return new JApiClass(jarArchiveComparator, oldSuperclass.getName(), Optional.of(oldSuperclass), Optional.of(newSuperclass), JApiChangeStatus.UNCHANGED, classType);
 		} else if (oldSuperclassOptional.isPresent()) {
 			CtClass oldSuperclass = oldSuperclassOptional.get();
-			String oldSuperclassName = oldSuperclass.getName();
 			JApiClassType classType = new JApiClassType(Optional.of(ClassHelper.getType(oldSuperclass)), Optional.<JApiClassType.ClassType>absent(), JApiChangeStatus.REMOVED);
-			JApiClass jApiClass = new JApiClass(jarArchiveComparator, oldSuperclassName, Optional.of(oldSuperclass), Optional.<CtClass>absent(), JApiChangeStatus.REMOVED, classType);
-			return Optional.of(jApiClass);
-		} else if (newSuperclassOptional.isPresent()) {
+			return new JApiClass(jarArchiveComparator, oldSuperclass.getName(), Optional.of(oldSuperclass), Optional.<CtClass>absent(), JApiChangeStatus.REMOVED, classType);
+		} else {
 			CtClass newSuperclass = newSuperclassOptional.get();
-			String newSuperclassName = newSuperclass.getName();
 			JApiClassType classType = new JApiClassType(Optional.<JApiClassType.ClassType>absent(), Optional.of(ClassHelper.getType(newSuperclass)), JApiChangeStatus.NEW);
-			JApiClass jApiClass = new JApiClass(jarArchiveComparator, newSuperclassName, Optional.<CtClass>absent(), Optional.of(newSuperclass), JApiChangeStatus.NEW, classType);
-			return Optional.of(jApiClass);
+			return new JApiClass(jarArchiveComparator, newSuperclass.getName(), Optional.<CtClass>absent(), Optional.of(newSuperclass), JApiChangeStatus.NEW, classType);
 		}
-		return Optional.absent();
 	}
 
 	@XmlTransient
@@ -77,12 +102,12 @@ public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 
 	@XmlTransient
 	public Optional<String> getOldSuperclassName() {
-		return oldSuperclassOptional.isPresent() ? Optional.of(oldSuperclassOptional.get().getName()) : Optional.<String>absent();
+		return oldSuperclassName;
 	}
 
 	@XmlTransient
 	public Optional<String> getNewSuperclassName() {
-		return newSuperclassOptional.isPresent() ? Optional.of(newSuperclassOptional.get().getName()) : Optional.<String>absent();
+		return newSuperclassName;
 	}
 
 	@XmlAttribute(name = "changeStatus")
@@ -103,6 +128,9 @@ public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 	@Override
 	@XmlAttribute
 	public boolean isBinaryCompatible() {
+		if (frozen) {
+			return binaryCompatible;
+		}
 		boolean binaryCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isBinaryCompatible()) {
@@ -115,6 +143,9 @@ public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 	@Override
 	@XmlAttribute
 	public boolean isSourceCompatible() {
+		if (frozen) {
+			return sourceCompatible;
+		}
 		boolean sourceCompatible = true;
 		for (JApiCompatibilityChange compatibilityChange : compatibilityChanges) {
 			if (!compatibilityChange.isSourceCompatible()) {
@@ -131,6 +162,7 @@ public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 	}
 
 	void setJApiClass(JApiClass jApiClass) {
+		checkNotFrozen();
 		this.correspondingJApiClass = Optional.of(jApiClass);
 	}
 
@@ -142,4 +174,40 @@ public class JApiSuperclass implements JApiHasChangeStatus, JApiCompatibility {
 	public JApiClass getJApiClassOwning() {
 		return jApiClass;
 	}
+
+	/**
+	 * Computes the compatibility of this element once; afterwards its list of compatibility changes cannot be
+	 * modified anymore. Called by {@link JApiClass#freeze()}.
+	 */
+	void freeze() {
+		if (frozen) {
+			return;
+		}
+		this.binaryCompatible = isBinaryCompatible();
+		this.sourceCompatible = isSourceCompatible();
+		this.compatibilityChanges = Collections.unmodifiableList(this.compatibilityChanges);
+		this.frozen = true;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "The model has already been frozen and cannot be modified anymore.");
+		}
+	}
+
+	void detach() {
+		if (jarArchiveComparator == null) {
+			return;
+		}
+		if (oldSuperclassOptional.isPresent() || newSuperclassOptional.isPresent()) {
+			this.detachedJApiClass = superclassCache.getIfCreated(oldSuperclassOptional, newSuperclassOptional);
+		}
+		if (this.detachedJApiClass.isPresent()) {
+			this.detachedJApiClass.get().detach();
+		}
+		this.oldSuperclassOptional = Optional.absent();
+		this.newSuperclassOptional = Optional.absent();
+		this.jarArchiveComparator = null;
+		this.superclassCache = null;
+	}
 }
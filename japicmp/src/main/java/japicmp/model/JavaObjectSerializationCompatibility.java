@@ -4,9 +4,9 @@ import japicmp.util.Optional;
 import japicmp.cmp.JarArchiveComparator;
 import japicmp.cmp.JarArchiveComparatorOptions;
 import japicmp.exception.JApiCmpException;
-import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtField;
+import javassist.Modifier;
 import javassist.NotFoundException;
 import javassist.SerialVersionUID;
 
@@ -21,10 +21,12 @@ public class JavaObjectSerializationCompatibility {
 	private static final String SERIAL_VERSION_UID = "serialVersionUID";
 
 	public static JApiSerialVersionUid extractSerialVersionUid(JarArchiveComparatorOptions options, JarArchiveComparator jarArchiveComparator, Optional<CtClass> oldClass, Optional<CtClass> newClass) {
-		SerialVersionUidResult resultOld = computeSerialVersionUid(options, oldClass, jarArchiveComparator);
-		SerialVersionUidResult resultNew = computeSerialVersionUid(options, newClass, jarArchiveComparator);
-		return new JApiSerialVersionUid(resultOld.serializable, resultNew.serializable, resultOld.serialVersionUidDefault,
-			resultNew.serialVersionUidDefault, resultOld.serialVersionUid, resultNew.serialVersionUid);
+		boolean serializableOld = oldClass.isPresent() && isCtClassSerializable(options, oldClass.get(), jarArchiveComparator);
+		boolean serializableNew = newClass.isPresent() && isCtClassSerializable(options, newClass.get(), jarArchiveComparator);
+		return new JApiSerialVersionUid(jarArchiveComparator, serializableOld, serializableNew,
+			serializableOld ? oldClass : Optional.<CtClass>absent(), serializableNew ? newClass : Optional.<CtClass>absent(),
+			serializableOld ? getSerialVersionUidInClass(oldClass.get()) : Optional.<Long>absent(),
+			serializableNew ? getSerialVersionUidInClass(newClass.get()) : Optional.<Long>absent());
 	}
 
 	public void evaluate(List<JApiClass> jApiClasses) {
@@ -33,63 +35,54 @@ public class JavaObjectSerializationCompatibility {
 		}
 	}
 
-	private static class SerialVersionUidResult {
-		boolean serializable = false;
-		Optional<Long> serialVersionUid = Optional.absent();
-		Optional<Long> serialVersionUidDefault = Optional.absent();
+	private static Optional<Long> getSerialVersionUidInClass(CtClass ctClass) {
+		try {
+			CtField declaredField = ctClass.getDeclaredField(SERIAL_VERSION_UID);
+			Object constantValue = declaredField.getConstantValue();
+			if (constantValue instanceof Long) {
+				return Optional.of((Long) constantValue);
+			}
+		} catch (Exception e) {
+			LOGGER.log(Level.FINE, "Failed to get serialVersionUid from class " + ctClass.getName() + ": " + e.getLocalizedMessage(), e);
+		}
+		return Optional.absent();
 	}
 
-	private static SerialVersionUidResult computeSerialVersionUid(JarArchiveComparatorOptions options, Optional<CtClass> ctClassOptional, JarArchiveComparator jarArchiveComparator) {
-		SerialVersionUidResult result = new SerialVersionUidResult();
-		if (ctClassOptional.isPresent()) {
-			CtClass ctClass = ctClassOptional.get();
-			if (isCtClassSerializable(options, ctClass, jarArchiveComparator)) {
-				result.serializable = true;
-				try {
-					CtField declaredField = ctClass.getDeclaredField(SERIAL_VERSION_UID);
-					Object constantValue = declaredField.getConstantValue();
-					if (constantValue instanceof Long) {
-						result.serialVersionUid = Optional.of((Long) constantValue);
-					}
-				} catch (Exception e) {
-					LOGGER.log(Level.FINE, "Failed to get serialVersionUid from class " + ctClass.getName() + ": " + e.getLocalizedMessage(), e);
-					try {
-						SerialVersionUID.setSerialVersionUID(ctClass);
-						CtField declaredField = ctClass.getDeclaredField(SERIAL_VERSION_UID);
-						Object constantValue = declaredField.getConstantValue();
-						if (constantValue instanceof Long) {
-							result.serialVersionUidDefault = Optional.of((Long) constantValue);
-						}
-						ctClass.removeField(declaredField);
-					} catch (Exception ex) {
-						LOGGER.log(Level.FINE, "Failed to compute default serialVersionUid for class " + ctClass.getName() + ": " + ex.getLocalizedMessage(), ex);
-					}
-				}
-				if (!result.serialVersionUidDefault.isPresent()) {
-					try {
-						CtField declaredFieldOriginal = ctClass.getDeclaredField(SERIAL_VERSION_UID);
-						ctClass.removeField(declaredFieldOriginal);
-						SerialVersionUID.setSerialVersionUID(ctClass);
-						CtField declaredField = ctClass.getDeclaredField(SERIAL_VERSION_UID);
-						Object constantValue = declaredField.getConstantValue();
-						if (constantValue instanceof Long) {
-							result.serialVersionUidDefault = Optional.of((Long) constantValue);
-						}
-						ctClass.removeField(declaredField);
-						ctClass.addField(declaredFieldOriginal);
-					} catch (Exception ex) {
-						LOGGER.log(Level.FINE, "Failed to compute default serialVersionUid for class " + ctClass.getName() + ": " + ex.getLocalizedMessage(), ex);
-					}
+	/**
+	 * Computes the default serialVersionUID of the given class as defined in the Java Object Serialization
+	 * Specification, i.e. the value the class would have without a serialVersionUID field.
+	 *
+	 * @param ctClass the class
+	 * @return the default serialVersionUID or Optional.absent() if it cannot be computed
+	 */
+	public static Optional<Long> computeDefaultSerialVersionUid(CtClass ctClass) {
+		try {
+			CtField declaredField = null;
+			for (CtField ctField : ctClass.getDeclaredFields()) {
+				if (SERIAL_VERSION_UID.equals(ctField.getName())) {
+					declaredField = ctField;
 				}
 			}
+			// private static and private transient fields do not contribute to the default value, other ones are removed temporarily
+			if (declaredField == null || (Modifier.isPrivate(declaredField.getModifiers())
+				&& (Modifier.isStatic(declaredField.getModifiers()) || Modifier.isTransient(declaredField.getModifiers())))) {
+				return Optional.of(SerialVersionUID.calculateDefault(ctClass));
+			}
+			ctClass.removeField(declaredField);
+			try {
+				return Optional.of(SerialVersionUID.calculateDefault(ctClass));
+			} finally {
+				ctClass.addField(declaredField);
+			}
+		} catch (Exception e) {
+			LOGGER.log(Level.FINE, "Failed to compute default serialVersionUid for class " + ctClass.getName() + ": " + e.getLocalizedMessage(), e);
+			return Optional.absent();
 		}
-		return result;
 	}
 
 	private static boolean isCtClassSerializable(JarArchiveComparatorOptions options, CtClass clazz, JarArchiveComparator jarArchiveComparator) {
-		ClassPool pool = clazz.getClassPool();
 		try {
-			return clazz.subtypeOf(pool.get("java.io.Serializable"));
+			return jarArchiveComparator.getSupertypeGraph().isSerializable(clazz);
 		} catch (NotFoundException e) {
 			if (options.getIgnoreMissingClasses().ignoreClass(e.getMessage())) {
 				return false;
@@ -158,7 +151,10 @@ public class JavaObjectSerializationCompatibility {
 						state = JApiJavaObjectSerializationCompatibility.JApiJavaObjectSerializationChangeStatus.SERIALIZABLE_INCOMPATIBLE_CLASS_REMOVED;
 					} else {
 						if (!isEnum(jApiClass)) { //default serialVersionUID is ignored for enums (section 1.12 "Serialization of Enum Constants")
-							if (jApiSerialVersionUid.getSerialVersionUidDefaultOld().isPresent() && jApiSerialVersionUid.getSerialVersionUidDefaultNew().isPresent()) {
+							if (isSameClass(jApiClass)) {
+								// both default values would be computed from the same class
+								state = JApiJavaObjectSerializationCompatibility.JApiJavaObjectSerializationChangeStatus.SERIALIZABLE_COMPATIBLE;
+							} else if (jApiSerialVersionUid.getSerialVersionUidDefaultOld().isPresent() && jApiSerialVersionUid.getSerialVersionUidDefaultNew().isPresent()) {
 								Long defaultOld = jApiSerialVersionUid.getSerialVersionUidDefaultOld().get();
 								Long defaultNew = jApiSerialVersionUid.getSerialVersionUidDefaultNew().get();
 								if (defaultOld.equals(defaultNew)) {
@@ -179,6 +175,10 @@ public class JavaObjectSerializationCompatibility {
 		jApiClass.setJavaObjectSerializationCompatible(state);
 	}
 
+	private boolean isSameClass(JApiClass jApiClass) {
+		return jApiClass.getOldClass().isPresent() && jApiClass.getNewClass().isPresent() && jApiClass.getOldClass().get() == jApiClass.getNewClass().get();
+	}
+
 	private boolean isEnum(JApiClass jApiClass) {
 		return jApiClass.getClassType().getNewTypeOptional().isPresent() && jApiClass.getClassType().getNewTypeOptional().get() == JApiClassType.ClassType.ENUM;
 	}
@@ -1,5 +1,6 @@
 package japicmp.output;
 
+import japicmp.cmp.ComparisonMetrics;
 import japicmp.config.Options;
 import japicmp.model.JApiClass;
 
@@ -8,11 +9,22 @@ import java.util.List;
 public abstract class OutputGenerator<T> {
 	protected final Options options;
 	protected final List<JApiClass> jApiClasses;
+	protected ComparisonMetrics metrics = new ComparisonMetrics();
 
 	public OutputGenerator(Options options, List<JApiClass> jApiClasses) {
 		this.options = options;
 		this.jApiClasses = jApiClasses;
 	}
 
+	/**
+	 * Sets the metrics in which the phases of this generator are recorded, usually the instance returned by
+	 * {@link japicmp.cmp.JarArchiveComparator#getMetrics()}.
+	 *
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(ComparisonMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public abstract T generate();
 }
@@ -1,6 +1,7 @@
 package japicmp.output.stdout;
 
 import japicmp.cli.CliParser;
+import japicmp.cmp.ComparisonMetrics;
 import japicmp.config.Options;
 import japicmp.model.*;
 import japicmp.model.JApiAnnotationElementValue.Type;
@@ -21,8 +22,11 @@ public class StdoutOutputGenerator extends OutputGenerator<String> {
 
 	@Override
 	public String generate() {
+		long start = metrics.start();
 		OutputFilter outputFilter = new OutputFilter(options);
 		outputFilter.filter(jApiClasses);
+		metrics.stop(ComparisonMetrics.Phase.OUTPUT_FILTER, start);
+		start = metrics.start();
 		StringBuilder sb = new StringBuilder();
 		sb.append(options.getDifferenceDescription()).append('\n');
 		if (options.getIgnoreMissingClasses().isIgnoreAllMissingClasses()) {
@@ -43,6 +47,7 @@ public class StdoutOutputGenerator extends OutputGenerator<String> {
 		} else {
 			sb.append(NO_CHANGES);
 		}
+		metrics.stop(ComparisonMetrics.Phase.STDOUT_OUTPUT, start);
 		return sb.toString();
 	}
 
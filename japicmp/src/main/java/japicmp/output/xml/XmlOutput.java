@@ -4,10 +4,13 @@ import japicmp.util.Optional;
 import japicmp.output.xml.model.JApiCmpXmlRoot;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 
 public class XmlOutput implements AutoCloseable {
 	private Optional<ByteArrayOutputStream> xmlOutputStream = Optional.absent();
 	private Optional<ByteArrayOutputStream> htmlOutputStream = Optional.absent();
+	private Optional<File> xmlFile = Optional.absent();
+	private Optional<File> htmlFile = Optional.absent();
 	private japicmp.output.xml.model.JApiCmpXmlRoot JApiCmpXmlRoot;
 
 	public Optional<ByteArrayOutputStream> getXmlOutputStream() {
@@ -26,6 +29,34 @@ public class XmlOutput implements AutoCloseable {
 		this.htmlOutputStream = htmlOutputStream;
 	}
 
+	/**
+	 * Returns the XML file that has already been written if the XML document was streamed to disk
+	 * (see {@link XmlOutputGeneratorOptions#setStreamToFiles(boolean)}).
+	 *
+	 * @return the XML file or Optional.absent() if the document is held in memory
+	 */
+	public Optional<File> getXmlFile() {
+		return xmlFile;
+	}
+
+	public void setXmlFile(Optional<File> xmlFile) {
+		this.xmlFile = xmlFile;
+	}
+
+	/**
+	 * Returns the HTML file that has already been written if the XML document was streamed to disk
+	 * (see {@link XmlOutputGeneratorOptions#setStreamToFiles(boolean)}).
+	 *
+	 * @return the HTML file or Optional.absent() if the document is held in memory
+	 */
+	public Optional<File> getHtmlFile() {
+		return htmlFile;
+	}
+
+	public void setHtmlFile(Optional<File> htmlFile) {
+		this.htmlFile = htmlFile;
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (this.xmlOutputStream.isPresent()) {
@@ -2,6 +2,7 @@ package japicmp.output.xml;
 
 import com.google.common.base.Joiner;
 import japicmp.util.Optional;
+import japicmp.cmp.ComparisonMetrics;
 import japicmp.config.Options;
 import japicmp.exception.JApiCmpException;
 import japicmp.exception.JApiCmpException.Reason;
@@ -14,10 +15,23 @@ import japicmp.output.extapi.jpa.model.JpaTable;
 import japicmp.output.xml.model.JApiCmpXmlRoot;
 import japicmp.util.Streams;
 
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.SchemaOutputResolver;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -25,14 +39,21 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -66,7 +87,12 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 	public XmlOutput generate() {
 		JApiCmpXmlRoot jApiCmpXmlRoot = createRootElement(jApiClasses, options);
 		//analyzeJpaAnnotations(jApiCmpXmlRoot, jApiClasses);
+		long start = metrics.start();
 		filterClasses(jApiClasses, options);
+		metrics.stop(ComparisonMetrics.Phase.OUTPUT_FILTER, start);
+		if (xmlOutputGeneratorOptions.isStreamToFiles()) {
+			return streamXmlDocumentAndSchema(options, jApiCmpXmlRoot);
+		}
 		return createXmlDocumentAndSchema(options, jApiCmpXmlRoot);
 	}
 
@@ -82,6 +108,8 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 				} catch (IOException e) {
 					throw new JApiCmpException(JApiCmpException.Reason.IoException, "Failed to write XML file '" + xmlFile.getAbsolutePath() + "': " + e.getMessage(), e);
 				}
+			} else if (xmlOutput.getXmlFile().isPresent()) {
+				filesWritten.add(xmlOutput.getXmlFile().get());
 			}
 			if (xmlOutput.getHtmlOutputStream().isPresent() && options.getHtmlOutputFile().isPresent()) {
 				File htmlFile = new File(options.getHtmlOutputFile().get());
@@ -92,6 +120,8 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 				} catch (IOException e) {
 					throw new JApiCmpException(JApiCmpException.Reason.IoException, "Failed to write HTML file '" + htmlFile.getAbsolutePath() + "': " + e.getMessage(), e);
 				}
+			} else if (xmlOutput.getHtmlFile().isPresent()) {
+				filesWritten.add(xmlOutput.getHtmlFile().get());
 			}
 		} finally {
 			try {
@@ -112,68 +142,198 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 	private XmlOutput createXmlDocumentAndSchema(Options options, JApiCmpXmlRoot jApiCmpXmlRoot) {
 		XmlOutput xmlOutput = new XmlOutput();
 		xmlOutput.setJApiCmpXmlRoot(jApiCmpXmlRoot);
-		ByteArrayOutputStream xmlBaos = null;
-		InputStream styleSheetAsInputStream = null;
-		InputStream xsltAsInputStream = null;
 		try {
 			JAXBContext jaxbContext = JAXBContext.newInstance(JApiCmpXmlRoot.class);
-			Marshaller marshaller = jaxbContext.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-			marshaller.setProperty(Marshaller.JAXB_NO_NAMESPACE_SCHEMA_LOCATION, XML_SCHEMA);
-			xmlBaos = new ByteArrayOutputStream();
+			Marshaller marshaller = createMarshaller(jaxbContext);
+			ByteArrayOutputStream xmlBaos = new ByteArrayOutputStream();
+			long start = metrics.start();
 			marshaller.marshal(jApiCmpXmlRoot, xmlBaos);
+			metrics.stop(ComparisonMetrics.Phase.XML_MARSHALLING, start);
+			metrics.addBytesWritten(xmlBaos.size());
 			if (options.getXmlOutputFile().isPresent()) {
 				xmlOutput.setXmlOutputStream(Optional.of(xmlBaos));
 				if (xmlOutputGeneratorOptions.isCreateSchemaFile()) {
-					final File xmlFile = new File(options.getXmlOutputFile().get());
-					SchemaOutputResolver outputResolver = new SchemaOutputResolver() {
-						@Override
-						public Result createOutput(String namespaceUri, String suggestedFileName) throws IOException {
-							File schemaFile = xmlFile.getParentFile();
-							if (schemaFile == null) {
-								LOGGER.warning(String.format("File '%s' has no parent file. Using instead: '%s'.", xmlFile.getAbsolutePath(), XSD_FILENAME));
-								schemaFile = new File(XSD_FILENAME);
-							} else {
-								schemaFile = new File(schemaFile + File.separator + XSD_FILENAME);
-							}
-							StreamResult result = new StreamResult(schemaFile);
-							result.setSystemId(schemaFile.getAbsolutePath());
-							return result;
-						}
-					};
-					jaxbContext.generateSchema(outputResolver);
+					generateSchema(jaxbContext, new File(options.getXmlOutputFile().get()));
 				}
 			}
 			if (options.getHtmlOutputFile().isPresent()) {
-				TransformerFactory transformerFactory = TransformerFactory.newInstance();
-				xsltAsInputStream = XmlOutputGenerator.class.getResourceAsStream("/html.xslt");
-				if (xsltAsInputStream == null) {
-					throw new JApiCmpException(Reason.XsltError, "Failed to load XSLT.");
-				}
-				if (options.getHtmlStylesheet().isPresent()) {
-					styleSheetAsInputStream = new FileInputStream(options.getHtmlStylesheet().get());
-				} else {
-					styleSheetAsInputStream = XmlOutputGenerator.class.getResourceAsStream("/style.css");
-					if (styleSheetAsInputStream == null) {
-						throw new JApiCmpException(Reason.XsltError, "Failed to load stylesheet.");
-					}
-				}
-				String xsltAsString = integrateStylesheetIntoXslt(xsltAsInputStream, styleSheetAsInputStream);
-				Transformer transformer = transformerFactory.newTransformer(new StreamSource(new StringReader(xsltAsString)));
+				Transformer transformer = createHtmlTransformer(options);
 				ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(xmlBaos.toByteArray());
 				ByteArrayOutputStream htmlOutputStream = new ByteArrayOutputStream();
+				start = metrics.start();
 				transformer.transform(new StreamSource(byteArrayInputStream), new StreamResult(htmlOutputStream));
+				metrics.stop(ComparisonMetrics.Phase.XSLT_TRANSFORMATION, start);
+				metrics.addBytesWritten(htmlOutputStream.size());
 				xmlOutput.setHtmlOutputStream(Optional.of(htmlOutputStream));
 			}
 		} catch (JAXBException e) {
 			throw new JApiCmpException(Reason.JaxbException, String.format("Marshalling of XML document failed: %s", e.getMessage()), e);
 		} catch (IOException e) {
 			throw new JApiCmpException(Reason.IoException, String.format("Marshalling of XML document failed: %s", e.getMessage()), e);
-		} catch (TransformerConfigurationException e) {
-			throw new JApiCmpException(Reason.XsltError, String.format("Configuration of XSLT transformer failed: %s", e.getMessage()), e);
+		} catch (TransformerException e) {
+			throw new JApiCmpException(Reason.XsltError, String.format("XSLT transformation failed: %s", e.getMessage()), e);
+		}
+		return xmlOutput;
+	}
+
+	/**
+	 * Writes the XML document directly into the XML output file, one class at a time, and lets the XSLT
+	 * transformation read from this file. If only the HTML report is requested, a temporary XML file is used.
+	 * This way neither the XML nor the HTML document is held in memory as a whole.
+	 */
+	private XmlOutput streamXmlDocumentAndSchema(Options options, JApiCmpXmlRoot jApiCmpXmlRoot) {
+		XmlOutput xmlOutput = new XmlOutput();
+		xmlOutput.setJApiCmpXmlRoot(jApiCmpXmlRoot);
+		if (!options.getXmlOutputFile().isPresent() && !options.getHtmlOutputFile().isPresent()) {
+			return xmlOutput;
+		}
+		File xmlFile = null;
+		try {
+			JAXBContext jaxbContext = JAXBContext.newInstance(JApiCmpXmlRoot.class);
+			if (options.getXmlOutputFile().isPresent()) {
+				xmlFile = new File(options.getXmlOutputFile().get());
+			} else {
+				xmlFile = File.createTempFile("japicmp", ".xml");
+			}
+			long start = metrics.start();
+			writeXmlDocument(jaxbContext, jApiCmpXmlRoot, xmlFile);
+			metrics.stop(ComparisonMetrics.Phase.XML_MARSHALLING, start);
+			metrics.addBytesWritten(xmlFile.length());
+			if (options.getXmlOutputFile().isPresent()) {
+				xmlOutput.setXmlFile(Optional.of(xmlFile));
+				if (xmlOutputGeneratorOptions.isCreateSchemaFile()) {
+					generateSchema(jaxbContext, xmlFile);
+				}
+			}
+			if (options.getHtmlOutputFile().isPresent()) {
+				File htmlFile = new File(options.getHtmlOutputFile().get());
+				Transformer transformer = createHtmlTransformer(options);
+				try (InputStream xmlInputStream = new BufferedInputStream(new FileInputStream(xmlFile));
+					 OutputStream htmlOutputStream = new BufferedOutputStream(new FileOutputStream(htmlFile))) {
+					start = metrics.start();
+					transformer.transform(new StreamSource(xmlInputStream), new StreamResult(htmlOutputStream));
+					metrics.stop(ComparisonMetrics.Phase.XSLT_TRANSFORMATION, start);
+				}
+				metrics.addBytesWritten(htmlFile.length());
+				xmlOutput.setHtmlFile(Optional.of(htmlFile));
+			}
+		} catch (JAXBException e) {
+			throw new JApiCmpException(Reason.JaxbException, String.format("Marshalling of XML document failed: %s", e.getMessage()), e);
+		} catch (ParserConfigurationException e) {
+			throw new JApiCmpException(Reason.JaxbException, String.format("Marshalling of XML document failed: %s", e.getMessage()), e);
+		} catch (XMLStreamException | IOException e) {
+			throw new JApiCmpException(Reason.IoException, String.format("Marshalling of XML document failed: %s", e.getMessage()), e);
 		} catch (TransformerException e) {
 			throw new JApiCmpException(Reason.XsltError, String.format("XSLT transformation failed: %s", e.getMessage()), e);
+		} finally {
+			if (xmlFile != null && !options.getXmlOutputFile().isPresent() && !xmlFile.delete()) {
+				LOGGER.fine("Failed to delete temporary file '" + xmlFile.getAbsolutePath() + "'.");
+			}
+		}
+		return xmlOutput;
+	}
+
+	private void writeXmlDocument(JAXBContext jaxbContext, JApiCmpXmlRoot jApiCmpXmlRoot, File xmlFile) throws JAXBException, XMLStreamException, ParserConfigurationException, IOException {
+		Element rootElement = createRootElementWithoutClasses(jaxbContext, jApiCmpXmlRoot);
+		Marshaller marshaller = jaxbContext.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(xmlFile), Charset.forName("UTF-8")))) {
+			XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+			xmlStreamWriter.writeStartDocument("UTF-8", "1.0");
+			xmlStreamWriter.writeCharacters("\n");
+			xmlStreamWriter.writeStartElement(rootElement.getTagName());
+			NamedNodeMap attributes = rootElement.getAttributes();
+			for (int i = 0; i < attributes.getLength(); i++) {
+				Attr attribute = (Attr) attributes.item(i);
+				if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+					xmlStreamWriter.writeNamespace(attribute.getLocalName(), attribute.getValue());
+				} else if (attribute.getNamespaceURI() != null) {
+					xmlStreamWriter.writeAttribute(attribute.getPrefix(), attribute.getNamespaceURI(), attribute.getLocalName(), attribute.getValue());
+				} else {
+					xmlStreamWriter.writeAttribute(attribute.getName(), attribute.getValue());
+				}
+			}
+			xmlStreamWriter.writeCharacters("\n    ");
+			xmlStreamWriter.writeStartElement("classes");
+			xmlStreamWriter.writeCharacters("\n");
+			xmlStreamWriter.flush();
+			IndentingWriter classWriter = new IndentingWriter(writer, "        ");
+			for (JApiClass jApiClass : jApiCmpXmlRoot.getClasses()) {
+				marshaller.marshal(new JAXBElement<>(new QName("class"), JApiClass.class, jApiClass), classWriter);
+				classWriter.write("\n");
+			}
+			xmlStreamWriter.writeCharacters("    ");
+			xmlStreamWriter.writeEndElement();
+			xmlStreamWriter.writeCharacters("\n");
+			xmlStreamWriter.writeEndElement();
+			xmlStreamWriter.writeEndDocument();
+			xmlStreamWriter.writeCharacters("\n");
+			xmlStreamWriter.close();
+		}
+	}
+
+	private Element createRootElementWithoutClasses(JAXBContext jaxbContext, JApiCmpXmlRoot jApiCmpXmlRoot) throws JAXBException, ParserConfigurationException {
+		List<JApiClass> classes = jApiCmpXmlRoot.getClasses();
+		jApiCmpXmlRoot.setClasses(Collections.<JApiClass>emptyList());
+		try {
+			Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			createMarshaller(jaxbContext).marshal(jApiCmpXmlRoot, document);
+			return document.getDocumentElement();
+		} finally {
+			jApiCmpXmlRoot.setClasses(classes);
+		}
+	}
+
+	private Marshaller createMarshaller(JAXBContext jaxbContext) throws JAXBException {
+		Marshaller marshaller = jaxbContext.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+		marshaller.setProperty(Marshaller.JAXB_NO_NAMESPACE_SCHEMA_LOCATION, XML_SCHEMA);
+		return marshaller;
+	}
+
+	private void generateSchema(JAXBContext jaxbContext, final File xmlFile) throws IOException {
+		SchemaOutputResolver outputResolver = new SchemaOutputResolver() {
+			@Override
+			public Result createOutput(String namespaceUri, String suggestedFileName) throws IOException {
+				File schemaFile = xmlFile.getParentFile();
+				if (schemaFile == null) {
+					LOGGER.warning(String.format("File '%s' has no parent file. Using instead: '%s'.", xmlFile.getAbsolutePath(), XSD_FILENAME));
+					schemaFile = new File(XSD_FILENAME);
+				} else {
+					schemaFile = new File(schemaFile + File.separator + XSD_FILENAME);
+				}
+				StreamResult result = new StreamResult(schemaFile);
+				result.setSystemId(schemaFile.getAbsolutePath());
+				return result;
+			}
+		};
+		jaxbContext.generateSchema(outputResolver);
+	}
+
+	private Transformer createHtmlTransformer(Options options) throws IOException {
+		InputStream styleSheetAsInputStream = null;
+		InputStream xsltAsInputStream = null;
+		try {
+			TransformerFactory transformerFactory = TransformerFactory.newInstance();
+			xsltAsInputStream = XmlOutputGenerator.class.getResourceAsStream("/html.xslt");
+			if (xsltAsInputStream == null) {
+				throw new JApiCmpException(Reason.XsltError, "Failed to load XSLT.");
+			}
+			if (options.getHtmlStylesheet().isPresent()) {
+				styleSheetAsInputStream = new FileInputStream(options.getHtmlStylesheet().get());
+			} else {
+				styleSheetAsInputStream = XmlOutputGenerator.class.getResourceAsStream("/style.css");
+				if (styleSheetAsInputStream == null) {
+					throw new JApiCmpException(Reason.XsltError, "Failed to load stylesheet.");
+				}
+			}
+			String xsltAsString = integrateStylesheetIntoXslt(xsltAsInputStream, styleSheetAsInputStream);
+			return transformerFactory.newTransformer(new StreamSource(new StringReader(xsltAsString)));
+		} catch (TransformerConfigurationException e) {
+			throw new JApiCmpException(Reason.XsltError, String.format("Configuration of XSLT transformer failed: %s", e.getMessage()), e);
 		} finally {
 			try {
 				if (styleSheetAsInputStream != null) {
@@ -186,7 +346,6 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 				LOGGER.log(Level.FINE, "Failed to close CSS and/or XSLT file: " + e.getLocalizedMessage(), e);
 			}
 		}
-		return xmlOutput;
 	}
 
 	private String integrateStylesheetIntoXslt(InputStream xsltAsInputStream, InputStream styleSheetAsInputStream) {
@@ -253,4 +412,52 @@ public class XmlOutputGenerator extends OutputGenerator<XmlOutput> {
 		}
 		return join;
 	}
+
+	/**
+	 * Indents every line of the class elements, which are marshalled as fragments starting at the first column, to
+	 * the depth of the class elements in the document. Line breaks within attribute values are written unchanged.
+	 */
+	private static class IndentingWriter extends FilterWriter {
+		private final String indentation;
+		private boolean lineStart = true;
+		private boolean inAttributeValue;
+
+		IndentingWriter(Writer writer, String indentation) {
+			super(writer);
+			this.indentation = indentation;
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			write(new char[]{(char) c}, 0, 1);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			char[] chars = new char[len];
+			str.getChars(off, off + len, chars, 0);
+			write(chars, 0, len);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			int start = off;
+			int end = off + len;
+			for (int i = off; i < end; i++) {
+				char c = cbuf[i];
+				if (lineStart && c != '\n') {
+					out.write(cbuf, start, i - start);
+					out.write(indentation);
+					start = i;
+					lineStart = false;
+				}
+				if (c == '"') {
+					inAttributeValue = !inAttributeValue;
+				} else if (c == '\n' && !inAttributeValue) {
+					lineStart = true;
+				}
+			}
+			out.write(cbuf, start, end - start);
+		}
+	}
 }
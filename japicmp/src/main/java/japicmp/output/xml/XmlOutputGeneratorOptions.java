@@ -6,6 +6,7 @@ public class XmlOutputGeneratorOptions {
 	private boolean createSchemaFile = false;
 	private Optional<String> title = Optional.absent();
 	private String semanticVersioningInformation = "n.a.";
+	private boolean streamToFiles = false;
 
 	public boolean isCreateSchemaFile() {
 		return createSchemaFile;
@@ -30,4 +31,19 @@ public class XmlOutputGeneratorOptions {
 	public void setSemanticVersioningInformation(String semanticVersioningInformation) {
 		this.semanticVersioningInformation = semanticVersioningInformation;
 	}
+
+	public boolean isStreamToFiles() {
+		return streamToFiles;
+	}
+
+	/**
+	 * When set, the XML document is written class by class directly into the XML output file and the
+	 * HTML report is transformed from this file. Hence the {@link XmlOutput} does not contain the documents
+	 * as in-memory streams but references the written files.
+	 *
+	 * @param streamToFiles true if the reports should be streamed to the output files
+	 */
+	public void setStreamToFiles(boolean streamToFiles) {
+		this.streamToFiles = streamToFiles;
+	}
 }
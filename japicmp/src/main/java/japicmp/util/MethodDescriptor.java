@@ -0,0 +1,76 @@
+package japicmp.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.List;
+
+/**
+ * Immutable parsed form of a method descriptor (see
+ * http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.3). The same descriptors occur over and
+ * over again within an archive, hence the parsed forms are kept in a bounded cache and shared by all callers.
+ * The type names are interned, so that equal types of different descriptors are represented by the same String
+ * instance.
+ */
+public class MethodDescriptor {
+	private static final int MAXIMUM_CACHE_SIZE = 10000;
+	private static final Interner<String> TYPE_INTERNER = Interners.newWeakInterner();
+	private static final LoadingCache<String, MethodDescriptor> CACHE = CacheBuilder.newBuilder()
+		.maximumSize(MAXIMUM_CACHE_SIZE)
+		.build(new CacheLoader<String, MethodDescriptor>() {
+			@Override
+			public MethodDescriptor load(String descriptor) {
+				return parse(descriptor);
+			}
+		});
+	private final List<String> parameters;
+	private final String returnType;
+
+	private MethodDescriptor(List<String> parameters, String returnType) {
+		this.parameters = parameters;
+		this.returnType = returnType;
+	}
+
+	/**
+	 * Returns the parsed form of the given method descriptor.
+	 *
+	 * @param descriptor the method descriptor, e.g. <code>(Ljava/lang/String;I)V</code>
+	 * @return the parsed descriptor
+	 * @throws IllegalStateException if the descriptor contains an unknown type
+	 */
+	public static MethodDescriptor of(String descriptor) {
+		try {
+			return CACHE.getUnchecked(descriptor);
+		} catch (UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static MethodDescriptor parse(String descriptor) {
+		MethodDescriptorParser parser = new MethodDescriptorParser();
+		int parenthesisOpenIndex = descriptor.indexOf('(');
+		int parenthesisCloseIndex = descriptor.indexOf(')');
+		ImmutableList.Builder<String> parameters = ImmutableList.builder();
+		for (String parameter : parser.parseTypes(descriptor.substring(parenthesisOpenIndex + 1, parenthesisCloseIndex))) {
+			parameters.add(TYPE_INTERNER.intern(parameter));
+		}
+		String returnType = TYPE_INTERNER.intern(parser.parseTypes(descriptor.substring(parenthesisCloseIndex + 1)).get(0));
+		return new MethodDescriptor(parameters.build(), returnType);
+	}
+
+	public List<String> getParameters() {
+		return parameters;
+	}
+
+	public String getReturnType() {
+		return returnType;
+	}
+}
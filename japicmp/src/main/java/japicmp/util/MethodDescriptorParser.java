@@ -4,35 +4,26 @@ import java.util.LinkedList;
 import java.util.List;
 
 public class MethodDescriptorParser {
-	private final List<String> parameters = new LinkedList<>();
+	private List<String> parameters = new LinkedList<>();
 	private String returnType = "void";
 
 	/**
 	 * Parses a method descriptor as specified in the Java Virtual Machine Specification (see http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.3).
 	 *
+	 * The parsed form is shared with all other parsers (see {@link MethodDescriptor}), hence the list returned by
+	 * {@link #getParameters()} is immutable.
+	 *
 	 * @param methodDescriptor the method descriptor
 	 */
 	public void parse(String methodDescriptor) {
 		int parenthesisCloseIndex = methodDescriptor.indexOf(')');
 		if (parenthesisCloseIndex > -1) {
-			parseParameters(methodDescriptor, parenthesisCloseIndex);
-			parseReturnValue(methodDescriptor, parenthesisCloseIndex);
+			MethodDescriptor parsedDescriptor = MethodDescriptor.of(methodDescriptor);
+			parameters = parsedDescriptor.getParameters();
+			returnType = parsedDescriptor.getReturnType();
 		}
 	}
 
-	private void parseReturnValue(String signature, int parenthesisCloseIndex) {
-		String retValPart = signature.substring(parenthesisCloseIndex + 1);
-		List<String> retValTypes = parseTypes(retValPart);
-		returnType = retValTypes.get(0);
-	}
-
-	private void parseParameters(String signature, int parenthesisCloseIndex) {
-		String paramPart = signature.substring(1, parenthesisCloseIndex);
-		List<String> paramTypes = parseTypes(paramPart);
-		parameters.clear();
-		parameters.addAll(paramTypes);
-	}
-
 	public List<String> parseTypes(String paramPart) {
 		List<String> types = new LinkedList<>();
 		boolean arrayNotation = false;
@@ -6,35 +6,23 @@ import java.util.LinkedList;
 import java.util.List;
 
 public class SignatureParser {
-	private final List<String> parameters = new LinkedList<>();
+	private List<String> parameters = new LinkedList<>();
 	private String returnType = "void";
 
 	public void parse(String signature) {
 		int parenthesisCloseIndex = signature.indexOf(')');
 		if (parenthesisCloseIndex > -1) {
-			parseParameters(signature, parenthesisCloseIndex);
-			parseReturnValue(signature, parenthesisCloseIndex);
-		}
-	}
-
-	private void parseReturnValue(String signature, int parenthesisCloseIndex) {
-		String retValPart = signature.substring(parenthesisCloseIndex + 1);
-		List<String> retValTypes = parseTypes(retValPart);
-		returnType = retValTypes.get(0);
-	}
-
-	private void parseParameters(String signature, int parenthesisCloseIndex) {
-		int parenthesisOpenIndex = signature.indexOf('(');
-		if (parenthesisOpenIndex < 0) {
-			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Signature does not contain '('.");
-		}
-		if (parenthesisCloseIndex - parenthesisOpenIndex < 1) {
-			throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Signature must contain the char '(' before the char ')'.");
+			int parenthesisOpenIndex = signature.indexOf('(');
+			if (parenthesisOpenIndex < 0) {
+				throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Signature does not contain '('.");
+			}
+			if (parenthesisCloseIndex - parenthesisOpenIndex < 1) {
+				throw new JApiCmpException(JApiCmpException.Reason.IllegalState, "Signature must contain the char '(' before the char ')'.");
+			}
+			MethodDescriptor parsedDescriptor = MethodDescriptor.of(signature);
+			parameters = parsedDescriptor.getParameters();
+			returnType = parsedDescriptor.getReturnType();
 		}
-		String paramPart = signature.substring(parenthesisOpenIndex + 1, parenthesisCloseIndex);
-		List<String> paramTypes = parseTypes(paramPart);
-		parameters.clear();
-		parameters.addAll(paramTypes);
 	}
 
 	public List<String> parseTypes(String paramPart) {
@@ -15,12 +15,14 @@ import org.junit.contrib.java.lang.system.ExpectedSystemExit;
 import org.junit.contrib.java.lang.system.SystemErrRule;
 import org.junit.contrib.java.lang.system.SystemOutRule;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static japicmp.util.JarUtil.createJarFile;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -139,6 +141,52 @@ public class JApiCmpTest {
 		JApiCmp.main(new String[]{"-n", pathTo("new.jar"), "-o", pathTo("old.jar")});
 	}
 
+	@Test
+	public void testMetrics() {
+		exit.checkAssertionAfterwards(new Assertion() {
+			public void checkAssertion() {
+				String outLog = JApiCmpTest.this.outLog.getLog();
+				assertThat(errLog.getLog().trim(), not(containsString("E: ".trim())));
+				assertThat(outLog, containsString("Metrics:"));
+				assertThat(outLog, containsString("loadClasses"));
+				assertThat(outLog, containsString("stdoutOutput"));
+				assertThat(outLog, containsString("classesParsed"));
+			}
+		});
+		JApiCmp.main(new String[]{"-n", pathTo("new.jar"), "-o", pathTo("old.jar"), CliParser.METRICS});
+	}
+
+	@Test
+	public void testInvalidBytecodeReader() {
+		exit.expectSystemExitWithStatus(1);
+		exit.checkAssertionAfterwards(new Assertion() {
+			public void checkAssertion() {
+				assertThat(errLog.getLog().trim(), containsString("E: Invalid value for option '" + CliParser.BYTECODE_READER + "': bcel."));
+				assertThatUseHelpOptionIsPrinted();
+			}
+		});
+		JApiCmp.main(new String[]{"-n", pathTo("new.jar"), "-o", pathTo("old.jar"), CliParser.BYTECODE_READER, "bcel"});
+	}
+
+	@Test
+	public void testAdditionalNewVersion() {
+		final File xmlFile = Paths.get(System.getProperty("user.dir"), "target", JApiCmpTest.class.getSimpleName() + "_additional.xml").toFile();
+		final File additionalXmlFile = Paths.get(System.getProperty("user.dir"), "target", JApiCmpTest.class.getSimpleName() + "_additional-2.xml").toFile();
+		xmlFile.delete();
+		additionalXmlFile.delete();
+		exit.checkAssertionAfterwards(new Assertion() {
+			public void checkAssertion() {
+				String outLog = JApiCmpTest.this.outLog.getLog();
+				assertThat(errLog.getLog().trim(), not(containsString("E: ".trim())));
+				assertThat(outLog, containsString(pathTo("new.jar")));
+				assertThat(outLog, containsString("Comparing source compatibility of " + pathTo("old.jar") + " against " + pathTo("old.jar")));
+				assertThat(xmlFile.isFile(), is(true));
+				assertThat(additionalXmlFile.isFile(), is(true));
+			}
+		});
+		JApiCmp.main(new String[]{"-n", pathTo("new.jar"), "-o", pathTo("old.jar"), CliParser.ADDITIONAL_NEW, pathTo("old.jar"), "-x", xmlFile.getAbsolutePath()});
+	}
+
 	private String pathTo(String jarFileName) {
 		return Paths.get(System.getProperty("user.dir"), "src", "test", "resources", jarFileName).toString();
 	}
@@ -1,5 +1,8 @@
 package japicmp.cmp;
 
+import japicmp.model.JApiAnnotation;
+import japicmp.model.JApiAnnotationElement;
+import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
 import japicmp.model.JApiField;
 import japicmp.model.JApiMethod;
@@ -8,6 +11,13 @@ import japicmp.util.CtFieldBuilder;
 import japicmp.util.CtMethodBuilder;
 import javassist.ClassPool;
 import javassist.CtClass;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.ArrayMemberValue;
+import javassist.bytecode.annotation.IntegerMemberValue;
+import javassist.bytecode.annotation.MemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
 import org.junit.Test;
 
 import java.lang.annotation.ElementType;
@@ -15,6 +25,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static japicmp.util.Helper.getJApiClass;
@@ -31,6 +42,64 @@ public class AnnotationsTest {
 
 	}
 
+	@Test
+	public void testDetachedAnnotationKeepsElementValues() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setDetachResult(true);
+		List<JApiClass> jApiClasses = ClassesHelper.compareClasses(options, new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				CtClass ctClass = CtClassBuilder.create().name("big.bang.theory.Sheldon").addToClassPool(classPool);
+				addAnnotationWithElements(ctClass, 1);
+				return Collections.singletonList(ctClass);
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				CtClass ctClass = CtClassBuilder.create().name("big.bang.theory.Sheldon").addToClassPool(classPool);
+				addAnnotationWithElements(ctClass, 2);
+				return Collections.singletonList(ctClass);
+			}
+		});
+		JApiClass jApiClass = getJApiClass(jApiClasses, "big.bang.theory.Sheldon");
+		assertThat(jApiClass.getAnnotations().size(), is(1));
+		JApiAnnotation jApiAnnotation = jApiClass.getAnnotations().get(0);
+		assertThat(jApiAnnotation.getChangeStatus(), is(JApiChangeStatus.MODIFIED));
+		assertThat(jApiAnnotation.getOldAnnotation().isPresent(), is(false));
+		assertThat(jApiAnnotation.getNewAnnotation().isPresent(), is(false));
+		JApiAnnotationElement value = getJApiAnnotationElement(jApiAnnotation, "value");
+		assertThat(value.getChangeStatus(), is(JApiChangeStatus.MODIFIED));
+		assertThat(value.getOldValue().isPresent(), is(false));
+		assertThat(value.getOldElementValues().get(0).getValueString(), is("1"));
+		assertThat(value.getNewElementValues().get(0).getValueString(), is("2"));
+		JApiAnnotationElement names = getJApiAnnotationElement(jApiAnnotation, "names");
+		assertThat(names.getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(names.getNewValue().isPresent(), is(false));
+		assertThat(names.getNewElementValues().size(), is(2));
+		assertThat(names.getNewElementValues().get(1).getValueString(), is("Leonard"));
+	}
+
+	private static void addAnnotationWithElements(CtClass ctClass, int value) {
+		ConstPool constPool = ctClass.getClassFile().getConstPool();
+		Annotation annotation = new Annotation(Include.class.getName(), constPool);
+		annotation.addMemberValue("value", new IntegerMemberValue(constPool, value));
+		ArrayMemberValue names = new ArrayMemberValue(constPool);
+		names.setValue(new MemberValue[]{new StringMemberValue("Sheldon", constPool), new StringMemberValue("Leonard", constPool)});
+		annotation.addMemberValue("names", names);
+		AnnotationsAttribute attribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+		attribute.setAnnotation(annotation);
+		ctClass.getClassFile().addAttribute(attribute);
+	}
+
+	private static JApiAnnotationElement getJApiAnnotationElement(JApiAnnotation jApiAnnotation, String name) {
+		for (JApiAnnotationElement element : jApiAnnotation.getElements()) {
+			if (element.getName().equals(name)) {
+				return element;
+			}
+		}
+		throw new IllegalArgumentException("No element with name " + name);
+	}
+
 	@Test
 	public void testNoAnnotationsClass() throws Exception {
 		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
@@ -1,5 +1,6 @@
 package japicmp.cmp;
 
+import japicmp.exception.JApiCmpException;
 import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
 import japicmp.util.CtClassBuilder;
@@ -9,6 +10,7 @@ import javassist.ClassPool;
 import javassist.CtClass;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,6 +39,47 @@ public class ClassesComparatorTest {
 		assertThat(jApiClasses.get(0).getChangeStatus(), is(JApiChangeStatus.MODIFIED));
 	}
 
+	@Test
+	public void testParallelComparisonHasSameResultAsSequentialComparison() throws Exception {
+		ClassesHelper.ClassesGenerator classesGenerator = new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				List<CtClass> ctClasses = new ArrayList<>();
+				for (int i = 0; i < 20; i++) {
+					ctClasses.add(CtClassBuilder.create().name("japicmp.Test" + i).addToClassPool(classPool));
+				}
+				return ctClasses;
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				List<CtClass> ctClasses = new ArrayList<>();
+				for (int i = 10; i < 30; i++) {
+					CtClass ctClass = CtClassBuilder.create().name("japicmp.Test" + i).addToClassPool(classPool);
+					CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 42;").addToClass(ctClass);
+					ctClasses.add(ctClass);
+				}
+				return ctClasses;
+			}
+		};
+		List<JApiClass> sequential = ClassesHelper.compareClasses(new JarArchiveComparatorOptions(), classesGenerator);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setThreads(4);
+		List<JApiClass> parallel = ClassesHelper.compareClasses(options, classesGenerator);
+		assertThat(parallel.size(), is(30));
+		assertThat(parallel.size(), is(sequential.size()));
+		for (int i = 0; i < sequential.size(); i++) {
+			assertThat(parallel.get(i).getFullyQualifiedName(), is(sequential.get(i).getFullyQualifiedName()));
+			assertThat(parallel.get(i).getChangeStatus(), is(sequential.get(i).getChangeStatus()));
+			assertThat(parallel.get(i).getMethods().size(), is(sequential.get(i).getMethods().size()));
+		}
+	}
+
+	@Test(expected = JApiCmpException.class)
+	public void testInvalidNumberOfThreads() {
+		new JarArchiveComparatorOptions().setThreads(0);
+	}
+
 	private CtClass createClassWithoutMethod(ClassPool classPool) {
 		return new CtClassBuilder().name("japicmp.Test").addToClassPool(classPool);
 	}
@@ -0,0 +1,807 @@
+package japicmp.cmp;
+
+import japicmp.exception.JApiCmpException;
+import japicmp.filter.JavadocLikePackageFilter;
+import japicmp.model.AccessModifier;
+import japicmp.model.JApiChangeStatus;
+import japicmp.model.JApiClass;
+import japicmp.model.JApiCompatibilityChange;
+import japicmp.model.JApiField;
+import japicmp.model.JApiMethod;
+import japicmp.output.OutputFilter;
+import japicmp.util.CtClassBuilder;
+import japicmp.util.CtInterfaceBuilder;
+import japicmp.util.CtMethodBuilder;
+import japicmp.util.Optional;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static japicmp.util.Helper.getJApiClass;
+import static japicmp.util.Helper.getJApiMethod;
+import static japicmp.util.Helper.toJApiCmpArchive;
+import static japicmp.util.JarUtil.createJarFile;
+import static japicmp.util.JarUtil.createJarFileWithPackagePaths;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JarArchiveComparatorTest {
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testExcludedSuperclassIsResolvedWithoutBeingCompared() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(classPool);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclass).addToClassPool(classPool);
+		Path oldPath = createJar("old", ctSuperclass, ctClass);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctSuperclassNew = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(newClassPool);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassNew).addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+		Path newPath = createJar("new", ctSuperclassNew, ctClassNew);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.getFilters().getIncludes().add(new JavadocLikePackageFilter("japicmp.api", false));
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(jApiClasses.size(), is(1));
+		assertThat(jApiClasses.get(0).getFullyQualifiedName(), is("japicmp.api.Api"));
+		assertThat(jApiClasses.get(0).getSuperclass().getNewSuperclassName().get(), is("japicmp.impl.Base"));
+		assertThat(jApiClasses.get(0).isBinaryCompatible(), is(true));
+		assertThat(jarArchiveComparator.getCommonClassPool().find("japicmp.impl.Base").toString(), endsWith("_new.jar!/japicmp/impl/Base.class"));
+	}
+
+	@Test
+	public void testEntryNamesNotMatchingClassNames() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctClassOther = CtClassBuilder.create().name("japicmp.other.Other").addToClassPool(classPool);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(classPool);
+		Path oldPath = jarPath("flat_old");
+		createJarFile(oldPath, ctClassOther, ctClass);
+		Path newPath = jarPath("flat_new");
+		createJarFile(newPath, ctClassOther, ctClass);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.getFilters().getIncludes().add(new JavadocLikePackageFilter("japicmp.api", false));
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(jApiClasses.size(), is(1));
+		assertThat(jApiClasses.get(0).getFullyQualifiedName(), is("japicmp.api.Api"));
+	}
+
+	@Test
+	public void testOldArchiveIsLoadedFromSnapshot() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctSuperclassOld = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(oldClassPool);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassOld).addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassOld);
+		CtMethodBuilder.create().publicAccess().name("removedMethod").addToClass(ctClassOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctSuperclassNew = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(newClassPool);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassNew).addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+		Path oldPath = createJar("snapshot_old", ctSuperclassOld, ctClassOld);
+		Path newPath = createJar("snapshot_new", ctSuperclassNew, ctClassNew);
+		Path cacheDirectory = temporaryFolder.newFolder("cache").toPath();
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.getFilters().getIncludes().add(new JavadocLikePackageFilter("japicmp.api", false));
+		options.setCacheDirectory(Optional.of(cacheDirectory.toString()));
+		File snapshotFile = new ArchiveSnapshotCache(cacheDirectory.toFile()).getSnapshotFile(oldPath.toFile());
+		for (int i = 0; i < 2; i++) {
+			JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+			List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+			assertThat(snapshotFile.isFile(), is(true));
+			assertThat(jApiClasses.size(), is(1));
+			JApiClass jApiClass = jApiClasses.get(0);
+			assertThat(jApiClass.getFullyQualifiedName(), is("japicmp.api.Api"));
+			assertThat(jApiClass.getSuperclass().getOldSuperclassName().get(), is("japicmp.impl.Base"));
+			assertThat(jApiClass.isBinaryCompatible(), is(false));
+			assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+			assertThat(getJApiMethod(jApiClass.getMethods(), "removedMethod").getChangeStatus(), is(JApiChangeStatus.REMOVED));
+			assertThat(jarArchiveComparator.getCommonClassPool().find("japicmp.impl.Base").toString(), endsWith("_snapshot_new.jar!/japicmp/impl/Base.class"));
+		}
+	}
+
+	@Test
+	public void testSnapshotKeepsClassFilesWithUnknownAttributes() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctNested = CtClassBuilder.create().name("japicmp.api.Nested").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctNested);
+		ctNested.toBytecode(); // javassist compacts the constant pool once after a method body was set
+		ctNested.defrost();
+		ConstPool constPool = ctNested.getClassFile().getConstPool();
+		int hostIndex = constPool.addClassInfo("japicmp.api.Host");
+		ctNested.getClassFile().addAttribute(new AttributeInfo(constPool, "NestHost", new byte[]{(byte) (hostIndex >>> 8), (byte) hostIndex}));
+		CtClass ctOther = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctOther);
+		Path path = createJar("unknown_attribute", ctNested, ctOther);
+		ArchiveSnapshotCache snapshotCache = new ArchiveSnapshotCache(temporaryFolder.newFolder("cache"));
+		for (int i = 0; i < 2; i++) {
+			ArchiveSnapshotCache.Snapshot snapshot = snapshotCache.load(path.toFile());
+			assertThat(snapshotCache.getSnapshotFile(path.toFile()).isFile(), is(true));
+			ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(snapshot.getEntry("japicmp/api/Nested.class").getClassFile())));
+			AttributeInfo nestHost = classFile.getAttribute("NestHost");
+			int index = ((nestHost.get()[0] & 0xff) << 8) | (nestHost.get()[1] & 0xff);
+			assertThat(classFile.getConstPool().getClassInfo(index), is("japicmp.api.Host"));
+			assertThat(classFile.getMethod("method").getCodeAttribute().getCodeLength() > 0, is(true));
+			classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(snapshot.getEntry("japicmp/api/Other.class").getClassFile())));
+			assertThat(classFile.getMethod("method").getCodeAttribute().getCodeLength(), is(0));
+		}
+	}
+
+	@Test
+	public void testSnapshotIsKeyedByEntryName() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClass);
+		byte[] baseBytecode = ctClass.toBytecode();
+		ctClass.defrost();
+		CtMethodBuilder.create().publicAccess().name("versionedMethod").addToClass(ctClass);
+		byte[] versionedBytecode = ctClass.toBytecode();
+		Path path = jarPath("versioned_entries");
+		try (JarOutputStream jarStream = new JarOutputStream(new FileOutputStream(path.toFile()))) {
+			jarStream.putNextEntry(new JarEntry("META-INF/versions/9/japicmp/api/Api.class"));
+			jarStream.write(versionedBytecode);
+			jarStream.closeEntry();
+			jarStream.putNextEntry(new JarEntry("japicmp/api/Api.class"));
+			jarStream.write(baseBytecode);
+			jarStream.closeEntry();
+		}
+		ArchiveSnapshotCache.Snapshot snapshot = new ArchiveSnapshotCache(temporaryFolder.newFolder("cache")).load(path.toFile());
+		assertThat(snapshot.getEntries().size(), is(2));
+		ArchiveSnapshotCache.Entry entry = snapshot.getEntry("japicmp/api/Api.class");
+		assertThat(entry.getClassName(), is("japicmp.api.Api"));
+		ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(entry.getClassFile())));
+		assertThat(classFile.getMethod("method") != null, is(true));
+		assertThat(classFile.getMethod("versionedMethod") == null, is(true));
+		entry = snapshot.getEntry("META-INF/versions/9/japicmp/api/Api.class");
+		assertThat(entry.getClassName(), is("japicmp.api.Api"));
+		classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(entry.getClassFile())));
+		assertThat(classFile.getMethod("versionedMethod") != null, is(true));
+	}
+
+	@Test
+	public void testSnapshotKeepsDigestsOfClassFiles() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(oldClassPool);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclass).addToClassPool(oldClassPool);
+		Path oldPath = createJar("snapshot_digest_old", ctSuperclass, ctClassOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctSuperclassNew = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(newClassPool);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassNew).addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+		Path newPath = createJar("snapshot_digest_new", ctSuperclassNew, ctClassNew);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setCacheDirectory(Optional.of(temporaryFolder.newFolder("cache").getAbsolutePath()));
+		for (int i = 0; i < 2; i++) {
+			JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+			List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+			assertThat(getJApiClass(jApiClasses, "japicmp.api.Api").getChangeStatus(), is(JApiChangeStatus.MODIFIED));
+			assertThat(jarArchiveComparator.getMetrics().getIdenticalClassPairs(), is(1L));
+		}
+	}
+
+	@Test
+	public void testInvalidSnapshotIsRebuilt() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassOld);
+		Path oldPath = createJar("invalid_snapshot_old", ctClassOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(newClassPool);
+		Path newPath = createJar("invalid_snapshot_new", ctClassNew);
+		Path cacheDirectory = temporaryFolder.newFolder("cache").toPath();
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setCacheDirectory(Optional.of(cacheDirectory.toString()));
+		File snapshotFile = new ArchiveSnapshotCache(cacheDirectory.toFile()).getSnapshotFile(oldPath.toFile());
+		new JarArchiveComparator(options).compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		byte[] snapshotBytes = Files.readAllBytes(snapshotFile.toPath());
+		byte[] corruptedBytes = snapshotBytes.clone();
+		for (int i = 0; i < corruptedBytes.length - 3; i++) {
+			if ((corruptedBytes[i] & 0xff) == 0xCA && (corruptedBytes[i + 1] & 0xff) == 0xFE && (corruptedBytes[i + 2] & 0xff) == 0xBA && (corruptedBytes[i + 3] & 0xff) == 0xBE) {
+				Arrays.fill(corruptedBytes, i, corruptedBytes.length, (byte) 0xff);
+				break;
+			}
+		}
+		Files.write(snapshotFile.toPath(), corruptedBytes);
+		List<JApiClass> jApiClasses = new JarArchiveComparator(options).compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Api");
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.REMOVED));
+		assertThat(Arrays.equals(Files.readAllBytes(snapshotFile.toPath()), snapshotBytes), is(true));
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(classPool);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclass).addToClassPool(classPool);
+		Path oldPath = createJar("metrics_old", ctSuperclass, ctClass);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctSuperclassNew = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(newClassPool);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassNew).addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+		Path newPath = createJar("metrics_new", ctSuperclassNew, ctClassNew);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		ComparisonMetrics metrics = jarArchiveComparator.getMetrics();
+		assertThat(metrics.getClassesParsed(), is(4L));
+		assertThat(metrics.getClassPoolGets() > 0, is(true));
+		assertThat(metrics.getSuperclassEvaluations() > 0, is(true));
+		assertThat(metrics.getClassPairs(), is(2L));
+		assertThat(metrics.getIdenticalClassPairs(), is(1L));
+		String json = metrics.toJson();
+		assertThat(json, containsString("\"loadClasses\": "));
+		assertThat(json, containsString("\"compareClasses\": "));
+		assertThat(json, containsString("\"compatibilityChanges\": "));
+		assertThat(json, containsString("\"classesParsed\": 4,"));
+		assertThat(json, containsString("\"identicalClassPairsPercent\": 50.0,"));
+		jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(metrics.getClassesParsed(), is(4L));
+	}
+
+	@Test
+	public void testIdenticalArchivesAreLoadedOnce() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(classPool);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclass).addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClass);
+		Path oldPath = createJar("identical_old", ctSuperclass, ctClass);
+		Path newPath = createJar("identical_new", ctSuperclass, ctClass);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(jApiClasses.size(), is(2));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Api");
+		assertThat(jApiClass.getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(jApiClass.getSuperclass().getNewSuperclassName().get(), is("japicmp.impl.Base"));
+		ComparisonMetrics metrics = jarArchiveComparator.getMetrics();
+		assertThat(metrics.getClassesParsed(), is(2L));
+		assertThat(metrics.getIdenticalClassPairs(), is(2L));
+		assertThat(metrics.getClassPairs(), is(2L));
+	}
+
+	@Test
+	public void testIdenticalClassWithChangedSuperclassIsComparedWithSeparateClassPaths() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctSuperclassOld = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctSuperclassOld);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassOld).addToClassPool(oldClassPool);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctSuperclassNew = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(newClassPool);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclassNew).addToClassPool(newClassPool);
+		Path oldPath = createJar("identical_separate_old", ctSuperclassOld, ctClassOld);
+		Path newPath = createJar("identical_separate_new", ctSuperclassNew, ctClassNew);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(jarArchiveComparator.getMetrics().getClassPairs(), is(2L));
+		assertThat(jarArchiveComparator.getMetrics().getIdenticalClassPairs(), is(0L));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Api");
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+	}
+
+	@Test
+	public void testClassWithChangedMethodBodyHasSameApiFingerprint() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctClassOld);
+		CtClass ctOtherOld = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctOtherOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 2;").addToClass(ctClassNew);
+		CtClass ctOtherNew = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.longType).name("method").body("return 1L;").addToClass(ctOtherNew);
+		Path oldPath = createJar("fingerprint_old", ctClassOld, ctOtherOld);
+		Path newPath = createJar("fingerprint_new", ctClassNew, ctOtherNew);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Api");
+		assertThat(jApiClass.getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(jApiClass.getOldApiFingerprint().isPresent(), is(true));
+		assertThat(jApiClass.getOldApiFingerprint().get(), is(jApiClass.getNewApiFingerprint().get()));
+		JApiClass jApiClassOther = getJApiClass(jApiClasses, "japicmp.api.Other");
+		assertThat(jApiClassOther.getChangeStatus(), is(JApiChangeStatus.MODIFIED));
+		assertThat(jApiClassOther.getOldApiFingerprint().get().equals(jApiClassOther.getNewApiFingerprint().get()), is(false));
+		assertThat(jarArchiveComparator.getMetrics().getIdenticalClassPairs(), is(0L));
+		assertThat(jarArchiveComparator.getMetrics().getSameApiClassPairs(), is(1L));
+	}
+
+	@Test
+	public void testClassPathJarFilesAreIndexedInClassPathOrder() throws Exception {
+		ClassPool firstClassPool = new ClassPool(true);
+		CtClass ctFirst = CtClassBuilder.create().name("japicmp.lib.Lib").addToClassPool(firstClassPool);
+		CtClass ctOnlyFirst = CtClassBuilder.create().name("japicmp.lib.OnlyFirst").addToClassPool(firstClassPool);
+		ClassPool secondClassPool = new ClassPool(true);
+		CtClass ctSecond = CtClassBuilder.create().name("japicmp.lib.Lib").addToClassPool(secondClassPool);
+		CtClass ctOnlySecond = CtClassBuilder.create().name("japicmp.lib.OnlySecond").addToClassPool(secondClassPool);
+		Path firstPath = createJar("classpath_first", ctFirst, ctOnlyFirst);
+		Path secondPath = createJar("classpath_second", ctSecond, ctOnlySecond);
+		for (int threads : new int[]{1, 4}) {
+			JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+			options.setThreads(threads);
+			options.getClassPathEntries().add(firstPath.toString());
+			options.getClassPathEntries().add(secondPath.toString());
+			JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+			ClassPool classPool = jarArchiveComparator.getCommonClassPool();
+			assertThat(classPool.find("japicmp.lib.Lib").toString(), endsWith("_classpath_first.jar!/japicmp/lib/Lib.class"));
+			assertThat(classPool.get("japicmp.lib.OnlyFirst").getName(), is("japicmp.lib.OnlyFirst"));
+			assertThat(classPool.get("japicmp.lib.OnlySecond").getName(), is("japicmp.lib.OnlySecond"));
+			assertThat(classPool.find("japicmp.lib.Missing") == null, is(true));
+			assertThat(classPool.find("java.lang.Object") != null, is(true));
+		}
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.getClassPathEntries().add(firstPath.toString());
+		options.getClassPathEntries().add(jarPath("does_not_exist").toString());
+		try {
+			new JarArchiveComparator(options);
+			fail("Expected exception for missing classpath entry.");
+		} catch (JApiCmpException e) {
+			assertThat(e.getReason(), is(JApiCmpException.Reason.ClassLoading));
+			assertThat(e.getMessage(), containsString("_does_not_exist.jar"));
+		}
+	}
+
+	@Test
+	public void testSeparateClassPathsShareCommonPrefix() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctShared = CtClassBuilder.create().name("japicmp.lib.Shared").addToClassPool(classPool);
+		CtClass ctOwn = CtClassBuilder.create().name("japicmp.lib.Own").addToClassPool(classPool);
+		Path sharedPath = createJar("shared_classpath", ctShared);
+		Path oldOwnPath = createJar("shared_own_old", ctOwn);
+		CtClass ctOwnNew = CtClassBuilder.create().name("japicmp.lib.Own").addToClassPool(new ClassPool(true));
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctOwnNew);
+		Path newOwnPath = createJar("shared_own_new", ctOwnNew);
+		CtClass ctLater = CtClassBuilder.create().name("japicmp.lib.Later").addToClassPool(classPool);
+		Path laterPath = createJar("shared_later", ctLater);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		options.getOldClassPath().addAll(Arrays.asList(sharedPath.toString(), oldOwnPath.toString(), laterPath.toString()));
+		options.getNewClassPath().addAll(Arrays.asList(sharedPath.toString(), newOwnPath.toString(), laterPath.toString()));
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		ClassPool oldClassPool = jarArchiveComparator.getOldClassPool();
+		ClassPool newClassPool = jarArchiveComparator.getNewClassPool();
+		assertThat(oldClassPool.get("japicmp.lib.Shared") == newClassPool.get("japicmp.lib.Shared"), is(true));
+		assertThat(oldClassPool.get("java.lang.Object") == newClassPool.get("java.lang.Object"), is(true));
+		assertThat(oldClassPool.get("japicmp.lib.Later") == newClassPool.get("japicmp.lib.Later"), is(false));
+		assertThat(oldClassPool.get("japicmp.lib.Own").getDeclaredMethods().length, is(0));
+		assertThat(newClassPool.get("japicmp.lib.Own").getDeclaredMethods().length, is(1));
+		assertThat(jarArchiveComparator.getOldClassPathAsString(), containsString("_shared_own_old.jar"));
+		assertThat(jarArchiveComparator.getNewClassPathAsString(), containsString("_shared_own_new.jar"));
+	}
+
+	@Test
+	public void testSeparateClassPathsKeepClassPathOrder() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctDuplicate = CtClassBuilder.create().name("japicmp.lib.Duplicate").addToClassPool(classPool);
+		Path sharedPath = createJar("order_shared", ctDuplicate);
+		ClassPool versionClassPool = new ClassPool(true);
+		CtClass ctDuplicateOfVersion = CtClassBuilder.create().name("japicmp.lib.Duplicate").addToClassPool(versionClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctDuplicateOfVersion);
+		CtClass ctSystemClass = CtClassBuilder.create().name(Optional.class.getName()).addToClassPool(versionClassPool);
+		CtMethodBuilder.create().publicAccess().name("versionOnly").addToClass(ctSystemClass);
+		Path versionPath = createJar("order_version", ctDuplicateOfVersion, ctSystemClass);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		options.getOldClassPath().addAll(Arrays.asList(sharedPath.toString(), versionPath.toString()));
+		options.getNewClassPath().add(sharedPath.toString());
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		ClassPool oldClassPool = jarArchiveComparator.getOldClassPool();
+		ClassPool newClassPool = jarArchiveComparator.getNewClassPool();
+		assertThat(oldClassPool.get("japicmp.lib.Duplicate").getDeclaredMethods().length, is(0));
+		assertThat(oldClassPool.get("japicmp.lib.Duplicate") == newClassPool.get("japicmp.lib.Duplicate"), is(true));
+		assertThat(oldClassPool.get(Optional.class.getName()).getDeclaredMethods().length, is(1));
+		assertThat(newClassPool.get(Optional.class.getName()).getDeclaredMethods().length > 1, is(true));
+	}
+
+	@Test
+	public void testCloseClosesClassPathJarFiles() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctLoaded = CtClassBuilder.create().name("japicmp.lib.Loaded").addToClassPool(classPool);
+		CtClass ctNotLoaded = CtClassBuilder.create().name("japicmp.lib.NotLoaded").addToClassPool(classPool);
+		Path classPathJar = createJar("close_classpath", ctLoaded, ctNotLoaded);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		options.getOldClassPath().add(classPathJar.toString());
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		ClassPool oldClassPool = jarArchiveComparator.getOldClassPool();
+		assertThat(oldClassPool.get("japicmp.lib.Loaded").getName(), is("japicmp.lib.Loaded"));
+		jarArchiveComparator.close();
+		try {
+			oldClassPool.get("japicmp.lib.NotLoaded").getDeclaredMethods();
+			fail("Expected exception because the jar file has been closed.");
+		} catch (RuntimeException e) {
+			assertThat(e.getMessage(), containsString("closed"));
+		}
+	}
+
+	@Test
+	public void testDetachedComparisonReleasesClassPools() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctNotLoaded = CtClassBuilder.create().name("japicmp.lib.NotLoaded").addToClassPool(classPool);
+		Path classPathJar = createJar("detach_classpath", ctNotLoaded);
+		CtClass ctApi = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(classPool);
+		Path apiJar = createJar("detach_api", ctApi);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		options.getOldClassPath().add(classPathJar.toString());
+		options.setDetachResult(true);
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options)) {
+			ClassPool oldClassPool = jarArchiveComparator.getOldClassPool();
+			jarArchiveComparator.compare(toJApiCmpArchive(apiJar.toFile()), toJApiCmpArchive(apiJar.toFile()));
+			try {
+				oldClassPool.get("japicmp.lib.NotLoaded").getDeclaredMethods();
+				fail("Expected exception because the jar file of the released ClassPool has been closed.");
+			} catch (RuntimeException e) {
+				assertThat(e.getMessage(), containsString("closed"));
+			}
+			ClassPool newOldClassPool = jarArchiveComparator.getOldClassPool();
+			assertThat(newOldClassPool == oldClassPool, is(false));
+			assertThat(newOldClassPool.get("japicmp.lib.NotLoaded").getDeclaredMethods().length, is(0));
+		}
+	}
+
+	@Test
+	public void testResultIsFrozen() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassOld);
+		CtMethodBuilder.create().publicAccess().name("removedMethod").addToClass(ctClassOld);
+		CtMethodBuilder.create().publicAccess().name("aMethod").addToClass(ctClassOld);
+		CtClass ctOtherOld = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("otherMethod").addToClass(ctOtherOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+		CtMethodBuilder.create().publicAccess().name("aMethod").addToClass(ctClassNew);
+		CtClass ctOtherNew = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("otherMethod").addToClass(ctOtherNew);
+		Path oldPath = createJar("frozen_old", ctClassOld, ctOtherOld);
+		Path newPath = createJar("frozen_new", ctClassNew, ctOtherNew);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Api");
+		assertThat(jApiClass.isFrozen(), is(true));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		JApiMethod removedMethod = getJApiMethod(jApiClass.getMethods(), "removedMethod");
+		assertThat(removedMethod.isBinaryCompatible(), is(false));
+		try {
+			removedMethod.getCompatibilityChanges().clear();
+			fail("Expected exception for modification of frozen model.");
+		} catch (UnsupportedOperationException e) {
+			assertThat(removedMethod.isBinaryCompatible(), is(false));
+		}
+		try {
+			jApiClass.getMethods().add(removedMethod);
+			fail("Expected exception for modification of frozen model.");
+		} catch (JApiCmpException e) {
+			assertThat(e.getReason(), is(JApiCmpException.Reason.IllegalState));
+		}
+		try {
+			jApiClass.getMethods().set(0, getJApiMethod(getJApiClass(jApiClasses, "japicmp.api.Other").getMethods(), "otherMethod"));
+			fail("Expected exception for modification of frozen model.");
+		} catch (JApiCmpException e) {
+			assertThat(e.getReason(), is(JApiCmpException.Reason.IllegalState));
+		}
+		OutputFilter.sortClassesAndMethods(jApiClasses);
+		assertThat(jApiClass.getMethods().get(0).getName(), is("aMethod"));
+		assertThat(jApiClass.getMethods().size(), is(3));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		assertThat(jApiClass.getMethods().remove(removedMethod), is(true));
+		assertThat(jApiClass.isBinaryCompatible(), is(true));
+		assertThat(jApiClass.isSourceCompatible(), is(true));
+	}
+
+	@Test
+	public void testOnlyModificationsOmitsUnchangedClasses() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctBaseOld = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctBaseOld);
+		CtMethodBuilder.create().publicAccess().name("removedMethod").addToClass(ctBaseOld);
+		CtClass ctSubOld = CtClassBuilder.create().name("japicmp.api.Sub").withSuperclass(ctBaseOld).addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("subMethod").addToClass(ctSubOld);
+		CtClass ctOtherOld = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("otherMethod").addToClass(ctOtherOld);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctBaseNew = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctBaseNew);
+		CtClass ctSubNew = CtClassBuilder.create().name("japicmp.api.Sub").withSuperclass(ctBaseNew).addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("subMethod").addToClass(ctSubNew);
+		CtClass ctOtherNew = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("otherMethod").addToClass(ctOtherNew);
+		Path oldPath = createJar("only_modifications_old", ctBaseOld, ctSubOld, ctOtherOld);
+		Path newPath = createJar("only_modifications_new", ctBaseNew, ctSubNew, ctOtherNew);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setOnlyModifications(true);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+		assertThat(jApiClasses.size(), is(2));
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.api.Base");
+		assertThat(jApiClass.getMethods().size(), is(2));
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(getJApiMethod(jApiClass.getMethods(), "removedMethod").getChangeStatus(), is(JApiChangeStatus.REMOVED));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		jApiClass = getJApiClass(jApiClasses, "japicmp.api.Sub");
+		assertThat(jApiClass.getMethods().size(), is(1));
+		assertThat(jApiClass.getCompatibilityChanges(), hasItem(JApiCompatibilityChange.METHOD_REMOVED_IN_SUPERCLASS));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+	}
+
+	@Test
+	public void testFindIncompatibilityStopsAtRemovedMethod() throws Exception {
+		ClassPool oldClassPool = new ClassPool(true);
+		CtClass ctBaseOld = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(oldClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctBaseOld);
+		CtMethodBuilder.create().publicAccess().name("removedMethod").addToClass(ctBaseOld);
+		CtClass ctSubOld = CtClassBuilder.create().name("japicmp.api.Sub").withSuperclass(ctBaseOld).addToClassPool(oldClassPool);
+		CtClass ctOtherOld = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(oldClassPool);
+		ClassPool newClassPool = new ClassPool(true);
+		CtClass ctBaseNew = CtClassBuilder.create().name("japicmp.api.Base").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctBaseNew);
+		CtClass ctSubNew = CtClassBuilder.create().name("japicmp.api.Sub").withSuperclass(ctBaseNew).addToClassPool(newClassPool);
+		CtClass ctOtherNew = CtClassBuilder.create().name("japicmp.api.Other").addToClassPool(newClassPool);
+		CtMethodBuilder.create().publicAccess().name("addedMethod").addToClass(ctOtherNew);
+		Path oldPath = createJar("find_incompatibility_old", ctBaseOld, ctSubOld, ctOtherOld);
+		Path newPath = createJar("find_incompatibility_new", ctBaseNew, ctSubNew, ctOtherNew);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		CompatibilityVerdict verdict = jarArchiveComparator.findIncompatibility(Collections.singletonList(toJApiCmpArchive(oldPath.toFile())),
+			Collections.singletonList(toJApiCmpArchive(newPath.toFile())), CompatibilityVerdict.BINARY_INCOMPATIBLE);
+		assertThat(verdict.isCompatible(), is(false));
+		assertThat(verdict.getChange().get(), is(JApiCompatibilityChange.METHOD_REMOVED));
+		assertThat(((JApiMethod) verdict.getElement().get()).getName(), is("removedMethod"));
+		assertThat(verdict.getDescription(), is("japicmp.api.Base.removedMethod():METHOD_REMOVED"));
+		verdict = jarArchiveComparator.findIncompatibility(Collections.singletonList(toJApiCmpArchive(oldPath.toFile())),
+			Collections.singletonList(toJApiCmpArchive(oldPath.toFile())), CompatibilityVerdict.BINARY_OR_SOURCE_INCOMPATIBLE);
+		assertThat(verdict.isCompatible(), is(true));
+		assertThat(verdict.getEvaluatedClasses(), is(0));
+	}
+
+	@Test
+	public void testCompareWithNewVersions() throws Exception {
+		Path[] paths = createVersionsForBatchComparison("batch");
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(new JarArchiveComparatorOptions());
+		List<List<JApiClass>> results = jarArchiveComparator.compareWithNewVersions(Collections.singletonList(toJApiCmpArchive(paths[0].toFile())),
+			Arrays.asList(Collections.singletonList(toJApiCmpArchive(paths[1].toFile())), Collections.singletonList(toJApiCmpArchive(paths[2].toFile()))));
+		assertThat(results.size(), is(2));
+		JApiClass jApiClass = getJApiClass(results.get(0), "japicmp.api.Api");
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(getJApiMethod(jApiClass.getMethods(), "addedMethod").getChangeStatus(), is(JApiChangeStatus.NEW));
+		assertThat(jApiClass.isBinaryCompatible(), is(true));
+		jApiClass = getJApiClass(results.get(1), "japicmp.api.Api");
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.REMOVED));
+		assertThat(jApiClass.getSuperclass().getOldSuperclassName().get(), is("japicmp.impl.Base"));
+		assertThat(jApiClass.getSuperclass().getNewSuperclassName().get(), is("japicmp.impl.Base"));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		assertThat(jarArchiveComparator.getMetrics().getClassesParsed(), is(6L));
+	}
+
+	@Test
+	public void testCompareWithOldVersionsAndSeparateClassPaths() throws Exception {
+		Path[] paths = createVersionsForBatchComparison("batch_separate");
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setClassPathMode(JarArchiveComparatorOptions.ClassPathMode.TWO_SEPARATE_CLASSPATHS);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<List<JApiClass>> results = jarArchiveComparator.compareWithOldVersions(Arrays.asList(Collections.singletonList(toJApiCmpArchive(paths[1].toFile())),
+			Collections.singletonList(toJApiCmpArchive(paths[2].toFile()))), Collections.singletonList(toJApiCmpArchive(paths[0].toFile())));
+		assertThat(results.size(), is(2));
+		JApiClass jApiClass = getJApiClass(results.get(0), "japicmp.api.Api");
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+		assertThat(getJApiMethod(jApiClass.getMethods(), "addedMethod").getChangeStatus(), is(JApiChangeStatus.REMOVED));
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		jApiClass = getJApiClass(results.get(1), "japicmp.api.Api");
+		assertThat(getJApiMethod(jApiClass.getMethods(), "method").getChangeStatus(), is(JApiChangeStatus.NEW));
+		assertThat(jApiClass.isBinaryCompatible(), is(true));
+		assertThat(jarArchiveComparator.getMetrics().getClassesParsed(), is(6L));
+	}
+
+	@Test
+	public void testAsmBytecodeReaderHasSameResultAsJavassist() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctOptional = classPool.get(Optional.class.getName());
+		CtClass ctChangeStatus = classPool.get(JApiChangeStatus.class.getName());
+		CtClass ctSuperclassCache = classPool.get(SuperclassCache.class.getName());
+		int lineNumber = ctSuperclassCache.getDeclaredMethod("getMisses").getMethodInfo().getLineNumber(0);
+		assertThat(lineNumber > 0, is(true));
+		Path oldPath = createJar("asm_old", ctOptional, ctChangeStatus, ctSuperclassCache);
+		Path newPath = createJar("asm_new", ctOptional, ctChangeStatus);
+		List<String> expected = describe(compareWithBytecodeReader(oldPath, newPath, JarArchiveComparatorOptions.BytecodeReader.JAVASSIST, true));
+		assertThat(expected.toString(), containsString("getMisses:REMOVED:" + lineNumber + ":n.a."));
+		assertThat(describe(compareWithBytecodeReader(oldPath, newPath, JarArchiveComparatorOptions.BytecodeReader.ASM, true)), is(expected));
+		List<String> withoutLineNumbers = describe(compareWithBytecodeReader(oldPath, newPath, JarArchiveComparatorOptions.BytecodeReader.ASM, false));
+		assertThat(withoutLineNumbers.size(), is(expected.size()));
+		assertThat(withoutLineNumbers.toString(), containsString("getMisses:REMOVED:n.a.:n.a."));
+	}
+
+	@Test
+	public void testAsmBytecodeReaderFallsBackToJavassistForUnsupportedClassFileVersions() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctJava11 = CtClassBuilder.create().name("japicmp.api.Java11").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctJava11);
+		ctJava11.getClassFile().setMajorVersion(55);
+		CtClass ctUnsupported = CtClassBuilder.create().name("japicmp.api.Unsupported").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("method").body("return 1;").addToClass(ctUnsupported);
+		ctUnsupported.getClassFile().setMajorVersion(99);
+		Path oldPath = createJar("asm_version_old", ctJava11, ctUnsupported);
+		Path newPath = createJar("asm_version_new");
+		List<String> expected = describe(compareWithBytecodeReader(oldPath, newPath, JarArchiveComparatorOptions.BytecodeReader.JAVASSIST, true));
+		assertThat(expected.toString(), containsString("japicmp.api.Java11:REMOVED:[CLASS_REMOVED]:55:"));
+		assertThat(expected.toString(), containsString("japicmp.api.Unsupported:REMOVED:[CLASS_REMOVED]:99:"));
+		assertThat(describe(compareWithBytecodeReader(oldPath, newPath, JarArchiveComparatorOptions.BytecodeReader.ASM, true)), is(expected));
+	}
+
+	@Test
+	public void testParallelLoadingHasSameResultAsSequential() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		List<CtClass> ctClasses = new ArrayList<>();
+		for (Class<?> clazz : Arrays.asList(Optional.class, JApiChangeStatus.class, ClassesComparator.class, ComparisonMetrics.class, SuperclassCache.class, SupertypeGraph.class)) {
+			ctClasses.add(classPool.get(clazz.getName()));
+		}
+		Path oldPath = createJar("parallel_old", ctClasses.toArray(new CtClass[ctClasses.size()]));
+		Path newPath = createJar("parallel_new", ctClasses.subList(0, ctClasses.size() - 1).toArray(new CtClass[ctClasses.size() - 1]));
+		List<String> expected = null;
+		long expectedClassesParsed = 0;
+		for (int threads : new int[]{1, 4}) {
+			JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+			options.setAccessModifier(AccessModifier.PRIVATE);
+			options.setThreads(threads);
+			options.getFilters().getExcludes().add(new JavadocLikePackageFilter("japicmp.util", false));
+			JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+			List<String> actual = describe(jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile())));
+			if (expected == null) {
+				expected = actual;
+				expectedClassesParsed = jarArchiveComparator.getMetrics().getClassesParsed();
+				assertThat(expected.toString(), containsString("japicmp.cmp.SupertypeGraph:REMOVED"));
+				assertThat(expected.toString().contains("japicmp.util.Optional"), is(false));
+			} else {
+				assertThat(actual, is(expected));
+				assertThat(jarArchiveComparator.getMetrics().getClassesParsed(), is(expectedClassesParsed));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelComparisonWithSharedHierarchyHasSameResultAsSequential() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctInterface = CtInterfaceBuilder.create().name("japicmp.lib.Interface").addToClassPool(classPool);
+		List<CtClass> ctBaseClasses = new ArrayList<>();
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.lib.Base0").implementsInterface(ctInterface).addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctSuperclass);
+		ctBaseClasses.add(ctSuperclass);
+		for (int i = 1; i < 150; i++) {
+			ctSuperclass = CtClassBuilder.create().name("japicmp.lib.Base" + i).withSuperclass(ctSuperclass).addToClassPool(classPool);
+			ctBaseClasses.add(ctSuperclass);
+		}
+		ctBaseClasses.add(ctInterface);
+		Path classPath = createJar("shared_hierarchy_classpath", ctBaseClasses.toArray(new CtClass[ctBaseClasses.size()]));
+		List<CtClass> ctClassesOld = new ArrayList<>();
+		List<CtClass> ctClassesNew = new ArrayList<>();
+		ClassPool oldClassPool = new ClassPool(true);
+		ClassPool newClassPool = new ClassPool(true);
+		oldClassPool.appendClassPath(classPath.toString());
+		newClassPool.appendClassPath(classPath.toString());
+		for (int i = 0; i < 200; i++) {
+			CtClass ctClassOld = CtClassBuilder.create().name("japicmp.api.Api" + i).withSuperclass(oldClassPool.get("japicmp.lib.Base" + (i % 150)))
+				.implementsInterface(oldClassPool.get("japicmp.lib.Interface")).addToClassPool(oldClassPool);
+			CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassOld);
+			ctClassesOld.add(ctClassOld);
+			CtClass ctClassNew = CtClassBuilder.create().name("japicmp.api.Api" + i).withSuperclass(newClassPool.get("japicmp.lib.Base" + (149 - i % 150)))
+				.addToClassPool(newClassPool);
+			if (i % 2 == 0) {
+				CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClassNew);
+			}
+			ctClassesNew.add(ctClassNew);
+		}
+		Path oldPath = createJar("shared_hierarchy_old", ctClassesOld.toArray(new CtClass[ctClassesOld.size()]));
+		Path newPath = createJar("shared_hierarchy_new", ctClassesNew.toArray(new CtClass[ctClassesNew.size()]));
+		List<String> expected = null;
+		for (int threads : new int[]{1, 8}) {
+			JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+			options.setThreads(threads);
+			options.getClassPathEntries().add(classPath.toString());
+			JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+			List<JApiClass> jApiClasses = jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+			List<String> actual = describe(jApiClasses);
+			for (JApiClass jApiClass : jApiClasses) {
+				actual.add(jApiClass.getFullyQualifiedName() + ":" + jApiClass.getSuperclass().getCompatibilityChanges() + ":" + jApiClass.getInterfaces().size());
+			}
+			if (expected == null) {
+				expected = actual;
+				assertThat(expected.toString(), containsString("japicmp.api.Api1:MODIFIED"));
+				assertThat(expected.toString(), containsString("method:REMOVED"));
+			} else {
+				assertThat(actual, is(expected));
+			}
+		}
+	}
+
+	@Test
+	public void testClassPoolDoesNotPinClassesOfClassPath() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.lib.Lib").addToClassPool(classPool);
+		CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClass);
+		Path classPathJar = createJar("unpinned_classpath", ctClass);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setThreads(4);
+		options.getClassPathEntries().add(classPathJar.toString());
+		try (JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options)) {
+			CtClass ctLib = jarArchiveComparator.getCommonClassPool().get("japicmp.lib.Lib");
+			assertThat(ctLib.isModified(), is(false));
+			assertThat(ctLib.getDeclaredMethods().length, is(1));
+		}
+	}
+
+	private static List<JApiClass> compareWithBytecodeReader(Path oldPath, Path newPath, JarArchiveComparatorOptions.BytecodeReader bytecodeReader, boolean readLineNumbers) {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setAccessModifier(AccessModifier.PRIVATE);
+		options.setIncludeSynthetic(true);
+		options.setBytecodeReader(bytecodeReader);
+		options.setReadLineNumbers(readLineNumbers);
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		return jarArchiveComparator.compare(toJApiCmpArchive(oldPath.toFile()), toJApiCmpArchive(newPath.toFile()));
+	}
+
+	private static List<String> describe(List<JApiClass> jApiClasses) {
+		List<String> lines = new ArrayList<>();
+		for (JApiClass jApiClass : jApiClasses) {
+			lines.add(jApiClass.getFullyQualifiedName() + ":" + jApiClass.getChangeStatus() + ":" + jApiClass.getCompatibilityChanges()
+				+ ":" + jApiClass.getClassFileFormatVersion().getMajorVersionOld() + ":" + jApiClass.getSerialVersionUid().getSerialVersionUidDefaultOld());
+			for (JApiMethod jApiMethod : jApiClass.getMethods()) {
+				lines.add(jApiMethod.getName() + ":" + jApiMethod.getChangeStatus() + ":" + jApiMethod.getOldLineNumberAsString() + ":" + jApiMethod.getNewLineNumberAsString()
+					+ ":" + jApiMethod.getCompatibilityChanges() + ":" + jApiMethod.getExceptions().size() + ":" + jApiMethod.getAnnotations().size() + ":" + jApiMethod.getModifiers().size());
+			}
+			for (JApiField jApiField : jApiClass.getFields()) {
+				lines.add(jApiField.getName() + ":" + jApiField.getChangeStatus() + ":" + jApiField.getType().getOldTypeOptional() + ":" + jApiField.getCompatibilityChanges());
+			}
+		}
+		return lines;
+	}
+
+	private Path jarPath(String name) {
+		return temporaryFolder.getRoot().toPath().resolve(JarArchiveComparatorTest.class.getSimpleName() + "_" + name + ".jar");
+	}
+
+	private Path createJar(String name, CtClass... ctClasses) throws Exception {
+		Path path = jarPath(name);
+		createJarFileWithPackagePaths(path, ctClasses);
+		return path;
+	}
+
+	private Path[] createVersionsForBatchComparison(String prefix) throws Exception {
+		Path[] paths = new Path[3];
+		for (int i = 0; i < paths.length; i++) {
+			ClassPool classPool = new ClassPool(true);
+			CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.impl.Base").addToClassPool(classPool);
+			CtClass ctClass = CtClassBuilder.create().name("japicmp.api.Api").withSuperclass(ctSuperclass).addToClassPool(classPool);
+			if (i < 2) {
+				CtMethodBuilder.create().publicAccess().name("method").addToClass(ctClass);
+			}
+			if (i == 1) {
+				CtMethodBuilder.create().publicAccess().name("addedMethod").addToClass(ctClass);
+			}
+			paths[i] = createJar(prefix + "_v" + (i + 1), ctSuperclass, ctClass);
+		}
+		return paths;
+	}
+}
@@ -397,4 +397,41 @@ public class MethodsTest {
 		assertThat(noParamFound, is(true));
 		assertThat(oneParamFound, is(true));
 	}
+
+	@Test
+	public void testClassWithManyOverloadsOneRemovedAndOneAdded() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		final CtClass[] parameterTypes = new CtClass[]{CtClass.intType, CtClass.longType, CtClass.doubleType, CtClass.booleanType};
+		List<JApiClass> jApiClasses = ClassesHelper.compareClasses(options, new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").addToClassPool(classPool);
+				for (int i = 0; i < parameterTypes.length - 1; i++) {
+					CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("set").parameter(parameterTypes[i]).body("return 42;").addToClass(ctClass);
+				}
+				return Collections.singletonList(ctClass);
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").addToClassPool(classPool);
+				for (int i = 1; i < parameterTypes.length; i++) {
+					CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("set").parameter(parameterTypes[i]).body("return 42;").addToClass(ctClass);
+				}
+				return Collections.singletonList(ctClass);
+			}
+		});
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.Test");
+		assertThat(jApiClass.getMethods().size(), is(4));
+		for (JApiMethod jApiMethod : jApiClass.getMethods()) {
+			String parameterType = jApiMethod.getParameters().get(0).getType();
+			if (parameterType.equals("int")) {
+				assertThat(jApiMethod.getChangeStatus(), is(JApiChangeStatus.REMOVED));
+			} else if (parameterType.equals("boolean")) {
+				assertThat(jApiMethod.getChangeStatus(), is(JApiChangeStatus.NEW));
+			} else {
+				assertThat(jApiMethod.getChangeStatus(), is(JApiChangeStatus.UNCHANGED));
+			}
+		}
+	}
 }
@@ -5,14 +5,22 @@ import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
 import japicmp.model.JApiCompatibilityChange;
 import japicmp.util.CtClassBuilder;
+import japicmp.util.CtFieldBuilder;
 import japicmp.util.CtInterfaceBuilder;
+import japicmp.util.CtMethodBuilder;
 import javassist.ClassPool;
 import javassist.CtClass;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static japicmp.util.Helper.getJApiClass;
 import static org.hamcrest.CoreMatchers.hasItem;
@@ -181,4 +189,121 @@ public class SuperclassTest {
 		jApiClass = getJApiClass(jApiClasses, "Intermediate");
 		assertThat(jApiClass.getChangeStatus(), is(JApiChangeStatus.REMOVED));
 	}
+
+	@Test
+	public void testSuperclassIsBuiltOnceForAllSubclasses() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		ClassPool classPool = jarArchiveComparator.getCommonClassPool();
+		CtClass ctClassBase = CtClassBuilder.create().name("Base").addToClassPool(classPool);
+		CtClass ctClassSub1 = CtClassBuilder.create().name("Sub1").withSuperclass(ctClassBase).addToClassPool(classPool);
+		CtClass ctClassSub2 = CtClassBuilder.create().name("Sub2").withSuperclass(ctClassBase).addToClassPool(classPool);
+		List<CtClass> classes = Arrays.asList(ctClassSub1, ctClassSub2);
+		List<JApiClass> jApiClasses = jarArchiveComparator.compareClassLists(options, classes, classes);
+		SuperclassCache superclassCache = jarArchiveComparator.getSuperclassCache();
+		long misses = superclassCache.getMisses();
+		long hits = superclassCache.getHits();
+		JApiClass sub1 = getJApiClass(jApiClasses, "Sub1");
+		JApiClass sub2 = getJApiClass(jApiClasses, "Sub2");
+		JApiClass base1 = sub1.getSuperclass().getJApiClass().get();
+		JApiClass base2 = sub2.getSuperclass().getJApiClass().get();
+		assertThat(base1 == base2, is(true));
+		assertThat(base1.getFullyQualifiedName(), is("Base"));
+		assertThat(superclassCache.getMisses(), is(misses));
+		assertThat(superclassCache.getHits(), is(hits + 2));
+	}
+
+	@Test
+	public void testSuperclassOfEarlierComparisonIsKept() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		List<List<JApiClass>> results = new ArrayList<>();
+		for (String methodName : Arrays.asList("first", "second")) {
+			ClassPool classPool = new ClassPool(true);
+			CtClass ctClassBase = CtClassBuilder.create().name("Base").addToClassPool(classPool);
+			CtMethodBuilder.create().publicAccess().name(methodName).addToClass(ctClassBase);
+			List<CtClass> classes = Collections.singletonList(CtClassBuilder.create().name("Sub").withSuperclass(ctClassBase).addToClassPool(classPool));
+			results.add(jarArchiveComparator.compareClassLists(options, classes, classes));
+		}
+		JApiClass secondBase = getJApiClass(results.get(1), "Sub").getSuperclass().getJApiClass().get();
+		assertThat(secondBase.getMethods().get(0).getName(), is("second"));
+		JApiClass firstBase = getJApiClass(results.get(0), "Sub").getSuperclass().getJApiClass().get();
+		assertThat(firstBase.getMethods().get(0).getName(), is("first"));
+	}
+
+	@Test
+	public void testSuperclassIsBuiltOnceForConcurrentCallers() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		JarArchiveComparator jarArchiveComparator = new JarArchiveComparator(options);
+		ClassPool classPool = jarArchiveComparator.getCommonClassPool();
+		CtClass ctClassBase = CtClassBuilder.create().name("Base").addToClassPool(classPool);
+		List<CtClass> classes = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			classes.add(CtClassBuilder.create().name("Sub" + i).withSuperclass(ctClassBase).addToClassPool(classPool));
+		}
+		final List<JApiClass> jApiClasses = jarArchiveComparator.compareClassLists(options, classes, classes);
+		final SuperclassCache superclassCache = jarArchiveComparator.getSuperclassCache();
+		superclassCache.clear();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newFixedThreadPool(jApiClasses.size());
+		try {
+			List<Future<JApiClass>> futures = new ArrayList<>();
+			for (final JApiClass jApiClass : jApiClasses) {
+				futures.add(executorService.submit(new Callable<JApiClass>() {
+					@Override
+					public JApiClass call() throws Exception {
+						start.await();
+						return jApiClass.getSuperclass().getJApiClass().get();
+					}
+				}));
+			}
+			start.countDown();
+			JApiClass base = futures.get(0).get();
+			for (Future<JApiClass> future : futures) {
+				assertThat(future.get() == base, is(true));
+			}
+		} finally {
+			executorService.shutdown();
+		}
+		assertThat(superclassCache.getMisses(), is(1L));
+		assertThat(superclassCache.getHits(), is((long) jApiClasses.size() - 1));
+	}
+
+	@Test
+	public void testDetachedResultKeepsSuperclassNames() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setDetachResult(true);
+		List<JApiClass> jApiClasses = ClassesHelper.compareClasses(options, new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				CtClass ctClassSuper = CtClassBuilder.create().name("japicmp.Super").addToClassPool(classPool);
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").withSuperclass(ctClassSuper).addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("get").body("return 42;").addToClass(ctClass);
+				CtFieldBuilder.create().name("field").addToClass(ctClass);
+				return Arrays.asList(ctClass, ctClassSuper);
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				CtClass ctClassSuper = CtClassBuilder.create().name("japicmp.Super").addToClassPool(classPool);
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").withSuperclass(ctClassSuper).addToClassPool(classPool);
+				return Arrays.asList(ctClass, ctClassSuper);
+			}
+		});
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.Test");
+		assertThat(jApiClass.getChangeStatus(), is(JApiChangeStatus.MODIFIED));
+		assertThat(jApiClass.getOldClass().isPresent(), is(false));
+		assertThat(jApiClass.getNewClass().isPresent(), is(false));
+		assertThat(jApiClass.getMethods().get(0).getChangeStatus(), is(JApiChangeStatus.REMOVED));
+		assertThat(jApiClass.getMethods().get(0).getOldMethod().isPresent(), is(false));
+		assertThat(jApiClass.getMethods().get(0).getCompatibilityChanges(), hasItem(JApiCompatibilityChange.METHOD_REMOVED));
+		assertThat(jApiClass.getFields().get(0).getName(), is("field"));
+		assertThat(jApiClass.getFields().get(0).getOldFieldOptional().isPresent(), is(false));
+		assertThat(jApiClass.getSuperclass().getOldSuperclass().isPresent(), is(false));
+		assertThat(jApiClass.getSuperclass().getNewSuperclass().isPresent(), is(false));
+		assertThat(jApiClass.getSuperclass().getOldSuperclassName().get(), is("japicmp.Super"));
+		assertThat(jApiClass.getSuperclass().getNewSuperclassName().get(), is("japicmp.Super"));
+		assertThat(jApiClass.getSuperclass().getJApiClass().isPresent(), is(false));
+		assertThat(getJApiClass(jApiClasses, "japicmp.Super").getOldClass().isPresent(), is(false));
+	}
 }
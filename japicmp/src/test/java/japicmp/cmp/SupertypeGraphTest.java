@@ -0,0 +1,50 @@
+package japicmp.cmp;
+
+import japicmp.util.CtClassBuilder;
+import japicmp.util.CtInterfaceBuilder;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SupertypeGraphTest {
+
+	@Test
+	public void testInterfacesOfSuperclassesAndSuperInterfacesAreCollected() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctSuperInterface = CtInterfaceBuilder.create().name("japicmp.SuperInterface").addToClassPool(classPool);
+		CtClass ctInterface = CtInterfaceBuilder.create().name("japicmp.Interface").withSuperInterface(ctSuperInterface).addToClassPool(classPool);
+		CtClass ctOtherInterface = CtInterfaceBuilder.create().name("japicmp.OtherInterface").addToClassPool(classPool);
+		CtClass ctSuperclass = CtClassBuilder.create().name("japicmp.Superclass").implementsInterface(ctInterface).addToClassPool(classPool);
+		CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").withSuperclass(ctSuperclass).implementsInterface(ctOtherInterface).addToClassPool(classPool);
+		SupertypeGraph supertypeGraph = new SupertypeGraph();
+		for (int i = 0; i < 2; i++) {
+			Map<String, CtClass> interfaces = new HashMap<>();
+			supertypeGraph.collectInterfaces(ctClass, interfaces);
+			assertThat(interfaces.size(), is(3));
+			assertThat(interfaces.containsKey("japicmp.SuperInterface"), is(true));
+			assertThat(interfaces.containsKey("japicmp.Interface"), is(true));
+			assertThat(interfaces.containsKey("japicmp.OtherInterface"), is(true));
+		}
+		assertThat(supertypeGraph.isSerializable(ctClass), is(false));
+	}
+
+	@Test
+	public void testExceptionsAndSerializable() throws Exception {
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctCheckedException = CtClassBuilder.create().name("japicmp.CheckedException").withSuperclass(classPool.get("java.io.IOException")).addToClassPool(classPool);
+		CtClass ctRuntimeException = CtClassBuilder.create().name("japicmp.UncheckedException").withSuperclass(classPool.get("java.lang.IllegalStateException")).addToClassPool(classPool);
+		SupertypeGraph supertypeGraph = new SupertypeGraph();
+		assertThat(supertypeGraph.isCheckedException(ctCheckedException), is(true));
+		assertThat(supertypeGraph.isCheckedException(ctRuntimeException), is(false));
+		assertThat(supertypeGraph.isCheckedException(classPool.get("java.lang.Error")), is(false));
+		assertThat(supertypeGraph.isCheckedException(classPool.get("java.lang.Exception")), is(true));
+		assertThat(supertypeGraph.isSerializable(ctCheckedException), is(true));
+		assertThat(supertypeGraph.isSerializable(classPool.get("java.lang.Object")), is(false));
+	}
+}
@@ -20,6 +20,7 @@ import javassist.CtClass;
 import org.hamcrest.core.Is;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -1245,6 +1246,95 @@ public class CompatibilityChangesTest {
 		assertThat(jApiClass.isSourceCompatible(), is(true));
 	}
 
+	@Test
+	public void testOverloadedMethodPulledUpTwoLevels() throws Exception {
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		List<JApiClass> jApiClasses = ClassesHelper.compareClasses(options, new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				CtClass rootClass = CtClassBuilder.create().name("japicmp.Root").addToClassPool(classPool);
+				CtClass superClass = CtClassBuilder.create().name("japicmp.Superclass").withSuperclass(rootClass).addToClassPool(classPool);
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").withSuperclass(superClass).addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().returnType(CtClass.voidType).name("method").parameter(CtClass.intType).addToClass(ctClass);
+				CtMethodBuilder.create().publicAccess().returnType(CtClass.voidType).name("method").parameter(classPool.get("java.lang.String")).addToClass(ctClass);
+				return Arrays.asList(rootClass, superClass, ctClass);
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				CtClass rootClass = CtClassBuilder.create().name("japicmp.Root").addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().returnType(CtClass.voidType).name("method").parameter(CtClass.intType).addToClass(rootClass);
+				CtClass superClass = CtClassBuilder.create().name("japicmp.Superclass").withSuperclass(rootClass).addToClassPool(classPool);
+				CtClass ctClass = CtClassBuilder.create().name("japicmp.Test").withSuperclass(superClass).addToClassPool(classPool);
+				return Arrays.asList(rootClass, superClass, ctClass);
+			}
+		});
+		JApiClass jApiClass = getJApiClass(jApiClasses, "japicmp.Test");
+		assertThat(jApiClass.isBinaryCompatible(), is(false));
+		for (JApiMethod jApiMethod : jApiClass.getMethods()) {
+			boolean intParameter = jApiMethod.getParameters().get(0).getType().equals("int");
+			assertThat(jApiMethod.getCompatibilityChanges().contains(JApiCompatibilityChange.METHOD_REMOVED), is(!intParameter));
+		}
+		assertThat(jApiClass.getMethods().size(), is(2));
+	}
+
+	@Test
+	public void testParallelEvaluationHasSameResultAsSequentialEvaluation() throws Exception {
+		ClassesHelper.ClassesGenerator classesGenerator = new ClassesHelper.ClassesGenerator() {
+			@Override
+			public List<CtClass> createOldClasses(ClassPool classPool) throws Exception {
+				CtClass ctInterface = CtInterfaceBuilder.create().name("japicmp.Interface").addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().abstractMethod().returnType(CtClass.intType).name("removed").addToClass(ctInterface);
+				CtClass superclass = CtClassBuilder.create().name("japicmp.Superclass").addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().returnType(CtClass.voidType).name("method").addToClass(superclass);
+				CtFieldBuilder.create().type(CtClass.intType).name("field").addToClass(superclass);
+				List<CtClass> ctClasses = new ArrayList<>(Arrays.asList(ctInterface, superclass));
+				for (int i = 0; i < 20; i++) {
+					CtClass ctClass = CtClassBuilder.create().name("japicmp.Test" + i).withSuperclass(superclass).implementsInterface(ctInterface).addToClassPool(classPool);
+					CtMethodBuilder.create().publicAccess().returnType(CtClass.intType).name("removed").body("return 42;").addToClass(ctClass);
+					ctClasses.add(ctClass);
+				}
+				return ctClasses;
+			}
+
+			@Override
+			public List<CtClass> createNewClasses(ClassPool classPool) throws Exception {
+				CtClass ctInterface = CtInterfaceBuilder.create().name("japicmp.Interface").addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().abstractMethod().returnType(CtClass.intType).name("added").addToClass(ctInterface);
+				CtClass superclass = CtClassBuilder.create().name("japicmp.Superclass").abstractModifier().addToClassPool(classPool);
+				CtMethodBuilder.create().publicAccess().abstractMethod().returnType(CtClass.voidType).name("abstractMethod").addToClass(superclass);
+				List<CtClass> ctClasses = new ArrayList<>(Arrays.asList(ctInterface, superclass));
+				for (int i = 0; i < 20; i++) {
+					CtClass ctClass = CtClassBuilder.create().name("japicmp.Test" + i).withSuperclass(superclass).implementsInterface(ctInterface).addToClassPool(classPool);
+					if (i % 2 == 0) {
+						CtMethodBuilder.create().publicAccess().returnType(CtClass.voidType).name("method").addToClass(ctClass);
+					}
+					ctClasses.add(ctClass);
+				}
+				return ctClasses;
+			}
+		};
+		List<JApiClass> sequential = ClassesHelper.compareClasses(new JarArchiveComparatorOptions(), classesGenerator);
+		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
+		options.setThreads(4);
+		List<JApiClass> parallel = ClassesHelper.compareClasses(options, classesGenerator);
+		assertThat(parallel.size(), is(22));
+		assertThat(parallel.size(), is(sequential.size()));
+		for (int i = 0; i < sequential.size(); i++) {
+			JApiClass sequentialClass = sequential.get(i);
+			JApiClass parallelClass = parallel.get(i);
+			assertThat(parallelClass.getFullyQualifiedName(), is(sequentialClass.getFullyQualifiedName()));
+			assertThat(parallelClass.getCompatibilityChanges(), is(sequentialClass.getCompatibilityChanges()));
+			for (int j = 0; j < sequentialClass.getMethods().size(); j++) {
+				assertThat(parallelClass.getMethods().get(j).getCompatibilityChanges(), is(sequentialClass.getMethods().get(j).getCompatibilityChanges()));
+			}
+			for (int j = 0; j < sequentialClass.getFields().size(); j++) {
+				assertThat(parallelClass.getFields().get(j).getCompatibilityChanges(), is(sequentialClass.getFields().get(j).getCompatibilityChanges()));
+			}
+		}
+		assertThat(getJApiClass(parallel, "japicmp.Test1").getCompatibilityChanges(), hasItem(JApiCompatibilityChange.METHOD_ABSTRACT_ADDED_IN_SUPERCLASS));
+	}
+
 	@Test
 	public void testInterfaceImplementedBySuperclass() throws Exception {
 		JarArchiveComparatorOptions options = new JarArchiveComparatorOptions();
@@ -27,6 +27,15 @@ public class PackageFilterTest {
 		assertThat(pf.matches(createCtClassForPackage("de.test")), is(false));
 	}
 	
+	@Test
+	public void testMatchesClassName() {
+		JavadocLikePackageFilter pf = new JavadocLikePackageFilter("de.test.package", false);
+		assertThat(pf.matchesClassName("de.test.package.Test"), is(true));
+		assertThat(pf.matchesClassName("de.test.package.packageOne.Test$Inner"), is(true));
+		assertThat(pf.matchesClassName("de.test.Test"), is(false));
+		assertThat(pf.matchesClassName("Test"), is(false));
+	}
+
         @Test
         public void testWithoutWildcardExclusive() {
                 JavadocLikePackageFilter pf = new JavadocLikePackageFilter("de.test.package", true);
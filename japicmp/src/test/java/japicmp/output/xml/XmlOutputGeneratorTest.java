@@ -7,10 +7,13 @@ import japicmp.exception.JApiCmpException;
 import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
 import japicmp.model.JApiClassType;
+import japicmp.util.CtClassBuilder;
 import japicmp.util.Optional;
+import javassist.ClassPool;
 import javassist.CtClass;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -71,6 +74,76 @@ public class XmlOutputGeneratorTest {
 		generateHtmlReport(options);
 	}
 
+	@Test
+	public void testStreamToFiles() throws IOException {
+		Path xmlReportPath = Paths.get(System.getProperty("user.dir"), "target", XmlOutputGeneratorTest.class.getSimpleName() + "_stream.xml");
+		Path htmlReportPath = Paths.get(System.getProperty("user.dir"), "target", XmlOutputGeneratorTest.class.getSimpleName() + "_stream.html");
+		Files.deleteIfExists(xmlReportPath);
+		Files.deleteIfExists(htmlReportPath);
+		Options options = Options.newDefault();
+		options.setXmlOutputFile(Optional.of(xmlReportPath.toString()));
+		options.setHtmlOutputFile(Optional.of(htmlReportPath.toString()));
+		XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
+		xmlOutputGeneratorOptions.setStreamToFiles(true);
+		XmlOutputGenerator generator = new XmlOutputGenerator(createClasses(options), options, xmlOutputGeneratorOptions);
+		XmlOutput xmlOutput = generator.generate();
+		assertThat(xmlOutput.getXmlOutputStream().isPresent(), is(false));
+		assertThat(xmlOutput.getHtmlOutputStream().isPresent(), is(false));
+		List<File> filesWritten = XmlOutputGenerator.writeToFiles(options, xmlOutput);
+		assertThat(filesWritten.size(), is(2));
+		String xml = new String(Files.readAllBytes(xmlReportPath), Charset.forName("UTF-8"));
+		assertThat(xml.contains("<japicmp "), is(true));
+		assertThat(xml.contains("xsi:noNamespaceSchemaLocation=\"japicmp.xsd\""), is(true));
+		assertThat(xml.contains("<class "), is(true));
+		assertThat(xml.indexOf("xsi:noNamespaceSchemaLocation"), is(xml.lastIndexOf("xsi:noNamespaceSchemaLocation")));
+		assertThat(xml.contains("fullyQualifiedName=\"japicmp.Test\""), is(true));
+		assertThat(xml.trim().endsWith("</classes>\n</japicmp>"), is(true));
+		String html = new String(Files.readAllBytes(htmlReportPath), Charset.forName("UTF-8"));
+		assertThat(html.contains("japicmp.Test"), is(true));
+	}
+
+	@Test
+	public void testStreamToFilesWithoutXmlFile() throws IOException {
+		Path htmlReportPath = Paths.get(System.getProperty("user.dir"), "target", XmlOutputGeneratorTest.class.getSimpleName() + "_stream_only.html");
+		Files.deleteIfExists(htmlReportPath);
+		Options options = Options.newDefault();
+		options.setHtmlOutputFile(Optional.of(htmlReportPath.toString()));
+		XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
+		xmlOutputGeneratorOptions.setStreamToFiles(true);
+		XmlOutputGenerator generator = new XmlOutputGenerator(createClasses(options), options, xmlOutputGeneratorOptions);
+		XmlOutput xmlOutput = generator.generate();
+		assertThat(xmlOutput.getXmlFile().isPresent(), is(false));
+		assertThat(xmlOutput.getHtmlFile().get().getAbsolutePath(), is(htmlReportPath.toFile().getAbsolutePath()));
+		String html = new String(Files.readAllBytes(htmlReportPath), Charset.forName("UTF-8"));
+		assertThat(html.contains("japicmp.Test"), is(true));
+	}
+
+	@Test
+	public void testStreamToFilesIndentsClassesLikeDocumentInMemory() throws IOException {
+		Path xmlReportPath = Paths.get(System.getProperty("user.dir"), "target", XmlOutputGeneratorTest.class.getSimpleName() + "_stream_indentation.xml");
+		Files.deleteIfExists(xmlReportPath);
+		Options options = Options.newDefault();
+		options.setXmlOutputFile(Optional.of(xmlReportPath.toString()));
+		List<JApiClass> jApiClasses = createClasses(options);
+		jApiClasses.addAll(createClasses(options));
+		XmlOutput xmlOutputInMemory = new XmlOutputGenerator(jApiClasses, options, new XmlOutputGeneratorOptions()).generate();
+		String expected = new String(xmlOutputInMemory.getXmlOutputStream().get().toByteArray(), Charset.forName("UTF-8"));
+		XmlOutputGeneratorOptions xmlOutputGeneratorOptions = new XmlOutputGeneratorOptions();
+		xmlOutputGeneratorOptions.setStreamToFiles(true);
+		new XmlOutputGenerator(jApiClasses, options, xmlOutputGeneratorOptions).generate();
+		String xml = new String(Files.readAllBytes(xmlReportPath), Charset.forName("UTF-8"));
+		assertThat(xml.contains("\n        <class "), is(true));
+		assertThat(xml.substring(xml.indexOf("    <classes>")), is(expected.substring(expected.indexOf("    <classes>"))));
+	}
+
+	private List<JApiClass> createClasses(Options options) {
+		List<JApiClass> jApiClasses = new ArrayList<>();
+		JarArchiveComparatorOptions jarArchiveComparatorOptions = JarArchiveComparatorOptions.of(options);
+		JApiClassType classType = new JApiClassType(Optional.<JApiClassType.ClassType>absent(), Optional.<JApiClassType.ClassType>absent(), JApiChangeStatus.REMOVED);
+		jApiClasses.add(new JApiClass(new JarArchiveComparator(jarArchiveComparatorOptions), "japicmp.Test", Optional.<CtClass>absent(), Optional.of(CtClassBuilder.create().name("japicmp.Test").addToClassPool(new ClassPool(true))), JApiChangeStatus.NEW, classType));
+		return jApiClasses;
+	}
+
 	private void generateHtmlReport(Options options) {
 		List<JApiClass> jApiClasses = new ArrayList<>();
 		JarArchiveComparatorOptions jarArchiveComparatorOptions = JarArchiveComparatorOptions.of(options);
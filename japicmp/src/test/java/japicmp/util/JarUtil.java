@@ -14,11 +14,20 @@ import java.util.jar.Manifest;
 public class JarUtil {
 
 	public static void createJarFile(Path jarFileName, CtClass... ctClasses) throws IOException, CannotCompileException {
+		createJarFile(jarFileName, false, ctClasses);
+	}
+
+	public static void createJarFileWithPackagePaths(Path jarFileName, CtClass... ctClasses) throws IOException, CannotCompileException {
+		createJarFile(jarFileName, true, ctClasses);
+	}
+
+	private static void createJarFile(Path jarFileName, boolean withPackagePaths, CtClass... ctClasses) throws IOException, CannotCompileException {
 		Manifest manifest = new Manifest();
 		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
 		try (JarOutputStream jarStream = new JarOutputStream(new FileOutputStream(jarFileName.toString()), manifest)) {
 			for (CtClass ctClass : ctClasses) {
-				JarEntry entry = new JarEntry(ctClass.getSimpleName() + ".class");
+				String entryName = withPackagePaths ? ctClass.getName().replace('.', '/') : ctClass.getSimpleName();
+				JarEntry entry = new JarEntry(entryName + ".class");
 				jarStream.putNextEntry(entry);
 				byte[] bytecode = ctClass.toBytecode();
 				jarStream.write(bytecode, 0, bytecode.length);
@@ -94,4 +94,13 @@ public class MethodDescriptorParserTest {
 		assertThat(subject.getReturnType(), is("int"));
 		assertThat(subject.getParameters().size(), is(0));
 	}
+
+	@Test
+	public void testParsedDescriptorIsSharedBetweenParsers() {
+		subject.parse("(Ljava/lang/String;I)Ljava/lang/String;");
+		MethodDescriptorParser otherParser = new MethodDescriptorParser();
+		otherParser.parse("(Ljava/lang/String;I)Ljava/lang/String;");
+		assertThat(otherParser.getParameters() == subject.getParameters(), is(true));
+		assertThat(subject.getParameters().get(0) == subject.getReturnType(), is(true));
+	}
 }